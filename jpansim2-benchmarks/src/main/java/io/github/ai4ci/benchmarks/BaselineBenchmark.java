@@ -0,0 +1,61 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.ImmutableOutbreakBaseline;
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.benchmarks.SyntheticOutbreaks.Network;
+import io.github.ai4ci.flow.builders.DefaultModelBuilder;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * Baselining a synthetic outbreak with
+ * {@link io.github.ai4ci.flow.builders.DefaultOutbreakBaseliner}. The
+ * outbreak is built once, and the baseline recomputed on each invocation from
+ * an identically seeded sampler.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BaselineBenchmark {
+
+	@Param({ "10000", "100000" })
+	int size;
+
+	Outbreak outbreak;
+
+	DefaultModelBuilder builder;
+
+	@Benchmark
+	public ImmutableOutbreakBaseline baselineOutbreak() {
+		return this.builder.baselineOutbreak(
+				ImmutableOutbreakBaseline.builder(), this.outbreak,
+				Sampler.independent(1L)
+		);
+	}
+
+	@Setup
+	public void setup() {
+		this.outbreak = SyntheticOutbreaks
+				.build(this.size, Network.WATTS_STROGATZ);
+		this.builder = new DefaultModelBuilder();
+	}
+
+}
@@ -0,0 +1,141 @@
+package io.github.ai4ci.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the JSON results of a JMH run ({@code -rf json}) with those of an
+ * earlier baseline run.
+ *
+ * <p>
+ * Results are matched on the benchmark name and its parameters. The primary
+ * score is a regression if it is worse than the baseline by more than the
+ * threshold fraction: higher for the time based modes ({@code avgt},
+ * {@code sample}, {@code ss}) and lower for throughput ({@code thrpt}). If both
+ * runs were profiled with {@code -prof gc} the normalised allocation rate (bytes
+ * per operation) is compared in the same way, as higher is worse. Benchmarks
+ * that are only in one of the runs are ignored.
+ *
+ * @author Rob Challen
+ */
+public class BaselineComparison {
+
+	static final String ALLOCATION = "gc.alloc.rate.norm";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	/**
+	 * Read a JMH JSON result file.
+	 *
+	 * @param file the result file
+	 * @return the parsed results, keyed by benchmark and parameters
+	 * @throws IOException if the file cannot be read
+	 */
+	public static Map<String, JsonNode> read(File file) throws IOException {
+		return index(MAPPER.readTree(file));
+	}
+
+	/**
+	 * Index a JMH JSON result array by benchmark name and parameters.
+	 *
+	 * @param results the JSON array of results
+	 * @return the results keyed by benchmark and parameters
+	 */
+	public static Map<String, JsonNode> index(JsonNode results) {
+		var out = new LinkedHashMap<String, JsonNode>();
+		for (JsonNode result : results) { out.put(key(result), result); }
+		return out;
+	}
+
+	static String key(JsonNode result) {
+		var params = new TreeMap<String, String>();
+		result.path("params").fields().forEachRemaining(
+				e -> params.put(e.getKey(), e.getValue().asText())
+		);
+		return result.path("benchmark").asText()
+				+ (params.isEmpty() ? "" : params.toString());
+	}
+
+	private final double threshold;
+
+	/**
+	 * @param threshold the fractional change that is tolerated, e.g. 0.1 for
+	 *                  10%
+	 */
+	public BaselineComparison(double threshold) {
+		if (!(threshold >= 0)) {
+			throw new IllegalArgumentException(
+					"Threshold must be non negative: " + threshold
+			);
+		}
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Compare a run with a baseline.
+	 *
+	 * @param baseline the baseline results, from {@link #index(JsonNode)}
+	 * @param current  the current results, from {@link #index(JsonNode)}
+	 * @return a description of each regression, empty if there are none
+	 */
+	public List<String> compare(
+			Map<String, JsonNode> baseline, Map<String, JsonNode> current
+	) {
+		var out = new ArrayList<String>();
+		current.forEach((key, result) -> {
+			var base = baseline.get(key);
+			if (base == null) { return; }
+			var lowerIsBetter = !"thrpt".equals(result.path("mode").asText());
+			this.check(
+					out, key, base.path("primaryMetric"),
+					result.path("primaryMetric"), lowerIsBetter
+			);
+			var alloc = secondary(result, ALLOCATION);
+			var baseAlloc = secondary(base, ALLOCATION);
+			if (alloc != null && baseAlloc != null) {
+				this.check(out, key + " " + ALLOCATION, baseAlloc, alloc, true);
+			}
+		});
+		return out;
+	}
+
+	private void check(
+			List<String> out, String key, JsonNode base, JsonNode current,
+			boolean lowerIsBetter
+	) {
+		var b = base.path("score").asDouble(Double.NaN);
+		var c = current.path("score").asDouble(Double.NaN);
+		if (Double.isNaN(b) || Double.isNaN(c)) { return; }
+		var regressed = lowerIsBetter ? c > b * (1 + this.threshold)
+				: c < b * (1 - this.threshold);
+		if (regressed) {
+			out.add(
+					String.format(
+							"%s: %.4g %s (baseline %.4g, %+.1f%%)", key, c,
+							current.path("scoreUnit").asText(), b,
+							b == 0 ? Double.POSITIVE_INFINITY : (c / b - 1) * 100
+					)
+			);
+		}
+	}
+
+	// JMH prefixes the names of profiler metrics with a middle dot, so they
+	// are matched on their suffix.
+	private static JsonNode secondary(JsonNode result, String name) {
+		var fields = result.path("secondaryMetrics").fields();
+		while (fields.hasNext()) {
+			var e = fields.next();
+			if (e.getKey().endsWith(name)) { return e.getValue(); }
+		}
+		return null;
+	}
+
+}
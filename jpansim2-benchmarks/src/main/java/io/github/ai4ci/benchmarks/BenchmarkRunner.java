@@ -0,0 +1,90 @@
+package io.github.ai4ci.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. All arguments are passed to JMH, apart
+ * from:
+ *
+ * <ul>
+ * <li>{@code --baseline <file>}: the JSON results of an earlier run to compare
+ * with. The results of this run are written as JSON (to {@code jmh-result.json}
+ * unless {@code -rff} is given) and compared using
+ * {@link BaselineComparison}. The process exits with status 1 if any
+ * benchmark has regressed.</li>
+ * <li>{@code --threshold <fraction>}: the tolerated change, default 0.1.</li>
+ * </ul>
+ *
+ * <p>
+ * For example, to record a baseline with allocation rates and then check a
+ * later build against it:
+ *
+ * <pre>
+ * java -jar target/jpansim2-benchmarks.jar -prof gc -rf json -rff base.json
+ * java -jar target/jpansim2-benchmarks.jar -prof gc --baseline base.json --threshold 0.1
+ * </pre>
+ *
+ * @author Rob Challen
+ */
+public class BenchmarkRunner {
+
+	static final double DEFAULT_THRESHOLD = 0.1;
+
+	public static void main(String[] args) throws Exception {
+		File baseline = null;
+		var threshold = DEFAULT_THRESHOLD;
+		var jmhArgs = new ArrayList<String>();
+		for (var i = 0; i < args.length; i++) {
+			if ("--baseline".equals(args[i]) && i + 1 < args.length) {
+				baseline = new File(args[++i]);
+			} else if ("--threshold".equals(args[i]) && i + 1 < args.length) {
+				threshold = Double.parseDouble(args[++i]);
+			} else {
+				jmhArgs.add(args[i]);
+			}
+		}
+		var comparison = new BaselineComparison(threshold);
+
+		var cmd = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+		var opts = new OptionsBuilder().parent(cmd);
+		if (baseline != null) {
+			if (!baseline.canRead()) {
+				throw new IllegalArgumentException(
+						"Cannot read baseline: " + baseline
+				);
+			}
+			opts.resultFormat(ResultFormatType.JSON);
+			if (!cmd.getResult().hasValue()) { opts.result("jmh-result.json"); }
+		}
+		var options = opts.build();
+		new Runner(options).run();
+		if (baseline == null) { return; }
+
+		var regressions = comparison.compare(
+				BaselineComparison.read(baseline),
+				BaselineComparison.read(new File(options.getResult().get()))
+		);
+		if (regressions.isEmpty()) {
+			System.out.println(
+					"\nNo regressions against " + baseline + " at threshold "
+							+ threshold
+			);
+			return;
+		}
+		System.out.println(
+				"\nRegressions against " + baseline + " at threshold " + threshold
+						+ ":"
+		);
+		regressions.forEach(r -> System.out.println("  " + r));
+		System.exit(1);
+	}
+
+	private BenchmarkRunner() {}
+
+}
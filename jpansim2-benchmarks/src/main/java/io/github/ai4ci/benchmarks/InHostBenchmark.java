@@ -0,0 +1,93 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.config.inhost.InHostConfiguration;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.config.inhost.PhenomenologicalModel;
+import io.github.ai4ci.config.inhost.StochasticModel;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * One daily update of the in-host model of a thousand infected agents.
+ *
+ * <p>
+ * The agents are exposed to a unit dose and advanced a few days at setup, so
+ * that the updates are measured part way through an infection. The states are
+ * replaced by their updates so each invocation advances the cohort by a day.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InHostBenchmark {
+
+	static final int AGENTS = 1000;
+
+	@Param({ "phenomenological", "stochastic", "markov" })
+	String model;
+
+	Sampler rng;
+
+	InHostModelState<?>[] initial;
+
+	InHostModelState<?>[] states;
+
+	long updates;
+
+	@Setup
+	public void setup() {
+		InHostConfiguration inHost;
+		switch (this.model) {
+		case "stochastic":
+			inHost = StochasticModel.DEFAULT;
+			break;
+		case "markov":
+			inHost = MarkovStateModel.DEFAULT;
+			break;
+		default:
+			inHost = PhenomenologicalModel.DEFAULT;
+		}
+		var config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(inHost);
+		this.rng = Sampler.independent(1L);
+		this.initial = new InHostModelState<?>[AGENTS];
+		for (var i = 0; i < AGENTS; i++) {
+			InHostModelState<?> state = InHostModelState
+					.test(inHost, config, this.rng).update(this.rng, 1D, 0);
+			for (var d = 0; d < 3; d++) { state = state.update(this.rng, 0, 0); }
+			this.initial[i] = state;
+		}
+		this.states = this.initial.clone();
+	}
+
+	@Benchmark
+	public InHostModelState<?>[] update() {
+		// start again from the early infection every few weeks so that the
+		// cohort does not settle into recovery
+		if (++this.updates % 20 == 0) { this.states = this.initial.clone(); }
+		for (var i = 0; i < AGENTS; i++) {
+			this.states[i] = this.states[i].update(this.rng, 0, 0);
+		}
+		return this.states;
+	}
+
+}
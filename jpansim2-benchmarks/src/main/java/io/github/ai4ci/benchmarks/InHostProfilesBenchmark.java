@@ -0,0 +1,98 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.config.inhost.InHostConfiguration;
+import io.github.ai4ci.config.inhost.InHostProfiles;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.config.inhost.PhenomenologicalModel;
+import io.github.ai4ci.config.inhost.StochasticModel;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * Compares the batched in host profile generator, with the specialised kernel
+ * for each model, against the original serial loop.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InHostProfilesBenchmark {
+
+	/**
+	 * The serial implementation that {@link InHostProfiles} replaced, kept here
+	 * as the reference.
+	 */
+	static double[][] serialViralLoadProfile(
+			ExecutionConfiguration execConfig, int samples, int duration
+	) {
+		InHostConfiguration config = execConfig.getInHostConfiguration();
+		Sampler rng = Sampler.getSampler();
+		double[][] load = new double[samples][duration];
+		for (int n = 0; n < samples; n++) {
+			InHostModelState<?> state = InHostModelState
+					.test(config, execConfig, rng);
+			state = state.update(rng, 1D, 0);
+			for (int i = 0; i < duration; i++) {
+				load[n][i] = state.getNormalisedViralLoad();
+				state = state.update(rng, 0, 0);
+			}
+		}
+		return load;
+	}
+
+	@Param({ "phenomenological", "stochastic", "markov" })
+	String model;
+
+	@Param({ "100", "1000" })
+	int samples;
+
+	ExecutionConfiguration config;
+
+	@Benchmark
+	public double[][] batched() {
+		return InHostProfiles.simulate(this.config, this.samples, 100)
+				.getViralLoad();
+	}
+
+	@Benchmark
+	public double[][] serial() {
+		return serialViralLoadProfile(this.config, this.samples, 100);
+	}
+
+	@Setup
+	public void setup() {
+		InHostConfiguration inHost;
+		switch (this.model) {
+		case "stochastic":
+			inHost = StochasticModel.DEFAULT;
+			break;
+		case "markov":
+			inHost = MarkovStateModel.DEFAULT;
+			break;
+		default:
+			inHost = PhenomenologicalModel.DEFAULT;
+		}
+		this.config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(inHost);
+	}
+
+}
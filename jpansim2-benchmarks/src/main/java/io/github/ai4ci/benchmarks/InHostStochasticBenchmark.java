@@ -0,0 +1,100 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.statistics.distribution.BinomialDistribution;
+import org.apache.commons.statistics.distribution.PoissonDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.abm.inhost.InHostStochasticKernel;
+import io.github.ai4ci.abm.inhost.InHostStochasticState;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.config.inhost.StochasticModel;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * Compares the allocation free binomial and Poisson samplers with the commons
+ * statistics samplers they replaced, and a 100 day trajectory of the
+ * stochastic in-host model as immutable states and as a mutable kernel.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InHostStochasticBenchmark {
+
+	Sampler rng;
+
+	InHostStochasticState initial;
+
+	@Benchmark
+	public int binomial() {
+		return this.rng.binom(5000, 0.3) + this.rng.binom(20, 0.1);
+	}
+
+	@Benchmark
+	public int commonsBinomial() {
+		return BinomialDistribution.of(5000, 0.3).createSampler(this.rng)
+				.sample()
+				+ BinomialDistribution.of(20, 0.1).createSampler(this.rng)
+						.sample();
+	}
+
+	@Benchmark
+	public int commonsPoisson() {
+		return PoissonDistribution.of(1000).createSampler(this.rng).sample()
+				+ PoissonDistribution.of(3).createSampler(this.rng).sample();
+	}
+
+	@Benchmark
+	public double immutableUpdate() {
+		var state = this.initial.update(this.rng, 1D, 0);
+		var total = 0D;
+		for (var i = 0; i < 100; i++) {
+			total += state.getNormalisedViralLoad();
+			state = state.update(this.rng, 0, 0);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double kernelStep() {
+		var kernel = new InHostStochasticKernel(this.initial);
+		kernel.step(this.rng, 1D, 0);
+		var total = 0D;
+		for (var i = 0; i < 100; i++) {
+			total += kernel.getNormalisedViralLoad();
+			kernel.step(this.rng, 0, 0);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public int poisson() {
+		return this.rng.poisson(1000) + this.rng.poisson(3);
+	}
+
+	@Setup
+	public void setup() {
+		this.rng = Sampler.independent(1L);
+		var config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(StochasticModel.DEFAULT);
+		this.initial = (InHostStochasticState) InHostModelState
+				.test((StochasticModel) StochasticModel.DEFAULT, config, this.rng);
+	}
+
+}
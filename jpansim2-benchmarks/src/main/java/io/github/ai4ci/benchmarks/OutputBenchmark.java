@@ -0,0 +1,112 @@
+package io.github.ai4ci.benchmarks;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.benchmarks.SyntheticOutbreaks.Network;
+import io.github.ai4ci.output.CSVMapper;
+import io.github.ai4ci.output.ImmutableLineListDuckDB;
+import io.github.ai4ci.util.CSVUtil;
+import io.github.ai4ci.util.DuckDBUtil;
+
+/**
+ * Encoding one day of the line list of a ten thousand agent outbreak, as CSV
+ * rows and as DuckDB appender rows (into an in memory database). The mapping
+ * from the person states to line list records is measured separately.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputBenchmark {
+
+	Outbreak outbreak;
+
+	ImmutableLineListDuckDB[] rows;
+
+	CSVUtil<ImmutableLineListDuckDB> converter;
+
+	DuckDBConnection conn;
+
+	@Benchmark
+	public void csvRows(Blackhole bh) {
+		for (ImmutableLineListDuckDB row : this.rows) {
+			bh.consume(this.converter.row(row));
+		}
+	}
+
+	@Benchmark
+	public void duckDbRows() throws SQLException {
+		try (var appender = this.conn.createAppender(
+				DuckDBConnection.DEFAULT_SCHEMA, "linelist"
+		)) {
+			for (ImmutableLineListDuckDB row : this.rows) {
+				this.append(appender, this.converter.valuesOf(row));
+			}
+			appender.flush();
+		}
+		try (var stmt = this.conn.createStatement()) {
+			stmt.execute("DELETE FROM linelist");
+		}
+	}
+
+	private void append(DuckDBAppender appender, Object[] values)
+			throws SQLException {
+		appender.beginRow();
+		for (Object o : values) { DuckDBUtil.append(appender, o); }
+		appender.endRow();
+	}
+
+	@Benchmark
+	public ImmutableLineListDuckDB[] mapRows() {
+		return this.outbreakRows();
+	}
+
+	private ImmutableLineListDuckDB[] outbreakRows() {
+		return this.outbreak.getPeople().stream()
+				.map(p -> CSVMapper.INSTANCE.toCSV(p.getCurrentState()))
+				.toArray(ImmutableLineListDuckDB[]::new);
+	}
+
+	@Setup
+	public void setup() throws SQLException {
+		this.outbreak = SyntheticOutbreaks
+				.warm(10000, Network.WATTS_STROGATZ, 10);
+		this.rows = this.outbreakRows();
+		this.converter = new CSVUtil<>(ImmutableLineListDuckDB.class);
+		this.conn = (DuckDBConnection) DriverManager
+				.getConnection("jdbc:duckdb:");
+		try (var stmt = this.conn.createStatement()) {
+			stmt.execute(
+					DuckDBUtil.createSql(ImmutableLineListDuckDB.class, "linelist")
+			);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws SQLException {
+		this.conn.close();
+	}
+
+}
@@ -0,0 +1,125 @@
+package io.github.ai4ci.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.config.refdata.UKCensus.AgeGender;
+import io.github.ai4ci.config.refdata.UKCensus.Geography;
+import io.github.ai4ci.util.Repository;
+
+/**
+ * Reverse lookups in a {@link Repository}: the records of a large table that
+ * refer to one row of a small one. The tables are synthetic census data, fifty
+ * thousand age and gender counts over a thousand geographies, written to a
+ * temporary directory. An indexed lookup is compared with a scan of the large
+ * table, and the indexed lookup is also run from several threads sharing the
+ * same index.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	/** The geography each thread looks up next. */
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next;
+	}
+
+	static final int GEOGRAPHIES = 1000;
+	static final int ROWS = 50000;
+
+	Path dir;
+	Repository repo;
+	List<Geography> geographies;
+
+	@Setup
+	public void setup() throws IOException {
+		this.dir = Files.createTempDirectory("repository-benchmark");
+		Files.write(
+				this.dir.resolve("Geography.csv"),
+				Stream.concat(
+						Stream.of("id,name"),
+						IntStream.range(0, GEOGRAPHIES)
+								.mapToObj(i -> "G" + i + ",Area " + i)
+				).collect(Collectors.toList())
+		);
+		Files.write(
+				this.dir.resolve("AgeGender.csv"),
+				Stream.concat(
+						Stream.of("id,age,count,gender,geography,total"),
+						IntStream.range(0, ROWS).mapToObj(
+								i -> i + "," + (i % 90) + ",10,"
+										+ (i % 2 == 0 ? "Female" : "Male") + ",G"
+										+ (i * 7 % GEOGRAPHIES) + ",100"
+						)
+				).collect(Collectors.toList())
+		);
+		this.repo = Repository
+				.loadAll(this.dir, AgeGender.class, Geography.class);
+		this.geographies = this.repo.streamValues(Geography.class)
+				.collect(Collectors.toList());
+		// build the index outside the measurement
+		this.indexed(new Cursor());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (var files = Files.walk(this.dir)) {
+			for (var file : files.sorted(Comparator.reverseOrder())
+					.collect(Collectors.toList())) {
+				Files.delete(file);
+			}
+		}
+	}
+
+	private Geography next(Cursor cursor) {
+		cursor.next = (cursor.next + 1) % GEOGRAPHIES;
+		return this.geographies.get(cursor.next);
+	}
+
+	@Benchmark
+	public long indexed(Cursor cursor) {
+		return this.repo.findValues(
+				this.next(cursor), AgeGender.class, AgeGender::getGeography
+		).count();
+	}
+
+	@Benchmark @Threads(4)
+	public long indexedConcurrent(Cursor cursor) {
+		return this.indexed(cursor);
+	}
+
+	@Benchmark
+	public long scan(Cursor cursor) {
+		var geography = this.next(cursor);
+		return this.repo.streamValues(AgeGender.class)
+				.filter(a -> a.getGeography().equals(geography)).count();
+	}
+
+}
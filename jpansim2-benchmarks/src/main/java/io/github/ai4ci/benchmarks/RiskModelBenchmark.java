@@ -0,0 +1,52 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.riskmodel.RiskModel;
+import io.github.ai4ci.benchmarks.SyntheticOutbreaks.Network;
+
+/**
+ * One daily update of the risk models of a ten thousand agent outbreak, taken
+ * from a synthetic outbreak after a few days so that they have history.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RiskModelBenchmark {
+
+	RiskModel[] models;
+
+	@Setup
+	public void setup() {
+		this.models = SyntheticOutbreaks
+				.warm(10000, Network.WATTS_STROGATZ, 10).getPeople().stream()
+				.map(p -> p.getCurrentState().getRiskModel())
+				.toArray(RiskModel[]::new);
+	}
+
+	@Benchmark
+	public RiskModel[] update() {
+		var out = new RiskModel[this.models.length];
+		for (var i = 0; i < out.length; i++) {
+			out[i] = this.models[i].update();
+		}
+		return out;
+	}
+
+}
@@ -0,0 +1,78 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * The random draws made per agent per day.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamplerBenchmark {
+
+	Sampler rng;
+
+	@Benchmark
+	public boolean bern() {
+		return this.rng.bern(0.3);
+	}
+
+	@Benchmark
+	public int binomLarge() {
+		return this.rng.binom(5000, 0.3);
+	}
+
+	@Benchmark
+	public int binomSmall() {
+		return this.rng.binom(20, 0.1);
+	}
+
+	@Benchmark
+	public double gamma() {
+		return this.rng.gamma(2.0, 1.0);
+	}
+
+	@Benchmark
+	public int poissonLarge() {
+		return this.rng.poisson(1000);
+	}
+
+	@Benchmark
+	public int poissonSmall() {
+		return this.rng.poisson(3);
+	}
+
+	@Benchmark
+	public int[] sampleWithoutReplacement() {
+		return this.rng.sampleWithoutReplacement(10000, 100);
+	}
+
+	@Setup
+	public void setup() {
+		this.rng = Sampler.independent(1L);
+	}
+
+	@Benchmark
+	public double uniform() {
+		return this.rng.uniform();
+	}
+
+}
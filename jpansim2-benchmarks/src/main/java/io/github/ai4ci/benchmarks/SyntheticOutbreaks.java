@@ -0,0 +1,117 @@
+package io.github.ai4ci.benchmarks;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.config.setup.ImmutableBarabasiAlbertConfiguration;
+import io.github.ai4ci.config.setup.ImmutableSetupConfiguration;
+import io.github.ai4ci.config.setup.ImmutableWattsStrogatzConfiguration;
+import io.github.ai4ci.config.setup.NetworkConfiguration;
+import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.config.setup.UnstratifiedDemography;
+import io.github.ai4ci.flow.ExecutionBuilder;
+import io.github.ai4ci.flow.mechanics.Updater;
+
+/**
+ * Deterministic synthetic outbreaks for the benchmarks.
+ *
+ * <p>
+ * Outbreaks are built through {@link ExecutionBuilder} exactly as a simulation
+ * would be, from a fixed setup and execution configuration and a fixed URN.
+ * The random number streams used to build the network and baseline the agents
+ * are seeded from the URN so the same parameters give the same outbreak on
+ * every run. The in-host model is the Markov state model, which is the
+ * cheapest to baseline, so that large outbreaks can be built in a reasonable
+ * time.
+ *
+ * @author Rob Challen
+ */
+public final class SyntheticOutbreaks {
+
+	/** The social network models that benchmarks are run against. */
+	public static enum Network {
+		/** A small world ring lattice with 15% of edges rewired. */
+		WATTS_STROGATZ,
+		/** A scale free network grown by preferential attachment. */
+		BARABASI_ALBERT;
+
+		NetworkConfiguration configure(int size, int degree) {
+			switch (this) {
+			case WATTS_STROGATZ:
+				return ImmutableWattsStrogatzConfiguration.builder()
+						.setNetworkSize(size).setNetworkDegree(degree)
+						.setNetworkRandomness(0.15).build();
+			case BARABASI_ALBERT:
+				return ImmutableBarabasiAlbertConfiguration.builder()
+						.setNetworkSize(size).setNetworkDegree(degree).build();
+			default:
+				throw new IllegalArgumentException(this.name());
+			}
+		}
+	}
+
+	/**
+	 * The mean degree of the synthetic networks. This is lower than the
+	 * defaults so that a million agent network fits in a few GB of heap.
+	 */
+	public static final int DEGREE = 16;
+
+	/** The number of agents infected at the start of the simulation. */
+	public static final int IMPORTS = 100;
+
+	/**
+	 * The setup configuration for a synthetic outbreak.
+	 *
+	 * @param size    the number of agents
+	 * @param network the social network model
+	 * @return a setup configuration
+	 */
+	public static SetupConfiguration setup(int size, Network network) {
+		return ImmutableSetupConfiguration.builder()
+				.setName("benchmark-" + network.name().toLowerCase() + "-" + size)
+				.setInitialImports(Math.min(IMPORTS, size / 10))
+				.setDemographics(UnstratifiedDemography.DEFAULT)
+				.setNetwork(network.configure(size, DEGREE)).build();
+	}
+
+	/**
+	 * The execution configuration for a synthetic outbreak.
+	 *
+	 * @return an execution configuration
+	 */
+	public static ExecutionConfiguration execution() {
+		return ExecutionConfiguration.DEFAULT.withName("benchmark")
+				.withInHostConfiguration(MarkovStateModel.DEFAULT);
+	}
+
+	/**
+	 * Build a synthetic outbreak, ready for its first update.
+	 *
+	 * @param size    the number of agents
+	 * @param network the social network model
+	 * @return a new outbreak
+	 */
+	public static Outbreak build(int size, Network network) {
+		return ExecutionBuilder
+				.buildExperiment(setup(size, network), execution(), "benchmark");
+	}
+
+	/**
+	 * Build a synthetic outbreak and run it for a number of days so that there
+	 * are infections, tests and history to work on.
+	 *
+	 * @param size    the number of agents
+	 * @param network the social network model
+	 * @param days    the number of updates to run
+	 * @return the outbreak after the warm up
+	 */
+	public static Outbreak warm(int size, Network network, int days) {
+		var outbreak = build(size, network);
+		var updater = new Updater();
+		for (var i = 0; i < days; i++) { updater.update(outbreak); }
+		return outbreak;
+	}
+
+	private SyntheticOutbreaks() {}
+
+}
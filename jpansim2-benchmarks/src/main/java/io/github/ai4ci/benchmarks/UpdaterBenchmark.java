@@ -0,0 +1,119 @@
+package io.github.ai4ci.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.benchmarks.SyntheticOutbreaks.Network;
+import io.github.ai4ci.flow.mechanics.PersonStateContacts;
+import io.github.ai4ci.flow.mechanics.StepTimings;
+import io.github.ai4ci.flow.mechanics.Updater;
+import io.github.ai4ci.flow.mechanics.Updater.Phase;
+import io.github.ai4ci.util.Cloner;
+
+/**
+ * The daily update of a whole outbreak, and the contact network on its own.
+ *
+ * <p>
+ * The outbreak is built once per trial and warmed up for a few days so that
+ * there are infections and history. Each iteration starts from a copy of the
+ * warmed up outbreak, and each {@link #update()} advances it by one day, so
+ * every iteration measures the same days of the same epidemic. The time spent
+ * in each {@link Phase} of the update is recorded
+ * with {@link Updater#withTimings(StepTimings)} and printed at the end of the
+ * trial, unless the {@code timings} parameter is false, which can be used to
+ * measure the overhead of the instrumentation.
+ *
+ * <p>
+ * The default sizes fit in the 8GB heap of the forked JVM. A million agent
+ * outbreak needs a much larger heap, as two copies are held, and can be run
+ * with {@code -p size=1000000 -jvmArgsAppend -Xmx24g}.
+ *
+ * @author Rob Challen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class UpdaterBenchmark {
+
+	@Param({ "10000", "100000" })
+	int size;
+
+	@Param({ "WATTS_STROGATZ", "BARABASI_ALBERT" })
+	Network network;
+
+	@Param({ "true" })
+	boolean timings;
+
+	Outbreak warmed;
+
+	Outbreak outbreak;
+
+	Updater updater;
+
+	StepTimings stepTimings;
+
+	long updates;
+
+	@Benchmark
+	public PersonStateContacts contactNetwork() {
+		return Updater.contactNetwork(this.outbreak);
+	}
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		this.outbreak = Cloner.copy(this.warmed);
+	}
+
+	@Setup
+	public void setup() {
+		this.warmed = SyntheticOutbreaks.warm(this.size, this.network, 5);
+		this.updater = new Updater();
+		if (this.timings) {
+			this.stepTimings = new StepTimings(this.warmed.getUrn());
+			this.updater.withTimings(this.stepTimings);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.updates == 0 || this.stepTimings == null) { return; }
+		var out = new StringBuilder("\nMean per phase (ms, Mb all threads):");
+		for (StepTimings.Section section : this.stepTimings.getSections()) {
+			out.append(
+					String.format(
+							" %s=%.3f,%.1f", section.getName(),
+							section.getDurationNanos() / 1E6 / this.updates,
+							section.getProcessAllocatedBytes() / (1024.0 * 1024.0)
+									/ this.updates
+					)
+			);
+		}
+		System.out.println(out);
+		this.stepTimings.reset(0);
+		this.updates = 0;
+	}
+
+	@Benchmark
+	public Outbreak update() {
+		this.updates++;
+		return this.updater.update(this.outbreak);
+	}
+
+}
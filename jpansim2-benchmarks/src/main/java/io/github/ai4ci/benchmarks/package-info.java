@@ -0,0 +1,24 @@
+/**
+ * JMH benchmarks of the simulation hot paths.
+ *
+ * <p>
+ * The benchmarks run against deterministic synthetic outbreaks built by
+ * {@link io.github.ai4ci.benchmarks.SyntheticOutbreaks}, and cover the daily
+ * update and its phases ({@link io.github.ai4ci.benchmarks.UpdaterBenchmark}),
+ * random sampling ({@link io.github.ai4ci.benchmarks.SamplerBenchmark}), the
+ * in-host models ({@link io.github.ai4ci.benchmarks.InHostBenchmark} and
+ * {@link io.github.ai4ci.benchmarks.InHostStochasticBenchmark}) and their
+ * calibration profiles
+ * ({@link io.github.ai4ci.benchmarks.InHostProfilesBenchmark}), the risk
+ * model ({@link io.github.ai4ci.benchmarks.RiskModelBenchmark}), output row
+ * encoding ({@link io.github.ai4ci.benchmarks.OutputBenchmark}), outbreak
+ * baselining ({@link io.github.ai4ci.benchmarks.BaselineBenchmark}) and
+ * reference data lookups ({@link io.github.ai4ci.benchmarks.RepositoryBenchmark}).
+ * They are
+ * run from the self contained jar built by {@code mvn package}, whose entry
+ * point {@link io.github.ai4ci.benchmarks.BenchmarkRunner} can also compare a
+ * run with a stored baseline.
+ *
+ * @author Rob Challen
+ */
+package io.github.ai4ci.benchmarks;
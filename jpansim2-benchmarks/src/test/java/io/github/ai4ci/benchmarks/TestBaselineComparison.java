@@ -0,0 +1,68 @@
+package io.github.ai4ci.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TestBaselineComparison {
+
+	static Map<String, JsonNode> results(String json) throws Exception {
+		return BaselineComparison
+				.index(new ObjectMapper().readTree(json.replace('\'', '"')));
+	}
+
+	static String result(
+			String benchmark, String mode, String size, double score,
+			double alloc
+	) {
+		return "{'benchmark':'" + benchmark + "','mode':'" + mode
+				+ "','params':{'size':'" + size + "','network':'WATTS_STROGATZ'},"
+				+ "'primaryMetric':{'score':" + score + ",'scoreUnit':'ms/op'},"
+				+ "'secondaryMetrics':{'\u00b7gc.alloc.rate.norm':{'score':"
+				+ alloc + ",'scoreUnit':'B/op'}}}";
+	}
+
+	@Test
+	void testKeyIgnoresParameterOrder() throws Exception {
+		var a = results(
+				"[{'benchmark':'x','params':{'b':'1','a':'2'}}]"
+		);
+		var b = results(
+				"[{'benchmark':'x','params':{'a':'2','b':'1'}}]"
+		);
+		assertEquals(a.keySet(), b.keySet());
+	}
+
+	@Test
+	void testRegressions() throws Exception {
+		var base = results(
+				"[" + result("u.update", "avgt", "10000", 100, 1000) + ","
+						+ result("u.update", "avgt", "100000", 100, 1000) + ","
+						+ result("s.uniform", "thrpt", "10000", 100, 0) + "]"
+		);
+		var current = results(
+				"[" + result("u.update", "avgt", "10000", 109, 1000) + ","
+						+ result("u.update", "avgt", "100000", 90, 2000) + ","
+						+ result("s.uniform", "thrpt", "10000", 80, 0) + ","
+						+ result("new.benchmark", "avgt", "10000", 1, 0) + "]"
+		);
+		var regressions = new BaselineComparison(0.1).compare(base, current);
+		// within threshold for size 10000, allocation regression for 100000,
+		// throughput drop for uniform, and the new benchmark is ignored
+		assertEquals(2, regressions.size(), regressions.toString());
+		assertTrue(regressions.get(0).contains("gc.alloc.rate.norm"));
+		assertTrue(regressions.get(1).startsWith("s.uniform"));
+
+		assertTrue(new BaselineComparison(0.1).compare(base, base).isEmpty());
+		assertEquals(
+				3, new BaselineComparison(0.01).compare(base, current).size()
+		);
+	}
+
+}
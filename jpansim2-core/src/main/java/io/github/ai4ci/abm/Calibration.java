@@ -9,7 +9,6 @@ import org.apache.commons.math3.exception.NoBracketingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.github.ai4ci.config.inhost.InHostConfiguration;
 import io.github.ai4ci.util.AtomicDoubleArray;
 
 /**
@@ -98,21 +97,21 @@ public class Calibration {
 		 * skewness-like, and kurtosis-like contributions to the cumulant
 		 * structure of the underlying Poisson binomial process.
 		 *
-		 * @param viralLoadData A 100x100 array: [profile][day] of simulated viral
-		 *                      load trajectories
-		 * @return A 100x4 array: [profile][B₁, B₂, B₃, B₄], the first four raw
+		 * @param viralLoadData An array: [profile][day] of simulated viral load
+		 *                      trajectories
+		 * @return An array: [profile][B₁, B₂, B₃, B₄], the first four raw
 		 *         moments of \( \delta_t \)
 		 */
 		private static double[][] computeBProfiles(double[][] viralLoadData) {
-			if (viralLoadData.length != 100 || viralLoadData[0].length != 100)
-				throw new IllegalArgumentException("Input must be a 100x100 array");
+			if (viralLoadData.length == 0)
+				throw new IllegalArgumentException("Input must not be empty");
 
-			var bProfiles = new double[100][4];
+			var bProfiles = new double[viralLoadData.length][4];
 
-			for (var m = 0; m < 100; m++) {
+			for (var m = 0; m < viralLoadData.length; m++) {
 				double B1 = 0, B2 = 0, B3 = 0, B4 = 0;
 
-				for (var t = 0; t < 100; t++) {
+				for (var t = 0; t < viralLoadData[m].length; t++) {
 					var v = viralLoadData[m][t];
 					if (v > 1.0) {
 						var delta = v - 1.0;
@@ -143,7 +142,7 @@ public class Calibration {
 		 * Constructor that precomputes the necessary coefficients for the
 		 * polynomial approximation of transmission probability.
 		 *
-		 * @param viralLoadProfiles    A 100x100 array of viral load trajectories
+		 * @param viralLoadProfiles    An array of viral load trajectories
 		 *                             (profiles x time)
 		 * @param contactProbabilities An array of contact probabilities for each
 		 *                             edge in the social network
@@ -238,7 +237,7 @@ public class Calibration {
 				var local_c3 = 0.0;
 				var local_c4 = 0.0;
 
-				for (var m = 0; m < 100; m++) {
+				for (var m = 0; m < bProfiles.length; m++) {
 					var B1 = bProfiles[m][0];
 					var B2 = bProfiles[m][1];
 					var B3 = bProfiles[m][2];
@@ -263,11 +262,11 @@ public class Calibration {
 					local_c4 += c4;
 				}
 
-				// Average over 100 profiles
-				total_c1 += local_c1 / 100.0;
-				total_c2 += local_c2 / 100.0;
-				total_c3 += local_c3 / 100.0;
-				total_c4 += local_c4 / 100.0;
+				// Average over the profiles
+				total_c1 += local_c1 / bProfiles.length;
+				total_c2 += local_c2 / bProfiles.length;
+				total_c3 += local_c3 / bProfiles.length;
+				total_c4 += local_c4 / bProfiles.length;
 			}
 
 			// Average over all pairs
@@ -279,8 +278,177 @@ public class Calibration {
 		}
 	}
 
+	/**
+	 * An exact, network size independent, evaluator of the expected number of
+	 * exposures per infection used for R0 calibration.
+	 *
+	 * <p>
+	 * {@link #expectedExposuresPerInfection(Outbreak, double[][], double)}
+	 * streams over every edge and every viral load profile for each evaluation
+	 * of the transmission parameter. The quantity of interest is however a sum
+	 * over edges of a smooth function of the edge contact probability \( k_e \)
+	 * only: \[ R(c) = \frac{2}{N} \sum_e \frac{1}{M} \sum_{m=1}^M g_m(k_e; c),
+	 * \quad g_m(k; c) = 1 - \prod_t \left(1 - k \, T(v^{(m)}_t, c)\right) \]
+	 * where \( T \) is
+	 * {@link OutbreakBaseline#transmissibilityFromViralLoad(double, double)}.
+	 * This class bins the contact probabilities once into a histogram holding
+	 * the count, mean and variance of \( k \) in each bin, and compresses each
+	 * profile to only the days on which the viral load exceeds the
+	 * transmission threshold. Each evaluation then sums over bins using a
+	 * second order expansion about the bin mean: \[ \sum_{e \in b} g(k_e)
+	 * \approx n_b \left( g(\bar{k}_b) + \tfrac{1}{2} \sigma^2_b \,
+	 * g''(\bar{k}_b) \right) \] with \( g'' = -P(S_1^2 - S_2) \), \( P = \prod_t
+	 * (1 - k a_t) \), \( S_j = \sum_t a_t^j / (1 - k a_t)^j \). The residual
+	 * error is third order in the bin width, and zero where all edges share a
+	 * contact probability, so the result agrees with the edge by edge
+	 * calculation to well below the solver tolerance while costing \(
+	 * O(\text{bins} \times \text{profiles} \times \text{infectious days}) \)
+	 * regardless of network size.
+	 *
+	 * <p>
+	 * The transmissibilities of each profile are written into a scratch buffer
+	 * owned by the estimator, so an evaluation allocates nothing, but an
+	 * estimator must not be evaluated from more than one thread at once.
+	 */
+	public static class HistogramEstimator {
+
+		/** Default number of histogram bins for contact probabilities */
+		public static final int DEFAULT_BINS = 256;
+
+		private static double[][] infectiousLoads(double[][] viralLoadProfiles) {
+			var out = new double[viralLoadProfiles.length][];
+			for (var m = 0; m < viralLoadProfiles.length; m++) {
+				out[m] = Arrays.stream(viralLoadProfiles[m]).filter(v -> v >= 1)
+						.toArray();
+			}
+			return out;
+		}
+
+		private final double[] binCount;
+		private final double[] binMean;
+		private final double[] binVariance;
+		private final double[][] loads;
+		private final double scale;
+		private final double[] transmissibility;
+
+		/**
+		 * Build the estimator for an outbreak from its social network and the
+		 * viral load profiles of the execution configuration.
+		 *
+		 * @param outbreak the outbreak providing network and population
+		 * @param dd       an array of viral load profiles (profiles x time)
+		 */
+		public HistogramEstimator(Outbreak outbreak, double[][] dd) {
+			this(
+					dd, contactProbabilities(outbreak),
+					outbreak.getPopulationSize(), DEFAULT_BINS
+			);
+		}
+
+		/**
+		 * Build the estimator from precomputed edge contact probabilities.
+		 *
+		 * @param viralLoadProfiles    an array of viral load profiles (profiles x
+		 *                             time)
+		 * @param contactProbabilities the baseline contact probability of every
+		 *                             edge in the social network
+		 * @param populationSize       the number of agents
+		 * @param bins                 the number of histogram bins
+		 */
+		public HistogramEstimator(
+				double[][] viralLoadProfiles, double[] contactProbabilities,
+				int populationSize, int bins
+		) {
+			this.loads = infectiousLoads(viralLoadProfiles);
+			this.scale = 2.0 / populationSize;
+			this.transmissibility = new double[Arrays.stream(this.loads)
+					.mapToInt(l -> l.length).max().orElse(0)];
+			var min = Arrays.stream(contactProbabilities).min().orElse(0);
+			var max = Arrays.stream(contactProbabilities).max().orElse(0);
+			var width = (max - min) / bins;
+			this.binCount = new double[bins];
+			this.binMean = new double[bins];
+			this.binVariance = new double[bins];
+			var sumSq = new double[bins];
+			for (double k : contactProbabilities) {
+				var b = width == 0 ? 0 : Math.min(bins - 1, (int) ((k - min) / width));
+				this.binCount[b] += 1;
+				this.binMean[b] += k;
+				sumSq[b] += k * k;
+			}
+			for (var b = 0; b < bins; b++) {
+				if (this.binCount[b] > 0) {
+					this.binMean[b] = this.binMean[b] / this.binCount[b];
+					this.binVariance[b] = Math.max(
+							0, sumSq[b] / this.binCount[b]
+									- this.binMean[b] * this.binMean[b]
+					);
+				}
+			}
+		}
+
+		/**
+		 * The expected number of exposures generated by a single infection for
+		 * a given transmission parameter. Equivalent to
+		 * {@link Calibration#expectedExposuresPerInfection(Outbreak, double[][], double)}.
+		 *
+		 * @param parameter the transmission parameter to evaluate
+		 * @return the expected number of exposures per infection
+		 */
+		public double expectedExposuresPerInfection(double parameter) {
+			var total = 0D;
+			var a = this.transmissibility;
+			for (double[] profile : this.loads) {
+				for (var t = 0; t < profile.length; t++) {
+					a[t] = OutbreakBaseline
+							.transmissibilityFromViralLoad(profile[t], parameter);
+				}
+				for (var b = 0; b < this.binCount.length; b++) {
+					if (this.binCount[b] == 0) continue;
+					var k = this.binMean[b];
+					var p = 1D;
+					var s1 = 0D;
+					var s2 = 0D;
+					for (var t = 0; t < profile.length; t++) {
+						var at = a[t];
+						var q = 1 - k * at;
+						p = p * q;
+						if (q > 0) {
+							s1 += at / q;
+							s2 += (at * at) / (q * q);
+						}
+					}
+					var curvature = p == 0 ? 0 : -p * (s1 * s1 - s2);
+					total += this.binCount[b]
+							* (1 - p + 0.5 * this.binVariance[b] * curvature);
+				}
+			}
+			return total / this.loads.length * this.scale;
+		}
+
+	}
+
 	static Logger log = LoggerFactory.getLogger(Calibration.class);
 
+	/**
+	 * The baseline per day contact probability of every edge in the social
+	 * network. This is equivalent to the per day contact probability used when
+	 * the contact network is generated during the simulation.
+	 *
+	 * @param outbreak the outbreak providing the social network
+	 * @return an array of contact probabilities, one per edge
+	 */
+	public static double[] contactProbabilities(Outbreak outbreak) {
+		return outbreak.getSocialNetwork().parallelStream().mapToDouble(r -> {
+			Person person1 = r.getSource(outbreak);
+			Person person2 = r.getTarget(outbreak);
+			return r.contactProbability(
+					person1.getBaseline().getMobilityBaseline(),
+					person2.getBaseline().getMobilityBaseline()
+			);
+		}).toArray();
+	}
+
 	/**
 	 * Adjusts the target R0 to account for network structure effects by
 	 * normalizing against the maximum possible percolation threshold of a fully
@@ -439,12 +607,7 @@ public class Calibration {
 			Outbreak outbreak, double infectionEventRatio
 	) {
 
-		var dist = InHostConfiguration.getPeakSeverity(
-				outbreak.getExecutionConfiguration().getInHostConfiguration(),
-				outbreak.getExecutionConfiguration(), 1000, 50
-		);
-		// N.B. only interested in the in host peak hence we can use a shorter
-		// duration.
+		var dist = outbreak.getExecutionConfiguration().getPeakSeverity();
 		var tmp = dist.getQuantile(1 - infectionEventRatio);
 		return tmp;
 	}
@@ -499,14 +662,14 @@ public class Calibration {
 	) {
 		var solver = new BrentSolver(0.001);
 		var adjR0 = adjustR0(outbreak, R0);
+		var est = new HistogramEstimator(outbreak, dd);
 		UnivariateFunction fnR0 = (toInfer) -> {
-			return expectedExposuresPerInfection(outbreak, dd, toInfer) - adjR0;
+			return est.expectedExposuresPerInfection(toInfer) - adjR0;
 		};
 
 		log.info(
-				"Max R0 for this network is: " + expectedExposuresPerInfection(
-						outbreak, dd, Double.POSITIVE_INFINITY
-				)
+				"Max R0 for this network is: "
+						+ est.expectedExposuresPerInfection(Double.POSITIVE_INFINITY)
 		);
 
 		try {
@@ -559,19 +722,7 @@ public class Calibration {
 	) {
 		var viralLoadProfile = outbreak.getExecutionConfiguration()
 				.getViralLoadProfile();
-		var contactProbability = outbreak.getSocialNetwork().parallelStream()
-				.mapToDouble(r -> {
-					Person person1 = r.getSource(outbreak);
-					Person person2 = r.getTarget(outbreak);
-					// Per day probability of contact between two people (baseline)
-					// on any day
-					// This is equivalent to what happens in {@link
-					// Contact#contactNetwork}
-					return r.contactProbability(
-							person1.getBaseline().getMobilityBaseline(),
-							person2.getBaseline().getMobilityBaseline()
-					);
-				}).toArray();
+		var contactProbability = contactProbabilities(outbreak);
 		var est = new Estimator(viralLoadProfile, contactProbability);
 		var solver = new BrentSolver(0.001);
 		var adjR0 = adjustR0(outbreak, R0);
@@ -605,9 +756,8 @@ public class Calibration {
 	 */
 	public static double maxR0(Outbreak outbreak) {
 		var dd = outbreak.getExecutionConfiguration().getViralLoadProfile();
-		return expectedExposuresPerInfection(
-				outbreak, dd, Double.POSITIVE_INFINITY
-		);
+		return new HistogramEstimator(outbreak, dd)
+				.expectedExposuresPerInfection(Double.POSITIVE_INFINITY);
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package io.github.ai4ci.abm;
 
+import java.io.Serializable;
+
 import org.immutables.value.Value;
 
 /**
@@ -10,7 +12,7 @@ import org.immutables.value.Value;
  * the {@link PersonHistory} of the exposee.
  */
 @Value.Immutable
-public interface Exposure {
+public interface Exposure extends Serializable {
 
 	/**
 	 * Retrieves the {@link PersonHistory} of the exposer at the current time of
@@ -4,6 +4,7 @@ import java.io.Serializable;
 
 import org.immutables.value.Value;
 
+import io.github.ai4ci.abm.riskmodel.RiskKernels;
 import io.github.ai4ci.flow.mechanics.State;
 import io.github.ai4ci.flow.mechanics.State.PolicyState;
 import io.github.ai4ci.functions.DelayDistribution;
@@ -66,6 +67,16 @@ public interface OutbreakBaseline extends Serializable {
 	 */
 	double getExpectedContactsPerPersonPerDay();
 
+	/**
+	 * The convolution kernels used by the risk model of every person in the
+	 * outbreak. These are built once from the execution configuration and
+	 * shared, rather than being built for each person.
+	 *
+	 * @return the shared risk model kernels, with the contacts kernel scaled by
+	 *         {@link #getExpectedContactsPerPersonPerDay()}
+	 */
+	RiskKernels getRiskKernels();
+
 	/**
 	 * Calibrated from the 95% quantile of the infectivity profile of the in host
 	 * model run over a set of unadjusted parameters
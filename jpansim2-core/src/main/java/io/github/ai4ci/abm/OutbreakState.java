@@ -5,11 +5,14 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 
 import io.github.ai4ci.abm.TestResult.Indication;
 import io.github.ai4ci.abm.TestResult.Result;
 import io.github.ai4ci.abm.policy.Trigger;
+import io.github.ai4ci.flow.mechanics.StateCounter;
 import io.github.ai4ci.util.Binomial;
 
 /**
@@ -23,6 +26,18 @@ public interface OutbreakState extends OutbreakTemporalState {
 
 	// @Value.Default default Double getViralActivityModifier() {return 1.0D;}
 
+	/**
+	 * The number of agents with an active in-host infection (see
+	 * {@link io.github.ai4ci.abm.inhost.InHostModelState#isInfectionActive()}),
+	 * collected by the {@link io.github.ai4ci.flow.mechanics.Updater} during the
+	 * update that produced this state. This is null for the initial state of
+	 * the outbreak.
+	 *
+	 * @return the count of agents with an active infection, or null
+	 */
+	@Nullable @Value.Auxiliary
+	Long getActiveInfectionTally();
+
 	@Override @Value.Lazy
 	default long getAdmissionIncidence() {
 		return ModelNav.peopleState(this).filter(p -> !p.isDead())
@@ -98,12 +113,20 @@ public interface OutbreakState extends OutbreakTemporalState {
 	 * changes over time and how it correlates with the course of the outbreak.
 	 *
 	 * A true value:<br>
+	 * <br>
+	 * Once the simulation is running the counts are collected by the
+	 * {@link io.github.ai4ci.flow.mechanics.Updater} as each agent's state is
+	 * updated (see {@link #getBehaviourTally()}). Before the first update they
+	 * are counted directly from the people.
 	 *
 	 * @return A multi-nomial count of behaviours of individual agents in the
 	 *         simulation
 	 */
 	@Value.Lazy
 	default Map<String, Long> getBehaviourCounts() {
+		if (this.getBehaviourTally() != null) {
+			return this.getBehaviourTally().toMap();
+		}
 		return ModelNav.people(this).map(p -> p.getCurrentState()).collect(
 				Collectors.groupingByConcurrent(
 						ps -> ps.getBehaviour(), Collectors.counting()
@@ -111,6 +134,16 @@ public interface OutbreakState extends OutbreakTemporalState {
 		);
 	}
 
+	/**
+	 * Counts of agents in each behaviour state, indexed by state id, collected
+	 * during the update that produced this state. This is null for the initial
+	 * state of the outbreak.
+	 *
+	 * @return the tally of behaviour states, or null
+	 */
+	@Nullable @Value.Auxiliary
+	StateCounter getBehaviourTally();
+
 	/**
 	 * This derived value is a multinomial count of the number of contacts people
 	 * have in the simulation. This is useful for understanding the distribution
@@ -273,6 +306,32 @@ public interface OutbreakState extends OutbreakTemporalState {
 		);
 	}
 
+	/**
+	 * The number of agents given a viral dose by their contacts in the update
+	 * that produced this state (see {@link PersonState#getContactExposure()}).
+	 * The dose is applied to the in-host model in the next update, so these
+	 * agents may become infected even if nobody is infected now. This is null
+	 * for the initial state of the outbreak.
+	 *
+	 * @return the count of agents with a pending exposure, or null
+	 */
+	@Nullable @Value.Auxiliary
+	Long getPendingExposureTally();
+
+	/**
+	 * The number of living agents whose infection has resolved but whose
+	 * outcomes have not: their severity is still at or above the symptom cut
+	 * off, so they may yet be symptomatic, hospitalised or die, or they are
+	 * waiting for a test result. This is collected by the
+	 * {@link io.github.ai4ci.flow.mechanics.Updater} alongside
+	 * {@link #getActiveInfectionTally()} and is null for the initial state of
+	 * the outbreak.
+	 *
+	 * @return the count of agents with unresolved outcomes, or null
+	 */
+	@Nullable @Value.Auxiliary
+	Long getPendingOutcomeTally();
+
 	/**
 	 * The current policy state for this moment in the outbreak. This is derived
 	 * from the state machine of the outbreak.
@@ -616,4 +675,27 @@ public interface OutbreakState extends OutbreakTemporalState {
 	 */
 	Trigger.Value getTriggerValue();
 
+	/**
+	 * Whether the epidemic has died out. This is true when no agent has an
+	 * active in-host infection, a pending exposure or a pending outcome (see
+	 * {@link #getPendingOutcomeTally()}), and there are no importations. There
+	 * can then be no further infections, hospitalisations, deaths or
+	 * infection driven test results for the rest of the simulation. It is
+	 * always false for the initial state of the outbreak, before any update has
+	 * counted the active infections.
+	 *
+	 * @return true if the epidemic is extinct
+	 * @see io.github.ai4ci.config.BatchConfiguration#getExtinctionMode()
+	 */
+	@Value.Lazy
+	default boolean isExtinct() {
+		var active = this.getActiveInfectionTally();
+		var pending = this.getPendingExposureTally();
+		var outcomes = this.getPendingOutcomeTally();
+		if (active == null || pending == null || outcomes == null) return false;
+		var importation = ModelNav.modelParam(this).getImportationProbability();
+		return active == 0 && pending == 0 && outcomes == 0
+				&& (importation == null || importation == 0);
+	}
+
 }
\ No newline at end of file
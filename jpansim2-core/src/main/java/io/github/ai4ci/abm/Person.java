@@ -43,6 +43,7 @@ public abstract class Person
 		tmp.setNextState(Ephemeral.empty());
 		tmp.setStateMachine(StateMachine.stub());
 		tmp.setDemographic(PersonDemographic.stub(tmp));
+		tmp.setTestLedger(new TestLedger());
 		return tmp;
 	}
 
@@ -139,6 +140,14 @@ public abstract class Person
 	 */
 	public abstract StateMachine getStateMachine();
 
+	/**
+	 * The tests in this person's history, indexed by sample time. This is kept
+	 * in step with {@link #getHistory()} by the update cycle.
+	 *
+	 * @return the person's {@link TestLedger}
+	 */
+	public abstract TestLedger getTestLedger();
+
 	/**
 	 * Returns a persistent unique resource name for this person within the
 	 * outbreak, used primarily for logging and diagnostics.
@@ -1,6 +1,7 @@
 package io.github.ai4ci.abm;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -38,9 +39,11 @@ public interface PersonHistory extends PersonTemporalState {
 	 *         historical period.
 	 */
 	default Stream<Contact> getHistoricalContacts(int limit) {
-		if (limit == 0) { return Arrays.stream(this.getTodaysContacts()); }
+		if (limit == 0) { return this.getTodaysContactList()
+			.stream(); }
 		return Stream.concat(
-			Arrays.stream(this.getTodaysContacts()),
+			this.getTodaysContactList()
+				.stream(),
 			this.getPrevious()
 				.stream()
 				.flatMap(ph -> ph.getHistoricalContacts(limit - 1))
@@ -121,7 +124,8 @@ public interface PersonHistory extends PersonTemporalState {
 			.flatMap(
 				ph -> ph.getLastExposure()
 					.flatMap(
-						e -> Arrays.stream(e.getTodaysExposures())
+						e -> e.getTodaysExposureList()
+							.stream()
 							.max(
 								(c1, c2) -> Double
 									.compare(c1.getExposure(), c2.getExposure())
@@ -294,15 +298,23 @@ public interface PersonHistory extends PersonTemporalState {
 	 * Retrieves a stream of {@link TestResult} objects that are still considered
 	 * relevant based on the presumed infectious period. This is an observed
 	 * quantity, meaning it reflects tests whose results would be considered
-	 * impactful given the disease's progression. The method calls
+	 * impactful given the disease's progression. The result is the same as
 	 * {@link #getHistoricalTests(int)} with the value returned by
-	 * {@link #infPeriod()} as the limit.
+	 * {@link #infPeriod()} as the limit, but previous days are read from the
+	 * person's {@link TestLedger} rather than by recursing through
+	 * {@link #getPrevious()}.
 	 *
 	 * @return A {@link Stream} of {@link TestResult} objects relevant to the
 	 *         current infectious period.
 	 */
 	default Stream<TestResult> getStillRelevantTests() {
-		return this.getHistoricalTests(this.infPeriod());
+		return Stream.concat(
+			this.getTodaysTests()
+				.stream(),
+			this.getEntity()
+				.getTestLedger()
+				.stream(this.getTime() - this.infPeriod(), this.getTime() - 1)
+		);
 	}
 
 	/**
@@ -317,6 +329,21 @@ public interface PersonHistory extends PersonTemporalState {
 	 */
 	Contact[] getTodaysContacts();
 
+	/**
+	 * A read only list view of {@link #getTodaysContacts()}, built on first
+	 * use. Unlike the array accessor this does not copy the contacts each time
+	 * it is called.
+	 *
+	 * @return An unmodifiable list of {@link Contact} objects representing
+	 *         contacts made today.
+	 */
+	@Value.Lazy
+	default List<Contact> getTodaysContactList() {
+		return Collections.unmodifiableList(
+			Arrays.asList(this.getTodaysContacts())
+		);
+	}
+
 	/**
 	 * A list of exposures made in this time period. These are contacts who are
 	 * infectious. This array is derived from {@link #getTodaysContacts()} by
@@ -328,12 +355,28 @@ public interface PersonHistory extends PersonTemporalState {
 	 */
 	Exposure[] getTodaysExposures();
 
+	/**
+	 * A read only list view of {@link #getTodaysExposures()}, built on first
+	 * use. Unlike the array accessor this does not copy the exposures each time
+	 * it is called.
+	 *
+	 * @return An unmodifiable list of {@link Exposure} objects representing
+	 *         exposures that occurred today.
+	 */
+	@Value.Lazy
+	default List<Exposure> getTodaysExposureList() {
+		return Collections.unmodifiableList(
+			Arrays.asList(this.getTodaysExposures())
+		);
+	}
+
 	/**
 	 * Collects a list of {@link TestResult} objects that generate a result on
 	 * the current day, regardless of when the test was taken. This method looks
-	 * backwards over all possibly relevant tests (up to the infectious period).
-	 * It streams through {@link #getStillRelevantTests()} and filters them using
-	 * {@link TestResult#isResultToday(int)} with the current time. Note that
+	 * backwards over all possibly relevant tests (up to the infectious period),
+	 * i.e. those in {@link #getStillRelevantTests()} for which
+	 * {@link TestResult#isResultToday(int)} is true. Previous days are looked up
+	 * by result time in the person's {@link TestLedger}. Note that
 	 * tests with very long processing times relative to the infectious period
 	 * might not be picked up.
 	 *
@@ -342,9 +385,20 @@ public interface PersonHistory extends PersonTemporalState {
 	 */
 	@Value.Lazy
 	default List<TestResult> getTodaysResults() {
-		return this.getStillRelevantTests()
+		var out = this.getTodaysTests()
+			.stream()
 			.filter(r -> r.isResultToday(this.getTime()))
 			.collect(Collectors.toList());
+		out.addAll(
+			this.getEntity()
+				.getTestLedger()
+				.resultsOn(
+					this.getTime() - this.infPeriod(),
+					this.getTime() - 1,
+					this.getTime()
+				)
+		);
+		return out;
 	}
 
 	/**
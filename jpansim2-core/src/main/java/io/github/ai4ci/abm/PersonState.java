@@ -1,6 +1,5 @@
 package io.github.ai4ci.abm;
 
-import java.util.Arrays;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -188,16 +187,26 @@ public interface PersonState extends PersonTemporalState {
 	 * @return true contact count for today
 	 */
 	default long getContactCount() {
-		return ModelNav.history(this).map(m -> m.getTodaysContacts().length)
+		return ModelNav.history(this).map(m -> m.getTodaysContactList().size())
 				.orElse(0);
 	}
 
-	@Override @Value.Lazy
+	/**
+	 * The total viral dose from contacts recorded in the latest history entry,
+	 * capped at {@link #MAX_EXPOSURE}. This is set by the
+	 * {@link io.github.ai4ci.flow.mechanics.Updater} from the doses summed
+	 * while the contact network is built. The default, which sums the exposures
+	 * in the history, is only used for states created outside of the update
+	 * cycle.
+	 *
+	 * @return the contact exposure for the in-host model
+	 */
+	@Override @Value.Default
 	default double getContactExposure() {
 		return Math.min(
 				MAX_EXPOSURE,
 				ModelNav.history(this).stream()
-						.flatMap(ph -> Arrays.stream(ph.getTodaysExposures()))
+						.flatMap(ph -> ph.getTodaysExposureList().stream())
 						.mapToDouble(p -> p.getExposure()).sum()
 		);
 	}
@@ -211,7 +220,7 @@ public interface PersonState extends PersonTemporalState {
 	 */
 	default Stream<Contact> getContactHistory() {
 		return ModelNav.history(this, this.infPeriod())
-				.flatMap(ph -> Arrays.stream(ph.getTodaysContacts()));
+				.flatMap(ph -> ph.getTodaysContactList().stream());
 	}
 
 	/**
@@ -221,7 +230,7 @@ public interface PersonState extends PersonTemporalState {
 	 * @return count of infectious exposures today
 	 */
 	default long getExposureCount() {
-		return ModelNav.history(this).map(m -> m.getTodaysExposures().length)
+		return ModelNav.history(this).map(m -> m.getTodaysExposureList().size())
 				.orElse(0);
 	}
 
@@ -234,7 +243,7 @@ public interface PersonState extends PersonTemporalState {
 	 */
 	default Stream<Exposure> getExposureHistory() {
 		return ModelNav.history(this, this.infPeriod())
-				.flatMap(ph -> Arrays.stream(ph.getTodaysExposures()));
+				.flatMap(ph -> ph.getTodaysExposureList().stream());
 	}
 
 	/**
@@ -289,8 +298,9 @@ public interface PersonState extends PersonTemporalState {
 	 */
 	@Value.Lazy
 	default Optional<TestResult> getLastResult() {
-		return this.getStillRelevantTests()
-				.filter(t -> t.isResultAvailable(this.getTime())).findFirst();
+		return this.getEntity().getTestLedger().first(
+				this.infPeriod(), t -> t.isResultAvailable(this.getTime())
+		);
 	}
 
 	/**
@@ -301,7 +311,7 @@ public interface PersonState extends PersonTemporalState {
 	 */
 	@Value.Lazy
 	default Optional<TestResult> getLastTest() {
-		return this.getStillRelevantTests().findFirst();
+		return this.getEntity().getTestLedger().first(this.infPeriod(), t -> true);
 	}
 
 	/**
@@ -352,8 +362,7 @@ public interface PersonState extends PersonTemporalState {
 	 * @return stream of tests within the incubation window
 	 */
 	default Stream<TestResult> getRecentRuleOutTests() {
-		return ModelNav.history(this, this.incubPeriod())
-				.flatMap(ph -> ph.getTodaysTests().stream());
+		return this.getEntity().getTestLedger().stream(this.incubPeriod());
 	}
 
 	/**
@@ -373,13 +382,13 @@ public interface PersonState extends PersonTemporalState {
 	/**
 	 * All tests in the last presumed infectious period (including pending
 	 * results). These inform simple rules used by strategies to infer current
-	 * infection status.
+	 * infection status. The tests come from the person's {@link TestLedger}
+	 * rather than walking the history.
 	 *
 	 * @return stream of recent tests (most recent first)
 	 */
 	default Stream<TestResult> getStillRelevantTests() {
-		return ModelNav.history(this, this.infPeriod())
-				.flatMap(ph -> ph.getTodaysTests().stream());
+		return this.getEntity().getTestLedger().stream(this.infPeriod());
 	}
 
 	/**
@@ -594,12 +603,10 @@ public interface PersonState extends PersonTemporalState {
 	 * @return true if a matching test exists within the lookback window
 	 */
 	default boolean isRecentlyTested(Type type, int days) {
-		return ModelNav.history(this, days)
-				.flatMap(ph -> ph.getTodaysTests().stream())
-				.filter(
-						t -> type.params().getTestName()
-								.equals(t.getTestParams().getTestName())
-				).findFirst().isPresent();
+		var name = type.params().getTestName();
+		return this.getEntity().getTestLedger()
+				.first(days, t -> name.equals(t.getTestParams().getTestName()))
+				.isPresent();
 	}
 
 	@Override @Value.Derived
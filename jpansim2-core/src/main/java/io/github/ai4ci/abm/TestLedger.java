@@ -0,0 +1,246 @@
+package io.github.ai4ci.abm;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * All the tests held in a person's history, in one place.
+ *
+ * <p>
+ * Tests are recorded in a {@link PersonHistory} entry for the day they were
+ * sampled. Questions like "what was the last test?" or "which results came
+ * back today?" would otherwise walk the history list one day at a time. The
+ * ledger keeps the same tests in arrays ordered by sample time, along with the
+ * day each result becomes available. A window of days is found by binary
+ * search. Tests are visited most recent day first, and in the order they were
+ * recorded within a day. This matches the order of walking the history.
+ *
+ * <p>
+ * The ledger is owned by the {@link Person}. It is written by the
+ * {@link io.github.ai4ci.flow.mechanics.Updater} when a new history entry is
+ * added and when old entries are dropped, so it always holds exactly the
+ * tests in {@link Person#getHistory()}.
+ *
+ * @author Rob Challen
+ */
+public final class TestLedger implements Serializable {
+
+	private int[] sampled = new int[4];
+	private int[] resulted = new int[4];
+	private TestResult[] tests = new TestResult[4];
+	private int start = 0;
+	private int end = 0;
+	private int latest = 0;
+
+	/**
+	 * Drop the tests sampled before a given day, as the matching history
+	 * entries are dropped.
+	 *
+	 * @param time the earliest sample day to keep
+	 */
+	public void forgetBefore(int time) {
+		var keep = this.search(time);
+		Arrays.fill(this.tests, this.start, keep, null);
+		this.start = keep;
+	}
+
+	/**
+	 * The most recent day that was recorded, which is the time of the head of
+	 * the person's history list.
+	 *
+	 * @return a simulation time
+	 */
+	public int getLatest() { return this.latest; }
+
+	/**
+	 * Whether any test held has a result that only becomes available after a
+	 * given day.
+	 *
+	 * @param day a simulation time
+	 * @return true if a result is still to come after the day
+	 */
+	public boolean isPendingAfter(int day) {
+		for (var i = this.start; i < this.end; i++) {
+			if (this.resulted[i] > day) { return true; }
+		}
+		return false;
+	}
+
+	/**
+	 * The first test in the window that matches a condition, going backwards
+	 * in time.
+	 *
+	 * @param from   earliest sample day (inclusive)
+	 * @param to     latest sample day (inclusive)
+	 * @param filter a condition on the test
+	 * @return the most recent matching test, if any
+	 */
+	public Optional<TestResult> first(
+			int from, int to, Predicate<TestResult> filter
+	) {
+		var lo = this.search(from);
+		var j = this.search(to + 1);
+		while (j > lo) {
+			var b = this.dayStart(lo, j);
+			for (var i = b; i < j; i++) {
+				if (filter.test(this.tests[i])) { return Optional.of(this.tests[i]); }
+			}
+			j = b;
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * The first test sampled in the last few recorded days that matches a
+	 * condition, going backwards in time. This is the same as searching the
+	 * first {@code days} entries of the person's history.
+	 *
+	 * @param days   the number of days to look back, including the latest
+	 * @param filter a condition on the test
+	 * @return the most recent matching test, if any
+	 */
+	public Optional<TestResult> first(int days, Predicate<TestResult> filter) {
+		return this.first(this.latest - days + 1, this.latest, filter);
+	}
+
+	/**
+	 * The tests in the window whose result becomes available on a given day.
+	 *
+	 * @param from earliest sample day (inclusive)
+	 * @param to   latest sample day (inclusive)
+	 * @param day  the day of the result
+	 * @return the tests, most recently sampled first
+	 */
+	public List<TestResult> resultsOn(int from, int to, int day) {
+		List<TestResult> out = new ArrayList<>();
+		var lo = this.search(from);
+		var j = this.search(to + 1);
+		while (j > lo) {
+			var b = this.dayStart(lo, j);
+			for (var i = b; i < j; i++) {
+				if (this.resulted[i] == day) { out.add(this.tests[i]); }
+			}
+			j = b;
+		}
+		return out;
+	}
+
+	/**
+	 * Record the tests sampled on a day. Days must be recorded in time order.
+	 *
+	 * @param time  the day of the new history entry
+	 * @param todays the tests sampled that day
+	 */
+	public void record(int time, List<TestResult> todays) {
+		this.latest = time;
+		if (todays.isEmpty()) { return; }
+		this.ensureCapacity(todays.size());
+		for (TestResult test : todays) {
+			this.sampled[this.end] = time;
+			this.resulted[this.end] = (int) test.getResultTime();
+			this.tests[this.end] = test;
+			this.end++;
+		}
+	}
+
+	/**
+	 * The tests in the window as a stream.
+	 *
+	 * @param from earliest sample day (inclusive)
+	 * @param to   latest sample day (inclusive)
+	 * @return the tests, most recently sampled first
+	 */
+	public Stream<TestResult> stream(int from, int to) {
+		var lo = this.search(from);
+		var j = this.search(to + 1);
+		if (j <= lo) { return Stream.empty(); }
+		var out = new TestResult[j - lo];
+		var k = 0;
+		while (j > lo) {
+			var b = this.dayStart(lo, j);
+			for (var i = b; i < j; i++) {
+				out[k++] = this.tests[i];
+			}
+			j = b;
+		}
+		return Arrays.stream(out);
+	}
+
+	/**
+	 * The tests sampled in the last few recorded days as a stream. This is the
+	 * same as the tests of the first {@code days} entries of the person's
+	 * history.
+	 *
+	 * @param days the number of days to look back, including the latest
+	 * @return the tests, most recently sampled first
+	 */
+	public Stream<TestResult> stream(int days) {
+		return this.stream(this.latest - days + 1, this.latest);
+	}
+
+	/**
+	 * The start of the last day in a range of entries.
+	 */
+	private int dayStart(int lo, int j) {
+		var day = this.sampled[j - 1];
+		var b = j - 1;
+		while (b > lo && this.sampled[b - 1] == day) {
+			b--;
+		}
+		return b;
+	}
+
+	private void ensureCapacity(int extra) {
+		var size = this.end - this.start;
+		if (this.end + extra <= this.tests.length) { return; }
+		var capacity = Math.max(this.tests.length, (size + extra) * 2);
+		var tmp1 = new int[capacity];
+		var tmp2 = new int[capacity];
+		var tmp3 = new TestResult[capacity];
+		System.arraycopy(this.sampled, this.start, tmp1, 0, size);
+		System.arraycopy(this.resulted, this.start, tmp2, 0, size);
+		System.arraycopy(this.tests, this.start, tmp3, 0, size);
+		this.sampled = tmp1;
+		this.resulted = tmp2;
+		this.tests = tmp3;
+		this.start = 0;
+		this.end = size;
+	}
+
+	/**
+	 * The index of the first test sampled on or after a given day.
+	 */
+	private int search(int time) {
+		var lo = this.start;
+		var hi = this.end;
+		while (lo < hi) {
+			var mid = (lo + hi) >>> 1;
+			if (this.sampled[mid] < time) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * The number of tests held.
+	 *
+	 * @return the size of the ledger
+	 */
+	public int size() {
+		return this.end - this.start;
+	}
+
+	@Override
+	public String toString() {
+		return "TestLedger[" + this.size() + " tests to day " + this.latest + "]";
+	}
+
+}
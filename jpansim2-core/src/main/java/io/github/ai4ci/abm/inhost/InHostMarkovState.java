@@ -207,6 +207,20 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 		 */
 		double getPSymptomaticHospitalised();
 
+		/**
+		 * The joint disease and symptom transitions of this machine as a lookup
+		 * table. The probabilities are fixed once an agent is baselined so this
+		 * is built once, when the machine is, and shared by every subsequent
+		 * in-host state of the agent.
+		 *
+		 * @return the cumulative transition table
+		 * @see MarkovTransitionTable
+		 */
+		@Value.Derived @Value.Auxiliary
+		default MarkovTransitionTable getTransitionTable() {
+			return new MarkovTransitionTable(this);
+		}
+
 		/**
 		 * Updates the disease state using daily Bernoulli trials.
 		 *
@@ -460,23 +474,45 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 	 */
 	@Override @Value.Derived
 	default double getNormalisedSeverity() {
-		Sampler rng = Sampler.getSampler();
-		switch (this.getSymptomState()) {
+		return normalisedSeverity(
+				this.getDiseaseState(), this.getSymptomState(),
+				this.getInfectionCaseRate(), this.getInfectionHospitalisationRate(),
+				this.getInfectionFatalityRate(), Sampler.getSampler()
+		);
+	}
+
+	/**
+	 * Samples a severity score for a disease and symptom state, as described in
+	 * {@link #getNormalisedSeverity()}. This allows batched simulations that
+	 * hold the states as codes rather than objects to sample the same score.
+	 *
+	 * @param disease                      the disease state
+	 * @param symptom                      the symptom state
+	 * @param infectionCaseRate            the infection case rate
+	 * @param infectionHospitalisationRate the infection hospitalisation rate
+	 * @param infectionFatalityRate        the infection fatality rate
+	 * @param rng                          the random number generator to use
+	 * @return a sampled severity value in [0,1]
+	 */
+	static double normalisedSeverity(
+			DiseaseState disease, SymptomState symptom, double infectionCaseRate,
+			double infectionHospitalisationRate, double infectionFatalityRate,
+			Sampler rng
+	) {
+		switch (symptom) {
 		case ASYMPTOMATIC:
-			if (!this.getDiseaseState().equals(DiseaseState.INFECTIOUS)) return 0;
-			return rng.uniform(0, 1 - this.getInfectionCaseRate());
+			if (!disease.equals(DiseaseState.INFECTIOUS)) return 0;
+			return rng.uniform(0, 1 - infectionCaseRate);
 		case SYMPTOMATIC:
 			return rng.uniform(
-					1 - this.getInfectionCaseRate(),
-					1 - this.getInfectionHospitalisationRate()
+					1 - infectionCaseRate, 1 - infectionHospitalisationRate
 			);
 		case HOSPITALISED:
 			return rng.uniform(
-					1 - this.getInfectionHospitalisationRate(),
-					1 - this.getInfectionFatalityRate()
+					1 - infectionHospitalisationRate, 1 - infectionFatalityRate
 			);
 		case DEAD:
-			return rng.uniform(1 - this.getInfectionFatalityRate(), 1);
+			return rng.uniform(1 - infectionFatalityRate, 1);
 		default:
 			throw new RuntimeException();
 		}
@@ -495,8 +531,19 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 	 */
 	@Override
 	default double getNormalisedViralLoad() {
-		if (this.getDiseaseState().equals(DiseaseState.INFECTIOUS)) return 1.5D;
-		if (this.getDiseaseState().equals(DiseaseState.EXPOSED)) return 0.5D;
+		return normalisedViralLoad(this.getDiseaseState());
+	}
+
+	/**
+	 * The normalised viral load of a disease state, as described in
+	 * {@link #getNormalisedViralLoad()}.
+	 *
+	 * @param disease the disease state
+	 * @return a state-dependent normalized viral load
+	 */
+	static double normalisedViralLoad(DiseaseState disease) {
+		if (disease.equals(DiseaseState.INFECTIOUS)) return 1.5D;
+		if (disease.equals(DiseaseState.EXPOSED)) return 0.5D;
 		return 0D;
 	}
 
@@ -514,6 +561,23 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 	 */
 	SymptomState getSymptomState();
 
+	/**
+	 * An infection is active while the host is EXPOSED or INFECTIOUS, or is
+	 * SYMPTOMATIC or HOSPITALISED. The symptom state evolves separately from
+	 * the disease state, so a host whose disease state is already IMMUNE may
+	 * still go on to be hospitalised or to die.
+	 *
+	 * @return true if the disease state is EXPOSED or INFECTIOUS, or the
+	 *         symptom state is not ASYMPTOMATIC or DEAD
+	 */
+	@Override
+	default boolean isInfectionActive() {
+		return this.getDiseaseState().equals(DiseaseState.EXPOSED)
+				|| this.getDiseaseState().equals(DiseaseState.INFECTIOUS)
+				|| this.getSymptomState().equals(SymptomState.SYMPTOMATIC)
+				|| this.getSymptomState().equals(SymptomState.HOSPITALISED);
+	}
+
 	// MarkovStateModel getConfig();
 	/**
 	 * Returns the current time step in the in-host progression.
@@ -537,16 +601,22 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 	 * </ol>
 	 *
 	 * <p>
-	 * Disease progression uses Bernoulli and multinomial sampling: \[
-	 * \mathbb{P}(X_{t+1} = x') = \sum_{x} \mathbb{P}(X_t = x) \cdot p(x \to x')
-	 * \] where transition probabilities are constant per day.
+	 * Disease and symptom progression follow: \[ \mathbb{P}(X_{t+1} = x') =
+	 * \sum_{x} \mathbb{P}(X_t = x) \cdot p(x \to x') \] where transition
+	 * probabilities are constant per day. These are the probabilities of
+	 * {@link InHostMarkovStateMachine#updateDiseaseState(DiseaseState, Sampler)}
+	 * and
+	 * {@link InHostMarkovStateMachine#updateSymptomState(SymptomState, DiseaseState, Sampler)}
+	 * but both are sampled jointly with a single uniform draw from the agent's
+	 * precomputed {@link MarkovTransitionTable}. When an exposure or
+	 * immunisation overrides the disease transition the symptom transition is
+	 * still taken from the same draw, which is valid because the two are
+	 * independent given the current state.
 	 *
 	 * <p>
-	 * The use of {@link Sampler#bern(Double, Object)} and
-	 * {@link Sampler#multinom(Pair...)} ensures independent stochastic
-	 * realizations. The sum of such independent transitions aligns with the
-	 * framework of the <i>Poisson binomial distribution</i> when aggregating
-	 * over populations, where each individual has a potentially different path
+	 * The sum of independent transitions aligns with the framework of the
+	 * <i>Poisson binomial distribution</i> when aggregating over populations,
+	 * where each individual has a potentially different path
 	 * through the state space.
 	 *
 	 * @param sampler          the random sampler for stochastic transitions
@@ -561,33 +631,25 @@ public interface InHostMarkovState extends InHostModelState<MarkovStateModel> {
 			Sampler sampler, double virionExposure, double immunisationDose
 	) {
 
-		DiseaseState next;
+		var code = this.getMachine().getTransitionTable().next(
+				MarkovTransitionTable
+						.code(this.getDiseaseState(), this.getSymptomState()),
+				sampler.uniform()
+		);
+
+		DiseaseState next = MarkovTransitionTable.disease(code);
 		if (this.getDiseaseState().equals(DiseaseState.SUSCEPTIBLE)) {
 			if (virionExposure > 0) {
-//				if (this.getMachine().getPExposedInfectious() == 1.0) {
-//					//Skip E if E->I duration is zero => pTransition = 1.
-//					next = DiseaseState.INFECTIOUS;
-//				} else {
 				next = DiseaseState.EXPOSED;
-//				}
 			} else if (immunisationDose > 0) {
 				next = DiseaseState.IMMUNE;
-			} else {
-				next = this.getMachine()
-						.updateDiseaseState(this.getDiseaseState(), sampler);
 			}
-		} else {
-			next = this.getMachine()
-					.updateDiseaseState(this.getDiseaseState(), sampler);
 		}
 
 		Builder builder = ImmutableInHostMarkovState.builder().from(this);
 		return builder.setDiseaseState(next)
-				.setSymptomState(
-						this.getMachine().updateSymptomState(
-								this.getSymptomState(), this.getDiseaseState(), sampler
-						)
-				).setTime(this.getTime() + 1).build();
+				.setSymptomState(MarkovTransitionTable.symptom(code))
+				.setTime(this.getTime() + 1).build();
 
 	}
 
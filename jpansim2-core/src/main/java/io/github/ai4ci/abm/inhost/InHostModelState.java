@@ -167,6 +167,17 @@ public interface InHostModelState<CFG extends InHostConfiguration>
 	 */
 	int getTime();
 
+	/**
+	 * Whether an infection is in progress in this host, i.e. the host is
+	 * infectious now or will be without any further exposure. Once no host in
+	 * a simulation has an active infection, and there are no importations, the
+	 * epidemic is extinct and cannot restart.
+	 *
+	 * @return true if the host has a current or incubating infection
+	 */
+	@Value.NonAttribute
+	boolean isInfectionActive();
+
 	/**
 	 * Convenience method to update the in-host state using exposure data from a
 	 * {@link Person}.
@@ -668,6 +668,24 @@ public interface InHostPhenomenologicalState
 	 */
 	BiPhasicLogistic getViralLoadModel();
 
+	/**
+	 * An infection is active while any exposure's viral load curve has not yet
+	 * decayed below 1% of its peak. The viral load curves only approach zero
+	 * asymptotically so this uses the same cut off as
+	 * {@link ExposureModel#isIrrelevant(int, BiPhasicLogistic)} applies to
+	 * immunity, but against the viral load model. Exposures in their growth
+	 * phase count as active even though their current viral load may still be
+	 * negligible.
+	 *
+	 * @return true if any exposure is still producing a viral load
+	 */
+	@Override
+	default boolean isInfectionActive() {
+		return this.getExposures().stream().anyMatch(
+				em -> !em.isIrrelevant(this.getTime(), this.getViralLoadModel())
+		);
+	}
+
 	/**
 	 * Advances the in-host state by one time step, updating exposures and
 	 * immune/viral dynamics.
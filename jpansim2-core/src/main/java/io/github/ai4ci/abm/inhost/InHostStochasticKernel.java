@@ -0,0 +1,236 @@
+package io.github.ai4ci.abm.inhost;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.floor;
+
+import java.io.Serializable;
+
+import io.github.ai4ci.util.Conversions;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * The daily step of the {@link InHostStochasticState} model on a mutable
+ * record of primitive compartment counts.
+ *
+ * <p>
+ * {@link InHostStochasticState#update(Sampler, double, double)} loads its
+ * compartments into one of these, takes a step and copies the result into the
+ * next immutable state. Code that advances many trajectories, such as the
+ * calibration profiles in
+ * {@link io.github.ai4ci.config.inhost.InHostProfiles}, can instead keep one
+ * kernel per trajectory and step it repeatedly without building intermediate
+ * states. The binomial and Poisson draws use the allocation free samplers of
+ * {@link Sampler}, and the parts of the transition probabilities that do not
+ * depend on the compartments are precomputed once per agent in {@link Rates}.
+ *
+ * <p>
+ * A kernel is not thread safe, and is intended to be used by one thread at a
+ * time.
+ *
+ * @author Rob Challen
+ */
+public final class InHostStochasticKernel {
+
+	/**
+	 * The per agent constants of the stochastic model. These depend only on the
+	 * baseline parameters of an {@link InHostStochasticState} so are computed
+	 * once when the agent's in-host state is initialised (see
+	 * {@link InHostStochasticState#getRates()}) and shared by all of the
+	 * agent's subsequent states.
+	 */
+	public static final class Rates implements Serializable {
+
+		final int targets;
+		final int virionsDiseaseCutoff;
+		final int immuneCapacity;
+		final double rateInfection;
+		final double rateReplication;
+		final double rateActivation;
+		final double pInfectedGivenExposed;
+		final double pTargetRecovery;
+		final double pActiveGivenPriming;
+		final double pSenescence;
+		final double pNotCarrier;
+
+		/**
+		 * Precompute the constants for an in-host state.
+		 *
+		 * @param state the state holding the baseline parameters
+		 */
+		public Rates(InHostStochasticState state) {
+			// InHostStochasticState.update scales these by host immunity and
+			// viral activity modifiers that are always 1, so they are left out.
+			// Variation between people comes from the demographic adjustment of
+			// the baseline rates instead.
+			this.targets = state.getTargets();
+			this.virionsDiseaseCutoff = state.getVirionsDiseaseCutoff();
+			this.immuneCapacity = (int) floor(
+					state.getTargets() * state.getImmuneTargetRatio()
+			);
+			this.rateInfection = state.getBaselineViralInfectionRate();
+			this.rateReplication = state.getBaselineViralReplicationRate();
+			this.rateActivation = state.getImmuneActivationRate();
+			this.pInfectedGivenExposed = Conversions
+					.probabilityFromRate(this.rateReplication);
+			this.pTargetRecovery = Conversions
+					.probabilityFromRate(state.getTargetRecoveryRate());
+			this.pActiveGivenPriming = Conversions
+					.probabilityFromRate(this.rateActivation);
+			this.pSenescence = Conversions
+					.probabilityFromRate(state.getImmuneWaningRate());
+			this.pNotCarrier = 1 - state.getInfectionCarrierProbability();
+		}
+	}
+
+	private final Rates rates;
+
+	int time;
+	int virions;
+	int virionsProduced;
+	int targetSusceptible;
+	int targetExposed;
+	int targetInfected;
+	int immune;
+	int immunePriming;
+	int immuneActive;
+
+	/**
+	 * Create a kernel holding the compartments of an in-host state.
+	 *
+	 * @param state the current state
+	 */
+	public InHostStochasticKernel(InHostStochasticState state) {
+		this.rates = state.getRates();
+		this.time = state.getTime();
+		this.virions = state.getVirions();
+		this.virionsProduced = state.getVirionsProduced();
+		this.targetSusceptible = state.getTargetSusceptible();
+		this.targetExposed = state.getTargetExposed();
+		this.targetInfected = state.getTargetInfected();
+		this.immune = state.getImmune();
+		this.immunePriming = state.getImmunePriming();
+		this.immuneActive = state.getImmuneActive();
+	}
+
+	/**
+	 * The normalised severity, as in
+	 * {@link InHostStochasticState#getNormalisedSeverity()}.
+	 *
+	 * @return the proportion of target cells that have been affected
+	 */
+	public double getNormalisedSeverity() {
+		return ((double) this.rates.targets - this.targetSusceptible
+				- this.targetExposed) / this.rates.targets;
+	}
+
+	/**
+	 * The normalised viral load, as in
+	 * {@link InHostStochasticState#getNormalisedViralLoad()}.
+	 *
+	 * @return the virions produced relative to the disease cutoff
+	 */
+	public double getNormalisedViralLoad() {
+		return Conversions.rateRatio(
+				this.virionsProduced, this.rates.virionsDiseaseCutoff
+		);
+	}
+
+	/**
+	 * Advance the compartments by one time step. See
+	 * {@link InHostStochasticState#update(Sampler, double, double)} for the
+	 * model.
+	 *
+	 * @param rng              the random sampler for stochastic transitions
+	 * @param virionDose       the external virion exposure, scaled by disease
+	 *                         cutoff
+	 * @param immunisationDose the immunization strength, interpreted as fraction
+	 *                         of dormant immunity to prime
+	 */
+	public void step(Sampler rng, double virionDose, double immunisationDose) {
+		var r = this.rates;
+		var targetRemoved = r.targets - this.targetSusceptible
+				- this.targetExposed - this.targetInfected;
+		var immuneDormant = this.immune - this.immunePriming - this.immuneActive;
+
+		var virionExposure = (int) virionDose * r.virionsDiseaseCutoff;
+		var immunePrimingDose = (int) floor(immunisationDose * immuneDormant);
+
+		var pNeutralization = 1
+				- exp(-r.rateReplication * this.immuneActive / (double) this.immune);
+		var pInfection = 1
+				- exp(-r.rateInfection * this.targetSusceptible / r.targets);
+
+		var virionsAdded = rng.poisson(r.rateReplication * this.targetInfected);
+		var virionsNeutralized = rng.binom(this.virions, pNeutralization);
+		var virionsInfecting = rng
+				.binom(this.virions - virionsNeutralized, pInfection);
+
+		// Targets - exposed. The number of susceptible targets hit by the
+		// infecting virions is given by the set coverage approximation.
+		var targetInteracted = (int) floor(
+				this.targetSusceptible * (1 - exp(
+						-((double) virionsInfecting) / this.targetSusceptible
+				))
+		);
+		var targetNewlyExposed = rng.binom(targetInteracted, pInfection);
+		var targetRecovered = rng.binom(targetRemoved, r.pTargetRecovery);
+
+		// Targets - infected
+		var pTargetCellularRemoval = Conversions.probabilityFromRate(
+				r.rateReplication * this.immuneActive / r.targets
+		);
+		var targetExposedRemoval = rng.binom(
+				this.targetExposed, r.pNotCarrier * pTargetCellularRemoval
+		);
+		var targetStartInfected = rng.binom(
+				this.targetExposed - targetExposedRemoval, r.pInfectedGivenExposed
+		);
+		var targetInfectedRemoved = rng
+				.binom(this.targetInfected, pTargetCellularRemoval);
+
+		// Immunity - priming
+		var pPrimingGivenInfected = Conversions.probabilityFromRate(
+				r.rateActivation * (this.targetExposed + this.targetInfected)
+						/ r.targets
+		);
+		var immuneStartPriming = rng.binom(immuneDormant, pPrimingGivenInfected);
+		var immuneStartActive = rng
+				.binom(this.immunePriming, r.pActiveGivenPriming);
+
+		// Immunity - active
+		var immuneSenescence = rng.binom(this.immuneActive, r.pSenescence);
+
+		if (immunePrimingDose > this.immune) { immunePrimingDose = this.immune; }
+
+		this.time += 1;
+		this.virionsProduced = this.virions - virionsNeutralized
+				- virionsInfecting + virionsAdded;
+		this.virions = this.virionsProduced + virionExposure;
+		this.targetSusceptible += targetRecovered - targetNewlyExposed;
+		this.targetExposed += targetNewlyExposed - targetExposedRemoval
+				- targetStartInfected;
+		this.targetInfected += targetStartInfected - targetInfectedRemoved;
+		this.immune = r.immuneCapacity - immunePrimingDose;
+		this.immunePriming += immuneStartPriming - immuneStartActive
+				+ immunePrimingDose;
+		this.immuneActive += immuneStartActive - immuneSenescence;
+	}
+
+	/**
+	 * Copy the compartments into a new immutable state.
+	 *
+	 * @param template the state supplying the baseline parameters
+	 * @return the new state
+	 */
+	public InHostStochasticState toState(InHostStochasticState template) {
+		return ImmutableInHostStochasticState.builder().from(template)
+				.setTime(this.time).setVirions(this.virions)
+				.setVirionsProduced(this.virionsProduced)
+				.setTargetSusceptible(this.targetSusceptible)
+				.setTargetExposed(this.targetExposed)
+				.setTargetInfected(this.targetInfected).setImmune(this.immune)
+				.setImmunePriming(this.immunePriming)
+				.setImmuneActive(this.immuneActive).build();
+	}
+
+}
@@ -1,9 +1,5 @@
 package io.github.ai4ci.abm.inhost;
 
-import static java.lang.Math.exp;
-import static java.lang.Math.floor;
-import static java.lang.Math.pow;
-
 import org.immutables.value.Value;
 
 import io.github.ai4ci.config.inhost.StochasticModel;
@@ -200,6 +196,19 @@ public interface InHostStochasticState
 	 */
 	double getInfectionCarrierProbability();
 
+	/**
+	 * The constant parts of the transition probabilities, precomputed from the
+	 * baseline parameters when the state is initialised. The value is carried
+	 * over unchanged by {@link #update(Sampler, double, double)} so it is
+	 * computed once per agent.
+	 *
+	 * @return the per agent rates used by {@link InHostStochasticKernel}
+	 */
+	@Value.Default @Value.Auxiliary @Value.Redacted
+	default InHostStochasticKernel.Rates getRates() {
+		return new InHostStochasticKernel.Rates(this);
+	}
+
 	/**
 	 * Computes a proxy for disease severity based on the proportion of
 	 * non-susceptible target cells.
@@ -370,6 +379,19 @@ public interface InHostStochasticState
 	 */
 	int getVirionsProduced();
 
+	/**
+	 * An infection is active while there are free virions or exposed or
+	 * infected target cells that could produce them. When all three are zero
+	 * the viral population cannot grow again without a new exposure.
+	 *
+	 * @return true if any virions, exposed or infected targets remain
+	 */
+	@Override
+	default boolean isInfectionActive() {
+		return this.getVirions() > 0 || this.getTargetExposed() > 0
+				|| this.getTargetInfected() > 0;
+	}
+
 	/**
 	 * Advances the in-host state by one time step using stochastic difference
 	 * equations.
@@ -428,174 +450,12 @@ public interface InHostStochasticState
 	default InHostStochasticState update(
 			Sampler rng, double virionDose, double immunisationDose
 	) { // , double viralActivityModifier, double immuneModifier) {
-
-		var virionsDx = this.getVirionsDiseaseCutoff();
-
-		var time = this.getTime();
 		// This update function is called when the history has been updated,
 		// as part of the update to the patientState so
 		// exposure will be as determined by current contact network.
-		var virionExposure = (int) virionDose * virionsDx;
-
-		var immunePriming = (int) floor(
-				immunisationDose * this.getImmuneDormant()
-		);
-
-		// TODO: review need for host immunity and viral activity modifiers
-		var hostImmunity = 1D;
-		Double viralActivity = 1D;
-
-		// Viral factors are shared across the model
-		var rate_infection = this.getBaselineViralInfectionRate()
-				* viralActivity;
-		Double rate_virion_replication = pow(
-				this.getBaselineViralReplicationRate(), viralActivity
-		);
-		var rate_infected_given_exposed = rate_virion_replication;
-		// Host factors
-
-		var ratio_immune_target = this.getImmuneTargetRatio() * hostImmunity;
-		var rate_priming_given_infected = this.getImmuneActivationRate()
-				* hostImmunity; // user(1)
-		Double rate_active_given_priming = rate_priming_given_infected;
-
-		var rate_neutralization = rate_virion_replication;
-		var rate_cellular_removal = rate_neutralization;
-
-		Double rate_target_recovery = this.getTargetRecoveryRate() * hostImmunity; // user(1/7);
-
-		Double rate_senescence_given_active = this.getImmuneWaningRate()
-				* (1.0 / hostImmunity); // user(1/150)
-
-		Double p_propensity_chronic = this.getInfectionCarrierProbability(); // user(0)
-
-		// Derived
-		Double p_neutralization = 1 - exp(
-				-rate_neutralization * this.getImmuneActive()
-						/ (double) this.getImmune()
-		);
-		Double p_infection = 1 - exp(
-				-rate_infection * this.getTargetSusceptible() / this.getTargets()
-		);
-
-		Integer virions_added = rng
-				.poisson(rate_virion_replication * this.getTargetInfected());
-		Integer virions_neutralized = rng
-				.binom(this.getVirions(), p_neutralization);
-		Integer virions_infecting = rng
-				.binom(this.getVirions() - virions_neutralized, p_infection);
-
-//		  # virions_infecting is a sample size and targets_susceptible is a pool size #
-//		  coverage of the pool by repeated sampling with replacement is given by: #
-//		  p_target_infected = 1-(1-1/target_susceptible)^virions_infecting # this is
-//		  not a standard way of doing this # because multiple viral particles can
-//		  infect a single host but not vice versa # so a standard collision model is
-//		  not applicable. #
-//		  https://math.stackexchange.com/questions/32800/probability-distribution-of-
-//		  coverage-of-a-set-after-x-independently-randomly/32816#32816
-
-		// Targets - exposed
-		Integer target_interacted = (int) floor(
-			// virions_infecting.doubleValue() *
-//					(1-
-//						pow(
-//							virions_infecting.doubleValue()/(1+virions_infecting.doubleValue()),
-//							(double) getTargetSusceptible()
-//						)
-//					)
-//					(double) getTargetSusceptible() *
-//					(1-
-//						pow(
-//							((double) getTargetSusceptible()-1)/((double) getTargetSusceptible()),
-//							virions_infecting.doubleValue()
-//						)
-//					)
-				this.getTargetSusceptible() * (1 - exp(
-						-virions_infecting.doubleValue()
-								/ (this.getTargetSusceptible())
-				))
-		);
-		Integer target_newly_exposed = rng.binom(target_interacted, p_infection);
-		Double p_target_recovery = Conversions
-				.probabilityFromRate(rate_target_recovery);
-		Integer target_recovered = rng
-				.binom(this.getTargetRemoved(), p_target_recovery);
-		// Targets - infected
-		Double p_infected_given_exposed = Conversions
-				.probabilityFromRate(rate_infected_given_exposed);
-		Double p_target_cellular_removal = Conversions.probabilityFromRate(
-				rate_cellular_removal * this.getImmuneActive() / (this.getTargets())
-		);
-		Integer target_exposed_removal = rng.binom(
-				this.getTargetExposed(),
-				(1 - p_propensity_chronic) * p_target_cellular_removal
-		);
-		Integer target_start_infected = rng.binom(
-				this.getTargetExposed() - target_exposed_removal,
-				p_infected_given_exposed
-		);
-		Integer target_infected_removed = rng
-				.binom(this.getTargetInfected(), p_target_cellular_removal);
-
-		// Immunity - priming
-		Double p_priming_given_infected = Conversions.probabilityFromRate(
-				rate_priming_given_infected
-						* (this.getTargetExposed() + this.getTargetInfected())
-						/ this.getTargets()
-		);
-		Integer immune_start_priming = rng
-				.binom(this.getImmuneDormant(), p_priming_given_infected);
-		Double p_active_given_priming = Conversions
-				.probabilityFromRate(rate_active_given_priming);
-		Integer immune_start_active = rng
-				.binom(this.getImmunePriming(), p_active_given_priming);
-		// Immunity - active
-		Double p_senescence_given_active = Conversions
-				.probabilityFromRate(rate_senescence_given_active);
-		Integer immune_senescence = rng
-				.binom(this.getImmuneActive(), p_senescence_given_active);
-
-		if (immunePriming > this.getImmune()) {
-			immunePriming = this.getImmune();
-		}
-
-		return ImmutableInHostStochasticState.builder().from(this)
-				.setTime(time + 1)
-				// Virions
-				.setVirions(
-						this.getVirions() - virions_neutralized - virions_infecting
-								+ virions_added + virionExposure
-				)
-				.setVirionsProduced(
-						this.getVirions() - virions_neutralized - virions_infecting
-								+ virions_added
-				)
-				// Targets
-				.setTargetSusceptible(
-						this.getTargetSusceptible() - target_newly_exposed
-								+ target_recovered
-				)
-				.setTargetExposed(
-						this.getTargetExposed() + target_newly_exposed
-								- target_exposed_removal - target_start_infected
-				)
-				.setTargetInfected(
-						this.getTargetInfected() + target_start_infected
-								- target_infected_removed
-				)
-				// Immune
-				.setImmune(
-						(int) floor(this.getTargets() * ratio_immune_target)
-								- immunePriming
-				)
-				.setImmunePriming(
-						this.getImmunePriming() + immune_start_priming
-								- immune_start_active + immunePriming
-				)
-				.setImmuneActive(
-						this.getImmuneActive() + immune_start_active
-								- immune_senescence
-				).build();
+		var kernel = new InHostStochasticKernel(this);
+		kernel.step(rng, virionDose, immunisationDose);
+		return kernel.toState(this);
 	}
 
 }
@@ -0,0 +1,247 @@
+package io.github.ai4ci.abm.inhost;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import io.github.ai4ci.abm.inhost.InHostMarkovState.DiseaseState;
+import io.github.ai4ci.abm.inhost.InHostMarkovState.InHostMarkovStateMachine;
+import io.github.ai4ci.abm.inhost.InHostMarkovState.SymptomState;
+
+/**
+ * The daily transitions of an {@link InHostMarkovStateMachine} as a lookup
+ * table over joint disease and symptom states.
+ *
+ * <p>
+ * A joint state is coded as a single small integer,
+ * {@code disease * 4 + symptom}, using the enum ordinals. For each code the
+ * table holds the possible next codes and their cumulative probabilities. The
+ * probability of each is the product of the disease transition and the symptom
+ * transition (which depends on the current disease state), as the two are
+ * independent given the current state. A daily step is then one uniform draw
+ * and a scan of at most a few entries, rather than a Bernoulli and a
+ * multinomial draw through nested switches.
+ *
+ * <p>
+ * The transition probabilities are fixed for each agent once they are
+ * baselined, so the table is built once, with the state machine (see
+ * {@link InHostMarkovStateMachine#getTransitionTable()}). The same
+ * probabilities are used as in
+ * {@link InHostMarkovStateMachine#updateDiseaseState(DiseaseState, io.github.ai4ci.util.Sampler)}
+ * and
+ * {@link InHostMarkovStateMachine#updateSymptomState(SymptomState, DiseaseState, io.github.ai4ci.util.Sampler)},
+ * including the way that the multinomial draw truncates probabilities that sum
+ * to more than one.
+ *
+ * @author Rob Challen
+ */
+public final class MarkovTransitionTable implements Serializable {
+
+	private static final DiseaseState[] DISEASE = DiseaseState.values();
+	private static final SymptomState[] SYMPTOM = SymptomState.values();
+
+	/** The number of joint disease and symptom states. */
+	public static final int STATES = DISEASE.length * SYMPTOM.length;
+
+	/**
+	 * The code for a joint disease and symptom state.
+	 *
+	 * @param disease the disease state
+	 * @param symptom the symptom state
+	 * @return a code between 0 and {@link #STATES}
+	 */
+	public static int code(DiseaseState disease, SymptomState symptom) {
+		return disease.ordinal() * SYMPTOM.length + symptom.ordinal();
+	}
+
+	/**
+	 * The disease state of a code.
+	 *
+	 * @param code a joint state code
+	 * @return the disease state
+	 */
+	public static DiseaseState disease(int code) {
+		return DISEASE[code / SYMPTOM.length];
+	}
+
+	/**
+	 * The symptom state of a code.
+	 *
+	 * @param code a joint state code
+	 * @return the symptom state
+	 */
+	public static SymptomState symptom(int code) {
+		return SYMPTOM[code % SYMPTOM.length];
+	}
+
+	/**
+	 * Advance a whole population by one day. Each agent has their own table,
+	 * which may be shared between agents with the same parameters.
+	 *
+	 * @param tables   the transition table of each agent
+	 * @param codes    the joint state code of each agent, updated in place
+	 * @param uniforms a uniform random number for each agent
+	 */
+	public static void step(
+			MarkovTransitionTable[] tables, byte[] codes, double[] uniforms
+	) {
+		for (var i = 0; i < codes.length; i++) {
+			codes[i] = (byte) tables[i].next(codes[i], uniforms[i]);
+		}
+	}
+
+	// The probabilities of each outcome, in order, with the remainder being the
+	// probability of staying put. This is how Sampler#multinom treats them.
+	private static double[] outcomes(double... probabilities) {
+		var out = new double[probabilities.length + 1];
+		var remaining = 1D;
+		for (var i = 0; i < probabilities.length; i++) {
+			out[i] = Math.max(0, Math.min(probabilities[i], remaining));
+			remaining -= out[i];
+		}
+		out[probabilities.length] = remaining;
+		return out;
+	}
+
+	private final byte[][] next;
+
+	private final double[][] cumulative;
+
+	/**
+	 * Build the table for a state machine.
+	 *
+	 * @param machine the per agent transition probabilities
+	 */
+	public MarkovTransitionTable(InHostMarkovStateMachine machine) {
+		this.next = new byte[STATES][];
+		this.cumulative = new double[STATES][];
+		for (DiseaseState d : DISEASE) {
+			var pd = diseaseTransitions(machine, d);
+			for (SymptomState s : SYMPTOM) {
+				var ps = symptomTransitions(machine, s, d);
+				var codes = new byte[STATES];
+				var cum = new double[STATES];
+				var n = 0;
+				var total = 0D;
+				for (var d2 = 0; d2 < pd.length; d2++) {
+					for (var s2 = 0; s2 < ps.length; s2++) {
+						var p = pd[d2] * ps[s2];
+						if (p <= 0) { continue; }
+						total += p;
+						codes[n] = (byte) (d2 * SYMPTOM.length + s2);
+						cum[n] = total;
+						n++;
+					}
+				}
+				var c = code(d, s);
+				this.next[c] = Arrays.copyOf(codes, n);
+				this.cumulative[c] = Arrays.copyOf(cum, n);
+			}
+		}
+	}
+
+	private static double[] diseaseTransitions(
+			InHostMarkovStateMachine machine, DiseaseState current
+	) {
+		var out = new double[DISEASE.length];
+		switch (current) {
+		case EXPOSED:
+			var e = outcomes(machine.getPExposedInfectious());
+			out[DiseaseState.INFECTIOUS.ordinal()] = e[0];
+			out[DiseaseState.EXPOSED.ordinal()] = e[1];
+			break;
+		case INFECTIOUS:
+			var i = outcomes(machine.getPInfectiousImmune());
+			out[DiseaseState.IMMUNE.ordinal()] = i[0];
+			out[DiseaseState.INFECTIOUS.ordinal()] = i[1];
+			break;
+		case IMMUNE:
+			var r = outcomes(machine.getPImmuneSusceptible());
+			out[DiseaseState.SUSCEPTIBLE.ordinal()] = r[0];
+			out[DiseaseState.IMMUNE.ordinal()] = r[1];
+			break;
+		case SUSCEPTIBLE:
+			out[DiseaseState.SUSCEPTIBLE.ordinal()] = 1;
+			break;
+		default:
+			throw new RuntimeException();
+		}
+		return out;
+	}
+
+	private static double[] symptomTransitions(
+			InHostMarkovStateMachine machine, SymptomState current,
+			DiseaseState dx
+	) {
+		var out = new double[SYMPTOM.length];
+		switch (current) {
+		case ASYMPTOMATIC:
+			if (dx.equals(DiseaseState.INFECTIOUS)) {
+				var a = outcomes(machine.getPAsymptomaticSymptomatic());
+				out[SymptomState.SYMPTOMATIC.ordinal()] = a[0];
+				out[SymptomState.ASYMPTOMATIC.ordinal()] = a[1];
+			} else {
+				out[SymptomState.ASYMPTOMATIC.ordinal()] = 1;
+			}
+			break;
+		case SYMPTOMATIC:
+			var s = outcomes(
+					machine.getPSymptomaticAsymptomatic(),
+					machine.getPSymptomaticHospitalised(),
+					machine.getPSymptomaticDead()
+			);
+			out[SymptomState.ASYMPTOMATIC.ordinal()] = s[0];
+			out[SymptomState.HOSPITALISED.ordinal()] = s[1];
+			out[SymptomState.DEAD.ordinal()] = s[2];
+			out[SymptomState.SYMPTOMATIC.ordinal()] = s[3];
+			break;
+		case HOSPITALISED:
+			var h = outcomes(
+					machine.getPHospitalisedAsymptomatic(),
+					machine.getPHospitalisedDead()
+			);
+			out[SymptomState.ASYMPTOMATIC.ordinal()] = h[0];
+			out[SymptomState.DEAD.ordinal()] = h[1];
+			out[SymptomState.HOSPITALISED.ordinal()] = h[2];
+			break;
+		case DEAD:
+			out[SymptomState.DEAD.ordinal()] = 1;
+			break;
+		default:
+			throw new RuntimeException();
+		}
+		return out;
+	}
+
+	/**
+	 * The next joint state.
+	 *
+	 * @param code    the current joint state code
+	 * @param uniform a uniform random number in [0,1)
+	 * @return the next joint state code
+	 */
+	public int next(int code, double uniform) {
+		var cum = this.cumulative[code];
+		var last = cum.length - 1;
+		for (var i = 0; i < last; i++) {
+			if (uniform < cum[i]) { return this.next[code][i]; }
+		}
+		// rounding in the cumulative sum must not let a draw fall off the end
+		return this.next[code][last];
+	}
+
+	/**
+	 * The probability of moving between two joint states in one day.
+	 *
+	 * @param from the current joint state code
+	 * @param to   the next joint state code
+	 * @return the transition probability
+	 */
+	public double probability(int from, int to) {
+		var cum = this.cumulative[from];
+		for (var i = 0; i < cum.length; i++) {
+			if (this.next[from][i] == to) { return cum[i] - (i == 0 ? 0 : cum[i - 1]); }
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,121 @@
+package io.github.ai4ci.abm.riskmodel;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import io.github.ai4ci.abm.Contact;
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.Person;
+
+/**
+ * Push based propagation of direct risk evidence along detected contacts.
+ *
+ * <p>
+ * This is a temporary data structure that is created once per update cycle by
+ * the {@link io.github.ai4ci.flow.mechanics.Updater}. It replaces the need for
+ * every agent to look up every one of its recent contacts each day to find out
+ * how their direct evidence has changed. Instead each agent's
+ * {@link RiskModel} is updated once in {@link #push(Person)}, and the change in
+ * its direct log-odds for each day in the past is scattered along the detected
+ * contacts it made on that day. Most agents have no new direct evidence on any
+ * given day, so most agents push nothing. Once all agents have been pushed,
+ * {@link #get(Person)} adds whatever each agent has received to the contact
+ * log-odds it carries forward in {@link RiskKernels#getContactLogOdds()}, so
+ * that the indirect log-odds is a short dot product with the contacts kernel.
+ *
+ * <p>
+ * Received values are summed as fixed point longs. Addition is then exact and
+ * order independent, so the result does not depend on the order in which the
+ * parallel pushes happen, and simulations remain reproducible.
+ *
+ * @author Rob Challen
+ */
+public class ContactRiskPropagator {
+
+	private static final double SCALE = 0x1p32;
+
+	private final int ages;
+	private final AtomicLongArray received;
+	private final RiskModel[] updated;
+
+	/**
+	 * Create a propagator for one update cycle of an outbreak. The number of
+	 * days tracked is the retrospective size of the contacts kernel.
+	 *
+	 * @param outbreak the outbreak being updated
+	 */
+	public ContactRiskPropagator(Outbreak outbreak) {
+		this(
+				outbreak.getPeople().size(), outbreak.getBaseline().getRiskKernels()
+						.getContactsKernel().retrospectiveSize()
+		);
+	}
+
+	/**
+	 * Create a propagator for a population of a given size.
+	 *
+	 * @param people the number of people, whose ids must be 0 to people-1
+	 * @param ages   the number of days of contacts that contribute to risk
+	 */
+	public ContactRiskPropagator(int people, int ages) {
+		this.ages = ages;
+		this.received = new AtomicLongArray(people * ages);
+		this.updated = new RiskModel[people];
+	}
+
+	/**
+	 * Retrieve the updated risk model for a person including the contact
+	 * evidence pushed to them. This must only be called after
+	 * {@link #push(Person)} has been called for everyone in the outbreak.
+	 *
+	 * @param person the person
+	 * @return the risk model for the next time step
+	 */
+	public RiskModel get(Person person) {
+		var id = person.getId();
+		var next = this.updated[id];
+		// The new model has not been seen by anyone else yet so its row of the
+		// contact slab can be added to in place.
+		var slab = next.getKernels().getContactLogOdds();
+		var time = next.getTime();
+		for (var j = 0; j < this.ages; j++) {
+			slab.add(id, time, j, this.received.get(id * this.ages + j) / SCALE);
+		}
+		// Contacts outside of the retained history no longer contribute.
+		slab.truncate(id, time, person.getHistory().size());
+		return next;
+	}
+
+	/**
+	 * Update a person's risk model with today's direct evidence and push the
+	 * change in their direct log-odds to the people they have been in detected
+	 * contact with. Thread safe, for different people.
+	 *
+	 * @param person the person whose risk model is being updated
+	 */
+	public void push(Person person) {
+		var id = person.getId();
+		var previous = person.getCurrentState().getRiskModel();
+		var next = previous.update();
+		this.updated[id] = next;
+
+		// next(j) and previous(j-1) refer to the same day, so the difference is
+		// the new evidence about that day learnt today. The previous day is
+		// still readable as the update wrote into the other buffer.
+		for (var j = 0; j < this.ages; j++) {
+			var delta = next.getDirectLogOddsInPast(j)
+					- previous.getDirectLogOddsInPast(j - 1);
+			var fixed = Math.round(delta * SCALE);
+			if (fixed == 0) { continue; }
+			var history = person.getHistory(j);
+			if (history.isEmpty()) { break; }
+			for (Contact c : history.get().getTodaysContactList()) {
+				if (c.isDetected()) {
+					this.received.getAndAdd(
+							c.getParticipant(id) * this.ages + j, fixed
+					);
+				}
+			}
+		}
+	}
+
+}
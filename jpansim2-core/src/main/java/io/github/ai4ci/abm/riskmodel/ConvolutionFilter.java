@@ -6,6 +6,7 @@ import java.util.Arrays;
 import org.immutables.value.Value;
 
 import io.github.ai4ci.functions.KernelFunction;
+import io.github.ai4ci.util.DoubleArrayView;
 
 /**
  * A convolution kernel or filter. This is an integer time based filter.
@@ -126,9 +127,19 @@ public interface ConvolutionFilter extends Serializable {
 	 *         return zero if the offset is in the future
 	 */
 	default double getDensity(int offset) {
-		var index = offset + this.getOffset();
-		if (index < 0 || index >= this.getDensity().length) return 0;
-		return this.getDensity()[index];
+		return this.getDensityView().getOrDefault(offset + this.getOffset(), 0);
+	}
+
+	/**
+	 * A read only view of the kernel density values, built on first use. Unlike
+	 * {@link #getDensity()} reading from the view does not copy the array.
+	 *
+	 * @return the kernel density values, ordered from most recent (potentially
+	 *         future) to oldest (past) data point
+	 */
+	@Value.Lazy
+	default DoubleArrayView getDensityView() {
+		return DoubleArrayView.wrap(this.getDensity());
 	}
 
 	/**
@@ -174,7 +185,7 @@ public interface ConvolutionFilter extends Serializable {
 	default ConvolutionFilter scale(double factor) {
 		return ImmutableConvolutionFilter.builder().from(this)
 				.setDensity(
-						Arrays.stream(this.getDensity()).map(d -> d * factor)
+						this.getDensityView().stream().map(d -> d * factor)
 								.toArray()
 				).build();
 	}
@@ -189,6 +200,6 @@ public interface ConvolutionFilter extends Serializable {
 	 * @return the total size of the kernel density array
 	 */
 	default int size() {
-		return this.getDensity().length;
+		return this.getDensityView().length();
 	}
 }
\ No newline at end of file
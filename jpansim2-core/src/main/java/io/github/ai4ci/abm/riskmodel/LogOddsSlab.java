@@ -0,0 +1,119 @@
+package io.github.ai4ci.abm.riskmodel;
+
+import java.io.Serializable;
+
+/**
+ * Log-odds evidence for the whole population, for a fixed number of days in
+ * the past, held in two buffers that swap roles each day.
+ *
+ * <p>
+ * Each person has a row of {@link #capacity()} values in each buffer, indexed
+ * by their id. The risk models for one day read the buffer for that day,
+ * while the risk models for the next day are written in place into the other
+ * buffer. The previous day's models are therefore still readable while the
+ * update cycle builds the next day, without any array being allocated or
+ * copied into a new one. A risk model can only be read until the update that
+ * builds the day after next begins, as that overwrites its buffer.
+ *
+ * <p>
+ * Within a row the value for a given day is kept in the slot for that day
+ * modulo the capacity, so index 0 (today) and increasing indices further in
+ * the past move through the slots as time moves on. Moving a row to the next
+ * day with {@link #advance(int, int)} copies it unchanged into the other
+ * buffer and clears the slot for the new day, which held the value that has
+ * dropped out of the window. Values beyond the capacity are zero.
+ *
+ * <p>
+ * The slabs are built once per outbreak with the {@link RiskKernels}. They are
+ * only modified by this package, for rows of risk models that have not yet
+ * been published.
+ *
+ * @author Rob Challen
+ */
+public final class LogOddsSlab implements Serializable {
+
+	private final int capacity;
+	private final double[][] buffers;
+
+	/**
+	 * A slab of zeros.
+	 *
+	 * @param people   the number of people, whose ids must be 0 to people-1
+	 * @param capacity the number of days retained
+	 */
+	public LogOddsSlab(int people, int capacity) {
+		this.capacity = capacity;
+		this.buffers = new double[2][people * capacity];
+	}
+
+	/**
+	 * Add to a person's value a number of days in the past. Values outside of
+	 * the window are ignored.
+	 *
+	 * @param row   the person's id
+	 * @param time  the time of the risk model being built
+	 * @param i     days in the past
+	 * @param value log-odds to add
+	 */
+	void add(int row, int time, int i, double value) {
+		if (i < 0 || i >= this.capacity) { return; }
+		this.buffers[time & 1][this.index(row, time, i)] += value;
+	}
+
+	/**
+	 * Move a person's row on from one day to the next, with a zero for the new
+	 * day. The row for the earlier day is left unchanged.
+	 *
+	 * @param row  the person's id
+	 * @param time the time of the risk model being moved on
+	 */
+	void advance(int row, int time) {
+		if (this.capacity == 0) { return; }
+		var start = row * this.capacity;
+		var next = this.buffers[(time + 1) & 1];
+		System.arraycopy(
+				this.buffers[time & 1], start, next, start, this.capacity
+		);
+		next[this.index(row, time + 1, 0)] = 0;
+	}
+
+	/**
+	 * The number of days retained
+	 *
+	 * @return the fixed capacity of each row
+	 */
+	public int capacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * A person's log-odds a number of days in the past.
+	 *
+	 * @param row  the person's id
+	 * @param time the time of the risk model
+	 * @param i    days in the past (0 = today, 1 = yesterday, etc.)
+	 * @return the log-odds, or zero if outside of the window
+	 */
+	public double get(int row, int time, int i) {
+		if (i < 0 || i >= this.capacity) { return 0; }
+		return this.buffers[time & 1][this.index(row, time, i)];
+	}
+
+	private int index(int row, int time, int i) {
+		return row * this.capacity + Math.floorMod(time - i, this.capacity);
+	}
+
+	/**
+	 * Zero a person's values from a number of days in the past onwards.
+	 *
+	 * @param row  the person's id
+	 * @param time the time of the risk model being built
+	 * @param from days in the past of the first value to clear
+	 */
+	void truncate(int row, int time, int from) {
+		for (var i = Math.max(from, 0); i < this.capacity; i++) {
+			this.buffers[time & 1][this.index(row, time, i)] = 0;
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+package io.github.ai4ci.abm.riskmodel;
+
+import java.io.Serializable;
+
+import org.immutables.value.Value;
+
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+
+/**
+ * The convolution kernels used by every {@link RiskModel} in an outbreak, and
+ * the slabs holding every risk model's evidence.
+ *
+ * <p>
+ * These are built once when the outbreak is baselined and held in the
+ * {@link io.github.ai4ci.abm.OutbreakBaseline}, so that all agents' risk models
+ * refer to the same kernels rather than each building their own. The length of
+ * evidence that needs to be retained is derived here once too, and sizes the
+ * {@link LogOddsSlab}s that hold each agent's evidence in a row.
+ *
+ * @author Rob Challen
+ */
+@Value.Immutable
+public interface RiskKernels extends Serializable {
+
+	/**
+	 * Build the risk model kernels from the execution configuration.
+	 *
+	 * @param config       the execution configuration defining the kernels
+	 * @param meanContacts the expected number of contacts per person per day,
+	 *                     used to scale the contacts kernel
+	 * @param people       the number of people in the outbreak, whose ids must
+	 *                     be 0 to people-1
+	 * @return the shared kernels, with empty evidence slabs
+	 */
+	static RiskKernels from(
+			ExecutionConfiguration config, double meanContacts, int people
+	) {
+		return ImmutableRiskKernels.builder()
+				.setSymptomKernel(
+						ConvolutionFilter.from(config.getRiskModelSymptomKernel())
+				)
+				.setTestKernel(
+						ConvolutionFilter.from(config.getRiskModelTestKernel())
+				)
+				.setContactsKernel(
+						ConvolutionFilter.from(config.getRiskModelContactsKernel())
+								.scale(1 / meanContacts)
+				).setPopulationSize(people).build();
+	}
+
+	/**
+	 * The summed contact log-odds of every person, in rows with the capacity of
+	 * the retrospective size of the contacts kernel.
+	 *
+	 * @return the contact evidence slab
+	 * @see RiskModel#getContactLogOddsInPast(int)
+	 */
+	@Value.Default @Value.Auxiliary
+	default LogOddsSlab getContactLogOdds() {
+		return new LogOddsSlab(
+				this.getPopulationSize(),
+				this.getContactsKernel().retrospectiveSize()
+		);
+	}
+
+	/**
+	 * @return convolution filter for contact exposure evidence weighting, scaled
+	 *         by the expected number of contacts per day
+	 * @see RiskModel#getContactsKernel()
+	 */
+	@Value.Redacted
+	ConvolutionFilter getContactsKernel();
+
+	/**
+	 * The direct log-odds of every person, in rows with a capacity of
+	 * {@link #getMaxLength()}.
+	 *
+	 * @return the direct evidence slab
+	 * @see RiskModel#getDirectLogOddsInPast(int)
+	 */
+	@Value.Default @Value.Auxiliary
+	default LogOddsSlab getDirectLogOdds() {
+		return new LogOddsSlab(this.getPopulationSize(), this.getMaxLength());
+	}
+
+	/**
+	 * Maximum temporal window for evidence retention.
+	 *
+	 * @return the largest retrospective size of the three kernels
+	 * @see RiskModel#getMaxLength()
+	 */
+	@Value.Derived
+	default int getMaxLength() {
+		return Math.max(
+				Math.max(
+						this.getContactsKernel().retrospectiveSize(),
+						this.getSymptomKernel().retrospectiveSize()
+				), this.getTestKernel().retrospectiveSize()
+		);
+	}
+
+	/**
+	 * @return the number of people with a row in the evidence slabs
+	 */
+	int getPopulationSize();
+
+	/**
+	 * @return convolution filter for symptom evidence weighting
+	 * @see RiskModel#getSymptomKernel()
+	 */
+	@Value.Redacted
+	ConvolutionFilter getSymptomKernel();
+
+	/**
+	 * @return convolution filter for test evidence weighting
+	 * @see RiskModel#getTestKernel()
+	 */
+	@Value.Redacted
+	ConvolutionFilter getTestKernel();
+
+}
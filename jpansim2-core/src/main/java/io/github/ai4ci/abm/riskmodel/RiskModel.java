@@ -6,7 +6,6 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.github.ai4ci.abm.Contact;
 import io.github.ai4ci.abm.ModelNav;
 import io.github.ai4ci.abm.Person;
 import io.github.ai4ci.abm.TestResult;
@@ -101,54 +100,29 @@ public interface RiskModel extends Serializable {
 	double PROB_REPORTING_NEGATIVE_SYMPTOMS = 0.02;
 
 	/**
-	 * Initialize a new risk model for a person with configured convolution
-	 * kernels.
+	 * Initialize a new risk model for a person with the outbreak's shared
+	 * convolution kernels.
 	 *
 	 * <p>
-	 * Sets up temporal weighting functions from execution configuration: -
-	 * Symptom kernel: \(K_{\text{symptom}}(t)\) - Test kernel:
-	 * \(K_{\text{test}}(t)\) - Contacts kernel: \(K_{\text{contacts}}(t) /
-	 * \text{expectedContacts}\)
+	 * The temporal weighting functions are set up once per outbreak from the
+	 * execution configuration, when the outbreak is baselined (see
+	 * {@link RiskKernels}): - Symptom kernel: \(K_{\text{symptom}}(t)\) - Test
+	 * kernel: \(K_{\text{test}}(t)\) - Contacts kernel:
+	 * \(K_{\text{contacts}}(t) / \text{expectedContacts}\)
+	 *
+	 * <p>
+	 * The evidence is held in the person's row of the outbreak's
+	 * {@link LogOddsSlab}s, which is empty until the first update.
 	 *
 	 * @param person the individual to model
 	 * @return initialized risk model ready for evidence accumulation
 	 */
 	static RiskModel initialise(Person person) {
-		var config = ModelNav.modelParam(person);
-		var meanContacts = ModelNav.modelBase(person)
-				.getExpectedContactsPerPersonPerDay();
 		return ImmutableRiskModel.builder().setEntity(person)
 				.setTime(
 						person.getOutbreak().getCurrentState() == null ? 0
 								: person.getOutbreak().getCurrentState().getTime()
-				)
-				.setSymptomKernel(
-						ConvolutionFilter.from(config.getRiskModelSymptomKernel())
-				)
-				.setTestKernel(
-						ConvolutionFilter.from(config.getRiskModelTestKernel())
-				)
-				.setContactsKernel(
-						ConvolutionFilter.from(config.getRiskModelContactsKernel())
-								.scale(1 / meanContacts)
-				).build();
-	}
-
-	/**
-	 * Shift evidence array one day forward, adding today's slot at index 0. Past
-	 * evidence beyond maxLength is truncated. This is only possible for direct
-	 * evidence as indirect evidence is recalculated each day.
-	 *
-	 * @param old previous day's evidence array
-	 * @return new array with updated timing
-	 */
-	private double[] copyOf(double[] old) {
-		var len = Math.min(old.length + 1, this.getMaxLength());
-		var out = new double[len];
-		for (var i = 1; i < out.length; i++) {
-			out[i] = old[i - 1];
-		}
-		return out;
+				).setKernels(ModelNav.modelBase(person).getRiskKernels()).build();
 	}
 
 	/**
@@ -163,11 +137,36 @@ public interface RiskModel extends Serializable {
 	 *
 	 * @return convolution filter for contact exposure evidence weighting
 	 */
-	@Value.Redacted
-	ConvolutionFilter getContactsKernel();
+	default ConvolutionFilter getContactsKernel() {
+		return this.getKernels().getContactsKernel();
+	}
 
 	/**
-	 * Array of direct log-odds evidence for infectiousness on past days. Index 0
+	 * The summed direct log-odds of this person's detected contacts on a past
+	 * day. Index 0 represents the contacts made on the most recent day in the
+	 * person's history, increasing indices represent further in the past. Each
+	 * entry is the sum, over the detected contacts made on that day, of the
+	 * contact's direct log-odds of being infectious on that day, as judged
+	 * today.
+	 *
+	 * <p>
+	 * This is not recalculated from the contacts each day. It is moved one day
+	 * forward by {@link #update()} and the changes in each contact's direct
+	 * evidence are then pushed into it by a {@link ContactRiskPropagator}
+	 * during the update cycle. It is held in
+	 * {@link RiskKernels#getContactLogOdds()}, and is zero beyond the
+	 * retrospective size of the contacts kernel.
+	 *
+	 * @param i days in the past (0 = today, 1 = yesterday, etc.)
+	 * @return summed contact log-odds for that day
+	 */
+	default double getContactLogOddsInPast(int i) {
+		return this.getKernels().getContactLogOdds()
+				.get(this.getIndex(), this.getTime(), i);
+	}
+
+	/**
+	 * Retrieve direct log-odds evidence for a specific past day. Index 0
 	 * represents today, increasing indices represent further in the past.
 	 * Calculated as:
 	 * \[\log\left(\frac{p(\text{infectious}|evidence)}{1-p(\text{infectious}|evidence)}\right)\]
@@ -175,23 +174,16 @@ public interface RiskModel extends Serializable {
 	 * <p>
 	 * What is this evidence of this person being infectious 0..N days in the
 	 * past judged today expressed as a log odds, based on symptoms and test
-	 * results that are available today.
-	 *
-	 * @return array of log-odds evidence for infectiousness on past days, where
-	 *         index 0 is today
-	 */
-	@Value.Default
-	default double[] getDirectLogOdds() { return new double[0]; }
-
-	/**
-	 * Retrieve direct log-odds evidence for a specific past day.
+	 * results that are available today. It is held in
+	 * {@link RiskKernels#getDirectLogOdds()}, and is zero beyond
+	 * {@link #getMaxLength()} days.
 	 *
 	 * @param i days in the past (0 = today, 1 = yesterday, etc.)
 	 * @return log-odds evidence for infectiousness on that day
 	 */
 	default double getDirectLogOddsInPast(int i) {
-		if (i < 0 || i >= this.getDirectLogOdds().length) { return 0; }
-		return this.getDirectLogOdds()[i];
+		return this.getKernels().getDirectLogOdds()
+				.get(this.getIndex(), this.getTime(), i);
 	}
 
 	/**
@@ -201,6 +193,24 @@ public interface RiskModel extends Serializable {
 	 */
 	Person getEntity();
 
+	/**
+	 * The row of this person's evidence in the outbreak's
+	 * {@link LogOddsSlab}s, which is their id.
+	 *
+	 * @return the slab row
+	 */
+	@Value.Derived @Value.Auxiliary
+	default int getIndex() { return this.getEntity().getId(); }
+
+	/**
+	 * The convolution kernels, which are shared by all the risk models in an
+	 * outbreak.
+	 *
+	 * @return the outbreak's risk model kernels
+	 */
+	@Value.Redacted
+	RiskKernels getKernels();
+
 	/**
 	 * Indirect log-odds from contact exposures.
 	 *
@@ -211,65 +221,29 @@ public interface RiskModel extends Serializable {
 	 * K_{\text{contacts}}(i) \]
 	 *
 	 * <p>
-	 * Unlike direct evidence, contact risk is recalculated daily rather than
-	 * updated incrementally, as contact risk evolves with changing contact
-	 * states. What will the evidence be for this person being infectious today
-	 * as a result of their past contacts. This value is would change
+	 * Unlike direct evidence, contact risk evolves with the changing states of
+	 * the contacts. What will the evidence be for this person being infectious
+	 * today as a result of their past contacts. This value would change
 	 * retrospectively if you estimated it again the next day as the contacts
 	 * test results and symptoms change. However this is only useful information
-	 * if we are interested in contacts of contacts. We are no so we do the
+	 * if we are interested in contacts of contacts. We are not so we do the
 	 * simpler thing which is look at recent contacts and get an estimate for
 	 * today only.
 	 *
+	 * <p>
+	 * The inner sum over contacts is maintained incrementally in
+	 * {@link #getContactLogOddsInPast(int)}, so this is just a weighting of
+	 * that by the contacts kernel and does not need to look up any contacts.
+	 *
 	 * @return log-likelihood ratio from contact exposures
 	 */
 	@Value.Lazy
 	default double getIndirectLogOdds() {
-		// double[] newer = new double[getMaxLength()];
-
 		var contacts = this.getContactsKernel();
-
-		// old contacts inform new time points, but old contacts change also.
-		// Unlike symptoms and tests we don't get new information about the
-		// contacts but the information value of each contact changes. This
-		// means we can't update the old value in the same way, and we
-		// basically have to recalculate it each time. If we wanted to do this
-		// retrospectively we would have to check every contact for every past
-		// day which would be expensive.
-
-		// This is only really useful if we are actually using historical
-		// indirect log odds to inform a contact. So for that to be useful
-		// we need to be considering if the contacts of an indirect contact are
-		// informative in addition to the tests / symptoms of a direct contact.
-		// This seems unlikely to be beneficial.
-
-		// What we are actually doing instead is getting a single value for the
-		// most up to date contacts. This value is only right for the point in
-		// time at which it is calculated.
-
 		var logOdds = 0D;
-
 		for (var i = 0; i < contacts.retrospectiveSize(); i++) {
-			var ph = this.getEntity().getHistory(i);
-			final var density = contacts.getDensity(i);
-			if (ph.isPresent()) {
-				for (Contact c : ph.get().getTodaysContacts()) {
-					try {
-						if (c.isDetected()) {
-							logOdds += c.getParticipantState(ph.get()).getRiskModel()
-									.getDirectLogOddsInPast(i) *
-							// c.getProximityDuration() *
-									density;
-						}
-					} catch (NullPointerException e) {
-						log.error(
-								"Persistent null pointer in contact network detected"
-						);
-					}
-				}
-			}
+			logOdds += this.getContactLogOddsInPast(i) * contacts.getDensity(i);
 		}
-
 		return logOdds;
 	}
 
@@ -302,19 +276,12 @@ public interface RiskModel extends Serializable {
 	 * kernels: \[ \text{maxLength} =
 	 * \max(\text{symptomKernel.retrospectiveSize},
 	 * \text{testKernel.retrospectiveSize},
-	 * \text{contactsKernel.retrospectiveSize}) \]
+	 * \text{contactsKernel.retrospectiveSize}) \] This is derived once for the
+	 * outbreak in {@link RiskKernels}.
 	 *
 	 * @return maximum number of days to retain evidence
 	 */
-	@Value.Derived
-	default int getMaxLength() {
-		return Math.max(
-				Math.max(
-						this.getContactsKernel().retrospectiveSize(),
-						this.getSymptomKernel().retrospectiveSize()
-				), this.getTestKernel().retrospectiveSize()
-		);
-	}
+	default int getMaxLength() { return this.getKernels().getMaxLength(); }
 
 	/**
 	 * Probability of being infectious today, incorporating all available
@@ -359,8 +326,9 @@ public interface RiskModel extends Serializable {
 	 *
 	 * @return convolution filter for symptom evidence weighting
 	 */
-	@Value.Redacted
-	ConvolutionFilter getSymptomKernel();
+	default ConvolutionFilter getSymptomKernel() {
+		return this.getKernels().getSymptomKernel();
+	}
 
 	/**
 	 * The test kernel is used to weight the contribution of test evidence over
@@ -376,8 +344,9 @@ public interface RiskModel extends Serializable {
 	 *
 	 * @return convolution filter for test evidence weighting
 	 */
-	@Value.Redacted
-	ConvolutionFilter getTestKernel();
+	default ConvolutionFilter getTestKernel() {
+		return this.getKernels().getTestKernel();
+	}
 
 	/**
 	 * Simulation time
@@ -431,15 +400,25 @@ public interface RiskModel extends Serializable {
 	 *
 	 * <p>
 	 * Called during the daily update cycle when new history becomes available.
+	 * Contact evidence is only moved forward in time here; the new contact
+	 * evidence for the day is added by the {@link ContactRiskPropagator}.
+	 *
+	 * <p>
+	 * The evidence for the next day is written in place into the person's row
+	 * of the other buffer of each {@link LogOddsSlab}, so nothing is allocated
+	 * apart from the new model, and this model can still be read until the
+	 * following update.
 	 *
 	 * @return updated risk model with incremented time and new evidence
 	 *         incorporated
 	 */
 	default RiskModel update() {
-		var tmp = ImmutableRiskModel.builder().from(this);
-		tmp.setDirectLogOdds(this.updateDirectLogOdds(this.getDirectLogOdds()))
-				.setTime(this.getTime() + 1);
-		return tmp.build();
+		var next = ImmutableRiskModel.builder().from(this)
+				.setTime(this.getTime() + 1).build();
+		this.getKernels().getContactLogOdds()
+				.advance(this.getIndex(), this.getTime());
+		this.updateDirectLogOdds();
+		return next;
 	}
 
 	/**
@@ -452,9 +431,10 @@ public interface RiskModel extends Serializable {
 	 * convolution
 	 *
 	 * Logic here is complex. We are updating what we know about the past given
-	 * the extra information that becomes available today. The old directLogOdds
-	 * array is 0..N days in the past from yesterday. We shift this one
-	 * additional day and set todays directLogOdds to 0 using copyOf
+	 * the extra information that becomes available today. The old direct
+	 * log-odds row is 0..N days in the past from yesterday. We move this on one
+	 * additional day into the other buffer and set todays direct log-odds to 0
+	 * using advance
 	 *
 	 * <p>
 	 * Symptom evidence convolution: \[ LR_{\text{new}}[0] +=
@@ -467,15 +447,17 @@ public interface RiskModel extends Serializable {
 	 * Test evidence follows similar convolution patterns accounting for result
 	 * delays.
 	 *
-	 * @param old previous day's evidence array
-	 * @return updated evidence array incorporating today's information
+	 * The updated evidence is written into the row for the next day.
 	 */
-	private double[] updateDirectLogOdds(double[] old) {
+	private void updateDirectLogOdds() {
 
 		// the old state accounts for information from symptoms up to last time
 		// point and we can reuse that (since results are not updated in this
 		// model).
-		var newer = this.copyOf(old);
+		var slab = this.getKernels().getDirectLogOdds();
+		var row = this.getIndex();
+		var time = this.getTime() + 1;
+		slab.advance(row, this.getTime());
 		// Additional information from symptoms today:
 		var symptoms = this.getSymptomKernel();
 
@@ -488,8 +470,11 @@ public interface RiskModel extends Serializable {
 			var ph = this.getEntity().getHistory(i);
 			final var density = symptoms.getDensity(i);
 			if (ph.isPresent()) {
-				newer[0] += this.symptomLogLik(ph.get().isReportedSymptomatic())
-						* density;
+				slab.add(
+						row, time, 0,
+						this.symptomLogLik(ph.get().isReportedSymptomatic())
+								* density
+				);
 			}
 		}
 
@@ -500,10 +485,13 @@ public interface RiskModel extends Serializable {
 			var ph = this.getEntity().getCurrentHistory();
 			if (ph.isPresent()) {
 				var maxIndex = Math
-						.min(newer.length - 1, symptoms.prospectiveSize());
+						.min(slab.capacity() - 1, symptoms.prospectiveSize());
 				for (var i = 1; i <= maxIndex; i++) {
-					newer[i] += this.symptomLogLik(ph.get().isReportedSymptomatic())
-							* symptoms.getDensity(-i);
+					slab.add(
+							row, time, i,
+							this.symptomLogLik(ph.get().isReportedSymptomatic())
+									* symptoms.getDensity(-i)
+					);
 				}
 			}
 		}
@@ -525,7 +513,9 @@ public interface RiskModel extends Serializable {
 					// delay, while the result is pending
 					// tests taken today with no delay should be included here.
 					// e.g. LFTs
-					newer[0] += tr.logLikelihoodRatio(tmpI) * density;
+					slab.add(
+							row, time, 0, tr.logLikelihoodRatio(tmpI) * density
+					);
 				}
 			}
 		}
@@ -541,21 +531,21 @@ public interface RiskModel extends Serializable {
 					// a positive result influences everything up to the past size
 					// of the kernel plus the delay (from 1 to 10 days in the past).
 					var maxIndex = Math.min(
-							newer.length - 1,
+							slab.capacity() - 1,
 							tests.prospectiveSize() + (int) tr.getDelay()
 					);
 					for (var i = 1; i <= maxIndex; i++) {
 						// The kernel offset has to be calculated such that the
 						// delay is accounted for.
 						var offset = (int) tr.getDelay() - i;
-						newer[i] += tr.trueLogLikelihoodRatio()
-								* symptoms.getDensity(offset);
+						slab.add(
+								row, time, i, tr.trueLogLikelihoodRatio()
+										* symptoms.getDensity(offset)
+						);
 					}
 				}
 			}
 		}
-
-		return newer;
 	}
 
 }
@@ -17,6 +17,13 @@
  * weighting functions for evidence convolution across time</li>
  * <li>{@link io.github.ai4ci.abm.riskmodel.ImmutableRiskModel} - Immutable
  * implementation of the risk model interface</li>
+ * <li>{@link io.github.ai4ci.abm.riskmodel.RiskKernels} - The kernels, built
+ * once per outbreak and shared by every risk model</li>
+ * <li>{@link io.github.ai4ci.abm.riskmodel.LogOddsSlab} - Double buffered
+ * evidence for the whole population by days in the past</li>
+ * <li>{@link io.github.ai4ci.abm.riskmodel.ContactRiskPropagator} - Pushes
+ * changes in direct evidence along detected contacts during the update
+ * cycle</li>
  * </ul>
  *
  * <h2>Bayesian Framework</h2>
@@ -61,7 +68,10 @@
  * Calculates risk from contact exposures using recursive risk assessment: \[
  * LR_{\text{indirect}} = \sum_{i=0}^{N_{\text{contacts}}}
  * \sum_{\text{contact}\in\text{contacts}_i} LR_{\text{contact}}(i) \times
- * K_{\text{contacts}}(i) \]
+ * K_{\text{contacts}}(i) \] The inner sum over contacts is not recalculated
+ * by each person every day. Instead each person's daily change in direct
+ * evidence is pushed to their detected contacts, who keep a running total for
+ * each day of contact.
  *
  * <h2>Temporal Window Management</h2>
  * <p>
@@ -1,5 +1,7 @@
 package io.github.ai4ci.config;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -20,6 +22,28 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 @JsonDeserialize(as = ImmutableBatchConfiguration.class)
 public interface BatchConfiguration {
 
+	/**
+	 * What a simulation does once its epidemic is extinct (see
+	 * {@link io.github.ai4ci.abm.OutbreakState#isExtinct()}).
+	 */
+	public static enum ExtinctionMode {
+		/** Keep simulating to the end of the simulation duration. */
+		CONTINUE,
+		/**
+		 * Stop the simulation on the day extinction is detected. The outputs end
+		 * on that day, and the final state is flagged as extinct.
+		 */
+		STOP,
+		/**
+		 * Stop simulating as for {@link #STOP}, but fill in the daily summary up
+		 * to the end of the simulation duration, so the summary has the same
+		 * length as a full run. Only the values that cannot change after
+		 * extinction are filled in; the rest are missing (see
+		 * {@link io.github.ai4ci.output.CSVMapper#toFastForwardCSV}).
+		 */
+		FAST_FORWARD
+	}
+
 	/**
 	 * A sensible default batch configuration used in examples and tests.
 	 *
@@ -87,6 +111,22 @@ public interface BatchConfiguration {
 		return 1;
 	}
 
+	/**
+	 * How often to checkpoint a running simulation, in simulation days. If set,
+	 * the state of the running simulation and the extent of the output files
+	 * are saved to a {@code checkpoint} directory in the output directory every
+	 * this many days, and when each simulation completes. Rerunning an
+	 * interrupted batch with the same configuration then skips the completed
+	 * simulations and resumes the one that was running from its last
+	 * checkpoint.
+	 *
+	 * @return the checkpoint interval in days, or 0 (the default) to disable
+	 *         checkpoints
+	 * @see io.github.ai4ci.flow.Checkpoint
+	 */
+	@Value.Default
+	default int getCheckpointInterval() { return 0; }
+
 	/**
 	 * Gets the list of exporters to be used in the simulation.
 	 *
@@ -99,6 +139,32 @@ public interface BatchConfiguration {
 				Exporters.FINAL_STATE };
 	}
 
+	/**
+	 * What to do when the epidemic in a simulation dies out before the end of
+	 * the simulation duration. Once no agent has an active infection, and
+	 * there are no importations, the remaining days cannot have any new
+	 * infections, so simulating them in full is mostly wasted effort.
+	 *
+	 * @return the extinction mode, by default {@link ExtinctionMode#CONTINUE}
+	 */
+	@Value.Default
+	default ExtinctionMode getExtinctionMode() {
+		return ExtinctionMode.CONTINUE;
+	}
+
+	/**
+	 * A directory in which generated social networks and person demographics
+	 * are cached between runs. A relative path is resolved against the output
+	 * directory. Networks are keyed by the setup configuration and replicate so
+	 * the cache can be shared between SLURM array tasks and reruns of the same
+	 * experiment. If not set networks are always generated.
+	 *
+	 * @return the network cache directory, or null to disable caching
+	 * @see io.github.ai4ci.flow.builders.NetworkCache
+	 */
+	@Nullable
+	String getNetworkCache();
+
 	/**
 	 * Gets the duration of the simulation.
 	 *
@@ -27,6 +27,8 @@ import io.github.ai4ci.config.execution.ExecutionConfiguration;
 import io.github.ai4ci.config.execution.ImmutableExecutionConfiguration;
 import io.github.ai4ci.config.setup.ImmutableSetupConfiguration;
 import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.flow.Checkpoint;
+import io.github.ai4ci.flow.output.ExportSelector;
 import io.github.ai4ci.flow.output.SimulationExporter;
 import io.github.ai4ci.util.ReflectionUtils;
 
@@ -175,14 +177,41 @@ public interface ExperimentConfiguration {
 	 */
 	@JsonIgnore
 	default SimulationExporter exporter(Path baseDirectory) {
+		return this.exporter(baseDirectory, null);
+	}
+
+	/**
+	 * Creates a SimulationExporter for this experiment that continues from a
+	 * checkpoint. If the checkpoint is resuming an interrupted run the existing
+	 * output files are appended to from their checkpointed positions, otherwise
+	 * new output files are created as for {@link #exporter(Path)}.
+	 *
+	 * @param baseDirectory Root directory for output files
+	 * @param checkpoint    the checkpoint for this experiment, or null
+	 * @return Configured SimulationExporter instance
+	 * @see Checkpoint
+	 */
+	@JsonIgnore
+	default SimulationExporter exporter(
+		Path baseDirectory, Checkpoint checkpoint
+	) {
+		var selectors = Arrays.stream(
+			this.getBatchConfig()
+				.getExporters()
+		)
+			.map(e -> e.getSelector())
+			.collect(Collectors.<ExportSelector<?>>toList());
+		if (checkpoint != null && checkpoint.isResuming()) {
+			return SimulationExporter.resume(
+				this.getBatchDirectoryPath(baseDirectory),
+				selectors,
+				checkpoint.getPositions(),
+				checkpoint.getResults()
+			);
+		}
 		return SimulationExporter.of(
 			this.getBatchDirectoryPath(baseDirectory),
-			Arrays.stream(
-				this.getBatchConfig()
-					.getExporters()
-			)
-				.map(e -> e.getSelector())
-				.collect(Collectors.toList())
+			selectors
 		);
 	}
 
@@ -320,6 +349,53 @@ public interface ExperimentConfiguration {
 
 	}
 
+	/**
+	 * Gets the day at which the execution facets branch from a shared
+	 * simulation. If this is positive each setup and execution replicate first
+	 * runs one trunk simulation of the base execution configuration up to this
+	 * day. Each of the configurations from {@link #getExecution()} with the same
+	 * replicate then continues from a copy of the trunk, with its own policy,
+	 * behaviour and test parameters, to the end of the simulation. This saves
+	 * repeating the pre-intervention period of intervention comparisons.
+	 *
+	 * <p>
+	 * Only parameters read as the simulation runs, and the default policy and
+	 * behaviour models, take effect at the branch. Parameters that are used to
+	 * baseline people and the outbreak (for example R0, the in-host model or
+	 * the compliance and mobility distributions) are those of the trunk.
+	 *
+	 * @return the branch day, or 0 (the default) to run every execution from
+	 *         the start
+	 * @see #getTrunks()
+	 * @see io.github.ai4ci.flow.ExecutionBuilder#branch(io.github.ai4ci.abm.Outbreak,
+	 *      ExecutionConfiguration, String)
+	 */
+	@Value.Default
+	default int getBranchDay() { return 0; }
+
+	/**
+	 * Gets the trunk execution configurations, one per execution replicate,
+	 * that the executions branch from when {@link #getBranchDay()} is positive.
+	 * These are the base execution configuration named with a {@code trunk}
+	 * suffix, so that their outputs are distinct from those of the branches.
+	 *
+	 * @return the trunk configurations, or an empty list if the executions do
+	 *         not branch
+	 */
+	@JsonIgnore
+	default List<ExecutionConfiguration> getTrunks() {
+		if (this.getBranchDay() <= 0) { return Collections.emptyList(); }
+		var base = this.getExecutionConfig();
+		List<ExecutionConfiguration> tmp = new ArrayList<>();
+		for (var i = 0; i < this.getExecutionReplications(); i++) {
+			tmp.add(
+				base.withName(base.getName() + ":trunk")
+					.withReplicate(i)
+			);
+		}
+		return tmp;
+	}
+
 	/**
 	 * Gets the base execution configuration before modifications.
 	 *
@@ -11,6 +11,7 @@ import io.github.ai4ci.output.ImmutableOutbreakContactCountCSV;
 import io.github.ai4ci.output.ImmutableOutbreakFinalStateCSV;
 import io.github.ai4ci.output.ImmutableOutbreakHistoryCSV;
 import io.github.ai4ci.output.ImmutablePersonDemographicsDuckDB;
+import io.github.ai4ci.output.ImmutableStepTimingsCSV;
 
 /**
  * Enumeration of the different exporters available in the system, each
@@ -90,6 +91,14 @@ public enum Exporters {
 	 */
 	CONTACT_COUNTS(
 			ExportSelector.of(ImmutableOutbreakContactCountCSV.class)
+	),
+	/**
+	 * Exporter for the time and allocation of each phase of each simulation
+	 * step, using the ImmutableStepTimingsCSV format. The simulation is only
+	 * instrumented when this exporter is configured.
+	 */
+	TIMINGS(
+			ExportSelector.of(ImmutableStepTimingsCSV.class)
 	);
 
 	private ExportSelector<?> selector;
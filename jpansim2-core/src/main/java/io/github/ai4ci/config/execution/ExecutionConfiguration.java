@@ -25,12 +25,14 @@ import io.github.ai4ci.abm.policy.Trigger;
 import io.github.ai4ci.abm.riskmodel.RiskModel;
 import io.github.ai4ci.config.TestParameters;
 import io.github.ai4ci.config.inhost.InHostConfiguration;
+import io.github.ai4ci.config.inhost.InHostProfiles;
 import io.github.ai4ci.config.inhost.PhenomenologicalModel;
 import io.github.ai4ci.example.Kernels;
 import io.github.ai4ci.flow.mechanics.StateUtils;
 import io.github.ai4ci.functions.DelayDistribution;
 import io.github.ai4ci.functions.DiscreteFunction;
 import io.github.ai4ci.functions.Distribution;
+import io.github.ai4ci.functions.EmpiricalDistribution;
 import io.github.ai4ci.functions.EmpiricalKernel;
 import io.github.ai4ci.functions.GaussianKernel;
 import io.github.ai4ci.functions.KernelFunction;
@@ -545,6 +547,39 @@ public interface ExecutionConfiguration
 	 */
 	InHostConfiguration getInHostConfiguration();
 
+	/**
+	 * A single batch of simulated in-host trajectories for an average set of
+	 * participants exposed to a unit dose. Both the
+	 * {@link #getViralLoadProfile() viral load profiles} and the
+	 * {@link #getSeverityProfile() severity profile} are derived from this one
+	 * simulation rather than each running the in-host model separately.
+	 *
+	 * @return 100 simulated profiles of 100 days duration
+	 * @see InHostProfiles
+	 */
+	@JsonIgnore @Value.Lazy
+	default InHostProfiles getInHostProfiles() {
+		return InHostProfiles.simulate(this, 100, 100);
+	}
+
+	/**
+	 * The distribution of peak severity in a homogenous population exposed
+	 * with unit exposure, used by the {@link io.github.ai4ci.abm.Calibration
+	 * calibration} to set the severity cutoffs for symptoms, hospitalisation
+	 * and death. This is cached so the three cutoffs share one simulation.
+	 *
+	 * @return an empirical distribution of peak severity from 1000 samples
+	 * @see InHostConfiguration#getPeakSeverity(InHostConfiguration,
+	 *      ExecutionConfiguration, int, int)
+	 */
+	@JsonIgnore @Value.Lazy
+	default EmpiricalDistribution getPeakSeverity() {
+		// N.B. only interested in the in host peak hence we can use a shorter
+		// duration.
+		return InHostConfiguration
+				.getPeakSeverity(this.getInHostConfiguration(), this, 1000, 50);
+	}
+
 	/**
 	 * The initial estimate of the duration of incubation period defines
 	 * {@link io.github.ai4ci.abm.OutbreakState#getPresumedIncubationPeriod() the
@@ -777,7 +812,7 @@ public interface ExecutionConfiguration
 	 */
 	@JsonIgnore @Value.Lazy
 	default DelayDistribution getSeverityProfile() {
-		return InHostConfiguration.getSeverityProfile(this, 100, 100);
+		return InHostConfiguration.getSeverityProfile(this.getInHostProfiles());
 	}
 
 	/**
@@ -863,7 +898,7 @@ public interface ExecutionConfiguration
 	 */
 	@JsonIgnore @Value.Lazy
 	default double[][] getViralLoadProfile() {
-		return InHostConfiguration.getViralLoadProfile(this, 100, 100);
+		return this.getInHostProfiles().getViralLoad();
 	}
 
 	/**
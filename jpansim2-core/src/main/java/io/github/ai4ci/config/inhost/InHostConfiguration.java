@@ -15,7 +15,6 @@ import com.fasterxml.jackson.annotation.OptBoolean;
 import io.github.ai4ci.abm.Calibration;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.abm.OutbreakBaseline;
-import io.github.ai4ci.abm.inhost.InHostModelState;
 import io.github.ai4ci.config.PartialMarkovStateModel;
 import io.github.ai4ci.config.PartialPhenomenologicalModel;
 import io.github.ai4ci.config.PartialStochasticModel;
@@ -222,23 +221,10 @@ public interface InHostConfiguration extends Serializable {
 			InHostConfiguration config, ExecutionConfiguration execConfig,
 			int samples, int duration
 	) {
-		Sampler rng = Sampler.getSampler();
-		double[] x = new double[samples];
-		for (int i = 0; i < samples; i++) {
-
-			InHostModelState<?> state = InHostModelState
-					.test(config, execConfig, rng);
-			double max = 0;
-			state = state.update(rng, 1D, 0);
-			for (int j = 0; j < duration; j++) {
-				if (state.getNormalisedSeverity() > max) {
-					max = state.getNormalisedSeverity();
-				}
-				state = state.update(rng, 0, 0);
-			}
-			x[i] = max;
-		}
-
+		double[] x = InHostProfiles.simulate(
+				config, execConfig, samples, duration,
+				Sampler.getSampler().nextLong()
+		).getPeakSeverity();
 		return EmpiricalDistribution.fromData(x);
 	}
 
@@ -277,23 +263,29 @@ public interface InHostConfiguration extends Serializable {
 	public static DelayDistribution getSeverityProfile(
 			ExecutionConfiguration execConfig, int samples, int duration
 	) {
-		InHostConfiguration config = execConfig.getInHostConfiguration();
-		Sampler rng = Sampler.getSampler();
-		double[] symptom = new double[duration];
-		for (int n = 0; n <= samples; n++) {
+		return getSeverityProfile(
+				InHostProfiles.simulate(execConfig, samples, duration)
+		);
+	}
 
-			InHostModelState<?> state = InHostModelState
-					.test(config, execConfig, rng);
-			state = state.update(rng, 1D, 0D);
-			for (int i = 0; i < duration; i++) {
-				symptom[i] = symptom[i] + state.getNormalisedSeverity();
-				state = state.update(rng, 0D, 0);
-			}
-		}
+	/**
+	 * Get the average severity profile from a set of simulated in host
+	 * profiles, trimmed to the point where 99.9% of severity has occurred.
+	 *
+	 * @param profiles the simulated profiles, e.g. from
+	 *                 {@link InHostProfiles#simulate(ExecutionConfiguration, int, int)}
+	 * @return a delay distribution with the average severity at each time post
+	 *         exposure
+	 * @see #getSeverityProfile(ExecutionConfiguration, int, int)
+	 */
+	public static DelayDistribution getSeverityProfile(
+			InHostProfiles profiles
+	) {
+		int duration = profiles.getDuration();
+		double[] symptom = profiles.getMeanSeverity();
 		double[] cumulative = new double[duration];
 
 		for (int i = 0; i < duration; i++) {
-			symptom[i] = symptom[i] / samples;
 			cumulative[i] = symptom[i] + (i == 0 ? 0 : cumulative[i - 1]);
 
 		}
@@ -350,22 +342,8 @@ public interface InHostConfiguration extends Serializable {
 		// to under represent when cut off of 1 is applied later. Interestingly
 		// this probably is why it used to work as the cutoff was before
 		// averaging.
-		InHostConfiguration config = execConfig.getInHostConfiguration();
-
-		Sampler rng = Sampler.getSampler();
-		double[][] load = new double[samples][duration];
-		for (int n = 0; n < samples; n++) {
-			InHostModelState<?> state = InHostModelState
-					.test(config, execConfig, rng);
-			// viral exposure at t=0.
-			// This is a standard unit dose.
-			state = state.update(rng, 1D, 0);
-			for (int i = 0; i < duration; i++) {
-				load[n][i] = state.getNormalisedViralLoad();
-				state = state.update(rng, 0, 0);
-			}
-		}
-		return load;
+		return InHostProfiles.simulate(execConfig, samples, duration)
+				.getViralLoad();
 	}
 
 	private static double[][] transmissionFromLoad(
@@ -0,0 +1,381 @@
+package io.github.ai4ci.config.inhost;
+
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+import io.github.ai4ci.abm.inhost.InHostMarkovState;
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.abm.inhost.InHostPhenomenologicalState;
+import io.github.ai4ci.abm.inhost.InHostStochasticKernel;
+import io.github.ai4ci.abm.inhost.InHostStochasticState;
+import io.github.ai4ci.abm.inhost.MarkovTransitionTable;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.util.Conversions;
+import io.github.ai4ci.util.Sampler;
+
+/**
+ * Batched Monte‑Carlo generator of in‑host viral load and severity profiles.
+ *
+ * <p>
+ * Calibration needs the trajectories of a few hundred "average" people exposed
+ * to a unit dose at time zero, for viral load (transmission calibration and
+ * infectivity profile) and for severity (severity cutoffs and symptom
+ * profile). This class simulates those trajectories once, in blocks that are
+ * distributed across the common fork join pool, and writes the results
+ * directly into primitive {@code double[sample][time]} arrays. Viral load and
+ * severity are recorded in the same pass, so one simulation can serve both
+ * uses.
+ *
+ * <p>
+ * Each block is given its own {@link Sampler#independent(long)} random stream
+ * with a seed drawn up front from a single master seed. The result is
+ * therefore reproducible for a given seed irrespective of how the blocks are
+ * scheduled, and each trajectory is generated by exactly the same sequence of
+ * {@link InHostModelState#update(Sampler, double, double)} calls as the
+ * original serial implementation so the profiles are identical in
+ * distribution. The per block simulation is delegated to a {@link Kernel}
+ * and each of the in‑host models has a specialised kernel that holds the
+ * block in primitive arrays. The generic {@link #OBJECT_KERNEL}, which
+ * advances a block of immutable states in lock step, is the reference for
+ * them.
+ *
+ * @author Rob Challen
+ */
+public class InHostProfiles implements Serializable {
+
+	/**
+	 * A strategy for simulating a contiguous block of trajectories.
+	 *
+	 * <p>
+	 * Implementations must expose each trajectory to a unit viral dose at time
+	 * zero and then record, for each of the {@code duration} subsequent steps,
+	 * the normalised viral load and normalised severity into the supplied
+	 * arrays for rows {@code from} (inclusive) to {@code to} (exclusive). Only
+	 * the supplied sampler should be used for random draws so that blocks are
+	 * independent.
+	 */
+	@FunctionalInterface
+	public static interface Kernel {
+
+		/**
+		 * Simulate the trajectories for one block.
+		 *
+		 * @param config     the in‑host configuration
+		 * @param execConfig the execution configuration
+		 * @param rng        the random stream dedicated to this block
+		 * @param viralLoad  output array [sample][time] of normalised viral load
+		 * @param severity   output array [sample][time] of normalised severity
+		 * @param from       first sample (inclusive)
+		 * @param to         last sample (exclusive)
+		 * @param duration   number of time steps to record
+		 */
+		void simulate(
+				InHostConfiguration config, ExecutionConfiguration execConfig,
+				Sampler rng, double[][] viralLoad, double[][] severity, int from,
+				int to, int duration
+		);
+
+	}
+
+	/**
+	 * Number of trajectories simulated by one parallel unit of work. Small
+	 * enough to balance across cores for the typical 100 - 1000 samples, large
+	 * enough that the per block setup is negligible.
+	 */
+	static final int BLOCK_SIZE = 16;
+
+	/**
+	 * The generic kernel, which works for any {@link InHostConfiguration} by
+	 * initialising an array of {@link InHostModelState}s and advancing them
+	 * together one time step at a time. This is used for models without a
+	 * specialised kernel, and as the reference for those that have one.
+	 */
+	public static final Kernel OBJECT_KERNEL = (
+			config, execConfig, rng, viralLoad, severity, from, to, duration
+	) -> {
+		InHostModelState<?>[] states = new InHostModelState<?>[to - from];
+		for (var n = 0; n < states.length; n++) {
+			// viral exposure at t=0. This is a standard unit dose.
+			states[n] = InHostModelState.test(config, execConfig, rng)
+					.update(rng, 1D, 0);
+		}
+		for (var i = 0; i < duration; i++) {
+			for (var n = 0; n < states.length; n++) {
+				viralLoad[from + n][i] = states[n].getNormalisedViralLoad();
+				severity[from + n][i] = states[n].getNormalisedSeverity();
+				states[n] = states[n].update(rng, 0, 0);
+			}
+		}
+	};
+
+	/**
+	 * A kernel for the {@link StochasticModel} which keeps each trajectory in a
+	 * mutable {@link InHostStochasticKernel} rather than building a new
+	 * immutable state every step. The random draws are the same as those of
+	 * {@link #OBJECT_KERNEL}.
+	 */
+	public static final Kernel STOCHASTIC_KERNEL = (
+			config, execConfig, rng, viralLoad, severity, from, to, duration
+	) -> {
+		var kernels = new InHostStochasticKernel[to - from];
+		for (var n = 0; n < kernels.length; n++) {
+			kernels[n] = new InHostStochasticKernel(
+					(InHostStochasticState) InHostModelState
+							.test((StochasticModel) config, execConfig, rng)
+			);
+			kernels[n].step(rng, 1D, 0);
+		}
+		for (var i = 0; i < duration; i++) {
+			for (var n = 0; n < kernels.length; n++) {
+				viralLoad[from + n][i] = kernels[n].getNormalisedViralLoad();
+				severity[from + n][i] = kernels[n].getNormalisedSeverity();
+				kernels[n].step(rng, 0, 0);
+			}
+		}
+	};
+
+	/**
+	 * A kernel for the {@link MarkovStateModel} which holds each trajectory as a
+	 * joint state code in a {@code byte[]} and advances the whole block with
+	 * {@link MarkovTransitionTable#step(MarkovTransitionTable[], byte[], double[])}
+	 * using each agent's transition table. Only the initialisation and exposure
+	 * build in‑host states. The severity scores are drawn from the block's own
+	 * stream rather than the thread local sampler, so unlike
+	 * {@link #OBJECT_KERNEL} the result is reproducible for a given seed.
+	 */
+	public static final Kernel MARKOV_KERNEL = (
+			config, execConfig, rng, viralLoad, severity, from, to, duration
+	) -> {
+		var n = to - from;
+		var tables = new MarkovTransitionTable[n];
+		var codes = new byte[n];
+		var uniforms = new double[n];
+		var caseRate = new double[n];
+		var hospitalisationRate = new double[n];
+		var fatalityRate = new double[n];
+		for (var k = 0; k < n; k++) {
+			var state = (InHostMarkovState) InHostModelState
+					.test((MarkovStateModel) config, execConfig, rng)
+					.update(rng, 1D, 0);
+			tables[k] = state.getMachine().getTransitionTable();
+			codes[k] = (byte) MarkovTransitionTable
+					.code(state.getDiseaseState(), state.getSymptomState());
+			caseRate[k] = state.getInfectionCaseRate();
+			hospitalisationRate[k] = state.getInfectionHospitalisationRate();
+			fatalityRate[k] = state.getInfectionFatalityRate();
+		}
+		for (var i = 0; i < duration; i++) {
+			for (var k = 0; k < n; k++) {
+				var disease = MarkovTransitionTable.disease(codes[k]);
+				viralLoad[from + k][i] = InHostMarkovState
+						.normalisedViralLoad(disease);
+				severity[from + k][i] = InHostMarkovState.normalisedSeverity(
+						disease, MarkovTransitionTable.symptom(codes[k]),
+						caseRate[k], hospitalisationRate[k], fatalityRate[k], rng
+				);
+				uniforms[k] = rng.uniform();
+			}
+			MarkovTransitionTable.step(tables, codes, uniforms);
+		}
+	};
+
+	/**
+	 * A kernel for the {@link PhenomenologicalModel}. After a single exposure
+	 * the phenomenological model is deterministic, so each trajectory is
+	 * evaluated directly from its exposure at each time point rather than by
+	 * building a new state every day. An exposure stops contributing once it
+	 * is no longer relevant to immunity, as it would be dropped from the state
+	 * by {@link InHostPhenomenologicalState#update(Sampler, double, double)}.
+	 * The results are identical to {@link #OBJECT_KERNEL}.
+	 */
+	public static final Kernel PHENOMENOLOGICAL_KERNEL = (
+			config, execConfig, rng, viralLoad, severity, from, to, duration
+	) -> {
+		for (var k = 0; k < to - from; k++) {
+			var state = (InHostPhenomenologicalState) InHostModelState
+					.test((PhenomenologicalModel) config, execConfig, rng)
+					.update(rng, 1D, 0);
+			if (state.getExposures().size() != 1) {
+				throw new IllegalStateException(
+						"Expected a single exposure in a test state"
+				);
+			}
+			var exposure = state.getExposures().get(0);
+			var model = state.getViralLoadModel();
+			var immunity = state.getImmunityModel();
+			var cutoff = state.getInfectiousnessCutoff();
+			var time = state.getTime();
+			var relevant = true;
+			for (var i = 0; i < duration; i++) {
+				// the exposure made at time zero is first filtered out of the
+				// state at the second update
+				relevant = relevant
+						&& (i == 0 || !exposure.isIrrelevant(time + i, immunity));
+				var load = relevant
+						? exposure.getExposureViralLoad(time + i, model)
+						: 0;
+				// as the product over exposures in getViralLoad()
+				viralLoad[from + k][i] = Conversions
+						.rateRatio(relevant ? 1 - (1 - load) : 0, cutoff);
+				severity[from + k][i] = load;
+			}
+		}
+	};
+
+	/**
+	 * Select the kernel for a given in‑host configuration.
+	 *
+	 * @param config the in‑host configuration
+	 * @return the fastest available kernel that reproduces the model
+	 */
+	static Kernel kernelFor(InHostConfiguration config) {
+		if (config instanceof StochasticModel) { return STOCHASTIC_KERNEL; }
+		if (config instanceof MarkovStateModel) { return MARKOV_KERNEL; }
+		if (config instanceof PhenomenologicalModel) {
+			return PHENOMENOLOGICAL_KERNEL;
+		}
+		return OBJECT_KERNEL;
+	}
+
+	/**
+	 * Simulate profiles for the in‑host configuration of an execution
+	 * configuration, using a seed from the thread local sampler.
+	 *
+	 * @param execConfig the execution configuration
+	 * @param samples    the number of trajectories
+	 * @param duration   the number of time steps in each trajectory
+	 * @return the simulated profiles
+	 */
+	public static InHostProfiles simulate(
+			ExecutionConfiguration execConfig, int samples, int duration
+	) {
+		return simulate(
+				execConfig.getInHostConfiguration(), execConfig, samples, duration,
+				Sampler.getSampler().nextLong()
+		);
+	}
+
+	/**
+	 * Simulate profiles for a given in‑host configuration.
+	 *
+	 * @param config     the in‑host configuration
+	 * @param execConfig the execution configuration supplying demographic and
+	 *                   severity parameters used during initialisation
+	 * @param samples    the number of trajectories
+	 * @param duration   the number of time steps in each trajectory
+	 * @param seed       the master seed from which each block's stream is
+	 *                   derived
+	 * @return the simulated profiles
+	 */
+	public static InHostProfiles simulate(
+			InHostConfiguration config, ExecutionConfiguration execConfig,
+			int samples, int duration, long seed
+	) {
+		return simulate(
+				config, execConfig, samples, duration, seed, kernelFor(config)
+		);
+	}
+
+	/**
+	 * Simulate profiles with an explicit kernel.
+	 *
+	 * @param config     the in‑host configuration
+	 * @param execConfig the execution configuration
+	 * @param samples    the number of trajectories
+	 * @param duration   the number of time steps in each trajectory
+	 * @param seed       the master seed
+	 * @param kernel     the block simulation strategy
+	 * @return the simulated profiles
+	 */
+	public static InHostProfiles simulate(
+			InHostConfiguration config, ExecutionConfiguration execConfig,
+			int samples, int duration, long seed, Kernel kernel
+	) {
+		var viralLoad = new double[samples][duration];
+		var severity = new double[samples][duration];
+		var blocks = (samples + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		var master = Sampler.independent(seed);
+		var seeds = new long[blocks];
+		for (var b = 0; b < blocks; b++) { seeds[b] = master.nextLong(); }
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			kernel.simulate(
+					config, execConfig, Sampler.independent(seeds[b]), viralLoad,
+					severity, b * BLOCK_SIZE,
+					Math.min(samples, (b + 1) * BLOCK_SIZE), duration
+			);
+		});
+		return new InHostProfiles(viralLoad, severity);
+	}
+
+	private final double[][] viralLoad;
+
+	private final double[][] severity;
+
+	private InHostProfiles(double[][] viralLoad, double[][] severity) {
+		this.viralLoad = viralLoad;
+		this.severity = severity;
+	}
+
+	/**
+	 * The mean severity at each time point across all samples.
+	 *
+	 * @return an array of length duration
+	 */
+	public double[] getMeanSeverity() {
+		var duration = this.getDuration();
+		var out = new double[duration];
+		for (double[] row : this.severity) {
+			for (var i = 0; i < duration; i++) { out[i] += row[i]; }
+		}
+		for (var i = 0; i < duration; i++) { out[i] = out[i] / this.getSamples(); }
+		return out;
+	}
+
+	/**
+	 * The maximum severity reached by each sample.
+	 *
+	 * @return an array of length samples
+	 */
+	public double[] getPeakSeverity() {
+		var out = new double[this.getSamples()];
+		for (var n = 0; n < out.length; n++) {
+			var max = 0D;
+			for (double s : this.severity[n]) { if (s > max) max = s; }
+			out[n] = max;
+		}
+		return out;
+	}
+
+	/**
+	 * The number of time steps in each profile.
+	 *
+	 * @return the profile duration
+	 */
+	public int getDuration() {
+		return this.viralLoad.length == 0 ? 0 : this.viralLoad[0].length;
+	}
+
+	/**
+	 * The number of simulated trajectories.
+	 *
+	 * @return the sample count
+	 */
+	public int getSamples() { return this.viralLoad.length; }
+
+	/**
+	 * The normalised severity profiles.
+	 *
+	 * @return an array with sample as first dimension and time post exposure as
+	 *         the second dimension
+	 */
+	public double[][] getSeverity() { return this.severity; }
+
+	/**
+	 * The normalised viral load profiles.
+	 *
+	 * @return an array with sample as first dimension and time post exposure as
+	 *         the second dimension
+	 */
+	public double[][] getViralLoad() { return this.viralLoad; }
+
+}
@@ -1,5 +1,7 @@
 package io.github.ai4ci.config.refdata;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import javax.annotation.Nullable;
@@ -239,6 +241,18 @@ public class UKCensus {
 			Commuting.class, Distances.class, Ethnicity.class, Geography.class,
 			Industry.class, Unemployment.class };
 
+	/**
+	 * Write binary copies of the census CSV files in a directory, so that
+	 * loading them is faster. See {@link Repository#compileAll(Path, Class...)}.
+	 *
+	 * @param directory the directory containing the census CSV files
+	 * @throws IOException if the CSV files cannot be read or the binary files
+	 *                     cannot be written
+	 */
+	public static void compile(Path directory) throws IOException {
+		Repository.compileAll(directory, TYPES);
+	}
+
 	public static Repository load() {
 		try {
 			var path = Paths.get(
@@ -13,7 +13,9 @@
  * {@link io.github.ai4ci.config.refdata.UKCensus}) is not yet wired into the
  * main simulation. The package is intended to be used together with the CSV
  * repository utilities in {@link io.github.ai4ci.util.Repository} which provide
- * CSV parsing, simple foreign‑key resolution and lazy indexing.
+ * CSV parsing, simple foreign‑key resolution and lazy indexing. The CSV files
+ * can be compiled once into memory mapped binary files to speed up loading
+ * (see {@link io.github.ai4ci.config.refdata.UKCensus#compile}).
  *
  * <p>
  * Planned features include:
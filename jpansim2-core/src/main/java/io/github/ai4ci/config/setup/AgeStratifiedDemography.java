@@ -10,12 +10,14 @@ import io.github.ai4ci.abm.ImmutablePersonDemographic;
 import io.github.ai4ci.abm.ModifiablePerson;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.abm.PersonDemographic;
 import io.github.ai4ci.functions.EmpiricalDistribution;
 import io.github.ai4ci.functions.EmpiricalFunction;
 import io.github.ai4ci.functions.ImmutableEmpiricalDistribution;
 import io.github.ai4ci.functions.ImmutableEmpiricalFunction;
 import io.github.ai4ci.functions.LinkFunction;
 import io.github.ai4ci.functions.SimpleFunction;
+import io.github.ai4ci.functions.TabulatedFunction;
 import io.github.ai4ci.util.Conversions;
 import io.github.ai4ci.util.Sampler;
 
@@ -161,6 +163,21 @@ public interface AgeStratifiedDemography extends LocationAwareDemography {
 	 */
 	SimpleFunction getOddsContactFromAgeDifference();
 
+	/**
+	 * {@link #getNormalisedOddsContactFromAgeDifference()} precomputed on a
+	 * dense grid over the range of possible age differences.
+	 *
+	 * @return a lookup table from absolute age difference to contact odds ratio
+	 */
+	@JsonIgnore @Value.Lazy
+	default TabulatedFunction getAgeDifferenceOddsTable() {
+		var ages = this.getAgeDistribution();
+		return TabulatedFunction.of(
+				this.getNormalisedOddsContactFromAgeDifference()::value, 0,
+				ages.getMaximum() - ages.getMinimum(), 65536
+		);
+	}
+
 	/**
 	 * Compute relationship strength between two people, incorporating age
 	 * effects.
@@ -189,4 +206,26 @@ public interface AgeStratifiedDemography extends LocationAwareDemography {
 		);
 	}
 
+	/**
+	 * Compute all edge strengths as the location aware strengths, scaled in
+	 * place by the age difference odds from
+	 * {@link #getAgeDifferenceOddsTable()}.
+	 */
+	@Override
+	default double[] getRelationshipStrengths(
+			Outbreak outbreak, EdgeList edges, Sampler sampler
+	) {
+		var out = LocationAwareDemography.super.getRelationshipStrengths(
+				outbreak, edges, sampler
+		);
+		var age = DemographicConfiguration
+				.demographicArray(outbreak, PersonDemographic::getAge);
+		var table = this.getAgeDifferenceOddsTable();
+		return edges.evaluate(
+				out, (e, s, t) -> Conversions.scaleProbabilityByOR(
+						out[e], table.value(Math.abs(age[s] - age[t]))
+				)
+		);
+	}
+
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.util.Sampler;
 
 /**
  * Barabasi‑Albert preferential attachment network configuration.
@@ -69,4 +70,11 @@ public interface BarabasiAlbertConfiguration extends NetworkConfiguration {
 		);
 		gen.generateGraph(socialNetwork);
 	}
+
+	@Override
+	default EdgeList generateEdges(Sampler sampler) {
+		int n = this.getNetworkSize();
+		int m = this.getNetworkDegree() / 2;
+		return EdgeList.barabasiAlbert(m, m, n, sampler);
+	}
 }
\ No newline at end of file
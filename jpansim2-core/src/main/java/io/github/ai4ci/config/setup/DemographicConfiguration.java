@@ -1,6 +1,7 @@
 package io.github.ai4ci.config.setup;
 
 import java.io.Serializable;
+import java.util.function.ToDoubleFunction;
 
 import org.immutables.value.Value;
 
@@ -14,6 +15,7 @@ import com.fasterxml.jackson.annotation.OptBoolean;
 import io.github.ai4ci.abm.ModifiablePerson;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.abm.PersonDemographic;
 import io.github.ai4ci.functions.EmpiricalDistribution;
 import io.github.ai4ci.functions.ExoticDistributions;
 import io.github.ai4ci.util.Sampler;
@@ -110,4 +112,49 @@ public interface DemographicConfiguration extends Serializable {
 	double getRelationshipStrength(
 			Person source, Person target, Sampler sampler
 	);
+
+	/**
+	 * Compute the relationship strength of every edge of a generated network.
+	 *
+	 * <p>
+	 * The default calls {@link #getRelationshipStrength} for each edge.
+	 * Deterministic demographies override this with a kernel that reads the
+	 * people's attributes into primitive arrays once and evaluates the edges in
+	 * blocks against precomputed lookup tables.
+	 *
+	 * @param outbreak an outbreak whose people have been created and whose ids
+	 *                 match the vertex ids of the edge list
+	 * @param edges    the network
+	 * @param sampler  a random sampler for stochastic choices
+	 * @return the relationship strength of each edge, in edge order
+	 */
+	default double[] getRelationshipStrengths(
+			Outbreak outbreak, EdgeList edges, Sampler sampler
+	) {
+		var people = outbreak.getPeople();
+		return edges.evaluate(
+				(e, source, target) -> this.getRelationshipStrength(
+						people.get(source), people.get(target), sampler
+				)
+		);
+	}
+
+	/**
+	 * Read one demographic attribute of every person into an array indexed by
+	 * person id.
+	 *
+	 * @param outbreak an outbreak whose people have been created
+	 * @param value    the attribute to extract
+	 * @return an array of length population size
+	 */
+	static double[] demographicArray(
+			Outbreak outbreak, ToDoubleFunction<PersonDemographic> value
+	) {
+		var people = outbreak.getPeople();
+		var out = new double[people.size()];
+		for (var i = 0; i < out.length; i++) {
+			out[i] = value.applyAsDouble(people.get(i).getDemographic());
+		}
+		return out;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,387 @@
+package io.github.ai4ci.config.setup;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import io.github.ai4ci.util.Sampler;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * An undirected simple graph on vertices {@code 0..n-1} held as two primitive
+ * arrays of edge end points, together with allocation light random graph
+ * generators that write straight into it.
+ *
+ * <p>
+ * The JGraphT generators used by {@link NetworkConfiguration#generateGraph}
+ * allocate an edge object, hash map entries and per vertex edge sets for every
+ * edge, all of which are discarded once the network has been converted into
+ * {@link io.github.ai4ci.abm.SocialRelationship}s. The generators here produce
+ * the same random graph models directly as {@code int} pairs, and split the
+ * work into blocks which run on the common fork join pool. Each block draws from
+ * its own {@link Sampler#independent(long)} stream seeded up front from the
+ * supplied sampler, so a graph is reproducible for a given seed:
+ * <ul>
+ * <li>{@link #erdosReyni(int, double, Sampler)} — G(n,p) using geometric
+ * skipping over the candidate pairs of each row (Batagelj and Brandes), so
+ * the cost is proportional to the number of edges rather than n².</li>
+ * <li>{@link #wattsStrogatz(int, int, double, Sampler)} — a ring lattice whose
+ * edges are rewired in parallel; any duplicates this creates are removed and
+ * replaced by fresh random edges so the edge count matches the lattice.</li>
+ * <li>{@link #barabasiAlbert(int, int, int, Sampler)} — preferential
+ * attachment in which vertices arrive in batches. Every vertex of a batch
+ * attaches to the degree weighted end point list as it stood at the start of
+ * the batch, and batches are kept to a small fraction of the current graph so
+ * the resulting degree distribution is indistinguishable from the sequential
+ * algorithm.</li>
+ * </ul>
+ *
+ * @author Rob Challen
+ */
+public class EdgeList implements Serializable {
+
+	/**
+	 * A function of an edge, for computing per edge quantities in bulk.
+	 */
+	@FunctionalInterface
+	public static interface EdgeFunction {
+
+		/**
+		 * Evaluate for one edge.
+		 *
+		 * @param edge   the edge index
+		 * @param source the first vertex id
+		 * @param target the second vertex id
+		 * @return the value for this edge
+		 */
+		double apply(int edge, int source, int target);
+
+	}
+
+	/**
+	 * Number of edges evaluated as one unit of parallel work by
+	 * {@link #evaluate(double[], EdgeFunction)}.
+	 */
+	static final int EVALUATE_BLOCK = 4096;
+
+	/**
+	 * Number of independent blocks of work for the Erdos-Reyni and
+	 * Watts-Strogatz generators.
+	 */
+	static final int BLOCKS = 256;
+
+	/**
+	 * In Barabasi-Albert generation a batch of new vertices is at most this
+	 * fraction of the current graph size.
+	 */
+	static final int BA_BATCH_DIVISOR = 64;
+
+	/**
+	 * Number of new vertices sharing a random stream in Barabasi-Albert
+	 * generation.
+	 */
+	static final int BA_BLOCK_SIZE = 256;
+
+	/**
+	 * Preferential attachment graph. Starts with a complete graph on
+	 * {@code m0} vertices and attaches each further vertex to {@code m}
+	 * distinct existing vertices chosen with probability proportional to their
+	 * degree, as in
+	 * {@link org.jgrapht.generate.BarabasiAlbertGraphGenerator}.
+	 *
+	 * @param m0      the number of vertices in the initial complete graph
+	 * @param m       the number of edges added with each new vertex
+	 * @param n       the final number of vertices
+	 * @param sampler the source of the seeds for each block
+	 * @return the edge list
+	 */
+	public static EdgeList barabasiAlbert(
+			int m0, int m, int n, Sampler sampler
+	) {
+		if (m0 < 1 || m < 1 || m > m0 || n < m0) {
+			throw new IllegalArgumentException(
+					"Barabasi-Albert requires 1 <= m <= m0 <= n"
+			);
+		}
+		long initial = (long) m0 * (m0 - 1) / 2;
+		long total = initial + (long) m * (n - m0);
+		checkSize(total);
+		var out = new EdgeList((int) total);
+		// every edge contributes both its end points, so a uniform pick from
+		// this list is a degree weighted pick of a vertex.
+		var endpoints = new int[(int) (2 * total)];
+		var e = 0;
+		for (var i = 0; i < m0; i++) {
+			for (var j = i + 1; j < m0; j++) {
+				out.source[e] = i;
+				out.target[e] = j;
+				endpoints[2 * e] = i;
+				endpoints[2 * e + 1] = j;
+				e++;
+			}
+		}
+		var t = m0;
+		while (t < n) {
+			final var start = t;
+			final var filled = 2 * e;
+			final var edgeBase = e;
+			var batch = Math.min(n - t, Math.max(1, t / BA_BATCH_DIVISOR));
+			var blocks = (batch + BA_BLOCK_SIZE - 1) / BA_BLOCK_SIZE;
+			var seeds = seeds(sampler, blocks);
+			final var end = start + batch;
+			IntStream.range(0, blocks).parallel().forEach(b -> {
+				var rng = Sampler.independent(seeds[b]);
+				var chosen = new int[m];
+				for (var v = start + b * BA_BLOCK_SIZE; v < Math
+						.min(end, start + (b + 1) * BA_BLOCK_SIZE); v++) {
+					var k = 0;
+					while (k < m) {
+						// An initial graph of one vertex has no end points yet.
+						var target = filled == 0 ? (int) (rng.uniform() * start)
+								: endpoints[(int) (rng.uniform() * filled)];
+						if (!contains(chosen, k, target)) chosen[k++] = target;
+					}
+					for (var j = 0; j < m; j++) {
+						var idx = edgeBase + (v - start) * m + j;
+						out.source[idx] = v;
+						out.target[idx] = chosen[j];
+						endpoints[2 * idx] = v;
+						endpoints[2 * idx + 1] = chosen[j];
+					}
+				}
+			});
+			e += batch * m;
+			t = end;
+		}
+		return out;
+	}
+
+	/**
+	 * Uniform random graph G(n,p) in which each of the n(n-1)/2 possible edges
+	 * is present independently with probability p, as in
+	 * {@link org.jgrapht.generate.GnpRandomGraphGenerator} without loops.
+	 *
+	 * @param n       the number of vertices
+	 * @param p       the edge probability
+	 * @param sampler the source of the seeds for each block
+	 * @return the edge list
+	 */
+	public static EdgeList erdosReyni(int n, double p, Sampler sampler) {
+		if (p <= 0 || n < 2) return new EdgeList(0);
+		// for p >= 1 this is -Infinity and every skip is zero
+		var logq = Math.log(1 - Math.min(p, 1));
+		var blocks = Math.min(n, BLOCKS);
+		var seeds = seeds(sampler, blocks);
+		var parts = new IntArrayList[blocks][];
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			var rng = Sampler.independent(seeds[b]);
+			var src = new IntArrayList();
+			var tgt = new IntArrayList();
+			// rows are dealt out round robin so each block has a similar number
+			// of candidate pairs.
+			for (var v = b; v < n; v += blocks) {
+				long w = v;
+				while (true) {
+					// skip over a geometric number of absent edges
+					w += 1 + (long) (Math.log(1 - rng.uniform()) / logq);
+					if (w >= n) break;
+					src.add(v);
+					tgt.add((int) w);
+				}
+			}
+			parts[b] = new IntArrayList[] { src, tgt };
+		});
+		return concat(parts);
+	}
+
+	/**
+	 * Small world graph. Each vertex is joined to its {@code k/2} nearest
+	 * neighbours on either side of a ring, then each lattice edge
+	 * {@code (i, i+j)} is replaced with probability {@code p} by an edge from
+	 * {@code i} to a uniformly chosen vertex, as in
+	 * {@link org.jgrapht.generate.WattsStrogatzGraphGenerator}.
+	 *
+	 * @param n       the number of vertices
+	 * @param k       the lattice degree, which must be even and less than n
+	 * @param p       the rewiring probability
+	 * @param sampler the source of the seeds for each block
+	 * @return the edge list
+	 */
+	public static EdgeList wattsStrogatz(
+			int n, int k, double p, Sampler sampler
+	) {
+		if (k % 2 != 0 || k >= n) {
+			throw new IllegalArgumentException(
+					"Watts-Strogatz requires an even k less than n"
+			);
+		}
+		var half = k / 2;
+		long total = (long) n * half;
+		checkSize(total);
+		var blocks = Math.min(n, BLOCKS);
+		var seeds = seeds(sampler, blocks);
+		var keys = new long[(int) total];
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			var rng = Sampler.independent(seeds[b]);
+			for (var i = b; i < n; i += blocks) {
+				for (var j = 1; j <= half; j++) {
+					int target;
+					if (p > 0 && rng.uniform() < p) {
+						do {
+							target = (int) (rng.uniform() * n);
+						} while (target == i);
+					} else {
+						target = (i + j) % n;
+					}
+					keys[i * half + j - 1] = key(i, target);
+				}
+			}
+		});
+		// Rewiring can collide with another edge. Remove the duplicates and top
+		// up with new random edges so that the edge count is unchanged.
+		Arrays.parallelSort(keys);
+		var unique = 0;
+		for (var i = 0; i < keys.length; i++) {
+			if (i == 0 || keys[i] != keys[i - 1]) keys[unique++] = keys[i];
+		}
+		var extra = new LongOpenHashSet();
+		var rng = Sampler.independent(sampler.nextLong());
+		while (unique + extra.size() < total) {
+			int i = (int) (rng.uniform() * n);
+			int j = (int) (rng.uniform() * n);
+			if (i == j) continue;
+			var key = key(i, j);
+			if (Arrays.binarySearch(keys, 0, unique, key) < 0) extra.add(key);
+		}
+		var out = new EdgeList((int) total);
+		for (var e = 0; e < unique; e++) { out.set(e, keys[e]); }
+		var e = unique;
+		for (long key : extra) { out.set(e++, key); }
+		return out;
+	}
+
+	private static void checkSize(long total) {
+		if (total > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException(
+					"Network has too many edges: " + total
+			);
+		}
+	}
+
+	private static EdgeList concat(IntArrayList[][] parts) {
+		var offsets = new int[parts.length + 1];
+		for (var b = 0; b < parts.length; b++) {
+			offsets[b + 1] = offsets[b] + parts[b][0].size();
+		}
+		var out = new EdgeList(offsets[parts.length]);
+		IntStream.range(0, parts.length).parallel().forEach(b -> {
+			parts[b][0].getElements(0, out.source, offsets[b], parts[b][0].size());
+			parts[b][1].getElements(0, out.target, offsets[b], parts[b][1].size());
+		});
+		return out;
+	}
+
+	private static boolean contains(int[] values, int size, int value) {
+		for (var i = 0; i < size; i++) { if (values[i] == value) return true; }
+		return false;
+	}
+
+	private static long key(int i, int j) {
+		return i < j ? ((long) i << 32) | j : ((long) j << 32) | i;
+	}
+
+	private static long[] seeds(Sampler sampler, int blocks) {
+		var seeds = new long[blocks];
+		for (var b = 0; b < blocks; b++) { seeds[b] = sampler.nextLong(); }
+		return seeds;
+	}
+
+	private final int[] source;
+
+	private final int[] target;
+
+	EdgeList(int size) {
+		this.source = new int[size];
+		this.target = new int[size];
+	}
+
+	/**
+	 * The degree of every vertex.
+	 *
+	 * @param n the number of vertices
+	 * @return an array of length n with the number of edges at each vertex
+	 */
+	public int[] degrees(int n) {
+		var out = new int[n];
+		for (var e = 0; e < this.size(); e++) {
+			out[this.source[e]]++;
+			out[this.target[e]]++;
+		}
+		return out;
+	}
+
+	/**
+	 * Evaluate a function for every edge.
+	 *
+	 * @param fn the per edge function, which must be safe to call from many
+	 *           threads
+	 * @return an array of length {@link #size()}
+	 */
+	public double[] evaluate(EdgeFunction fn) {
+		return this.evaluate(new double[this.size()], fn);
+	}
+
+	/**
+	 * Evaluate a function for every edge into an existing array. The edges are
+	 * processed in contiguous blocks in parallel, each block being a tight loop
+	 * over the primitive arrays. The function may read the previous value of
+	 * {@code out} for its own edge, so successive passes can be applied in
+	 * place.
+	 *
+	 * @param out an array of length {@link #size()} to write into
+	 * @param fn  the per edge function, which must be safe to call from many
+	 *            threads
+	 * @return the out array
+	 */
+	public double[] evaluate(double[] out, EdgeFunction fn) {
+		var size = this.size();
+		var blocks = (size + EVALUATE_BLOCK - 1) / EVALUATE_BLOCK;
+		IntStream.range(0, blocks).parallel().forEach(b -> {
+			var end = Math.min(size, (b + 1) * EVALUATE_BLOCK);
+			for (var e = b * EVALUATE_BLOCK; e < end; e++) {
+				out[e] = fn.apply(e, this.source[e], this.target[e]);
+			}
+		});
+		return out;
+	}
+
+	/**
+	 * One end of an edge.
+	 *
+	 * @param edge the edge index
+	 * @return the first vertex id
+	 */
+	public int getSource(int edge) { return this.source[edge]; }
+
+	/**
+	 * The other end of an edge.
+	 *
+	 * @param edge the edge index
+	 * @return the second vertex id
+	 */
+	public int getTarget(int edge) { return this.target[edge]; }
+
+	/**
+	 * The number of edges.
+	 *
+	 * @return the edge count
+	 */
+	public int size() { return this.source.length; }
+
+	private void set(int edge, long key) {
+		this.source[edge] = (int) (key >>> 32);
+		this.target[edge] = (int) key;
+	}
+
+}
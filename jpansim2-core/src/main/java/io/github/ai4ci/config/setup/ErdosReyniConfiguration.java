@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.util.Sampler;
 
 /**
  * Erdos‑Reyni (G(n,p)) network configuration.
@@ -49,4 +50,13 @@ public interface ErdosReyniConfiguration extends NetworkConfiguration {
 		);
 		gen.generateGraph(socialNetwork);
 	}
+
+	@Override
+	default EdgeList generateEdges(Sampler sampler) {
+		return EdgeList.erdosReyni(
+				this.getNetworkSize(),
+				((double) this.getNetworkDegree() + 1.0) / this.getNetworkSize(),
+				sampler
+		);
+	}
 }
\ No newline at end of file
@@ -2,12 +2,15 @@ package io.github.ai4ci.config.setup;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import io.github.ai4ci.abm.ModifiablePerson;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.abm.PersonDemographic;
+import io.github.ai4ci.functions.TabulatedFunction;
 import io.github.ai4ci.util.Conversions;
 import io.github.ai4ci.util.Sampler;
 
@@ -96,4 +99,44 @@ public interface LocationAwareDemography extends DemographicConfiguration {
 		);
 	}
 
+	/**
+	 * The relationship strength as a function of normalised euclidian distance,
+	 * i.e. {@link #getRelationshipStrength} with the distance CDF lookup and
+	 * odds scaling precomputed on a dense grid over [0,1].
+	 *
+	 * @return a lookup table from normalised distance to relationship strength
+	 */
+	@JsonIgnore @Value.Lazy
+	default TabulatedFunction getProximityStrengthTable() {
+		var cdf = this.getEuclidianDistanceCDF();
+		var oddsRatio = 1 / this.getContactProximityBias();
+		return TabulatedFunction.of(
+				d -> Conversions
+						.scaleProbabilityByOR(1 - cdf.getCumulative(d), oddsRatio),
+				0, 1, 65536
+		);
+	}
+
+	/**
+	 * Compute all edge strengths from the people's coordinates and
+	 * {@link #getProximityStrengthTable()}, without per edge interface dispatch
+	 * or spline evaluation.
+	 */
+	@Override
+	default double[] getRelationshipStrengths(
+			Outbreak outbreak, EdgeList edges, Sampler sampler
+	) {
+		var x = DemographicConfiguration
+				.demographicArray(outbreak, PersonDemographic::getLocationX);
+		var y = DemographicConfiguration
+				.demographicArray(outbreak, PersonDemographic::getLocationY);
+		var table = this.getProximityStrengthTable();
+		var norm = 1 / Math.sqrt(2.0);
+		return edges.evaluate((e, s, t) -> {
+			var dx = x[s] - x[t];
+			var dy = y[s] - y[t];
+			return table.value(Math.sqrt(dx * dx + dy * dy) * norm);
+		});
+	}
+
 }
\ No newline at end of file
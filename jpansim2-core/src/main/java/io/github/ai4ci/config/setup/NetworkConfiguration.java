@@ -12,6 +12,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
 
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.util.Sampler;
 
 /**
  * Abstract configuration for network generation used during model setup.
@@ -27,7 +28,8 @@ import io.github.ai4ci.abm.Person;
  * Extension guidance: to add a new network type implement a new configuration
  * class and add it to the Jackson polymorphic mapping above (or register it
  * with your object mapper). Keep generation logic in the configuration's
- * {@link #generateGraph} method so the builder can remain generic.
+ * {@link #generateEdges} and {@link #generateGraph} methods so the builder can
+ * remain generic.
  * </p>
  *
  * @author Rob Challen
@@ -60,6 +62,21 @@ public interface NetworkConfiguration extends Serializable {
 	@JsonIgnore
 	void generateGraph(SimpleGraph<Person, DefaultEdge> socialNetwork);
 
+	/**
+	 * Generate the social network as a primitive edge list on vertex ids
+	 * {@code 0..networkSize-1}. This is the same random graph model as
+	 * {@link #generateGraph(SimpleGraph)} but without building a JGraphT graph,
+	 * and is what the default model builder uses. Vertex ids correspond to
+	 * person ids.
+	 *
+	 * @param sampler the source of randomness; the same seed gives the same
+	 *                network
+	 * @return the generated edges
+	 * @see EdgeList
+	 */
+	@JsonIgnore
+	EdgeList generateEdges(Sampler sampler);
+
 	/**
 	 * Model parameter: target average degree for the generated network.
 	 *
@@ -136,9 +136,9 @@ public interface SetupConfiguration
 	 * </ul>
 	 *
 	 * <p>
-	 * Builders call {@link NetworkConfiguration#generateGraph} passing an empty
-	 * JGraphT {@code SimpleGraph<Person,DefaultEdge>} to populate nodes and
-	 * edges. To add a new topology implement a new configuration type and
+	 * Builders call {@link NetworkConfiguration#generateEdges} to obtain the
+	 * edges as primitive vertex id pairs; a JGraphT version of the same model is
+	 * available from {@link NetworkConfiguration#generateGraph}. To add a new topology implement a new configuration type and
 	 * register it with the Jackson polymorphic mapping used by the config
 	 * loader.
 	 *
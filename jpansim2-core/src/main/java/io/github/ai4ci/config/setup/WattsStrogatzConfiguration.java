@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.util.Sampler;
 
 /**
  * Watts‑Strogatz network configuration.
@@ -22,8 +23,8 @@ import io.github.ai4ci.abm.Person;
  * <p>
  * Downstream uses: passed to the builder's
  * {@link io.github.ai4ci.flow.builders.DefaultModelBuilder#setupOutbreak} which
- * invokes {@link #generateGraph(SimpleGraph)} to populate the social network
- * graph used by the simulation.
+ * invokes {@link #generateEdges(Sampler)} to build the social network used by
+ * the simulation.
  *
  * <p>
  * Extension guidance: to alter the seeding or node placement strategy replace
@@ -57,6 +58,15 @@ public interface WattsStrogatzConfiguration extends NetworkConfiguration {
 		gen.generateGraph(socialNetwork);
 	}
 
+	@Override
+	default EdgeList generateEdges(Sampler sampler) {
+		return EdgeList.wattsStrogatz(
+				this.getNetworkSize(),
+				Math.min(this.getNetworkDegree(), this.getNetworkSize() - 1) / 2 * 2,
+				this.getNetworkRandomness(), sampler
+		);
+	}
+
 	/**
 	 * Model parameter specific to Watts‑Strogatz.
 	 *
@@ -30,8 +30,8 @@
  * is:
  * <ol>
  * <li>the builder reads {@code SetupConfiguration} and calls
- * {@link io.github.ai4ci.config.setup.NetworkConfiguration#generateGraph} to
- * build the social network graph during the setup stage;</li>
+ * {@link io.github.ai4ci.config.setup.NetworkConfiguration#generateEdges} to
+ * build the social network during the setup stage;</li>
  * <li>the builder uses an instance of
  * {@link io.github.ai4ci.config.setup.DemographicConfiguration} to create
  * person stubs (via
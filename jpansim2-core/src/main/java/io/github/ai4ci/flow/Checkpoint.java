@@ -0,0 +1,451 @@
+package io.github.ai4ci.flow;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.config.ExperimentConfiguration;
+import io.github.ai4ci.config.ImmutableExperimentConfiguration;
+import io.github.ai4ci.flow.output.SimulationExporter;
+
+/**
+ * Periodic checkpoints of a running experiment, so that an interrupted batch
+ * job can be restarted where it left off.
+ *
+ * <p>
+ * When {@link io.github.ai4ci.config.BatchConfiguration#getCheckpointInterval()}
+ * is positive the {@link SimulationExecutor} saves the running outbreak every
+ * that many steps. A checkpoint is a gzipped Java serialisation of the
+ * {@link Outbreak} (the people, their state histories and state machines, and
+ * the outbreak state, as deep copied by {@link io.github.ai4ci.util.Cloner})
+ * and a journal recording the step, the position of each output file, the
+ * URNs of the simulations already completed and their result configurations.
+ * Both are kept in a {@code checkpoint} subdirectory of the batch output
+ * directory. The journal is written to a temporary file and moved into place
+ * atomically, and a snapshot is only removed once the journal no longer refers
+ * to it, so an interruption at any point leaves a usable checkpoint.
+ *
+ * <p>
+ * On restart with the same configuration the {@link SimulationMonitor} resumes
+ * the exporters, cutting each output file back to its checkpointed position so
+ * that rows written after the checkpoint are not duplicated. The
+ * {@link SimulationFactory} skips completed simulations and delivers the
+ * restored outbreak in place of rebuilding the interrupted one. A journal
+ * written for a different configuration is ignored and the experiment starts
+ * afresh. Once every simulation has completed the checkpoint is removed.
+ *
+ * <p>
+ * The state of the random number generators is not saved. Samplers are held
+ * per thread and the parallel parts of the update draw from the threads of the
+ * common pool in no fixed order, so a resumed simulation is a statistically
+ * equivalent continuation of the interrupted one, rather than an identical
+ * one.
+ *
+ * @author Rob Challen
+ */
+public class Checkpoint {
+
+	/**
+	 * The content of the checkpoint journal. This is serialised as JSON so that
+	 * the progress of an interrupted job can be inspected.
+	 */
+	static class Journal {
+		/** The hash of the experiment configuration. */
+		public String config;
+		/** The URNs of the completed simulations, in order. */
+		public Set<String> completed = new LinkedHashSet<>();
+		/** The position of each output file, by file name. */
+		public Map<String, Long> positions = new LinkedHashMap<>();
+		/** The configurations of the completed simulations. */
+		public List<JsonNode> results = new ArrayList<>();
+		/** The URN of the simulation in progress, if any. */
+		public String urn;
+		/** The time of the simulation in progress. */
+		public int step;
+		/** The snapshot file of the simulation in progress. */
+		public String snapshot;
+	}
+
+	static Logger log = LoggerFactory.getLogger(Checkpoint.class);
+
+	/** The subdirectory of the batch output directory holding checkpoints. */
+	public static final String DIRECTORY = "checkpoint";
+
+	static final String JOURNAL = "journal.json";
+
+	static final String SNAPSHOT = ".ser.gz";
+
+	/**
+	 * Open the checkpoint for an experiment. If checkpointing is configured and
+	 * a journal for the same configuration exists the checkpoint is resuming,
+	 * otherwise any previous checkpoint is discarded.
+	 *
+	 * @param config        the experiment configuration
+	 * @param baseDirectory the root directory for output files
+	 * @return the checkpoint, which is disabled if the checkpoint interval is
+	 *         not positive
+	 * @throws IOException if a previous checkpoint cannot be read or removed
+	 */
+	public static Checkpoint open(
+			ExperimentConfiguration config, Path baseDirectory
+	) throws IOException {
+		var directory = config.getBatchDirectoryPath(baseDirectory)
+				.resolve(DIRECTORY);
+		var interval = config.getBatchConfig().getCheckpointInterval();
+		var journal = new Journal();
+		journal.config = hash(config);
+		if (interval <= 0) {
+			return new Checkpoint(directory, interval, journal, false);
+		}
+		var file = directory.resolve(JOURNAL);
+		if (Files.isRegularFile(file)) {
+			var previous = mapper().readValue(file.toFile(), Journal.class);
+			if (journal.config.equals(previous.config)) {
+				log.info(
+						"Resuming from checkpoint: {} simulations complete; {} at step {}",
+						previous.completed.size(), previous.urn, previous.step
+				);
+				return new Checkpoint(directory, interval, previous, true);
+			}
+			log.warn("Ignoring checkpoint for a different configuration: " + file);
+		}
+		var out = new Checkpoint(directory, interval, journal, false);
+		out.clear();
+		return out;
+	}
+
+	/**
+	 * A stable key for an experiment configuration: the SHA‑256 of its JSON
+	 * form, ignoring the checkpoint interval so that it can be changed between
+	 * restarts.
+	 */
+	static String hash(ExperimentConfiguration config) {
+		var om = mapper();
+		try {
+			byte[] json = om.writeValueAsString(
+					ImmutableExperimentConfiguration.copyOf(config).withBatchConfig(
+							config.getBatchConfig().withCheckpointInterval(0)
+					)
+			).getBytes(StandardCharsets.UTF_8);
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			var sb = new StringBuilder();
+			for (var i = 0; i < 8; i++) {
+				sb.append(String.format("%02x", digest[i]));
+			}
+			return sb.toString();
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static ObjectMapper mapper() {
+		var om = new ObjectMapper();
+		om.registerModules(new GuavaModule());
+		om.setSerializationInclusion(Include.NON_NULL);
+		return om;
+	}
+
+	Path directory;
+	int interval;
+	Journal journal;
+	boolean resuming;
+	String resumeUrn;
+	String resumeSnapshot;
+
+	private Checkpoint(
+			Path directory, int interval, Journal journal, boolean resuming
+	) {
+		this.directory = directory;
+		this.interval = interval;
+		this.journal = journal;
+		this.resuming = resuming;
+		if (resuming) {
+			this.resumeUrn = journal.urn;
+			this.resumeSnapshot = journal.snapshot;
+		}
+	}
+
+	private void clear() throws IOException {
+		if (!Files.isDirectory(this.directory)) { return; }
+		try (var files = Files.list(this.directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				var name = file.getFileName().toString();
+				if (name.equals(JOURNAL) || name.endsWith(SNAPSHOT)) {
+					Files.delete(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Record that a simulation has completed. This is called after the
+	 * simulation has been finalised by the exporter so that the checkpoint
+	 * includes its final outputs.
+	 *
+	 * @param outbreak the completed outbreak
+	 * @param exporter the exporter writing the experiment outputs
+	 * @throws IOException if the journal cannot be written
+	 */
+	public synchronized void complete(
+			Outbreak outbreak, SimulationExporter exporter
+	) throws IOException {
+		var previous = this.journal.snapshot;
+		this.journal.completed.add(outbreak.getUrn());
+		this.journal.positions = exporter.positions();
+		this.journal.results = exporter.results();
+		this.journal.urn = null;
+		this.journal.step = 0;
+		this.journal.snapshot = null;
+		this.writeJournal();
+		this.deleteSnapshot(previous);
+	}
+
+	private void deleteSnapshot(String snapshot) throws IOException {
+		if (snapshot != null) {
+			Files.deleteIfExists(this.directory.resolve(snapshot));
+		}
+	}
+
+	/**
+	 * Remove the checkpoint once the whole experiment has completed, so that a
+	 * later run in the same directory starts afresh.
+	 *
+	 * @throws IOException if the checkpoint files cannot be removed
+	 */
+	public synchronized void finish() throws IOException {
+		if (!this.isEnabled()) { return; }
+		this.clear();
+		Files.deleteIfExists(this.directory);
+	}
+
+	/**
+	 * The positions of the output files at the checkpoint.
+	 *
+	 * @return the writer positions keyed by output file name
+	 * @see SimulationExporter#positions()
+	 */
+	public Map<String, Long> getPositions() { return this.journal.positions; }
+
+	/**
+	 * The configurations of the simulations completed before the checkpoint.
+	 *
+	 * @return the result configurations
+	 * @see SimulationExporter#results()
+	 */
+	public List<JsonNode> getResults() { return this.journal.results; }
+
+	/**
+	 * Was a simulation completed before the checkpoint.
+	 *
+	 * @param urn the URN of the simulation
+	 * @return true if the simulation does not need to be run again
+	 */
+	public synchronized boolean isCompleted(String urn) {
+		return this.resuming && this.journal.completed.contains(urn);
+	}
+
+	/**
+	 * Is a checkpoint due at this simulation time.
+	 *
+	 * @param step the current time of the simulation
+	 * @return true if checkpointing is enabled and the time is a multiple of the
+	 *         checkpoint interval
+	 */
+	public boolean isDue(int step) {
+		return this.isEnabled() && step > 0 && step % this.interval == 0;
+	}
+
+	/**
+	 * Is checkpointing configured.
+	 *
+	 * @return true if the checkpoint interval is positive
+	 */
+	public boolean isEnabled() { return this.interval > 0; }
+
+	/**
+	 * Was a simulation interrupted part way through, and saved.
+	 *
+	 * @param urn the URN of the simulation
+	 * @return true if the simulation can be restored with {@link #restore()}
+	 */
+	public boolean isInterrupted(String urn) {
+		return this.resumeSnapshot != null && urn.equals(this.resumeUrn);
+	}
+
+	/**
+	 * Is this checkpoint resuming a previous run of the same experiment.
+	 *
+	 * @return true if outputs should be appended to rather than replaced
+	 */
+	public boolean isResuming() { return this.resuming; }
+
+	/**
+	 * Read the outbreak saved by the interrupted simulation.
+	 *
+	 * @return the outbreak at the time of the checkpoint
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	public Outbreak restore() throws IOException {
+		return this.read(this.directory.resolve(this.resumeSnapshot));
+	}
+
+	/**
+	 * Read the outbreak saved at the end of a trunk simulation.
+	 *
+	 * @param urn the URN of the trunk
+	 * @return the trunk outbreak at the branch day
+	 * @throws IOException if the snapshot cannot be read
+	 * @see #saveTrunk(Outbreak)
+	 */
+	public Outbreak restoreTrunk(String urn) throws IOException {
+		return this.read(this.directory.resolve(trunkSnapshot(urn)));
+	}
+
+	private Outbreak read(Path file) throws IOException {
+		try (var in = new ObjectInputStream(
+				new GZIPInputStream(
+						new BufferedInputStream(Files.newInputStream(file))
+				)
+		)) {
+			var outbreak = (Outbreak) in.readObject();
+			log.info(
+					"Restored {} at step {}", outbreak.getUrn(),
+					outbreak.getCurrentState().getTime()
+			);
+			return outbreak;
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("Not a checkpoint snapshot: " + file, e);
+		}
+	}
+
+	/**
+	 * Save a running simulation. The exporter queues are drained first so the
+	 * output file positions match the outbreak. This must be called from the
+	 * thread running the simulation, between steps.
+	 *
+	 * @param outbreak the running outbreak
+	 * @param exporter the exporter writing the experiment outputs
+	 * @throws IOException if the snapshot or journal cannot be written
+	 */
+	public synchronized void save(Outbreak outbreak, SimulationExporter exporter)
+			throws IOException {
+		var start = System.nanoTime();
+		var step = outbreak.getCurrentState().getTime();
+		var previous = this.journal.snapshot;
+		var snapshot = sanitise(outbreak.getUrn()) + "-" + step + SNAPSHOT;
+		this.journal.positions = exporter.positions();
+		this.journal.results = exporter.results();
+		this.writeSnapshot(snapshot, outbreak);
+		this.journal.urn = outbreak.getUrn();
+		this.journal.step = step;
+		this.journal.snapshot = snapshot;
+		this.writeJournal();
+		if (!snapshot.equals(previous)) { this.deleteSnapshot(previous); }
+		log.debug(
+				String.format(
+						"Checkpointed %s at step %d in %.1f ms", outbreak.getUrn(),
+						step, (System.nanoTime() - start) / 1E6
+				)
+		);
+	}
+
+	/**
+	 * Save a completed trunk simulation so that its branches can be started
+	 * after a restart. This must be called before the trunk is recorded as
+	 * complete. Trunk snapshots are kept until the experiment finishes.
+	 *
+	 * @param outbreak the trunk outbreak at the branch day
+	 * @throws IOException if the snapshot cannot be written
+	 * @see io.github.ai4ci.config.ExperimentConfiguration#getBranchDay()
+	 */
+	public synchronized void saveTrunk(Outbreak outbreak) throws IOException {
+		this.writeSnapshot(trunkSnapshot(outbreak.getUrn()), outbreak);
+	}
+
+	/**
+	 * Was a trunk simulation saved before the checkpoint.
+	 *
+	 * @param urn the URN of the trunk
+	 * @return true if the trunk can be restored with {@link #restoreTrunk(String)}
+	 */
+	public boolean hasTrunk(String urn) {
+		return this.resuming
+				&& Files.isRegularFile(this.directory.resolve(trunkSnapshot(urn)));
+	}
+
+	private static String sanitise(String urn) {
+		return urn.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+	private static String trunkSnapshot(String urn) {
+		return "trunk-" + sanitise(urn) + SNAPSHOT;
+	}
+
+	private void writeJournal() throws IOException {
+		this.writeAtomically(
+				JOURNAL,
+				tmp -> mapper().writerWithDefaultPrettyPrinter()
+						.writeValue(tmp.toFile(), this.journal)
+		);
+	}
+
+	private void writeSnapshot(String name, Outbreak outbreak)
+			throws IOException {
+		this.writeAtomically(name, tmp -> {
+			try (var out = new ObjectOutputStream(
+					new GZIPOutputStream(
+							new BufferedOutputStream(Files.newOutputStream(tmp))
+					)
+			)) {
+				out.writeObject(outbreak);
+			}
+		});
+	}
+
+	private interface FileWriter {
+		void write(Path file) throws IOException;
+	}
+
+	private void writeAtomically(String name, FileWriter writer)
+			throws IOException {
+		Files.createDirectories(this.directory);
+		var file = this.directory.resolve(name);
+		var tmp = Files.createTempFile(this.directory, name, ".tmp");
+		try {
+			writer.write(tmp);
+			Files.move(
+					tmp, file, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING
+			);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+}
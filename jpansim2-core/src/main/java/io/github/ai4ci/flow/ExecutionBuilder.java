@@ -14,7 +14,9 @@ import io.github.ai4ci.config.execution.ExecutionConfiguration;
 import io.github.ai4ci.config.setup.SetupConfiguration;
 import io.github.ai4ci.flow.builders.AbstractModelBuilder;
 import io.github.ai4ci.flow.builders.DefaultModelBuilder;
+import io.github.ai4ci.flow.builders.NetworkCache;
 import io.github.ai4ci.util.Cloner;
+import io.github.ai4ci.util.ReflectionUtils;
 import io.github.ai4ci.util.Sampler;
 
 /**
@@ -89,6 +91,7 @@ public class ExecutionBuilder {
 
 	ModifiableOutbreak outbreak;
 	AbstractModelBuilder modelBuilder;
+	NetworkCache networkCache;
 
 	ExecutionBuilder(SetupConfiguration setupConfig) {
 		this.setupConfig = setupConfig;
@@ -115,6 +118,102 @@ public class ExecutionBuilder {
 		this.outbreak = Outbreak.createOutbreakStub();
 	}
 
+	ExecutionBuilder(SetupConfiguration setupConfig, NetworkCache networkCache) {
+		this(setupConfig);
+		this.networkCache = networkCache;
+	}
+
+	/**
+	 * Turn a running trunk outbreak into a branch with a different execution
+	 * configuration, for what-if comparisons from a shared starting point (see
+	 * {@link io.github.ai4ci.config.ExperimentConfiguration#getBranchDay()}).
+	 * The outbreak is modified in place, so callers that need the trunk again
+	 * should pass a copy.
+	 *
+	 * <p>
+	 * The branch takes the URN of the execution configuration, and the
+	 * execution configuration replaces that of the trunk, so parameters read as
+	 * the simulation runs (for example test characteristics) change from the
+	 * branch onwards. If the default policy model differs from the trunk the
+	 * outbreak's policy state machine is reinitialised with it, and likewise
+	 * for each person whose default behaviour model differs. People's baseline
+	 * parameters, the outbreak calibration and the history up to the branch are
+	 * retained. The random stream of the calling thread is restarted from the
+	 * branch URN (see {@link Sampler#restartSampler(String)}), as it is seeded
+	 * when a simulation is built, so branching the same trunk twice on the same
+	 * thread gives the same draws.
+	 *
+	 * @param trunk      the outbreak to branch, which is modified
+	 * @param execConfig the execution configuration of the branch
+	 * @param urnBase    the optional URN prefix, as in
+	 *                   {@link #buildExperiment(SetupConfiguration, ExecutionConfiguration, String)}
+	 * @return the branched outbreak, ready to continue
+	 */
+	public static Outbreak branch(
+			Outbreak trunk, ExecutionConfiguration execConfig, String urnBase
+	) {
+		var outbreak = (ModifiableOutbreak) trunk;
+		var previous = outbreak.getExecutionConfiguration();
+		outbreak.setUrn(urn(urnBase, outbreak.getSetupConfiguration(), execConfig));
+		outbreak.setExecutionConfiguration(execConfig);
+		Sampler.restartSampler(outbreak.getUrn());
+
+		if (!previous.getDefaultPolicyModelName()
+				.equals(execConfig.getDefaultPolicyModelName())) {
+			outbreak.setBaseline(
+					ImmutableOutbreakBaseline.copyOf(outbreak.getBaseline())
+							.withDefaultPolicyState(execConfig.getDefaultPolicyModel())
+			);
+			outbreak.getStateMachine().init(execConfig.getDefaultPolicyModel());
+		}
+
+		outbreak.getPeople().parallelStream().forEach(p -> {
+			var behaviour = ReflectionUtils.modify(
+					execConfig, execConfig.getDemographicAdjustment(),
+					p.getDemographic()
+			).getDefaultBehaviourModel();
+			if (!behaviour.equals(p.getBaseline().getDefaultBehaviourState())) {
+				((ModifiablePerson) p).setBaseline(
+						ImmutablePersonBaseline.copyOf(p.getBaseline())
+								.withDefaultBehaviourState(behaviour)
+				);
+				p.getStateMachine().init(behaviour);
+			}
+		});
+
+		log.debug(
+				"Branched {} at step {}", outbreak.getUrn(),
+				outbreak.getCurrentState().getTime()
+		);
+		return outbreak;
+	}
+
+	/**
+	 * The URN of the outbreak that would be built from a setup and execution
+	 * configuration, without building it. This matches the URN set by the
+	 * setup and baseline stages of the build.
+	 *
+	 * @param urnBase     the optional URN prefix, as in
+	 *                    {@link #buildExperiment(SetupConfiguration, ExecutionConfiguration, String)}
+	 * @param setupConfig the setup configuration
+	 * @param execConfig  the execution configuration
+	 * @return the outbreak URN
+	 */
+	public static String urn(
+			String urnBase, SetupConfiguration setupConfig,
+			ExecutionConfiguration execConfig
+	) {
+		return setupUrn(urnBase, setupConfig) + ":" + execConfig.getName() + ":"
+				+ execConfig.getReplicate();
+	}
+
+	private static String setupUrn(
+			String urnBase, SetupConfiguration setupConfig
+	) {
+		return (urnBase != null ? urnBase + ":" : "") + setupConfig.getName()
+				+ ":" + setupConfig.getReplicate();
+	}
+
 	void baselineModel(ExecutionConfiguration execConfig) {
 		this.outbreak.setUrn(
 				this.outbreak.getUrn() + ":" + execConfig.getName() + ":"
@@ -255,17 +354,20 @@ public class ExecutionBuilder {
 	}
 
 	void setupOutbreak(String urnBase) {
-		this.outbreak.setUrn(
-				(urnBase != null ? urnBase + ":" : "") + this.setupConfig.getName()
-						+ ":" + this.setupConfig.getReplicate()
-		);
+		this.outbreak.setUrn(setupUrn(urnBase, this.setupConfig));
 		Sampler sampler = Sampler.getSampler(this.outbreak.getUrn());
 		// TODO: when builder selection is compositional ensure selection
 		// happens before any builder method is invoked (eg here). For example
 		// if using a factory the factory must be consulted during construction
 		// and `this.modelBuilder` must be the chosen implementation.
-		this.modelBuilder
-				.doSetupOutbreak(this.outbreak, this.setupConfig, sampler);
+		if (this.networkCache != null) {
+			this.networkCache.setupOutbreak(
+					this.modelBuilder, this.outbreak, this.setupConfig, sampler
+			);
+		} else {
+			this.modelBuilder
+					.doSetupOutbreak(this.outbreak, this.setupConfig, sampler);
+		}
 	}
 
 }
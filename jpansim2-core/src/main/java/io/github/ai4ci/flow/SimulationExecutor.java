@@ -1,8 +1,16 @@
 package io.github.ai4ci.flow;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.config.BatchConfiguration.ExtinctionMode;
+import io.github.ai4ci.flow.mechanics.StepTimings;
 import io.github.ai4ci.flow.mechanics.Updater;
 import io.github.ai4ci.flow.output.SimulationExporter;
+import io.github.ai4ci.output.CSVMapper;
+import io.github.ai4ci.output.ImmutableOutbreakCSV;
+import io.github.ai4ci.output.ImmutableStepTimingsCSV;
 import io.github.ai4ci.util.PauseableThread;
 
 /**
@@ -12,15 +20,50 @@ import io.github.ai4ci.util.PauseableThread;
  * from the simulation (via {@link SimulationExporter}) and then incrementing
  * the time of the simulation (via
  * {@link io.github.ai4ci.flow.mechanics.Updater}).
+ *
+ * <p>
+ * If the {@link io.github.ai4ci.config.Exporters#TIMINGS} export is
+ * configured, each step is instrumented with {@link StepTimings}: the time and
+ * process wide allocation of each export and each phase of the update are
+ * written to {@code timings.csv} and logged by the monitor. Otherwise nothing
+ * is measured.
+ *
+ * <p>
+ * If checkpointing is configured the outbreak is saved every
+ * {@link io.github.ai4ci.config.BatchConfiguration#getCheckpointInterval()}
+ * steps, and its completion is recorded, by the monitor's {@link Checkpoint}.
+ * An executor given a restored outbreak continues from the step at which it
+ * was saved.
+ *
+ * <p>
+ * The same applies to an outbreak branched from a trunk simulation, which
+ * continues from the branch day (see
+ * {@link io.github.ai4ci.config.ExperimentConfiguration#getBranchDay()}). A
+ * trunk is run only to the branch day and is then handed back to the factory
+ * by the monitor.
+ *
+ * <p>
+ * If the epidemic dies out before the end of the simulation the executor
+ * stops early, or fast forwards the daily summary to the end of the
+ * simulation, depending on the
+ * {@link io.github.ai4ci.config.BatchConfiguration#getExtinctionMode()}. In
+ * either case the day of extinction is exported in full and the final state is
+ * flagged as extinct. Trunk simulations always run to the branch day.
  */
 public class SimulationExecutor extends PauseableThread {
 
-	int step = 0;
+	static Logger log = LoggerFactory.getLogger(SimulationExecutor.class);
+
+	int step;
 	int toStep;
 	SimulationMonitor mon;
 	Outbreak outbreak;
 	Updater updater;
 	SimulationExporter exporter;
+	StepTimings timings;
+	Checkpoint checkpoint;
+	boolean trunk;
+	ExtinctionMode extinctionMode;
 
 	/**
 	 * Create a new simulation executor for the given outbreak, exporter and
@@ -40,15 +83,37 @@ public class SimulationExecutor extends PauseableThread {
 		this.outbreak = outbreak;
 		this.exporter = exporter;
 		this.toStep = toStep;
+		this.step = outbreak.getCurrentState().getTime();
+		this.checkpoint = mon.checkpoint;
+		this.extinctionMode = mon.extinctionMode;
 		this.updater = new Updater();
+		if (exporter.isExporting(ImmutableStepTimingsCSV.class)) {
+			this.timings = new StepTimings(outbreak.getUrn());
+			this.updater.withTimings(this.timings);
+		}
 	}
 
 	@Override
 	public void doLoop() {
 		try {
 			this.step += 1;
-			this.exporter.export(this.outbreak);
-			this.updater.update(this.outbreak);
+			if (this.timings == null) {
+				this.exporter.export(this.outbreak);
+				this.updater.update(this.outbreak);
+			} else {
+				this.timings.reset(this.outbreak.getCurrentState().getTime());
+				this.exporter.export(this.outbreak, this.timings);
+				this.updater.update(this.outbreak);
+				this.exporter.export(
+						ImmutableStepTimingsCSV.class,
+						CSVMapper.INSTANCE.toTimingsCSV(this.outbreak, this.timings)
+				);
+				this.mon.notifyStepComplete(this, this.timings);
+			}
+			if (this.checkpoint != null && this.checkpoint.isDue(this.step)
+					&& !this.isComplete()) {
+				this.checkpoint.save(this.outbreak, this.exporter);
+			}
 		} catch (Exception e) {
 			this.mon.handle(e);
 			this.halt();
@@ -56,7 +121,15 @@ public class SimulationExecutor extends PauseableThread {
 	}
 
 	@Override
-	public boolean isComplete() { return this.step >= this.toStep; }
+	public boolean isComplete() {
+		return this.step >= this.toStep || this.isStoppedByExtinction();
+	}
+
+	private boolean isStoppedByExtinction() {
+		return !this.trunk && this.extinctionMode != null
+				&& this.extinctionMode != ExtinctionMode.CONTINUE
+				&& this.outbreak.getCurrentState().isExtinct();
+	}
 
 	@Override
 	public void setup() {
@@ -65,7 +138,33 @@ public class SimulationExecutor extends PauseableThread {
 
 	@Override
 	public void shutdown(boolean completedNormally) {
+		if (completedNormally && this.step < this.toStep) {
+			// Stopped by extinction: the day of extinction has not been exported
+			// by the main loop.
+			log.info(
+					"Epidemic extinct on day " + this.step + ": "
+							+ this.outbreak.getUrn()
+			);
+			this.exporter.export(this.outbreak);
+			if (this.extinctionMode == ExtinctionMode.FAST_FORWARD) {
+				this.exporter.export(
+						ImmutableOutbreakCSV.class,
+						CSVMapper.INSTANCE.toFastForwardCSV(
+								this.outbreak.getCurrentState(), this.toStep
+						)
+				);
+			}
+		}
 		this.exporter.finalise(this.outbreak);
+		if (completedNormally && this.checkpoint != null
+				&& this.checkpoint.isEnabled()) {
+			try {
+				if (this.trunk) { this.checkpoint.saveTrunk(this.outbreak); }
+				this.checkpoint.complete(this.outbreak, this.exporter);
+			} catch (Exception e) {
+				this.mon.handle(e);
+			}
+		}
 		this.mon.notifyExecutionComplete(this);
 	}
 
@@ -1,9 +1,18 @@
 package io.github.ai4ci.flow;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -13,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.config.execution.ExecutionConfiguration;
 import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.flow.builders.NetworkCache;
 import io.github.ai4ci.util.Cloner;
 import io.github.ai4ci.util.PauseableThread;
 
@@ -108,24 +118,116 @@ public class SimulationFactory extends PauseableThread {
 			List<ExecutionConfiguration> executions, String urnBase,
 			SimulationMonitor mon
 	) {
+		return startFactory(setups, executions, urnBase, null, mon);
+	}
+
+	/**
+	 * Starts the simulation factory with the provided configuration sets,
+	 * reusing social networks from a disk cache where possible.
+	 *
+	 * @param setups       list of setup configurations for model structure
+	 * @param executions   list of execution configurations for run parameters
+	 * @param urnBase      base URN pattern for simulation identification
+	 * @param networkCache a cache of previously generated networks, or null to
+	 *                     always generate networks
+	 * @param mon          the simulation monitor that will execute the
+	 *                     generated simulations
+	 * @return a started SimulationFactory instance
+	 * @see NetworkCache
+	 */
+	public static SimulationFactory startFactory(
+			List<SetupConfiguration> setups,
+			List<ExecutionConfiguration> executions, String urnBase,
+			NetworkCache networkCache, SimulationMonitor mon
+	) {
+		return startFactory(
+				setups, executions, Collections.emptyList(), urnBase, networkCache,
+				null, mon
+		);
+	}
+
+	/**
+	 * Starts the simulation factory with the provided configuration sets,
+	 * resuming from a checkpoint and optionally branching the executions from
+	 * shared trunk simulations.
+	 *
+	 * <p>
+	 * Simulations completed before the checkpoint are skipped and an
+	 * interrupted simulation is restored rather than rebuilt. If trunk
+	 * configurations are given, for each setup the factory first builds the
+	 * trunk simulation of each execution replicate. The monitor runs the trunk
+	 * to the branch day and hands it back with {@link #branchFrom(Outbreak)},
+	 * after which the factory delivers a copy branched to each execution with
+	 * the same replicate (see
+	 * {@link ExecutionBuilder#branch(Outbreak, ExecutionConfiguration, String)}).
+	 *
+	 * @param setups       list of setup configurations for model structure
+	 * @param executions   list of execution configurations for run parameters
+	 * @param trunks       list of trunk execution configurations, one per
+	 *                     execution replicate, or an empty list to run every
+	 *                     execution from the start
+	 * @param urnBase      base URN pattern for simulation identification
+	 * @param networkCache a cache of previously generated networks, or null to
+	 *                     always generate networks
+	 * @param checkpoint   the checkpoint of a previous run, or null to run all
+	 *                     simulations from the start
+	 * @param mon          the simulation monitor that will execute the
+	 *                     generated simulations
+	 * @return a started SimulationFactory instance
+	 * @see Checkpoint
+	 * @see io.github.ai4ci.config.ExperimentConfiguration#getBranchDay()
+	 */
+	public static SimulationFactory startFactory(
+			List<SetupConfiguration> setups,
+			List<ExecutionConfiguration> executions,
+			List<ExecutionConfiguration> trunks, String urnBase,
+			NetworkCache networkCache, Checkpoint checkpoint,
+			SimulationMonitor mon
+	) {
 
 		SimulationFactory tmp = new SimulationFactory(
-				setups, executions, urnBase, mon
+				setups, executions, trunks, urnBase, networkCache, checkpoint, mon
 		);
 		tmp.start();
 		return tmp;
 	}
 
+	/**
+	 * One simulation for the factory to produce. A branch names the trunk it
+	 * is copied from.
+	 */
+	private static class Task {
+		final int setup;
+		final ExecutionConfiguration exec;
+		final String urn;
+		final String trunkUrn;
+
+		Task(
+				int setup, ExecutionConfiguration exec, String urn, String trunkUrn
+		) {
+			this.setup = setup;
+			this.exec = exec;
+			this.urn = urn;
+			this.trunkUrn = trunkUrn;
+		}
+	}
+
 	SimulationMonitor mon;
 	volatile ConcurrentLinkedQueue<Outbreak> queue;
 	volatile AtomicInteger cacheSize = new AtomicInteger(CACHE_SIZE);
 	String urnBase;
 	long objSize = -1;
 	Iterator<Outbreak> builder;
+	List<Task> pending = new ArrayList<>();
+	int built = 0;
 	int setupStage = 0;
 	int setupSize;
 	int execStage = 0;
 	int execSize;
+	Checkpoint checkpoint;
+	Set<String> trunkUrns = new HashSet<>();
+	Map<String, Outbreak> trunks = new ConcurrentHashMap<>();
+	Map<String, Integer> branchesRemaining = new HashMap<>();
 
 	String activity = "starting";
 
@@ -136,14 +238,20 @@ public class SimulationFactory extends PauseableThread {
 	 * Initializes the factory with configuration matrices and prepares the
 	 * iterator that will generate all simulation combinations.
 	 *
-	 * @param setups     list of setup configurations
-	 * @param executions list of execution configurations
-	 * @param urnBase    base URN pattern for simulation identification
-	 * @param mon        the simulation monitor for coordination
+	 * @param setups       list of setup configurations
+	 * @param executions   list of execution configurations
+	 * @param trunks       list of trunk execution configurations, possibly
+	 *                     empty
+	 * @param urnBase      base URN pattern for simulation identification
+	 * @param networkCache optional cache of generated networks
+	 * @param checkpoint   optional checkpoint of a previous run
+	 * @param mon          the simulation monitor for coordination
 	 */
 	private SimulationFactory(
 			List<SetupConfiguration> setups,
-			List<ExecutionConfiguration> executions, String urnBase,
+			List<ExecutionConfiguration> executions,
+			List<ExecutionConfiguration> trunks, String urnBase,
+			NetworkCache networkCache, Checkpoint checkpoint,
 			SimulationMonitor mon
 	) {
 
@@ -153,38 +261,106 @@ public class SimulationFactory extends PauseableThread {
 		this.setupSize = setups.size();
 		this.execSize = executions.size();
 		this.urnBase = urnBase;
+		this.checkpoint = checkpoint;
 		this.mon = mon;
 
+		// The simulations still to run, in setup major order, with each trunk
+		// before its branches.
+		for (var setup = 0; setup < setups.size(); setup++) {
+			var setupCfg = setups.get(setup);
+			if (trunks.isEmpty()) {
+				for (ExecutionConfiguration exec : executions) {
+					var urn = ExecutionBuilder.urn(urnBase, setupCfg, exec);
+					if (!this.isCompleted(urn)) {
+						this.pending.add(new Task(setup, exec, urn, null));
+					}
+				}
+			} else {
+				for (ExecutionConfiguration trunk : trunks) {
+					var trunkUrn = ExecutionBuilder.urn(urnBase, setupCfg, trunk);
+					var branches = new ArrayList<Task>();
+					for (ExecutionConfiguration exec : executions) {
+						if (exec.getReplicate() == trunk.getReplicate()) {
+							branches.add(
+									new Task(
+											setup, exec,
+											ExecutionBuilder.urn(urnBase, setupCfg, exec),
+											trunkUrn
+									)
+							);
+						}
+					}
+					branches.removeIf(t -> this.isCompleted(t.urn));
+					if (branches.isEmpty()) { continue; }
+					this.trunkUrns.add(trunkUrn);
+					this.branchesRemaining.put(trunkUrn, branches.size());
+					// A completed trunk is only rerun if it was not saved.
+					if (!this.isCompleted(trunkUrn) || checkpoint == null
+							|| !checkpoint.hasTrunk(trunkUrn)) {
+						this.pending.add(new Task(setup, trunk, trunkUrn, null));
+					}
+					this.pending.addAll(branches);
+				}
+			}
+		}
+
 		this.builder = new Iterator<>() {
 
 			ExecutionBuilder setupBuilder;
-
-			int count = 0;
+			int builtSetup = -1;
 
 			@Override
 			public boolean hasNext() {
-				return this.count < setups.size() * executions.size();
+				return SimulationFactory.this.built < SimulationFactory.this.pending.size();
 			}
 
 			@Override
 			public Outbreak next() {
 
-				int setup = this.count / executions.size();
-				int exec = this.count % executions.size();
-
 				if (!this.hasNext())
 					throw new NoSuchElementException("Iterator exhausted");
 
-				SimulationFactory.this.execStage = exec;
+				Task task = SimulationFactory.this.pending.get(SimulationFactory.this.built);
+				int setup = task.setup;
+
+				SimulationFactory.this.execStage = executions.indexOf(task.exec);
 				SimulationFactory.this.setupStage = setup;
 
-				if (exec == 0) {
+				if (checkpoint != null && checkpoint.isInterrupted(task.urn)) {
+					SimulationFactory.this.activity = "restoring model: "
+							+ task.urn;
+					try {
+						Outbreak restored = checkpoint.restore();
+						if (task.trunkUrn != null) {
+							SimulationFactory.this.branchesRemaining
+									.merge(task.trunkUrn, -1, Integer::sum);
+						}
+						SimulationFactory.this.built += 1;
+						return restored;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+				if (task.trunkUrn != null) {
+					SimulationFactory.this.activity = "branching model: "
+							+ task.urn;
+					Outbreak branch = SimulationFactory.this
+							.branch(task.trunkUrn, task.exec);
+					SimulationFactory.this.built += 1;
+					return branch;
+				}
+
+				if (setup != this.builtSetup) {
 					// Click back to new setup
 					SetupConfiguration setupCfg = setups.get(setup);
 					SimulationFactory.this.activity = "building new model: "
 							+ setupCfg.getName() + ":" + setupCfg.getReplicate();
-					this.setupBuilder = new ExecutionBuilder(setupCfg);
+					this.setupBuilder = new ExecutionBuilder(
+							setupCfg, networkCache
+					);
 					this.setupBuilder.setupOutbreak(urnBase);
+					this.builtSetup = setup;
 				}
 
 				{
@@ -216,17 +392,27 @@ public class SimulationFactory extends PauseableThread {
 						builder2 = this.setupBuilder;
 					}
 
-					ExecutionConfiguration exCfg = executions.get(exec);
+					ExecutionConfiguration exCfg = task.exec;
 					SimulationFactory.this.activity = "initialising model baseline: "
 							+ exCfg.getName() + ":" + exCfg.getReplicate();
+					var start = System.nanoTime();
 					builder2.baselineModel(exCfg);
+					if (log.isDebugEnabled()) {
+						log.debug(
+								String.format(
+										"Baselined %s:%d in %.1f ms", exCfg.getName(),
+										exCfg.getReplicate(),
+										(System.nanoTime() - start) / 1E6
+								)
+						);
+					}
 					SimulationFactory.this.activity = "initialising model state: "
 							+ exCfg.getName() + ":" + exCfg.getReplicate();
 					builder2.initialiseStatus(exCfg);
 					SimulationFactory.this.activity = "model ready: "
 							+ exCfg.getName() + ":" + exCfg.getReplicate();
 
-					this.count += 1;
+					SimulationFactory.this.built += 1;
 
 					return builder2.build();
 				}
@@ -235,6 +421,76 @@ public class SimulationFactory extends PauseableThread {
 		};
 	}
 
+	private boolean isCompleted(String urn) {
+		return this.checkpoint != null && this.checkpoint.isCompleted(urn);
+	}
+
+	/**
+	 * Copy a trunk and branch it to an execution configuration. The last branch
+	 * of a trunk takes the trunk itself rather than a copy.
+	 */
+	private Outbreak branch(String trunkUrn, ExecutionConfiguration exec) {
+		Outbreak trunk = this.trunks.get(trunkUrn);
+		if (trunk == null) {
+			try {
+				trunk = this.checkpoint.restoreTrunk(trunkUrn);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			this.trunks.put(trunkUrn, trunk);
+		}
+		int remaining = this.branchesRemaining.merge(trunkUrn, -1, Integer::sum);
+		Outbreak copy;
+		if (remaining > 0) {
+			copy = Cloner.copy(trunk);
+		} else {
+			copy = trunk;
+			this.trunks.remove(trunkUrn);
+		}
+		return ExecutionBuilder.branch(copy, exec, this.urnBase);
+	}
+
+	/**
+	 * Accepts a trunk simulation that has run to the branch day, so that its
+	 * branches can be built. This is called by the monitor when the trunk
+	 * execution completes.
+	 *
+	 * @param trunk the trunk outbreak at the branch day
+	 * @see #isTrunk(Outbreak)
+	 */
+	void branchFrom(Outbreak trunk) {
+		this.trunks.put(trunk.getUrn(), trunk);
+		this.unpause();
+	}
+
+	/**
+	 * Checks whether the next simulation is a branch of a trunk that has not
+	 * yet been run to the branch day.
+	 *
+	 * @return true if the factory cannot make progress until a trunk completes
+	 */
+	public boolean awaitingTrunk() {
+		if (!this.builder.hasNext()) { return false; }
+		Task next = this.pending.get(this.built);
+		if (next.trunkUrn == null || this.trunks.containsKey(next.trunkUrn)) {
+			return false;
+		}
+		return this.checkpoint == null
+				|| !(this.checkpoint.isInterrupted(next.urn)
+						|| this.checkpoint.hasTrunk(next.trunkUrn));
+	}
+
+	/**
+	 * Checks whether a simulation is a trunk, which the monitor should run only
+	 * to the branch day and then hand back with {@link #branchFrom(Outbreak)}.
+	 *
+	 * @param outbreak a simulation delivered by this factory
+	 * @return true if the simulation is a trunk
+	 */
+	public boolean isTrunk(Outbreak outbreak) {
+		return this.trunkUrns.contains(outbreak.getUrn());
+	}
+
 	/**
 	 * Checks if the simulation cache is full.
 	 *
@@ -257,7 +513,7 @@ public class SimulationFactory extends PauseableThread {
 
 	@Override
 	public void doLoop() {
-		if (this.cacheFull()) {
+		if (this.cacheFull() || this.awaitingTrunk()) {
 			this.pause();
 		} else {
 			try {
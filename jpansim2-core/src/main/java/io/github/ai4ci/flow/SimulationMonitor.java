@@ -7,7 +7,10 @@ import java.nio.file.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.github.ai4ci.config.BatchConfiguration.ExtinctionMode;
 import io.github.ai4ci.config.ExperimentConfiguration;
+import io.github.ai4ci.flow.builders.NetworkCache;
+import io.github.ai4ci.flow.mechanics.StepTimings;
 import io.github.ai4ci.flow.output.SimulationExporter;
 import oshi.SystemInfo;
 import oshi.hardware.HardwareAbstractionLayer;
@@ -84,7 +87,10 @@ public class SimulationMonitor implements Runnable {
 
 	SimulationFactory factory;
 	SimulationExporter exporter;
+	Checkpoint checkpoint;
 	int duration;
+	int branchDay;
+	ExtinctionMode extinctionMode;
 	Object trigger = new Object();
 	volatile private boolean halt = false;
 
@@ -92,7 +98,9 @@ public class SimulationMonitor implements Runnable {
 	 * Create a new SimulationMonitor with the given configuration and base
 	 * directory for output. This will initialise the simulation factory and
 	 * exporter based on the provided configuration, and write the input
-	 * configuration to the output directory.
+	 * configuration to the output directory. If checkpointing is configured and
+	 * an earlier run of the same experiment was interrupted, the experiment is
+	 * resumed from its checkpoint.
 	 *
 	 * @param config        the experiment configuration containing setup and
 	 *                      execution details
@@ -104,19 +112,36 @@ public class SimulationMonitor implements Runnable {
 	public SimulationMonitor(ExperimentConfiguration config, Path baseDirectory)
 			throws IOException {
 
-		this.exporter = config.exporter(baseDirectory);
+		if (config.getBranchDay() >= config.getBatchConfig()
+			.getSimulationDuration()) {
+			throw new RuntimeException(
+					"The branch day must be before the end of the simulation"
+			);
+		}
+		this.checkpoint = Checkpoint.open(config, baseDirectory);
+		this.exporter = config.exporter(baseDirectory, this.checkpoint);
 		this.exporter.writeInputConfiguration(config);
 		var setups = config.getBatchSetupList();
 		var executions = config.getExecution();
+		var cacheDir = config.getBatchConfig()
+			.getNetworkCache();
 		this.factory = SimulationFactory.startFactory(
 			setups,
 			executions,
+			config.getTrunks(),
 			config.getBatchConfig()
 				.getUrnBase(),
+			cacheDir != null
+					? new NetworkCache(baseDirectory.resolve(cacheDir))
+					: null,
+			this.checkpoint,
 			this
 		);
 		this.duration = config.getBatchConfig()
 			.getSimulationDuration();
+		this.branchDay = config.getBranchDay();
+		this.extinctionMode = config.getBatchConfig()
+			.getExtinctionMode();
 	}
 
 	/**
@@ -139,17 +164,36 @@ public class SimulationMonitor implements Runnable {
 	/**
 	 * Notify the monitor that a simulation execution has completed. This will
 	 * log the status of the executor and notify any waiting threads that may be
-	 * waiting for a simulation to complete or a new simulation to be queued.
+	 * waiting for a simulation to complete or a new simulation to be queued. A
+	 * completed trunk simulation is handed back to the factory to be branched.
 	 *
 	 * @param executor the SimulationExecutor that has completed execution
 	 */
 	protected void notifyExecutionComplete(SimulationExecutor executor) {
 		log.info("Execution complete: " + executor.status());
+		if (executor.trunk && executor.isComplete()) {
+			this.factory.branchFrom(executor.outbreak);
+		}
 		synchronized (this.trigger) {
 			this.trigger.notifyAll();
 		}
 	}
 
+	/**
+	 * Notify the monitor that an instrumented simulation step has completed.
+	 * This logs a summary of the step timings at debug level.
+	 *
+	 * @param executor the SimulationExecutor running the simulation
+	 * @param timings  the timings of the step
+	 */
+	protected void notifyStepComplete(
+		SimulationExecutor executor, StepTimings timings
+	) {
+		if (log.isDebugEnabled()) {
+			log.debug(executor.outbreak.getUrn() + " " + timings.summary());
+		}
+	}
+
 	/**
 	 * Notify the monitor that a new simulation is ready to be executed. This
 	 * will log the status of the factory and notify any waiting threads that may
@@ -238,10 +282,13 @@ public class SimulationMonitor implements Runnable {
 						}
 						// Start a new simulation
 						if (this.factory.ready()) {
+							var outbreak = this.factory.deliver();
+							var trunk = this.factory.isTrunk(outbreak);
 							executor = new SimulationExecutor(
-									this, this.factory.deliver(), this.exporter,
-									this.duration
+									this, outbreak, this.exporter,
+									trunk ? this.branchDay : this.duration
 							);
+							executor.trunk = trunk;
 							executor.start();
 							log.info("Starting new simulation");
 						} else {
@@ -293,9 +340,13 @@ public class SimulationMonitor implements Runnable {
 				log.info("Waiting for output to complete...");
 				Thread.sleep(1000);
 			}
+			if (!this.halt && this.factory.finished()
+					&& !this.isRunning(executor)) {
+				this.checkpoint.finish();
+			}
 			log.info("Completed.");
 
-		} catch (InterruptedException e) {
+		} catch (InterruptedException | IOException e) {
 			e.printStackTrace();
 		} finally {
 			if (this.factory != null) { this.factory.halt(); }
@@ -1,17 +1,14 @@
 package io.github.ai4ci.flow.builders;
 
-import java.io.Serializable;
-import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleGraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.ai4ci.abm.ImmutableSocialRelationship;
 import io.github.ai4ci.abm.ModifiableOutbreak;
-import io.github.ai4ci.abm.Person;
 import io.github.ai4ci.abm.SocialRelationship;
+import io.github.ai4ci.config.setup.EdgeList;
 import io.github.ai4ci.config.setup.SetupConfiguration;
 import io.github.ai4ci.util.Sampler;
 import io.github.ai4ci.util.ThreadSafeArray;
@@ -41,9 +38,10 @@ public interface DefaultNetworkSetup {
 
 	/**
 	 * Default outbreak setup function that builds a social network based on the
-	 * network configuration supplied. The network is built using JGraphT and
-	 * then converted to a thread safe array of social relationships. The
-	 * relationship strengths are determined by the demographic configuration.
+	 * network configuration supplied. The network is generated as a primitive
+	 * {@link EdgeList} and then converted to a thread safe array of social
+	 * relationships. The relationship strengths are determined by the
+	 * demographic configuration.
 	 * The resulting social network is set on the outbreak and the outbreak is
 	 * returned for further processing by other setup functions.
 	 *
@@ -54,50 +52,44 @@ public interface DefaultNetworkSetup {
 	 *                    construction and relationship strength assignment
 	 * @return the outbreak with the social network set up
 	 */
-	@SuppressWarnings("unchecked")
 	default ModifiableOutbreak setupOutbreak(
 			ModifiableOutbreak outbreak, SetupConfiguration setupConfig,
 			Sampler sampler
 	) {
 
-		SimpleGraph<Person, DefaultEdge> socialNetwork = new SimpleGraph<>(
-				(Supplier<Person> & Serializable) () -> setupConfig
-						.getDemographics().createPersonStub(outbreak),
-				(Supplier<DefaultEdge> & Serializable) () -> new DefaultEdge(),
-				false
-		);
-
 		log.debug("Initialising network config");
 
+		// People are created in id order so that person ids match the vertex
+		// ids of the edge list.
+		int people = setupConfig.getNetwork().getNetworkSize();
+		for (int i = 0; i < people; i++) {
+			setupConfig.getDemographics().createPersonStub(outbreak);
+		}
+
 		// The type of graph build depends on the configuration supplied
 		// E.g. may be Erdos-Reyni etc.
-		setupConfig.getNetwork().generateGraph(socialNetwork);
+		EdgeList edges = setupConfig.getNetwork().generateEdges(sampler);
+
+		outbreak.getPeople().finish();
 
-		// This sets the weight of the network.
-		// socialNetwork.edgeSet().forEach(r -> socialNetwork.setEdgeWeight(r,
-		// sampler.uniform()));
 		// This is configuration determined by the DemographicConfiguration
 		// E.g. AgeStratified
-		int size = (int) socialNetwork.iterables().edgeCount();
-
+		double[] strength = setupConfig.getDemographics()
+				.getRelationshipStrengths(outbreak, edges, sampler);
 		ThreadSafeArray<SocialRelationship> relationships = new ThreadSafeArray<>(
-				SocialRelationship.class, size
+				SocialRelationship.class, edges.size()
 		);
-		socialNetwork.edgeSet().parallelStream().forEach(e -> {
-			Person source = socialNetwork.getEdgeSource(e);
-			Person target = socialNetwork.getEdgeTarget(e);
+		IntStream.range(0, edges.size()).parallel().forEach(e -> {
 			relationships.put(
-					ImmutableSocialRelationship.builder().setRelationshipStrength(
-							setupConfig.getDemographics()
-									.getRelationshipStrength(source, target, sampler)
-					).setPeopleIds(
-							IntIntImmutableSortedPair
-									.of(source.getId(), target.getId())
-					).build()
+					ImmutableSocialRelationship.builder()
+							.setRelationshipStrength(strength[e])
+							.setPeopleIds(
+									IntIntImmutableSortedPair
+											.of(edges.getSource(e), edges.getTarget(e))
+							).build()
 			);
 		});
 
-		outbreak.getPeople().finish();
 		relationships.finish();
 
 		outbreak.setSocialNetwork(relationships);
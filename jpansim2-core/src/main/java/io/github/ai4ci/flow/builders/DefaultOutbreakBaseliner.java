@@ -3,6 +3,7 @@ package io.github.ai4ci.flow.builders;
 import io.github.ai4ci.abm.Calibration;
 import io.github.ai4ci.abm.ImmutableOutbreakBaseline;
 import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.riskmodel.RiskKernels;
 import io.github.ai4ci.config.execution.ExecutionConfiguration;
 import io.github.ai4ci.config.inhost.InHostConfiguration;
 import io.github.ai4ci.util.Sampler;
@@ -56,9 +57,12 @@ public interface DefaultOutbreakBaseliner {
 	 * This default implementation performs the following key steps:
 	 * <ol>
 	 * <li>Obtain the {@link ExecutionConfiguration} from the outbreak.</li>
-	 * <li>Attempt a fast inference of the viral load transmissibility parameter
-	 * with a fallback to a more robust method on failure.</li>
+	 * <li>Infer the viral load transmissibility parameter from a histogram of
+	 * the cached viral load profiles (see
+	 * {@link Calibration.HistogramEstimator}).</li>
 	 * <li>Compute expected contacts per person using {@link Calibration}.</li>
+	 * <li>Build the risk model kernels shared by everyone, scaling the contacts
+	 * kernel by the expected contacts per person.</li>
 	 * <li>Derive severity cutoffs by consulting the configured
 	 * {@link InHostConfiguration}.</li>
 	 * <li>Construct an infectivity profile using
@@ -78,9 +82,9 @@ public interface DefaultOutbreakBaseliner {
 	 *
 	 * <p>
 	 * Notes for implementers: the method assumes people have already been
-	 * baselined (see model builder sequencing). The try/catch around the
-	 * transmission parameter inference provides a fast path for typical datasets
-	 * while guarding against pathological cases where the quick routine fails.
+	 * baselined (see model builder sequencing). The transmission parameter
+	 * inference and the infectivity profile share the viral load profiles cached
+	 * on the execution configuration, so no in host simulation is repeated.
 	 *
 	 * @param builder  builder used to assemble the
 	 *                 {@link ImmutableOutbreakBaseline}
@@ -98,21 +102,16 @@ public interface DefaultOutbreakBaseliner {
 				.getExecutionConfiguration();
 
 		// N.B. happens after people are baselined.., I think
-		double parameter;
-		try {
-			parameter = Calibration.inferViralLoadTransmissionParameterQuick(
-					outbreak, configuration.getR0()
-			);
-		} catch (Exception e) {
-			parameter = Calibration.inferViralLoadTransmissionParameter(
-					outbreak, configuration.getR0()
-			);
-		}
+		double parameter = Calibration.inferViralLoadTransmissionParameter(
+				outbreak, configuration.getR0()
+		);
+		var contacts = Calibration.contactsPerPersonPerDay(outbreak);
 		builder.setDefaultPolicyState(configuration.getDefaultPolicyModel())
 				.setViralLoadTransmissibilityParameter(parameter)
-				.setExpectedContactsPerPersonPerDay(
-						Calibration.contactsPerPersonPerDay(outbreak)
-				)
+				.setExpectedContactsPerPersonPerDay(contacts)
+				.setRiskKernels(RiskKernels.from(
+						configuration, contacts, outbreak.getPeople().size()
+				))
 				.setSeveritySymptomsCutoff(
 						configuration.getInHostConfiguration()
 								.getSeveritySymptomsCutoff(outbreak, configuration)
@@ -129,7 +128,7 @@ public interface DefaultOutbreakBaseliner {
 				)
 				.setInfectivityProfile(
 						InHostConfiguration.getInfectivityProfile(
-								configuration, parameter, 100, 100
+								configuration.getViralLoadProfile(), parameter
 						)
 				).setSymptomDuration(
 						configuration.getSeverityProfile().getQuantile(0.95)
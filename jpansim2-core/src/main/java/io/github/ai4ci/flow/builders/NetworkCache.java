@@ -0,0 +1,301 @@
+package io.github.ai4ci.flow.builders;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.guava.GuavaModule;
+
+import io.github.ai4ci.abm.ImmutablePersonDemographic;
+import io.github.ai4ci.abm.ImmutableSocialRelationship;
+import io.github.ai4ci.abm.ModifiableOutbreak;
+import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.abm.PersonDemographic;
+import io.github.ai4ci.abm.SocialRelationship;
+import io.github.ai4ci.config.setup.ImmutableSetupConfiguration;
+import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.util.Sampler;
+import io.github.ai4ci.util.ThreadSafeArray;
+import it.unimi.dsi.fastutil.ints.IntIntImmutableSortedPair;
+
+/**
+ * A disk cache of the outcome of the setup stage of the model build.
+ *
+ * <p>
+ * Generating a large social network with JGraphT and assigning relationship
+ * strengths can take minutes, and the same setup configurations are rebuilt by
+ * every SLURM array task and every rerun of an experiment. This cache stores
+ * the result of
+ * {@link AbstractModelBuilder#doSetupOutbreak(ModifiableOutbreak, SetupConfiguration, Sampler)}
+ * — the person demographics and the weighted edge list — in a flat binary file
+ * and reads it back through memory mapped buffers, which avoids the graph
+ * generator and the intermediate {@code SimpleGraph} altogether.
+ *
+ * <p>
+ * Files are keyed by a SHA‑256 hash of the JSON form of the setup
+ * configuration (ignoring its name) and by the setup replicate, so that a
+ * change to any network or demographic parameter produces a new file. The
+ * layout is a fixed header followed by one record per person ({@code age},
+ * {@code locationX}, {@code locationY} as doubles) and one record per edge
+ * (two {@code int} person ids and a {@code double} relationship strength).
+ * Files are written to a temporary name and moved into place atomically so
+ * that concurrent batch jobs never read a partially written network. A cache
+ * that cannot be read or written is logged and otherwise ignored; the network
+ * is then generated as normal.
+ *
+ * @author Rob Challen
+ */
+public class NetworkCache {
+
+	static Logger log = LoggerFactory.getLogger(NetworkCache.class);
+
+	static final long MAGIC = 0x4A50534E4554L; // "JPSNET"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 8 + 4 + 4 + 8;
+	static final int PERSON_BYTES = 3 * 8;
+	static final int EDGE_BYTES = 4 + 4 + 8;
+
+	/**
+	 * Maximum number of records in one mapped region. A single
+	 * {@link MappedByteBuffer} is limited to 2Gb so edge lists of very large
+	 * networks are mapped in several regions.
+	 */
+	static final int CHUNK_RECORDS = 1 << 26;
+
+	Path directory;
+
+	/**
+	 * Create a cache backed by a directory. The directory is created on first
+	 * write if it does not exist.
+	 *
+	 * @param directory the directory holding the cached networks
+	 */
+	public NetworkCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * The cache file for a setup configuration.
+	 *
+	 * @param config the setup configuration
+	 * @return the path of the file that does or would hold its network
+	 */
+	public Path fileFor(SetupConfiguration config) {
+		return this.directory.resolve(
+				"network-" + hash(config) + "-" + config.getReplicate() + ".bin"
+		);
+	}
+
+	/**
+	 * Perform the setup stage of the model build using the cache. If a cached
+	 * network exists for the setup configuration it is loaded into the
+	 * outbreak, otherwise the builder performs setup as normal and the result is
+	 * written to the cache for next time.
+	 *
+	 * @param builder  the model builder used when the network is not cached
+	 * @param outbreak the outbreak to set up
+	 * @param config   the setup configuration
+	 * @param sampler  the sampler passed to the builder
+	 * @return the set up outbreak
+	 */
+	public ModifiableOutbreak setupOutbreak(
+			AbstractModelBuilder builder, ModifiableOutbreak outbreak,
+			SetupConfiguration config, Sampler sampler
+	) {
+		Path file = this.fileFor(config);
+		if (Files.isRegularFile(file)) {
+			try {
+				return this.read(file, outbreak, config);
+			} catch (IOException e) {
+				log.warn("Could not read cached network: " + file, e);
+			}
+		}
+		builder.doSetupOutbreak(outbreak, config, sampler);
+		try {
+			this.write(file, outbreak);
+		} catch (IOException e) {
+			log.warn("Could not write cached network: " + file, e);
+		}
+		return outbreak;
+	}
+
+	/**
+	 * Load a cached network into an outbreak stub. The file is validated before
+	 * the outbreak is modified so that a failed read leaves the outbreak
+	 * untouched.
+	 *
+	 * @param file     the cache file
+	 * @param outbreak the outbreak stub
+	 * @param config   the setup configuration the file was written for
+	 * @return the set up outbreak
+	 * @throws IOException if the file cannot be read or does not match the
+	 *                     configuration
+	 */
+	ModifiableOutbreak read(
+			Path file, ModifiableOutbreak outbreak, SetupConfiguration config
+	) throws IOException {
+		try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			var header = channel.map(MapMode.READ_ONLY, 0, HEADER_BYTES);
+			if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+				throw new IOException("Not a network cache file");
+			}
+			int people = header.getInt();
+			long edges = header.getLong();
+			if (people != config.getNetwork().getNetworkSize()
+					|| channel.size() != HEADER_BYTES + (long) people * PERSON_BYTES
+							+ edges * EDGE_BYTES) {
+				throw new IOException("Network cache file is incomplete");
+			}
+
+			outbreak.setSetupConfiguration(config);
+			outbreak.setPeople(new ThreadSafeArray<>(Person.class, people));
+			long offset = HEADER_BYTES;
+			var demog = channel
+					.map(MapMode.READ_ONLY, offset, (long) people * PERSON_BYTES);
+			// People must be created sequentially so that ids match the file
+			for (var i = 0; i < people; i++) {
+				var person = Person.createPersonStub(outbreak);
+				person.setDemographic(
+						ImmutablePersonDemographic.builder().setEntity(person)
+								.setAge(demog.getDouble())
+								.setLocationX(demog.getDouble())
+								.setLocationY(demog.getDouble()).build()
+				);
+			}
+			offset += (long) people * PERSON_BYTES;
+
+			ThreadSafeArray<SocialRelationship> relationships = new ThreadSafeArray<>(
+					SocialRelationship.class, (int) edges
+			);
+			for (long start = 0; start < edges; start += CHUNK_RECORDS) {
+				var count = (int) Math.min(CHUNK_RECORDS, edges - start);
+				MappedByteBuffer chunk = channel.map(
+						MapMode.READ_ONLY, offset + start * EDGE_BYTES,
+						(long) count * EDGE_BYTES
+				);
+				// absolute reads do not touch the buffer position so the chunk
+				// can be shared between threads.
+				IntStream.range(0, count).parallel().forEach(i -> {
+					var pos = i * EDGE_BYTES;
+					relationships.put(
+							ImmutableSocialRelationship.builder()
+									.setPeopleIds(
+											IntIntImmutableSortedPair.of(
+													chunk.getInt(pos), chunk.getInt(pos + 4)
+											)
+									).setRelationshipStrength(chunk.getDouble(pos + 8))
+									.build()
+					);
+				});
+			}
+			outbreak.getPeople().finish();
+			relationships.finish();
+			outbreak.setSocialNetwork(relationships);
+		}
+		log.debug(
+				"loaded cached network {}: {} people, {} edges", file,
+				outbreak.getPopulationSize(), outbreak.getSocialNetwork().size()
+		);
+		return outbreak;
+	}
+
+	/**
+	 * Write the demographics and social network of a set up outbreak to a cache
+	 * file.
+	 *
+	 * @param file     the target cache file
+	 * @param outbreak an outbreak that has completed the setup stage
+	 * @throws IOException if the file cannot be written
+	 */
+	void write(Path file, ModifiableOutbreak outbreak) throws IOException {
+		Files.createDirectories(file.getParent());
+		var people = outbreak.getPeople();
+		var network = outbreak.getSocialNetwork();
+		int size = people.size();
+		long edges = network.size();
+		Path tmp = Files.createTempFile(
+				file.getParent(), file.getFileName().toString(), ".tmp"
+		);
+		try {
+			try (var channel = FileChannel.open(
+					tmp, StandardOpenOption.READ, StandardOpenOption.WRITE
+			)) {
+				var header = channel.map(MapMode.READ_WRITE, 0, HEADER_BYTES);
+				header.putLong(MAGIC).putInt(VERSION).putInt(size).putLong(edges);
+				long offset = HEADER_BYTES;
+				var demog = channel
+						.map(MapMode.READ_WRITE, offset, (long) size * PERSON_BYTES);
+				for (var i = 0; i < size; i++) {
+					PersonDemographic d = people.get(i).getDemographic();
+					demog.putDouble(d.getAge()).putDouble(d.getLocationX())
+							.putDouble(d.getLocationY());
+				}
+				offset += (long) size * PERSON_BYTES;
+				for (long start = 0; start < edges; start += CHUNK_RECORDS) {
+					var count = (int) Math.min(CHUNK_RECORDS, edges - start);
+					var chunk = channel.map(
+							MapMode.READ_WRITE, offset + start * EDGE_BYTES,
+							(long) count * EDGE_BYTES
+					);
+					for (var i = 0; i < count; i++) {
+						SocialRelationship r = network.get((int) (start + i));
+						chunk.putInt(r.getPeopleIds().firstInt())
+								.putInt(r.getPeopleIds().secondInt())
+								.putDouble(r.getRelationshipStrength());
+					}
+					chunk.force();
+				}
+				header.force();
+				demog.force();
+			}
+			Files.move(
+					tmp, file, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING
+			);
+			log.debug("cached network {}", file);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * A stable key for a setup configuration: the SHA‑256 of its JSON form with
+	 * the name cleared, so renaming a setup does not invalidate its network.
+	 * The replicate is not part of the JSON and is added to the file name
+	 * separately.
+	 */
+	static String hash(SetupConfiguration config) {
+		var om = new ObjectMapper();
+		om.registerModules(new GuavaModule());
+		om.setSerializationInclusion(Include.NON_NULL);
+		try {
+			byte[] json = om.writeValueAsString(
+					ImmutableSetupConfiguration.copyOf(config).withName("")
+			).getBytes(StandardCharsets.UTF_8);
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			var sb = new StringBuilder();
+			for (var i = 0; i < 8; i++) {
+				sb.append(String.format("%02x", digest[i]));
+			}
+			return sb.toString();
+		} catch (JsonProcessingException | NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
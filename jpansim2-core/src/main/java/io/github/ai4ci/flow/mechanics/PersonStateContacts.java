@@ -2,6 +2,7 @@ package io.github.ai4ci.flow.mechanics;
 
 import java.io.Serializable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import io.github.ai4ci.abm.Contact;
 import io.github.ai4ci.abm.Exposure;
@@ -11,6 +12,12 @@ import io.github.ai4ci.abm.Exposure;
  * cycle to hold all the contact and exposures before they are written to the
  * individual {@link io.github.ai4ci.abm.PersonHistory} entries in the model. No
  * effort is made in this class to ensure that added items are unique.
+ *
+ * <p>
+ * As exposures are added the total dose each person receives is accumulated,
+ * so that it does not have to be summed again from the history. The dose is
+ * held as fixed point longs, so the total does not depend on the order that
+ * threads add exposures in.
  */
 public class PersonStateContacts implements Serializable {
 
@@ -22,8 +29,11 @@ public class PersonStateContacts implements Serializable {
 	// contactees. This is not enforced to be unique which is up to the provider
 	// The network is indexed by secondary contact id.
 
+	private static final double SCALE = 0x1p32;
+
 	ConcurrentHashMap<Integer, Contact>[] network;
 	ConcurrentHashMap<Integer, Exposure>[] exposure;
+	AtomicLongArray dose;
 
 	/**
 	 * nodes is essentially the number of people in the model. Max size is the
@@ -37,6 +47,7 @@ public class PersonStateContacts implements Serializable {
 	public PersonStateContacts(int nodes, int maxSize) {
 		this.network = new ConcurrentHashMap[nodes];
 		this.exposure = new ConcurrentHashMap[nodes];
+		this.dose = new AtomicLongArray(nodes);
 
 		for (var i = 0; i < nodes; i++) {
 			this.network[i] = new ConcurrentHashMap<>();
@@ -44,6 +55,34 @@ public class PersonStateContacts implements Serializable {
 		}
 	}
 
+	/**
+	 * Record an exposure of one person by another, and add it to the total
+	 * dose of the exposed person. It is thread safe to add exposures for any
+	 * given id concurrently. If the same pair is exposed twice the later
+	 * exposure replaces the earlier one, in the dose as well as in the exposure
+	 * map.
+	 *
+	 * @param i        the id of the person exposed
+	 * @param exposure the exposure, including the id of the exposer
+	 */
+	public void addExposure(int i, Exposure exposure) {
+		var prev = this.exposure[i].put(exposure.getExposerId(), exposure);
+		var delta = Math.round(exposure.getExposure() * SCALE);
+		if (prev != null) { delta -= Math.round(prev.getExposure() * SCALE); }
+		if (delta != 0) { this.dose.addAndGet(i, delta); }
+	}
+
+	/**
+	 * The total dose of all the exposures of a given id. This should only be
+	 * called after all exposures have been added for the day.
+	 *
+	 * @param ref the id of the person
+	 * @return the sum of {@link Exposure#getExposure()} over their exposures
+	 */
+	public double getDoseForId(int ref) {
+		return this.dose.get(ref) / SCALE;
+	}
+
 	/**
 	 * Get the contacts for a given id. This is not thread safe and should only
 	 * be called after all updates have been made to the contact network for the
@@ -0,0 +1,116 @@
+package io.github.ai4ci.flow.mechanics;
+
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The concurrency contract for {@link StateMachine}s, and a debug mode checker
+ * for it.
+ *
+ * <p>
+ * State machines are not locked. Instead the {@link Updater} divides each day
+ * into phases separated by barriers, which are the ends of its parallel
+ * streams (and the ends of the bulk operations in {@link StateUtils}). Within
+ * a phase each state machine must be written by a single thread only:
+ * <ul>
+ * <li><u>prepareUpdate, updateHistory, switchHistory, switchState:</u> each
+ * person's state machine by the one thread that processes that person, and
+ * the outbreak's by the calling thread.</li>
+ * <li><u>updateState (outbreak):</u> the outbreak's state machine, and any
+ * person forced by a policy one at a time, by the calling thread. People
+ * forced in bulk by one thread each within the bulk operation.</li>
+ * <li><u>updateState (people):</u> each person's state machine by the one
+ * thread that updates that person.</li>
+ * </ul>
+ * Completion of a parallel stream happens-before the code that follows it, so
+ * plain writes to the state machine are visible to whichever thread owns it in
+ * the next phase.
+ *
+ * <p>
+ * When assertions are enabled (as they are in tests) every write records the
+ * owning thread and the current phase and fails with a
+ * {@link ConcurrentModificationException} if a different thread has already
+ * written the same state machine in the same phase. When assertions are
+ * disabled the checks are skipped entirely. Phases are counted globally, so
+ * simulations running side by side will make the checks less strict, but never
+ * report a violation that did not happen.
+ *
+ * @author Rob Challen
+ */
+final class PhaseOwnership {
+
+	private static final class Owner {
+		final Thread thread;
+		final long phase;
+
+		Owner(Thread thread, long phase) {
+			this.thread = thread;
+			this.phase = phase;
+		}
+	}
+
+	/** True if the checks are made, i.e. if assertions are enabled. */
+	static final boolean ENABLED = enabled();
+
+	private static final AtomicLong PHASE = new AtomicLong();
+
+	private static final AtomicReferenceFieldUpdater<StateMachine, Object> OWNER = AtomicReferenceFieldUpdater
+			.newUpdater(StateMachine.class, Object.class, "owner");
+
+	/**
+	 * Mark the end of one phase and the start of the next. Must be called by a
+	 * single thread when no state machine is being written.
+	 */
+	static void barrier() {
+		if (ENABLED) { PHASE.incrementAndGet(); }
+	}
+
+	/**
+	 * Record a write to a state machine by the current thread.
+	 *
+	 * @param machine the state machine about to be written
+	 * @throws ConcurrentModificationException if another thread has written it
+	 *                                         in this phase
+	 */
+	static void write(StateMachine machine) {
+		if (!ENABLED) { return; }
+		var thread = Thread.currentThread();
+		var phase = PHASE.get();
+		while (true) {
+			var prev = (Owner) machine.owner;
+			if (prev != null && prev.phase == phase) {
+				if (prev.thread == thread) { return; }
+				throw new ConcurrentModificationException(
+						"State machine (" + machine + ") written by " + thread.getName()
+								+ " after " + prev.thread.getName()
+								+ " in the same update phase"
+				);
+			}
+			if (OWNER.compareAndSet(machine, prev, new Owner(thread, phase))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Forget the owner of a state machine that is being initialised. Setting up
+	 * a model happens outside of the update cycle so the thread that initialises
+	 * a state machine does not own it afterwards.
+	 *
+	 * @param machine the state machine being initialised
+	 */
+	static void reset(StateMachine machine) {
+		if (ENABLED) { machine.owner = null; }
+	}
+
+	@SuppressWarnings("all")
+	private static boolean enabled() {
+		var on = false;
+		assert on = true;
+		return on;
+	}
+
+	private PhaseOwnership() {}
+
+}
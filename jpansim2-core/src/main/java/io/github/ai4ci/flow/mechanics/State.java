@@ -74,6 +74,14 @@ public interface State<BUILDER, HISTORY, STATE, X extends State<BUILDER, HISTORY
 				.getDeclaringClass();
 	}
 
+	/**
+	 * A dense integer id for the state, unique across all behaviour and policy
+	 * models, for indexing primitive arrays.
+	 *
+	 * @return the id assigned by {@link StateRegistry}
+	 */
+	default int getId() { return StateRegistry.idOf(this); }
+
 	/**
 	 * The name of the state, which is the enum name prefixed by the enum class
 	 * name. This is used for display purposes, and to make it clear which model
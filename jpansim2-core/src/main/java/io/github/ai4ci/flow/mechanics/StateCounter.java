@@ -0,0 +1,89 @@
+package io.github.ai4ci.flow.mechanics;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe count of how many agents are in each state, indexed by the
+ * dense ids of the {@link StateRegistry}.
+ *
+ * <p>
+ * One of these is filled in by the {@link Updater} as each agent's state
+ * machine is updated and is attached to the next outbreak state, so that the
+ * behaviour counts for the day cost one increment per agent and a pass over
+ * the states to report, with no grouping by state name.
+ *
+ * @author Rob Challen
+ */
+public class StateCounter implements Serializable {
+
+	private volatile LongAdder[] counts;
+
+	/**
+	 * A counter with room for all the states registered so far. It will grow if
+	 * further states are registered.
+	 */
+	public StateCounter() {
+		this.counts = adders(new LongAdder[0], StateRegistry.size());
+	}
+
+	private static LongAdder[] adders(LongAdder[] old, int size) {
+		var out = new LongAdder[size];
+		System.arraycopy(old, 0, out, 0, old.length);
+		for (var i = old.length; i < size; i++) {
+			out[i] = new LongAdder();
+		}
+		return out;
+	}
+
+	/**
+	 * Count one agent in a state. Thread safe.
+	 *
+	 * @param state the agent's state
+	 */
+	public void add(State<?, ?, ?, ?> state) {
+		var id = StateRegistry.idOf(state);
+		var tmp = this.counts;
+		if (id >= tmp.length) { tmp = this.grow(); }
+		tmp[id].increment();
+	}
+
+	/**
+	 * The count for a state.
+	 *
+	 * @param state the state
+	 * @return the number of agents counted in that state
+	 */
+	public long get(State<?, ?, ?, ?> state) {
+		var id = StateRegistry.idOf(state);
+		var tmp = this.counts;
+		return id < tmp.length ? tmp[id].sum() : 0;
+	}
+
+	// Existing adders are carried over so increments made against the old
+	// array by other threads are not lost.
+	private synchronized LongAdder[] grow() {
+		if (this.counts.length < StateRegistry.size()) {
+			this.counts = adders(this.counts, StateRegistry.size());
+		}
+		return this.counts;
+	}
+
+	/**
+	 * The non zero counts keyed by state name.
+	 *
+	 * @return a map from {@link State#getName()} to count, in id order
+	 */
+	public Map<String, Long> toMap() {
+		var tmp = this.counts;
+		Map<String, Long> out = new LinkedHashMap<>();
+		for (var i = 0; i < tmp.length; i++) {
+			var count = tmp[i].sum();
+			if (count > 0) { out.put(StateRegistry.get(i).getName(), count); }
+		}
+		return out;
+	}
+
+}
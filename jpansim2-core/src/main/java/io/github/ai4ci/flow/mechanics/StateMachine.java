@@ -1,12 +1,14 @@
 package io.github.ai4ci.flow.mechanics;
 
 import java.io.Serializable;
+import java.util.stream.Stream;
 
 import io.github.ai4ci.abm.ImmutableOutbreakHistory;
 import io.github.ai4ci.abm.ImmutableOutbreakState;
 import io.github.ai4ci.abm.ImmutablePersonHistory;
 import io.github.ai4ci.abm.ImmutablePersonState;
 import io.github.ai4ci.abm.OutbreakState;
+import io.github.ai4ci.abm.Person;
 import io.github.ai4ci.abm.PersonState;
 import io.github.ai4ci.abm.behaviour.NonCompliant;
 import io.github.ai4ci.util.Sampler;
@@ -37,6 +39,12 @@ import io.github.ai4ci.util.Sampler;
  * <li>Supports forced state transitions and branching state management</li>
  * </ul>
  *
+ * <h2>Concurrency</h2>
+ * <p>
+ * State machines take no locks. They rely on the {@link Updater} writing each
+ * one from a single thread in each phase of the update cycle, as set out in
+ * {@link PhaseOwnership}, which also checks this when assertions are enabled.
+ *
  * @see State.BehaviourState
  * @see State.PolicyState
  */
@@ -55,6 +63,9 @@ public class StateMachine implements Serializable {
 
 	private State<?, ?, ?, ?> currentState;
 
+	// written only by PhaseOwnership when assertions are enabled
+	transient volatile Object owner;
+
 	/** Default constructor for creating an uninitialized state machine. */
 	public StateMachine() {}
 
@@ -71,6 +82,47 @@ public class StateMachine implements Serializable {
 		this.currentState = defaultStateMachineState;
 	}
 
+	/**
+	 * Forces many people's state machines to a behavior state at once. This is
+	 * the bulk form of {@link #forceTo(State.BehaviourState)} for policies that
+	 * act on a large part of the population. Checks that do not depend on the
+	 * person are made once, and the people are processed in parallel as an
+	 * update phase of their own. This is safe as long as each person appears
+	 * only once in the stream, which is the case when called from policy state
+	 * updates.
+	 *
+	 * @param people the people to branch, each appearing once
+	 * @param state  the target behavior state
+	 */
+	static void forceAll(Stream<Person> people, State.BehaviourState state) {
+		if (state.equals(NonCompliant.DEAD)) return;
+		PhaseOwnership.barrier();
+		people.parallel().forEach(p -> {
+			var machine = p.getStateMachine();
+			if (!(machine.getState() instanceof State.BehaviourState)) {
+				throw new RuntimeException(
+						"Cannot update a policy with a behaviour"
+				);
+			}
+			machine.rememberCurrentState(state);
+			machine.currentState = state;
+		});
+		PhaseOwnership.barrier();
+	}
+
+	/**
+	 * Returns many people's state machines from their current branch at once.
+	 * This is the bulk form of {@link #returnFromBranch()} with the same
+	 * conditions as {@link #forceAll(Stream, State.BehaviourState)}.
+	 *
+	 * @param people the people to return, each appearing once
+	 */
+	static void returnAllFromBranch(Stream<Person> people) {
+		PhaseOwnership.barrier();
+		people.parallel().forEach(p -> p.getStateMachine().returnFromBranch());
+		PhaseOwnership.barrier();
+	}
+
 	/**
 	 * Forces a transition to a specific behavior state (except DEAD state).
 	 * Maintains state branching history when switching between different
@@ -83,10 +135,8 @@ public class StateMachine implements Serializable {
 	public void forceTo(State.BehaviourState state) {
 		if (state.equals(NonCompliant.DEAD)) return;
 		if (this.getState() instanceof State.BehaviourState) {
-			synchronized (this) {
-				this.rememberCurrentState(state);
-				this.currentState = state;
-			}
+			this.rememberCurrentState(state);
+			this.currentState = state;
 		} else
 			throw new RuntimeException("Cannot update a policy with a behaviour");
 	}
@@ -101,11 +151,9 @@ public class StateMachine implements Serializable {
 	 */
 	public void forceTo(State.PolicyState state) {
 		if (this.getState() instanceof State.PolicyState) {
-			synchronized (this) {
-				// If switching to a different behaviour model
-				this.rememberCurrentState(state);
-				this.currentState = state;
-			}
+			// If switching to a different behaviour model
+			this.rememberCurrentState(state);
+			this.currentState = state;
 		} else
 			throw new RuntimeException("Cannot update a behaviour with a policy");
 	}
@@ -123,6 +171,7 @@ public class StateMachine implements Serializable {
 	 * @param policy the initial behavior state
 	 */
 	public void init(State.BehaviourState policy) {
+		PhaseOwnership.reset(this);
 		this.currentState = policy;
 		this.context = ModifiableStateMachineContext.create()
 				.setBaselineState(policy);
@@ -134,6 +183,7 @@ public class StateMachine implements Serializable {
 	 * @param policy the initial policy state
 	 */
 	public void init(State.PolicyState policy) {
+		PhaseOwnership.reset(this);
 		this.currentState = policy;
 		this.context = ModifiableStateMachineContext.create()
 				.setBaselineState(policy);
@@ -150,6 +200,7 @@ public class StateMachine implements Serializable {
 			ImmutableOutbreakHistory.Builder builder, OutbreakState outbreak,
 			Sampler rng
 	) {
+		PhaseOwnership.write(this);
 		if (this.getState() instanceof State.PolicyState) {
 			State.PolicyState state = (State.PolicyState) this.getState();
 			state.updateHistory(builder, outbreak, this.context, rng);
@@ -166,6 +217,7 @@ public class StateMachine implements Serializable {
 	public void performHistoryUpdate(
 			ImmutablePersonHistory.Builder builder, PersonState person, Sampler rng
 	) {
+		PhaseOwnership.write(this);
 		if (this.getState() instanceof State.BehaviourState) {
 			State.BehaviourState state = (State.BehaviourState) this.getState();
 			state.updateHistory(builder, person, this.context, rng);
@@ -179,10 +231,11 @@ public class StateMachine implements Serializable {
 	 * @param outbreak the current outbreak state
 	 * @param rng      the random number generator for stochastic operations
 	 */
-	public synchronized void performStateUpdate(
+	public void performStateUpdate(
 			ImmutableOutbreakState.Builder builder, OutbreakState outbreak,
 			Sampler rng
 	) {
+		PhaseOwnership.write(this);
 		if (this.getState() instanceof State.PolicyState) {
 			State.PolicyState state = (State.PolicyState) this.getState();
 			State.PolicyState next = state
@@ -199,9 +252,10 @@ public class StateMachine implements Serializable {
 	 * @param person  the current person state
 	 * @param rng     the random number generator for stochastic operations
 	 */
-	public synchronized void performStateUpdate(
+	public void performStateUpdate(
 			ImmutablePersonState.Builder builder, PersonState person, Sampler rng
 	) {
+		PhaseOwnership.write(this);
 		if (person.isDead()) {
 			this.currentState = NonCompliant.DEAD
 					.nextState(builder, person, this.context, rng);
@@ -219,6 +273,7 @@ public class StateMachine implements Serializable {
 	 * Prepares the state machine for an update cycle by resetting context flags.
 	 */
 	public void prepareUpdate() {
+		PhaseOwnership.write(this);
 		this.context.resetFlags();
 	}
 
@@ -230,6 +285,7 @@ public class StateMachine implements Serializable {
 	 * @param state the target state to compare against current state
 	 */
 	public void rememberCurrentState(State<?, ?, ?, ?> state) {
+		PhaseOwnership.write(this);
 		if (state instanceof Enum && this.getState() instanceof Enum) {
 			// Don't remember if this is a different state from same behaviour
 			// model
@@ -245,6 +301,7 @@ public class StateMachine implements Serializable {
 	 * handles both behavior and policy state transitions.
 	 */
 	public void returnFromBranch() {
+		PhaseOwnership.write(this);
 		if (this.getState() instanceof State.BehaviourState) {
 			this.currentState = this.context.pullBehaviour();
 		}
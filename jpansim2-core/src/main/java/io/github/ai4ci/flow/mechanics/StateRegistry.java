@@ -0,0 +1,81 @@
+package io.github.ai4ci.flow.mechanics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer ids for state machine states.
+ *
+ * <p>
+ * Every behaviour and policy model is an enum of {@link State}s. The first
+ * time any state of a model is seen all of the model's states are registered
+ * together, so each model occupies a contiguous block of ids and the id of a
+ * state is the start of its model's block plus its ordinal. Ids are stable for
+ * the life of the JVM, so they can be used to index primitive arrays such as
+ * the behaviour counts in {@link StateCounter}, rather than hashing state
+ * names.
+ *
+ * @author Rob Challen
+ */
+public class StateRegistry {
+
+	private static final Map<Class<?>, Integer> BASES = new HashMap<>();
+
+	private static final ClassValue<Integer> BASE = new ClassValue<>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return register(type);
+		}
+	};
+
+	private static volatile State<?, ?, ?, ?>[] STATES = new State<?, ?, ?, ?>[0];
+
+	/**
+	 * Look up a state by id.
+	 *
+	 * @param id a state id
+	 * @return the state
+	 */
+	public static State<?, ?, ?, ?> get(int id) {
+		return STATES[id];
+	}
+
+	/**
+	 * The dense id of a state.
+	 *
+	 * @param state a behaviour or policy state (which must be an enum constant)
+	 * @return the id, which is between 0 and {@link #size()}
+	 */
+	public static int idOf(State<?, ?, ?, ?> state) {
+		return BASE.get(state.getEnumClass()) + ((Enum<?>) state).ordinal();
+	}
+
+	private static synchronized Integer register(Class<?> type) {
+		// ClassValue may compute a value more than once if asked concurrently
+		// so the registration itself is idempotent.
+		var base = BASES.get(type);
+		if (base != null) { return base; }
+		List<State<?, ?, ?, ?>> tmp = new ArrayList<>(List.of(STATES));
+		base = tmp.size();
+		for (Object constant : type.getEnumConstants()) {
+			tmp.add((State<?, ?, ?, ?>) constant);
+		}
+		BASES.put(type, base);
+		STATES = tmp.toArray(new State<?, ?, ?, ?>[0]);
+		return base;
+	}
+
+	/**
+	 * The number of states registered so far.
+	 *
+	 * @return the upper bound (exclusive) of the ids issued so far
+	 */
+	public static int size() {
+		return STATES.length;
+	}
+
+	private StateRegistry() {}
+
+}
@@ -2,7 +2,9 @@ package io.github.ai4ci.flow.mechanics;
 
 import static io.github.ai4ci.abm.ModelNav.baseline;
 
+import java.util.Arrays;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import io.github.ai4ci.abm.ImmutablePersonHistory;
 import io.github.ai4ci.abm.ImmutablePersonHistory.Builder;
@@ -123,7 +125,8 @@ public class StateUtils {
 	 * <p>
 	 * Forces selected people to temporary behavior state while preserving
 	 * current state in branch stack for later recovery. Dead people are
-	 * excluded.
+	 * excluded. The population is processed in parallel as a single bulk
+	 * transition (see {@code StateMachine.forceAll}).
 	 *
 	 * @param current   current outbreak state
 	 * @param behaviour target behavior state
@@ -133,10 +136,31 @@ public class StateUtils {
 			OutbreakState current, State.BehaviourState behaviour,
 			Predicate<Person> filter
 	) {
-		ModelNav.people(current).filter(filter)
-				.filter(p -> !p.getCurrentState().isDead()).forEach(ps -> {
-					ps.getStateMachine().forceTo(behaviour);
-				});
+		StateMachine.forceAll(livingPeople(current, filter), behaviour);
+	}
+
+	/**
+	 * Branches a random fraction of filtered people to specified behavior
+	 * state.
+	 *
+	 * <p>
+	 * As {@link #branchPeopleTo(OutbreakState, State.BehaviourState, Predicate)}
+	 * but each eligible living person is only branched with the given
+	 * probability, selected using {@link #randomPeople}.
+	 *
+	 * @param current     current outbreak state
+	 * @param behaviour   target behavior state
+	 * @param filter      predicate to select which people are eligible
+	 * @param probability probability each eligible person is branched
+	 * @param rng         random number generator for the selection
+	 */
+	public static void branchPeopleTo(
+			OutbreakState current, State.BehaviourState behaviour,
+			Predicate<Person> filter, double probability, Sampler rng
+	) {
+		StateMachine.forceAll(
+				randomPeople(current, probability, filter, rng), behaviour
+		);
 	}
 
 	/**
@@ -558,6 +582,13 @@ public class StateUtils {
 		return linearTo(p, 0, delta);
 	}
 
+	private static Stream<Person> livingPeople(
+			OutbreakState current, Predicate<Person> filter
+	) {
+		return ModelNav.people(current).filter(filter)
+				.filter(p -> !p.getCurrentState().isDead());
+	}
+
 	/**
 	 * Applies individual PCR screening test based on probability.
 	 *
@@ -577,28 +608,57 @@ public class StateUtils {
 	 * Applies random screening PCR tests to eligible population.
 	 *
 	 * <p>
-	 * Selects living people with available history builders and applies
-	 * screening probability check. Throws exception if called at wrong lifecycle
-	 * timing.
+	 * Selects living people with available history builders at the outbreak's
+	 * screening probability, using {@link #randomPeople}. Throws exception if
+	 * called at wrong lifecycle timing.
 	 *
 	 * @param current current outbreak state
-	 * @param rng     random number generator for probability checks
+	 * @param rng     random number generator for the selection
 	 */
 	public static void randomlyScreen(OutbreakState current, Sampler rng) {
-		ModelNav.people(current).filter(p -> !p.getCurrentState().isDead())
+		randomPeople(current, current.getScreeningProbability(), p -> true, rng)
 				.forEach(ps -> {
 					if (!ps.getNextHistory().isPresent()) {
 						throw new RuntimeException(
 								"Tried to update screening after at wrong time in lifecycle"
 						);
 					}
-					randomlyScreen(
-							ps.getNextHistory().get(), ps.getCurrentState(),
-							current.getScreeningProbability(), rng
-					);
+					screenPCR(ps.getNextHistory().get(), ps.getCurrentState());
 				});
 	}
 
+	/**
+	 * Selects living people at random, each with the same probability.
+	 *
+	 * <p>
+	 * Rather than a Bernoulli trial per person, which is a serial pass through
+	 * the whole population with a shared RNG, the number selected is drawn from
+	 * a binomial and that many distinct people are then chosen from an index of
+	 * eligible people (see {@link Sampler#sampleWithoutReplacement(int, int)}).
+	 * The distribution of who is selected is the same. This is the mechanism for
+	 * any policy that applies to a random fraction of the population.
+	 *
+	 * @param current     current outbreak state
+	 * @param probability probability each eligible person is selected
+	 * @param filter      predicate to select which people are eligible
+	 * @param rng         random number generator for the selection
+	 * @return a parallel stream of the selected people
+	 */
+	public static Stream<Person> randomPeople(
+			OutbreakState current, double probability, Predicate<Person> filter,
+			Sampler rng
+	) {
+		if (probability <= 0) { return Stream.empty(); }
+		var people = current.getEntity().getPeople();
+		var eligible = livingPeople(current, filter).mapToInt(p -> p.getId())
+				.sorted().toArray();
+		var count = probability >= 1 ? eligible.length
+				: rng.binom(eligible.length, probability);
+		return Arrays
+				.stream(rng.sampleWithoutReplacement(eligible.length, count))
+				.parallel().mapToObj(i -> people.get(eligible[i]));
+	}
+
 	/**
 	 * Resets mobility and transmissibility modifiers to baseline (1.0).
 	 *
@@ -679,11 +739,24 @@ public class StateUtils {
 	 * @param current current outbreak state
 	 */
 	public static void returnPeopleFromBranch(OutbreakState current) {
-		ModelNav.people(current).forEach(ps -> {
-			if (!ps.getCurrentState().isDead()) {
-				ps.getStateMachine().returnFromBranch();
-			}
-		});
+		returnPeopleFromBranch(current, p -> true);
+	}
+
+	/**
+	 * Returns filtered people to their previous behavior states from branches.
+	 *
+	 * <p>
+	 * Reverses branching operations by recovering previous states from the state
+	 * machine branch stack, as a single parallel bulk transition (see
+	 * {@code StateMachine.returnAllFromBranch}). Excludes dead people.
+	 *
+	 * @param current current outbreak state
+	 * @param filter  predicate to select which people to return
+	 */
+	public static void returnPeopleFromBranch(
+			OutbreakState current, Predicate<Person> filter
+	) {
+		StateMachine.returnAllFromBranch(livingPeople(current, filter));
 	}
 
 	/**
@@ -0,0 +1,247 @@
+package io.github.ai4ci.flow.mechanics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Wall clock time and process wide heap allocation of the sections of a
+ * simulation step.
+ *
+ * <p>
+ * A step is divided into sections, which are the {@link Updater.Phase}s of the
+ * update and the exports of each output file (see
+ * {@link io.github.ai4ci.flow.SimulationExecutor}). The code being measured
+ * calls {@link #start()} before the first section and {@link #lap(String, long)}
+ * at the end of each section. Times and allocated bytes are accumulated per
+ * section until {@link #reset(int)}, so a section that occurs more than once in a
+ * step is reported once. Each lap is also emitted as a {@link StepEvent} if a
+ * Java Flight Recorder recording is running.
+ *
+ * <p>
+ * Allocation is process wide, not per thread: it is measured with
+ * {@code com.sun.management.ThreadMXBean} as the sum over all live threads of
+ * the bytes they allocated during the section. The phases of an update run on
+ * the common fork join pool, whose workers are shared with anything else the
+ * JVM is doing, so there is no set of threads belonging to one simulation. The
+ * figure therefore includes concurrent work such as building the next
+ * simulation or writing output, and is only attributable to the section when
+ * one simulation is running at a time. It is zero where the JVM does not
+ * support allocation accounting. Reading
+ * the counters costs a few microseconds per section. Nothing is measured
+ * unless a {@link StepTimings} is attached to the {@link Updater}, see
+ * {@link Updater#withTimings(StepTimings)}.
+ *
+ * <p>
+ * Instances are not thread safe; all calls should be from the thread driving
+ * the simulation.
+ *
+ * @author Rob Challen
+ */
+public final class StepTimings {
+
+	/** The accumulated time and process allocation of one section of a step. */
+	public static final class Section {
+		private final String name;
+		private long nanos;
+		private long bytes;
+
+		private Section(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * @return heap bytes allocated by all threads of the process during the
+		 *         section
+		 */
+		public long getProcessAllocatedBytes() { return this.bytes; }
+
+		/**
+		 * @return the wall clock duration of the section in nanoseconds
+		 */
+		public long getDurationNanos() { return this.nanos; }
+
+		/**
+		 * @return the section name, e.g. an {@link Updater.Phase} name or an
+		 *         output file name
+		 */
+		public String getName() { return this.name; }
+	}
+
+	/** A Java Flight Recorder event for one section of a simulation step. */
+	@Name("io.github.ai4ci.StepSection")
+	@Label("Simulation Step Section")
+	@Category("jpansim2")
+	@Description("A phase of the daily update, or an export, of a simulation")
+	static class StepEvent extends Event {
+		@Label("Simulation")
+		String urn;
+		@Label("Step")
+		int step;
+		@Label("Section")
+		String section;
+		@Label("Allocated (all threads)")
+		@DataAmount
+		long processAllocated;
+	}
+
+	private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+	private static com.sun.management.ThreadMXBean threads() {
+		var bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) { return null; }
+		var tmp = (com.sun.management.ThreadMXBean) bean;
+		if (!tmp.isThreadAllocatedMemorySupported()) { return null; }
+		if (!tmp.isThreadAllocatedMemoryEnabled()) {
+			tmp.setThreadAllocatedMemoryEnabled(true);
+		}
+		return tmp;
+	}
+
+	private final String urn;
+	private final Map<String, Section> sections = new LinkedHashMap<>();
+	private int step;
+	private Map<Long, Long> allocated = new HashMap<>();
+	private StepEvent event;
+
+	/**
+	 * @param urn the simulation being measured, used to label flight recorder
+	 *            events
+	 */
+	public StepTimings(String urn) {
+		this.urn = urn;
+	}
+
+	/**
+	 * The allocated bytes since the last call, updating the per thread totals.
+	 * Threads that have started since are counted from zero and threads that
+	 * have finished are dropped.
+	 */
+	private long allocatedSinceLast() {
+		if (THREADS == null) { return 0; }
+		var ids = THREADS.getAllThreadIds();
+		var bytes = THREADS.getThreadAllocatedBytes(ids);
+		var next = new HashMap<Long, Long>(ids.length * 2);
+		var total = 0L;
+		for (var i = 0; i < ids.length; i++) {
+			if (bytes[i] < 0) { continue; }
+			next.put(ids[i], bytes[i]);
+			total += bytes[i] - this.allocated.getOrDefault(ids[i], 0L);
+		}
+		this.allocated = next;
+		return total;
+	}
+
+	/**
+	 * @return the sections measured since the last {@link #reset(int)}, in the
+	 *         order they were first seen
+	 */
+	public List<Section> getSections() {
+		return new ArrayList<>(this.sections.values());
+	}
+
+	/**
+	 * @return the step these timings are for, as set by {@link #reset(int)}
+	 */
+	public int getStep() { return this.step; }
+
+	/**
+	 * @return the total duration of all the sections in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return this.sections.values().stream().mapToLong(s -> s.nanos).sum();
+	}
+
+	/**
+	 * Complete a section.
+	 *
+	 * @param section the name of the section
+	 * @param start   the value returned by {@link #start()}, or by the previous
+	 *                call to this method if the sections are contiguous
+	 * @return the current time, to start the next section
+	 */
+	public long lap(String section, long start) {
+		var now = System.nanoTime();
+		var bytes = this.allocatedSinceLast();
+		var s = this.sections.computeIfAbsent(section, Section::new);
+		s.nanos += now - start;
+		s.bytes += bytes;
+		if (this.event != null) {
+			this.event.end();
+			if (this.event.shouldCommit()) {
+				this.event.urn = this.urn;
+				this.event.step = this.step;
+				this.event.section = section;
+				this.event.processAllocated = bytes;
+				this.event.commit();
+			}
+		}
+		this.begin();
+		return now;
+	}
+
+	private void begin() {
+		var tmp = new StepEvent();
+		if (tmp.isEnabled()) {
+			tmp.begin();
+			this.event = tmp;
+		} else {
+			this.event = null;
+		}
+	}
+
+	/**
+	 * Clear the accumulated sections.
+	 *
+	 * @param step the step the next sections belong to
+	 */
+	public void reset(int step) {
+		this.sections.clear();
+		this.step = step;
+	}
+
+	/**
+	 * Start a section. The allocation counters are read at this point, so
+	 * allocation between the end of one section and a call to this method is
+	 * not attributed to any section.
+	 *
+	 * @return the current time
+	 */
+	public long start() {
+		this.allocatedSinceLast();
+		this.begin();
+		return System.nanoTime();
+	}
+
+	/**
+	 * A one line summary of the sections, for logging.
+	 *
+	 * @return the duration in milliseconds and process wide allocation in
+	 *         megabytes of each section
+	 */
+	public String summary() {
+		var out = new StringBuilder(
+				String.format("step %d: %.1f ms", this.step, this.getTotalNanos() / 1E6)
+		);
+		for (Section s : this.sections.values()) {
+			out.append(
+					String.format(
+							"; %s %.1f ms %.1f Mb (all threads)", s.name, s.nanos / 1E6,
+							s.bytes / (1024.0 * 1024.0)
+					)
+			);
+		}
+		return out.toString();
+	}
+
+}
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 
 import org.slf4j.Logger;
@@ -25,6 +26,8 @@ import io.github.ai4ci.abm.ModifiablePerson;
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.abm.Person;
 import io.github.ai4ci.abm.PersonState;
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.abm.riskmodel.ContactRiskPropagator;
 import io.github.ai4ci.flow.mechanics.ModelOperation.OutbreakStateUpdater;
 import io.github.ai4ci.flow.mechanics.ModelOperation.PersonStateUpdater;
 import io.github.ai4ci.flow.mechanics.ModelOperation.TriConsumer;
@@ -88,7 +91,9 @@ import io.github.ai4ci.util.Sampler;
  * (t+1). Similarly based on observed contacts, and their observed risks and
  * test results the per agent risk model is updated to represent what each agent
  * could know about their risk at time (t+1) based on information up to and
- * including time (t). Behavioural changes are then applied using the behaviour
+ * including time (t). Changes in each agent's direct evidence are pushed along
+ * their detected contacts for everyone before any agent is updated (see
+ * {@link io.github.ai4ci.abm.riskmodel.ContactRiskPropagator}). Behavioural changes are then applied using the behaviour
  * state's {@code nextState} hook
  * ({@link io.github.ai4ci.flow.mechanics.State.BehaviourState}), and in the
  * policy state via its {@code nextState} hook
@@ -172,8 +177,10 @@ public class Updater {
 						// to happen. Probability of transmission depends on
 						// whether contact coughs, dose depends on how much
 						// virus they cough over you.
-						// See PersonState#getContactExposure for where this is
-						// picked up and fed into the in host model.
+						// The dose is summed per person as it is added to the
+						// network, and set on the next PersonState as
+						// PersonState#getContactExposure, which feeds the
+						// in host model.
 						.setExposure(infector.getNormalisedViralLoad())
 						// .setTransmissionProbability(trans)
 						.build()
@@ -237,9 +244,9 @@ public class Updater {
 				out.write(tworef).put(oneref, contact);
 
 				asExposure(contact, one, two)
-						.ifPresent(e -> out.writeExp(oneref).put(tworef, e));
+						.ifPresent(e -> out.addExposure(oneref, e));
 				asExposure(contact, two, one)
-						.ifPresent(e -> out.writeExp(tworef).put(oneref, e));
+						.ifPresent(e -> out.addExposure(tworef, e));
 			}
 		});
 
@@ -247,6 +254,25 @@ public class Updater {
 
 	}
 
+	/**
+	 * The phases of a single {@link Updater#update(Outbreak)}, in order. These
+	 * are separated by barriers, see {@link PhaseOwnership}.
+	 */
+	public static enum Phase {
+		/** Copy the current states into the next state and history builders. */
+		PREPARE_UPDATE,
+		/** Build the contact network and update the histories. */
+		UPDATE_HISTORY,
+		/** Add the new history entries to the history lists. */
+		SWITCH_HISTORY,
+		/** Update the state machines, risk and in-host models. */
+		UPDATE_STATE,
+		/** Replace the current states with the next ones. */
+		SWITCH_STATE
+	}
+
+	private StepTimings timings = null;
+
 	private List<PersonStateUpdater> personProcessors = new ArrayList<>();
 
 	private List<OutbreakStateUpdater> outbreakProcessors = new ArrayList<>();
@@ -339,21 +365,20 @@ public class Updater {
 			m.getPeople().parallelStream().forEach(person -> {
 				if (person instanceof ModifiablePerson) {
 					var p = (ModifiablePerson) person;
-					synchronized (p) {
-						var tmp = p.getHistory();
-						tmp.add(0, p.getNextHistory().toOptional().get().build());
-						while (tmp.size() > limit) {
-							tmp.remove(limit);
-						}
-						p.setNextHistory(p.getNextHistory().clear());
+					var tmp = p.getHistory();
+					var entry = p.getNextHistory().toOptional().get().build();
+					tmp.add(0, entry);
+					while (tmp.size() > limit) {
+						tmp.remove(limit);
 					}
+					// keep the test ledger in step with the history list
+					p.getTestLedger().record(entry.getTime(), entry.getTodaysTests());
+					p.getTestLedger().forgetBefore(entry.getTime() - limit + 1);
+					p.setNextHistory(p.getNextHistory().clear());
 				}
 			});
-			synchronized (m) {
-				m.getHistory()
-						.add(0, m.getNextHistory().toOptional().get().build());
-				m.setNextHistory(m.getNextHistory().clear());
-			}
+			m.getHistory().add(0, m.getNextHistory().toOptional().get().build());
+			m.setNextHistory(m.getNextHistory().clear());
 		}
 	}
 
@@ -372,25 +397,18 @@ public class Updater {
 			m.getPeople().parallelStream().forEach(person -> {
 				if (person instanceof ModifiablePerson) {
 					var p = (ModifiablePerson) person;
-					synchronized (p) {
-						// TODO: Update spatio-temporal state network if explicit.
-						// This is where the new and old state co-exist
-						// it is one place where we could make a record in a
-						// spatio-temporal network. Possibly the only place.
-						// It would have to be thread safe and non blocking.
-						// alternatively we can just use the PersonHistory for this
-						p.setCurrentState(
-								p.getNextState().toOptional().get().build()
-						);
-						p.setNextState(p.getNextState().clear());
-					}
+					// TODO: Update spatio-temporal state network if explicit.
+					// This is where the new and old state co-exist
+					// it is one place where we could make a record in a
+					// spatio-temporal network. Possibly the only place.
+					// It would have to be thread safe and non blocking.
+					// alternatively we can just use the PersonHistory for this
+					p.setCurrentState(p.getNextState().toOptional().get().build());
+					p.setNextState(p.getNextState().clear());
 				}
 			});
-			synchronized (m) {
-				m.setCurrentState(m.getNextState().toOptional().get().build());
-				m.setNextState(m.getNextState().clear());
-
-			}
+			m.setCurrentState(m.getNextState().toOptional().get().build());
+			m.setNextState(m.getNextState().clear());
 		}
 	}
 
@@ -401,13 +419,27 @@ public class Updater {
 	 * @return the same outbreak with new states and histories
 	 */
 	public Outbreak update(Outbreak outbreak) {
+		// each phase writes every person from a single thread without locking,
+		// see PhaseOwnership
+		PhaseOwnership.barrier();
+		var t = this.lap(null, 0);
 		this.prepareUpdate(outbreak);
+		t = this.lap(Phase.PREPARE_UPDATE, t);
+		PhaseOwnership.barrier();
 		// at this point the "current history" is the same as the previous state
-		this.updateHistory(outbreak);
+		var exposed = this.updateHistory(outbreak);
+		t = this.lap(Phase.UPDATE_HISTORY, t);
+		PhaseOwnership.barrier();
 		this.switchHistory(outbreak);
+		t = this.lap(Phase.SWITCH_HISTORY, t);
+		PhaseOwnership.barrier();
 		// at this point the "current history" is the same as the current state
-		this.updateState(outbreak);
+		this.updateState(outbreak, exposed);
+		t = this.lap(Phase.UPDATE_STATE, t);
+		PhaseOwnership.barrier();
 		this.switchState(outbreak);
+		this.lap(Phase.SWITCH_STATE, t);
+		PhaseOwnership.barrier();
 		// at this point the "current history" is the same as the previous state
 		log.debug(
 				"Update: " + outbreak.getUrn() + "; Step:"
@@ -416,13 +448,23 @@ public class Updater {
 		return outbreak;
 	}
 
+	// Accumulate the time since the start of a phase, if timings are enabled
+	private long lap(Phase phase, long start) {
+		if (this.timings == null) { return 0; }
+		if (phase == null) { return this.timings.start(); }
+		return this.timings.lap(phase.name(), start);
+	}
+
 	/**
 	 * The contact network is established for every person. then update the
 	 * outbreak history according to the current policy. Then the person
 	 * histories according to their current behaviour. This second step is where
 	 * the behaviour models implement testing.
+	 *
+	 * @return the number of people given a viral dose by their contacts
 	 */
-	private void updateHistory(Outbreak outbreak) {
+	private long updateHistory(Outbreak outbreak) {
+		var exposed = new LongAdder();
 		// Sampler sampler = Sampler.getSampler();
 		if (outbreak instanceof ModifiableOutbreak) {
 			// This is always true BTW.
@@ -437,6 +479,7 @@ public class Updater {
 			m.getStateMachine().performHistoryUpdate(
 					nextOutbreakHistory, outbreak.getCurrentState(), sampler1
 			);
+			PhaseOwnership.barrier();
 
 			m.getPeople().parallelStream().forEach(person -> {
 
@@ -451,6 +494,14 @@ public class Updater {
 							.setTodaysContacts(contactNetwork.getContactsForId(ref))
 							.setTodaysExposures(contactNetwork.getExposuresForId(ref));
 
+					// todays exposures are the dose for the next day's in host
+					// model update
+					var dose = contactNetwork.getDoseForId(ref);
+					if (dose > 0) { exposed.increment(); }
+					p.getNextState().toOptional().get().setContactExposure(
+							Math.min(PersonState.MAX_EXPOSURE, dose)
+					);
+
 					p.getStateMachine().performHistoryUpdate(
 							nextPersonHistory, person.getCurrentState(), sampler
 					);
@@ -459,6 +510,7 @@ public class Updater {
 
 			});
 		}
+		return exposed.sum();
 	}
 
 	/**
@@ -468,9 +520,11 @@ public class Updater {
 	 * OutbreakUpdaters to post-process the next state factory. The pre and post
 	 * processors can change the next state by modifying the state factory
 	 *
-	 * @param person the mutable holder for the immutable person state.
+	 * @param person  the mutable holder for the immutable person state.
+	 * @param exposed the number of people given a viral dose by their contacts
+	 *                while updating the history
 	 */
-	private void updateState(Outbreak outbreak) {
+	private void updateState(Outbreak outbreak, long exposed) {
 
 		// This is a bit complex to order changes so that things are built in
 		// correct order.
@@ -500,8 +554,24 @@ public class Updater {
 				}
 			});
 
+			// risk model direct evidence is updated for everyone first so that
+			// changes can be pushed along detected contacts before any agent
+			// picks up its new risk model.
+			var risk = new ContactRiskPropagator(m);
+			m.getPeople().parallelStream().forEach(risk::push);
+
 			// agent processing
-			m.getPeople().parallelStream().forEach(p -> this.updateState(p));
+			PhaseOwnership.barrier();
+			var behaviours = new StateCounter();
+			var active = new LongAdder();
+			var outcomes = new LongAdder();
+			m.getPeople().parallelStream().forEach(
+					p -> this.updateState(p, risk, behaviours, active, outcomes)
+			);
+			nextState.setBehaviourTally(behaviours)
+					.setActiveInfectionTally(active.sum())
+					.setPendingExposureTally(exposed)
+					.setPendingOutcomeTally(outcomes.sum());
 
 		}
 	}
@@ -511,9 +581,18 @@ public class Updater {
 	 * chain of PersonUpdaters to the next state factory. The PersonUpdaters can
 	 * change the next state by modifying the state factory
 	 *
-	 * @param person the mutable holder for the immutable person state.
+	 * @param person     the mutable holder for the immutable person state.
+	 * @param risk       the updated risk models, with contact evidence
+	 *                   propagated
+	 * @param behaviours the tally of behaviour states for the next day
+	 * @param active     the count of active infections for the next day
+	 * @param outcomes   the count of pending outcomes for the next day, see
+	 *                   {@link #isOutcomePending(Person, InHostModelState)}
 	 */
-	private void updateState(Person person) {
+	private void updateState(
+			Person person, ContactRiskPropagator risk, StateCounter behaviours,
+			LongAdder active, LongAdder outcomes
+	) {
 		// This is a thread local instance of sampler. so there should be one
 		// per thread. We shouldn't reset the seed though.
 		var sampler = Sampler.getSampler();
@@ -532,13 +611,16 @@ public class Updater {
 			// unaware of each others effects. The only thing that would have
 			// changed is the individual's behaviour e.g. m.getStateMachine().
 
-			nextState
-					// Update the viral load model and the risk models.
-					// These requires an up to date history for the exposures.
-					.setInHostModel(
-							m.getCurrentState().getInHostModel()
-									.update(person, sampler)
-					).setRiskModel(m.getCurrentState().getRiskModel().update());
+			// Update the viral load model and the risk models.
+			// These requires an up to date history for the exposures.
+			var inHost = m.getCurrentState().getInHostModel()
+					.update(person, sampler);
+			nextState.setInHostModel(inHost).setRiskModel(risk.get(person));
+			if (inHost.isInfectionActive()) {
+				active.increment();
+			} else if (isOutcomePending(person, inHost)) {
+				outcomes.increment();
+			}
 
 			// update nextState...
 			this.personProcessors.forEach(p -> {
@@ -547,7 +629,36 @@ public class Updater {
 				}
 			});
 
+			// the behaviour this person will be in for the next day
+			behaviours.add(m.getStateMachine().getState());
+
+		}
+	}
+
+	/**
+	 * Whether a person without an active infection can still change the
+	 * outcomes of the outbreak. This is the case if they have some severity
+	 * and it is between the symptom and death cut offs, so they may be
+	 * symptomatic, hospitalised or yet die, or if a test they have taken has a
+	 * result due after today. Severity is read from the next in-host state,
+	 * which does not sample.
+	 *
+	 * @param person the person being updated, whose test ledger is up to date
+	 *               for today
+	 * @param inHost the person's in-host state for the next day
+	 * @return true if the person has an unresolved outcome
+	 */
+	private static boolean isOutcomePending(
+			Person person, InHostModelState<?> inHost
+	) {
+		var baseline = person.getOutbreak().getBaseline();
+		var severity = inHost.getNormalisedSeverity();
+		if (severity > 0 && severity >= baseline.getSeveritySymptomsCutoff()
+				&& severity < baseline.getSeverityDeathCutoff()) {
+			return true;
 		}
+		return person.getTestLedger()
+				.isPendingAfter(person.getCurrentState().getTime());
 	}
 
 	/**
@@ -631,4 +742,20 @@ public class Updater {
 		this.personProcessors.addAll(Arrays.asList(updaters));
 		return this;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Record the time and allocation of each phase of the update cycle. This is
+	 * intended for profiling and benchmarks. Each call to
+	 * {@link #update(Outbreak)} adds to the section of the timings named after
+	 * each {@link Phase}. The timings are written by the thread that calls
+	 * update, without synchronisation. When no timings are attached the only
+	 * cost is a null check per phase.
+	 *
+	 * @param timings the timings to accumulate into, or null to stop recording
+	 * @return the updater as a fluent method
+	 */
+	public Updater withTimings(StepTimings timings) {
+		this.timings = timings;
+		return this;
+	}
+}
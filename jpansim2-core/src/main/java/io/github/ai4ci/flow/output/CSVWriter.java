@@ -3,7 +3,9 @@ package io.github.ai4ci.flow.output;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 
 import io.github.ai4ci.util.CSVUtil;
@@ -21,6 +23,7 @@ public class CSVWriter<X extends OutputWriter.Writeable>
 
 	QueueWriter queueWriter;
 	CSVUtil<X> converter;
+	File file;
 
 	/**
 	 * No-argument constructor for reflection-based instantiation. The actual
@@ -65,6 +68,15 @@ public class CSVWriter<X extends OutputWriter.Writeable>
 		this.queueWriter.join();
 	}
 
+	/**
+	 * The length of the file once everything exported so far has been written.
+	 */
+	@Override
+	public long position() throws IOException {
+		this.queueWriter.drain();
+		return this.file.length();
+	}
+
 	@Override
 	public String report() {
 		return this.queueWriter.report();
@@ -78,6 +90,7 @@ public class CSVWriter<X extends OutputWriter.Writeable>
 	@Override
 	public void setup(Class<X> type, File file, int size) throws IOException {
 		if (Files.exists(file.toPath())) { Files.delete(file.toPath()); }
+		this.file = file;
 		this.converter = new CSVUtil<>(type);
 		Files.createDirectories(file.getParentFile().toPath());
 		this.queueWriter = new QueueWriter(
@@ -87,4 +100,28 @@ public class CSVWriter<X extends OutputWriter.Writeable>
 		this.queueWriter.submit(headers);
 	}
 
+	/**
+	 * Truncate the file to the position and append to it. The header is not
+	 * written again.
+	 */
+	@Override
+	public void resume(Class<X> type, File file, int size, long position)
+			throws IOException {
+		if (!file.exists() || file.length() < position) {
+			throw new IOException(
+					"Cannot resume " + file + ": it is shorter than the checkpoint"
+			);
+		}
+		try (var channel = FileChannel.open(
+				file.toPath(), StandardOpenOption.WRITE
+		)) {
+			channel.truncate(position);
+		}
+		this.file = file;
+		this.converter = new CSVUtil<>(type);
+		this.queueWriter = new QueueWriter(
+				file, size, type.getSimpleName() + " writer", true
+		);
+	}
+
 }
@@ -70,15 +70,45 @@ public class DuckDBWriter<X extends CSVWriter.Writeable>
 		 */
 		public QueueConnection(File file, Class<X> type, String name)
 				throws SQLException, IOException {
+			this(file, type, name, -1);
+		}
+
+		/**
+		 * Initialises a QueueConnection, either to a new database as
+		 * {@link #QueueConnection(File, Class, String)} or, to resume from a
+		 * checkpoint, to the existing database with any rows at or after a
+		 * position from {@link #rows()} deleted.
+		 *
+		 * @param file       the DuckDB database file
+		 * @param type       the class type of the records to be written
+		 * @param name       the name of the table
+		 * @param resumeFrom the row position to resume from, or negative to
+		 *                   create a new database
+		 * @throws SQLException if there is an error connecting to the database
+		 * @throws IOException  if there is an error with the database file
+		 */
+		public QueueConnection(
+				File file, Class<X> type, String name, long resumeFrom
+		) throws SQLException, IOException {
 			this.queue = new ConcurrentLinkedQueue<>();
-			if (file.exists()) { Files.delete(file.toPath()); }
-			Files.createDirectories(file.toPath().getParent());
+			if (resumeFrom < 0) {
+				if (file.exists()) { Files.delete(file.toPath()); }
+				Files.createDirectories(file.toPath().getParent());
+			} else if (!file.exists()) {
+				throw new IOException("Cannot resume missing database: " + file);
+			}
 			this.conn = (DuckDBConnection) DriverManager
 					.getConnection("jdbc:duckdb:" + file.getAbsolutePath());
 			this.tableName = name;
 
 			try (var stmt = this.conn.createStatement()) {
-				stmt.execute(createSql(type, name));
+				if (resumeFrom < 0) {
+					stmt.execute(createSql(type, name));
+				} else {
+					stmt.execute(
+							"DELETE FROM " + name + " WHERE rowid >= " + resumeFrom
+					);
+				}
 			}
 
 			this.setPriority(9);
@@ -142,6 +172,38 @@ public class DuckDBWriter<X extends CSVWriter.Writeable>
 		 */
 		public boolean isWaiting() { return this.waiting; }
 
+		/**
+		 * Block until all queued records have been appended, then find the
+		 * position after the last row. Row ids in an append only table are
+		 * sequential, so this is the row count unless rows were deleted when
+		 * resuming, and it can be passed back to
+		 * {@link #QueueConnection(File, Class, String, long)}. This assumes no
+		 * other thread is submitting records.
+		 *
+		 * @return one more than the largest row id, or zero if the table is empty
+		 * @throws SQLException if the table cannot be queried
+		 */
+		public long rows() throws SQLException {
+			while (!this.queue.isEmpty() || !this.waiting) {
+				if (!this.isAlive()) {
+					throw new SQLException("Writer stopped: " + this.tableName);
+				}
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					throw new SQLException(e);
+				}
+			}
+			try (var stmt = this.conn.createStatement();
+					var rs = stmt.executeQuery(
+							"SELECT coalesce(max(rowid) + 1, 0) FROM "
+									+ this.tableName
+					)) {
+				rs.next();
+				return rs.getLong(1);
+			}
+		}
+
 		/**
 		 * Reports the current status of the writer thread, indicating whether it
 		 * is waiting for new records or actively writing to the database.
@@ -249,6 +311,19 @@ public class DuckDBWriter<X extends CSVWriter.Writeable>
 		this.queue.join();
 	}
 
+	/**
+	 * The position after the last row, once everything exported so far has
+	 * been appended.
+	 */
+	@Override
+	public long position() throws IOException {
+		try {
+			return this.queue.rows();
+		} catch (SQLException e) {
+			throw new IOException("Cannot find position of duckdb", e);
+		}
+	}
+
 	@Override
 	public String report() {
 		return this.queue.report();
@@ -269,4 +344,21 @@ public class DuckDBWriter<X extends CSVWriter.Writeable>
 		// String.valueOf(true));
 	}
 
+	/**
+	 * Reopen the existing database, deleting any rows written after the
+	 * position.
+	 */
+	@Override
+	public void resume(Class<X> type, File file, int size, long position)
+			throws IOException {
+		this.converter = new CSVUtil<>(type);
+		String tableName = file.toPath().getFileName().toString()
+				.replaceFirst("(?<!^)[.].*", "");
+		try {
+			this.queue = new QueueConnection(file, type, tableName, position);
+		} catch (SQLException e) {
+			throw new IOException("Cannot resume duckdb", e);
+		}
+	}
+
 }
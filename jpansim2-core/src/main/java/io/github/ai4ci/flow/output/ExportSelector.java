@@ -109,6 +109,34 @@ public class ExportSelector<X extends CSVWriter.Writeable> {
 		}
 	}
 
+	/**
+	 * As {@link #finishSetup(Path)}, but appending to an existing output file
+	 * after discarding anything beyond a checkpointed position (see
+	 * {@link OutputWriter#resume(Class, java.io.File, int, long)}).
+	 *
+	 * @param directory the output directory containing the existing file
+	 * @param position  the position of the writer at the checkpoint
+	 * @throws RuntimeException if the writer cannot be created or resumed
+	 */
+	@SuppressWarnings("unchecked")
+	public void resume(Path directory, long position) {
+		try {
+			this.writer = this.type.getAnnotation(Export.class).writer()
+					.getDeclaredConstructor().newInstance();
+			this.writer.resume(
+					this.type, directory.resolve(this.filename).toFile(), this.size,
+					position
+			);
+		} catch (IOException | InstantiationException | IllegalAccessException
+				| IllegalArgumentException | InvocationTargetException
+				| NoSuchMethodException | SecurityException e) {
+			throw new RuntimeException(
+					"Couldn't resume exporter: " + directory.resolve(this.filename),
+					e
+			);
+		}
+	}
+
 	/**
 	 * The stage of the outbreak simulation at which this export should be
 	 * performed. This is determined by the Export annotation on the data type
@@ -123,6 +151,20 @@ public class ExportSelector<X extends CSVWriter.Writeable> {
 	 */
 	public Export.Stage getStage() { return this.stage; }
 
+	/**
+	 * The name of the output file, from the Export annotation on the data type.
+	 *
+	 * @return the file name, relative to the output directory
+	 */
+	public String getFilename() { return this.filename; }
+
+	/**
+	 * The type of data record exported by this selector.
+	 *
+	 * @return the class of the exported records
+	 */
+	public Class<X> getType() { return this.type; }
+
 	/**
 	 * The OutputWriter instance responsible for writing the exported data to the
 	 * output file. This writer is configured based on the Export annotation's
@@ -101,6 +101,24 @@ public interface OutputWriter<X extends io.github.ai4ci.flow.output.OutputWriter
 	 */
 	boolean isWaiting();
 
+	/**
+	 * Wait for all the records exported so far to be written, and return the
+	 * extent of the output. This is used to checkpoint a simulation so that the
+	 * output can be cut back to this point if the simulation is resumed (see
+	 * {@link #resume(Class, File, int, long)}). It should only be called when no
+	 * other thread is exporting to this writer.
+	 *
+	 * @return an implementation specific position, such as a file length or row
+	 *         count
+	 * @throws IOException                   if the extent cannot be found
+	 * @throws UnsupportedOperationException if the writer cannot be resumed
+	 */
+	default long position() throws IOException {
+		throw new UnsupportedOperationException(
+				this.getClass().getSimpleName() + " does not support checkpoints"
+		);
+	}
+
 	/**
 	 * Wait for the consumer thread to finish processing all pending data and
 	 * complete any ongoing write operations. This method should block until the
@@ -149,4 +167,25 @@ public interface OutputWriter<X extends io.github.ai4ci.flow.output.OutputWriter
 	 */
 	void setup(Class<X> type, File file, int size) throws IOException;
 
+	/**
+	 * An alternative to {@link #setup(Class, File, int)} that appends to an
+	 * existing output destination rather than replacing it, after discarding
+	 * anything written after a position returned by {@link #position()}. This
+	 * is used when resuming a simulation from a checkpoint.
+	 *
+	 * @param type     the type of data records that will be written
+	 * @param file     the existing output destination
+	 * @param size     the buffer size or batch size for writing data
+	 * @param position the position to resume from
+	 * @throws IOException                   if the output cannot be reopened,
+	 *                                       or is shorter than the position
+	 * @throws UnsupportedOperationException if the writer cannot be resumed
+	 */
+	default void resume(Class<X> type, File file, int size, long position)
+			throws IOException {
+		throw new UnsupportedOperationException(
+				this.getClass().getSimpleName() + " does not support checkpoints"
+		);
+	}
+
 }
\ No newline at end of file
@@ -46,9 +46,23 @@ public class QueueWriter extends Thread {
 	 *                     getting its block size
 	 */
 	public QueueWriter(File file, int size, String name) throws IOException {
+		this(file, size, name, false);
+	}
+
+	/**
+	 * Creates a new QueueWriter, optionally appending to an existing file.
+	 *
+	 * @param file   the output file
+	 * @param size   the buffer size in file system blocks
+	 * @param name   the name of the writer thread
+	 * @param append true to append to the file rather than replace it
+	 * @throws IOException if the file cannot be opened
+	 */
+	public QueueWriter(File file, int size, String name, boolean append)
+			throws IOException {
 		var bs = Files.getFileStore(file.toPath().getRoot()).getBlockSize();
 		this.seqW = new BufferedOutputStream(
-				new FileOutputStream(file), (int) (size * bs)
+				new FileOutputStream(file, append), (int) (size * bs)
 		);
 		this.queue = new ConcurrentLinkedQueue<>();
 		this.setPriority(9);
@@ -92,6 +106,27 @@ public class QueueWriter extends Thread {
 		}
 	}
 
+	/**
+	 * Block until everything submitted so far has been written to the file. The
+	 * writer thread flushes the stream whenever it empties the queue, so once
+	 * it is waiting with an empty queue the file is complete. This assumes no
+	 * other thread is submitting items.
+	 *
+	 * @throws IOException if the writer thread has stopped with items queued
+	 */
+	public void drain() throws IOException {
+		while (!this.queue.isEmpty() || !this.waiting) {
+			if (!this.isAlive()) {
+				throw new IOException("Writer stopped: " + this.getName());
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
 	/**
 	 * Is the queue currently empty and the writing thread is waiting for data to
 	 * write?
@@ -119,17 +154,20 @@ public class QueueWriter extends Thread {
 		try {
 
 			while (!this.stop) {
-				while (!this.stop && this.queue.isEmpty()) {
+				synchronized (this.semaphore) {
+					// the flag is set before the queue is checked, so a submit
+					// either leaves its item for this check or sees the flag
+					// and notifies once this thread is waiting
+					this.waiting = true;
 					try {
-						synchronized (this.semaphore) {
-							this.waiting = true;
+						while (!this.stop && this.queue.isEmpty()) {
 							this.semaphore.wait();
 						}
 					} catch (Exception e) {
 						this.stop = true;
 					}
+					this.waiting = false;
 				}
-				this.waiting = false;
 				if (!this.stop) {
 					while (!this.queue.isEmpty()) {
 						this.seqW.write(line(this.queue.poll()));
@@ -156,6 +194,9 @@ public class QueueWriter extends Thread {
 	 * @param item the string to be written to the file
 	 */
 	public void submit(String item) {
+		// the item is queued before the flag is read, so if the writer missed
+		// the item it has already set the flag, and the notify waits on the
+		// lock until the writer is waiting
 		if (this.queue.offer(item) && this.waiting) {
 			synchronized (this.semaphore) {
 				this.semaphore.notifyAll();
@@ -6,17 +6,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 
 import io.github.ai4ci.abm.Outbreak;
 import io.github.ai4ci.config.ExperimentConfiguration;
+import io.github.ai4ci.flow.mechanics.StepTimings;
 import io.github.ai4ci.output.CSVMapper;
 import io.github.ai4ci.output.OutbreakConfigurationJson;
 
@@ -74,9 +78,54 @@ public class SimulationExporter implements Closeable {
 		return out;
 	}
 
+	/**
+	 * Factory method to create a SimulationExporter that resumes writing to the
+	 * output files of an interrupted run. Each output file is cut back to its
+	 * position at the checkpoint and subsequent records are appended to it.
+	 * Output files without a checkpointed position are created as new.
+	 *
+	 * @param directory the directory containing the existing output files
+	 * @param config    list of ExportSelector objects specifying export
+	 *                  configuration
+	 * @param positions the position of each output file, keyed by file name,
+	 *                  from {@link #positions()}
+	 * @param results   the configurations of the simulations completed before
+	 *                  the checkpoint, from {@link #results()}
+	 * @return a SimulationExporter ready to continue the run
+	 * @see io.github.ai4ci.flow.Checkpoint
+	 */
+	public static SimulationExporter resume(
+			Path directory, List<ExportSelector<?>> config,
+			Map<String, Long> positions, List<JsonNode> results
+	) {
+		var out = new SimulationExporter();
+		out.directory = directory;
+		out.stepWriters = config;
+		out.stepWriters.forEach(e -> {
+			var position = positions.get(e.getFilename());
+			if (position == null) {
+				e.finishSetup(directory);
+			} else {
+				e.resume(directory, position);
+			}
+		});
+		out.previousCfg.addAll(results);
+		return out;
+	}
+
+	private static ObjectMapper resultMapper() {
+		var om = new ObjectMapper();
+		om.enable(SerializationFeature.INDENT_OUTPUT);
+		om.registerModules(new GuavaModule());
+		om.setSerializationInclusion(Include.NON_NULL);
+		om.setSerializationInclusion(Include.NON_EMPTY);
+		return om;
+	}
+
 	Path directory;
 	List<ExportSelector<?>> stepWriters = new ArrayList<>();
 	List<OutbreakConfigurationJson> outbreakCfg = new ArrayList<>();
+	List<JsonNode> previousCfg = new ArrayList<>();
 
 	private SimulationExporter() {}
 
@@ -106,15 +155,10 @@ public class SimulationExporter implements Closeable {
 		);
 		try {
 			Files.deleteIfExists(this.directory.resolve("result-settings.json"));
-			var om = new ObjectMapper();
-			om.enable(SerializationFeature.INDENT_OUTPUT);
-			om.registerModules(new GuavaModule());
-			om.setSerializationInclusion(Include.NON_NULL);
-			om.setSerializationInclusion(Include.NON_EMPTY);
-			om.writeValue(
+			resultMapper().writeValue(
 				this.directory.resolve("result-settings.json")
 					.toFile(),
-				this.outbreakCfg
+				this.results()
 			);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
@@ -139,9 +183,27 @@ public class SimulationExporter implements Closeable {
 	 * @param outbreak the outbreak object containing data to be exported
 	 * @return the same outbreak object after exporting data
 	 */
-	@SuppressWarnings("unchecked")
 	public <X extends CSVWriter.Writeable> Outbreak export(
 			Export.Stage stage, Outbreak outbreak
+	) {
+		return this.export(stage, outbreak, null);
+	}
+
+	/**
+	 * As {@link #export(Export.Stage, Outbreak)}, recording the time taken by
+	 * each export as a section of the timings named after the output file. As
+	 * the writing itself is done on the writer threads this is the time taken
+	 * to select and convert the records on the simulation side.
+	 *
+	 * @param <X>      the type of data items to be exported
+	 * @param stage    the stage of the simulation at which to export data
+	 * @param outbreak the outbreak object containing data to be exported
+	 * @param timings  the timings to record into, or null
+	 * @return the same outbreak object after exporting data
+	 */
+	@SuppressWarnings("unchecked")
+	public <X extends CSVWriter.Writeable> Outbreak export(
+			Export.Stage stage, Outbreak outbreak, StepTimings timings
 	) {
 		this.stepWriters.stream()
 			.filter(
@@ -151,6 +213,7 @@ public class SimulationExporter implements Closeable {
 			.forEach(sel -> {
 				var sel2 = (ExportSelector<X>) sel;
 				if (sel2.getWriter() != null) {
+					var start = timings == null ? 0 : timings.start();
 					sel2.getWriter()
 						.export(
 							(Stream<X>) sel2.selector(outbreak)
@@ -160,11 +223,52 @@ public class SimulationExporter implements Closeable {
 					// mapping from the X (csv export object) to the
 					// binary representation (e.g. String for CSV)
 						);
+					if (timings != null) {
+						timings.lap(sel2.getFilename(), start);
+					}
 				}
 			});
 		return outbreak;
 	}
 
+	/**
+	 * Export records that are not selected from the outbreak, such as the
+	 * {@link io.github.ai4ci.output.StepTimingsCSV} of the executor, to the
+	 * writer configured for their type, if there is one.
+	 *
+	 * @param <X>     the type of data items to be exported
+	 * @param type    the record type, as used in the Export annotation
+	 * @param records the records to export
+	 */
+	@SuppressWarnings("unchecked")
+	public <X extends CSVWriter.Writeable> void export(
+			Class<? extends X> type, Stream<? extends X> records
+	) {
+		this.stepWriters.stream()
+			.filter(
+				s -> s.getType()
+					.equals(type) && s.getWriter() != null
+			)
+			.forEach(
+				sel -> ((ExportSelector<X>) sel).getWriter()
+					.export((Stream<X>) records)
+			);
+	}
+
+	/**
+	 * Check whether records of a type are being exported.
+	 *
+	 * @param type the record type, as used in the Export annotation
+	 * @return true if an exporter is configured for the type
+	 */
+	public boolean isExporting(Class<?> type) {
+		return this.stepWriters.stream()
+			.anyMatch(
+				s -> s.getType()
+					.equals(type)
+			);
+	}
+
 //	public void purgeAll() {
 //		this.stepWriters.forEach(e -> e.purge());
 //	}
@@ -185,16 +289,31 @@ public class SimulationExporter implements Closeable {
 	 * @return the same outbreak object after exporting data
 	 */
 	public <X extends CSVWriter.Writeable> Outbreak export(Outbreak outbreak) {
+		return this.export(outbreak, null);
+	}
+
+	/**
+	 * As {@link #export(Outbreak)}, recording the time taken by each export in
+	 * the timings.
+	 *
+	 * @param <X>      the type of data items to be exported
+	 * @param outbreak the outbreak object containing data to be exported
+	 * @param timings  the timings to record into, or null
+	 * @return the same outbreak object after exporting data
+	 */
+	public <X extends CSVWriter.Writeable> Outbreak export(
+			Outbreak outbreak, StepTimings timings
+	) {
 		if (outbreak.getExperimentReplica() == 0
 				&& outbreak.getModelReplica() == 0 && outbreak.getCurrentState()
 					.getTime() == 0) {
-			this.export(Export.Stage.BASELINE, outbreak);
+			this.export(Export.Stage.BASELINE, outbreak, timings);
 		}
 		if (outbreak.getCurrentState()
 			.getTime() == 0) {
-			this.export(Export.Stage.START, outbreak);
+			this.export(Export.Stage.START, outbreak, timings);
 		}
-		this.export(Export.Stage.UPDATE, outbreak);
+		this.export(Export.Stage.UPDATE, outbreak, timings);
 		return outbreak;
 	}
 
@@ -252,6 +371,29 @@ public class SimulationExporter implements Closeable {
 		}
 	}
 
+	/**
+	 * Wait for the writers to catch up and return the position of each output
+	 * file, for a checkpoint. This must be called from the thread running the
+	 * simulation, between steps.
+	 *
+	 * @return the writer positions keyed by output file name
+	 * @throws IOException if a position cannot be found
+	 * @see OutputWriter#position()
+	 */
+	public Map<String, Long> positions() throws IOException {
+		var out = new LinkedHashMap<String, Long>();
+		for (ExportSelector<?> sel : this.stepWriters) {
+			if (sel.getWriter() != null) {
+				out.put(
+					sel.getFilename(),
+					sel.getWriter()
+						.position()
+				);
+			}
+		}
+		return out;
+	}
+
 	/**
 	 * This method generates a report summarizing the status of all export
 	 * writers. It iterates through the list of ExportSelector objects
@@ -271,6 +413,20 @@ public class SimulationExporter implements Closeable {
 			.collect(Collectors.joining("; "));
 	}
 
+	/**
+	 * The configurations of the simulations completed so far, including any
+	 * completed before this exporter was resumed, as written to
+	 * {@code result-settings.json} on close.
+	 *
+	 * @return the configurations as JSON trees
+	 */
+	public List<JsonNode> results() {
+		var om = resultMapper();
+		var out = new ArrayList<>(this.previousCfg);
+		this.outbreakCfg.forEach(c -> out.add(om.valueToTree(c)));
+		return out;
+	}
+
 	/**
 	 * This method writes the input configuration of the experiment to a file in
 	 * the specified directory. It takes an ExperimentConfiguration object as
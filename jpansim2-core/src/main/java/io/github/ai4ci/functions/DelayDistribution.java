@@ -8,6 +8,8 @@ import java.util.stream.IntStream;
 import org.apache.commons.statistics.distribution.GammaDistribution;
 import org.immutables.value.Value;
 
+import io.github.ai4ci.util.DoubleArrayView;
+
 /**
  * A delay distribution representing a probability distribution in discrete time
  * conditional on an event happening. This class is useful for generating
@@ -34,6 +36,12 @@ import org.immutables.value.Value;
  * Relationships are discrete versions of:
  * https://grodri.github.io/glms/notes/c7s1
  *
+ * <p>
+ * The array accessors such as {@link #density()} return a defensive copy on
+ * every call. The indexed accessors such as {@link #density(int)} read from
+ * read only views, e.g. {@link #densityView()}, which are built once on first
+ * use and never copy the array.
+ *
  * @see Serializable
  * @see GammaDistribution
  * @see ImmutableDelayDistribution
@@ -152,7 +160,7 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return proportion affected by time x
 	 */
 	public double affected(int intValue) {
-		return 1 - this.survival()[intValue];
+		return 1 - this.survivalView().get(intValue);
 	}
 
 	/**
@@ -163,9 +171,8 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	@Value.Derived
 	public double[] condDensity() {
-		if (this.getProfile().length == 0) return new double[0];
-		return DoubleStream.of(this.getProfile()).map(d -> d / this.total())
-				.toArray();
+		var total = this.total();
+		return DoubleStream.of(this.getProfile()).map(d -> d / total).toArray();
 	}
 
 	/**
@@ -176,8 +183,17 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return conditional density value at time x, or 0 if out of bounds
 	 */
 	public double condDensity(int x) {
-		if ((x < 0) || (x >= this.condDensity().length)) return 0;
-		return this.condDensity()[x];
+		return this.condDensityView().getOrDefault(x, 0);
+	}
+
+	/**
+	 * A read only view of {@link #condDensity()}, built on first use.
+	 *
+	 * @return the conditional probabilities
+	 */
+	@Value.Lazy
+	public DoubleArrayView condDensityView() {
+		return DoubleArrayView.wrap(this.condDensity());
 	}
 
 	/**
@@ -197,11 +213,11 @@ public abstract class DelayDistribution implements Serializable {
 	 * Computes the discrete convolution of two arrays. output[i] = ∑(input[i-j]
 	 * × by[j]) for j < i and j < by.length
 	 */
-	private double[] convolution(double[] input, double[] by) {
+	private double[] convolution(double[] input, DoubleArrayView by) {
 		double[] output = new double[input.length];
 		for (int i = 0; i < input.length; i++) {
-			for (int j = 0; j < i && j < by.length; j++) {
-				output[i] += input[i - j] * by[j];
+			for (int j = 0; j < i && j < by.length(); j++) {
+				output[i] += input[i - j] * by.get(j);
 			}
 		}
 		return output;
@@ -215,7 +231,7 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return convolved result
 	 */
 	public double[] convolveDensity(double[] input) {
-		return this.convolution(input, this.density());
+		return this.convolution(input, this.densityView());
 	}
 
 	/**
@@ -226,7 +242,7 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return convolved result
 	 */
 	public double[] convolveProfile(double[] input) {
-		return this.convolution(input, this.getProfile());
+		return this.convolution(input, this.profileView());
 	}
 
 	/**
@@ -238,8 +254,9 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	public double cumulative(int x) {
 		if (x < 0) return 0;
-		if (x >= this.survival().length) return 1;
-		return 1 - this.survival()[x];
+		var survival = this.survivalView();
+		if (x >= survival.length()) return 1;
+		return 1 - survival.get(x);
 	}
 
 	/**
@@ -250,9 +267,9 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	@Value.Derived
 	public double[] density() {
-		if (this.getProfile().length == 0) return new double[0];
-		return DoubleStream.of(this.condDensity())
-				.map(d -> d * this.getPAffected()).toArray();
+		var pAffected = this.getPAffected();
+		return DoubleStream.of(this.condDensity()).map(d -> d * pAffected)
+				.toArray();
 	}
 
 	/**
@@ -263,8 +280,17 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return density value at time x, or 0 if out of bounds
 	 */
 	public double density(int x) {
-		if ((x < 0) || (x >= this.density().length)) return 0;
-		return this.density()[x];
+		return this.densityView().getOrDefault(x, 0);
+	}
+
+	/**
+	 * A read only view of {@link #density()}, built on first use.
+	 *
+	 * @return the unconditional probabilities
+	 */
+	@Value.Lazy
+	public DoubleArrayView densityView() {
+		return DoubleArrayView.wrap(this.density());
 	}
 
 	/**
@@ -285,8 +311,9 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	public double expected(double sampleSize) {
 		double out = 0.0D;
-		for (int i = 0; i < this.density().length; i++) {
-			out += i * this.density()[i];
+		var density = this.densityView();
+		for (int i = 0; i < density.length(); i++) {
+			out += i * density.get(i);
 		}
 		return out * sampleSize;
 	}
@@ -335,10 +362,11 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	@Value.Derived
 	public double[] hazard() {
-		if (this.getProfile().length == 0) return new double[0];
-		double[] hazard = new double[this.survival().length];
-		for (int i = 0; i < this.density().length; i++) {
-			hazard[i] = this.density()[i] / (i == 0 ? 1 : this.survival()[i - 1]);
+		var density = this.density();
+		var survival = this.survival();
+		double[] hazard = new double[survival.length];
+		for (int i = 0; i < density.length; i++) {
+			hazard[i] = density[i] / (i == 0 ? 1 : survival[i - 1]);
 		}
 		return hazard;
 	}
@@ -351,8 +379,17 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return hazard rate at time x, or 0 if out of bounds
 	 */
 	public double hazard(int x) {
-		if ((x < 0) || (x >= this.hazard().length)) return 0;
-		return this.hazard()[x];
+		return this.hazardView().getOrDefault(x, 0);
+	}
+
+	/**
+	 * A read only view of {@link #hazard()}, built on first use.
+	 *
+	 * @return the hazard rates
+	 */
+	@Value.Lazy
+	public DoubleArrayView hazardView() {
+		return DoubleArrayView.wrap(this.hazard());
 	}
 
 	/**
@@ -362,9 +399,9 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return mean time to event (conditional on event occurrence)
 	 */
 	public double mean() {
-		double[] density = this.condDensity();
-		return IntStream.range(0, density.length).mapToDouble(i -> i * density[i])
-				.sum();
+		var density = this.condDensityView();
+		return IntStream.range(0, density.length())
+				.mapToDouble(i -> i * density.get(i)).sum();
 	}
 
 	/**
@@ -375,8 +412,17 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return profile value at time x, or 0 if out of bounds
 	 */
 	public double profile(int x) {
-		if ((x < 0) || (x >= this.getProfile().length)) return 0;
-		return this.getProfile()[x];
+		return this.profileView().getOrDefault(x, 0);
+	}
+
+	/**
+	 * A read only view of {@link #getProfile()}, built on first use.
+	 *
+	 * @return the raw profile values
+	 */
+	@Value.Lazy
+	public DoubleArrayView profileView() {
+		return DoubleArrayView.wrap(this.getProfile());
 	}
 
 	/**
@@ -385,7 +431,7 @@ public abstract class DelayDistribution implements Serializable {
 	 * @return number of time points in the distribution
 	 */
 	public long size() {
-		return this.density().length;
+		return this.densityView().length();
 	}
 
 	/**
@@ -396,15 +442,25 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	@Value.Derived
 	public double[] survival() {
-		if (this.getProfile().length == 0) return new double[0];
-		double[] survival = new double[this.density().length];
+		var density = this.density();
+		double[] survival = new double[density.length];
 
-		for (int i = 0; i < this.density().length; i++) {
-			survival[i] = (i == 0 ? 1 : survival[i - 1]) - this.density()[i];
+		for (int i = 0; i < density.length; i++) {
+			survival[i] = (i == 0 ? 1 : survival[i - 1]) - density[i];
 		}
 		return survival;
 	}
 
+	/**
+	 * A read only view of {@link #survival()}, built on first use.
+	 *
+	 * @return the survival probabilities
+	 */
+	@Value.Lazy
+	public DoubleArrayView survivalView() {
+		return DoubleArrayView.wrap(this.survival());
+	}
+
 	/**
 	 * Returns a string representation showing the density array and pAffected.
 	 *
@@ -412,7 +468,7 @@ public abstract class DelayDistribution implements Serializable {
 	 */
 	@Override
 	public String toString() {
-		return "P(" + Arrays.toString(this.density()) + "|" + this.getPAffected()
+		return "P(" + this.densityView() + "|" + this.getPAffected()
 				+ ")";
 	}
 
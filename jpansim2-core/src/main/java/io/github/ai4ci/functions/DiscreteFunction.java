@@ -2,6 +2,8 @@ package io.github.ai4ci.functions;
 
 import java.io.Serializable;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 import org.mariuszgromada.math.mxparser.Argument;
 import org.mariuszgromada.math.mxparser.Expression;
@@ -18,7 +20,8 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
  * This interface represents a discrete function that can be evaluated at
  * integer time points. The function is defined by a univariate mathematical
  * expression provided as a string, where the variable `t` represents time. The
- * expression is parsed and evaluated using the mXparser library.
+ * expression is compiled by {@link ExpressionCompiler}, or if that is not
+ * possible parsed and evaluated using the mXparser library.
  *
  * <p>
  * Downstream uses include any context where a time‑dependent function is
@@ -57,15 +60,34 @@ public interface DiscreteFunction extends Serializable, KernelFunction {
 	 */
 	String getFTExpression();
 
+	/**
+	 * The expression compiled for direct evaluation.
+	 *
+	 * @return the compiled expression, or null if it uses syntax that
+	 *         {@link ExpressionCompiler} does not support, in which case it is
+	 *         evaluated by mXparser (see {@link #getParsed()}). This is lazy,
+	 *         and so not part of equality, as the compiled operators are only
+	 *         equal to themselves.
+	 */
+	@JsonIgnore @Value.Lazy @Nullable
+	default ExpressionCompiler.Compiled getCompiled() {
+		try {
+			return ExpressionCompiler.compile(this.getFTExpression(), "t");
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * The parsed expression is derived from the function expression and the time
 	 * argument. It is not intended to be set directly and is ignored during JSON
-	 * serialization.
+	 * serialization. It is only used if the expression could not be compiled,
+	 * and is parsed on first use.
 	 *
 	 * @return the parsed expression derived from the function expression and the
 	 *         time argument.
 	 */
-	@JsonIgnore @Value.Derived
+	@JsonIgnore @Value.Lazy
 	default Expression getParsed() {
 		mXparser.disableUlpRounding();
 		mXparser.disableCanonicalRounding();
@@ -78,16 +100,19 @@ public interface DiscreteFunction extends Serializable, KernelFunction {
 	 * The following methods are derived from the function expression and are not
 	 * intended to be set directly. They are ignored during JSON serialization.
 	 *
+	 * It is lazy, like the parsed expression, as mXparser arguments do not
+	 * compare by value and so cannot be part of equality.
+	 *
 	 * @return the time argument and the parsed expression derived from the
 	 *         function expression.
 	 */
-	@JsonIgnore @Value.Derived
+	@JsonIgnore @Value.Lazy
 	default Argument getTimeArgument() { return new Argument("t"); }
 
 	/**
-	 * Evaluate the function at a given integer time `t`. This method sets the
-	 * value of the time argument and then calculates the result using the parsed
-	 * expression.
+	 * Evaluate the function at a given integer time `t`. This method evaluates
+	 * the compiled expression, or sets the value of the time argument and then
+	 * calculates the result using the parsed expression.
 	 *
 	 * @param t the time at which to evaluate the function.
 	 * @return the result of evaluating the function at time `t`.
@@ -98,6 +123,8 @@ public interface DiscreteFunction extends Serializable, KernelFunction {
 	 */
 	@Override
 	default double rawValue(int t) {
+		var compiled = this.getCompiled();
+		if (compiled != null) return compiled.applyAsDouble(t);
 		var xArg = this.getTimeArgument();
 		xArg.setArgumentValue(t);
 		var result = this.getParsed()
@@ -307,6 +307,18 @@ public interface EmpiricalDistribution extends Distribution, Serializable {
 		);
 	}
 
+	/**
+	 * The quantile function tabulated for sampling, which is built on first
+	 * use. This replaces a search of the spline knots on every draw with a
+	 * table lookup and a linear interpolation.
+	 *
+	 * @return the tabulated quantile function
+	 */
+	@JsonIgnore @Value.Lazy
+	default QuantileTable getSamplingTable() {
+		return new QuantileTable(this::getQuantile);
+	}
+
 	/**
 	 * The x coordinates used to construct the empirical cumulative.
 	 *
@@ -327,16 +339,14 @@ public interface EmpiricalDistribution extends Distribution, Serializable {
 	}
 
 	/**
-	 * Sample a random value using the supplied {@link Sampler} instance.
+	 * Sample a random value using the supplied {@link Sampler} instance, from
+	 * the tabulated quantile function (see {@link #getSamplingTable()}).
 	 *
 	 * @param rng the random number generator to use
 	 * @return a random draw from the distribution
 	 */
 	@Override @JsonIgnore
 	default double sample(Sampler rng) {
-		return this.getLink().invFn(
-				this.getLinkLogitQuantile()
-						.interpolate(LinkFunction.LOGIT.fn(rng.nextDouble()))
-		);
+		return this.getSamplingTable().sample(rng);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,375 @@
+package io.github.ai4ci.functions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Compiles univariate expressions into a tree of operators that can be
+ * evaluated directly.
+ *
+ * <p>
+ * Main purpose: evaluating an expression with the mXparser interpreter is slow,
+ * so {@link MathematicalFunction} and {@link DiscreteFunction} compile their
+ * expressions with this class and only fall back to mXparser if the expression
+ * uses syntax outside the subset supported here. The compiled tree is built
+ * once, with constant sub-expressions folded, and is {@link Serializable} so
+ * that it can be kept with the function in a checkpoint.
+ *
+ * <p>
+ * The supported subset follows the mXparser syntax and precedence:
+ * <ul>
+ * <li>numbers, including scientific notation ({@code 1.5e-3}), the named
+ * argument and the constants {@code pi} and {@code e},</li>
+ * <li>{@code + - * / ^}, with {@code ^} right associative and binding more
+ * tightly than unary minus, so {@code -2^2} is {@code -4},</li>
+ * <li>comparisons {@code < <= > >= = == <> != ~=}, the logical operators
+ * {@code & && | ||} and negation {@code ~}, which return 1 for true and 0 for
+ * false,</li>
+ * <li>{@code if(condition, then, else)}, {@code min} and {@code max} of any
+ * number of arguments, and {@code log(base, value)},</li>
+ * <li>the functions {@code exp ln lg log2 log10 sqrt abs sgn floor ceil sin cos
+ * tan asin acos atan sinh cosh tanh} and their {@code arcsin} style
+ * aliases.</li>
+ * </ul>
+ *
+ * <p>
+ * Anything else, such as implied multiplication or user defined functions, is
+ * rejected with an {@link IllegalArgumentException}.
+ *
+ * @author Rob Challen
+ * @see <a href="https://mathparser.org/mxparser-math-collection">mXparser
+ *      math collection</a>
+ */
+public final class ExpressionCompiler {
+
+	/**
+	 * A compiled expression: a serializable function of the argument.
+	 */
+	@FunctionalInterface
+	public static interface Compiled extends DoubleUnaryOperator, Serializable {}
+
+	private static final class Constant implements Compiled {
+		final double value;
+
+		Constant(double value) { this.value = value; }
+
+		@Override
+		public double applyAsDouble(double x) {
+			return this.value;
+		}
+	}
+
+	@FunctionalInterface
+	private static interface Binary extends DoubleBinaryOperator, Serializable {}
+
+	@FunctionalInterface
+	private static interface Unary extends DoubleUnaryOperator, Serializable {}
+
+	/**
+	 * Compile an expression of a single named argument.
+	 *
+	 * @param expression the expression, in mXparser syntax
+	 * @param argument   the name of the argument, e.g. {@code x}
+	 * @return the compiled expression
+	 * @throws IllegalArgumentException if the expression is malformed or uses
+	 *                                  syntax outside the supported subset
+	 */
+	public static Compiled compile(String expression, String argument) {
+		var compiler = new ExpressionCompiler(expression, argument);
+		var out = compiler.or();
+		compiler.skipSpace();
+		if (compiler.pos < expression.length()) {
+			throw compiler.error("unexpected input");
+		}
+		return out;
+	}
+
+	private static Compiled binary(Compiled a, Compiled b, Binary op) {
+		if (a instanceof Constant && b instanceof Constant) {
+			return new Constant(
+					op.applyAsDouble(((Constant) a).value, ((Constant) b).value)
+			);
+		}
+		return x -> op.applyAsDouble(a.applyAsDouble(x), b.applyAsDouble(x));
+	}
+
+	private static double bool(boolean b) {
+		return b ? 1 : 0;
+	}
+
+	private static Compiled unary(Compiled a, Unary op) {
+		if (a instanceof Constant) {
+			return new Constant(op.applyAsDouble(((Constant) a).value));
+		}
+		return x -> op.applyAsDouble(a.applyAsDouble(x));
+	}
+
+	private final String argument;
+
+	private final String expression;
+
+	private int pos = 0;
+
+	private ExpressionCompiler(String expression, String argument) {
+		this.expression = expression;
+		this.argument = argument;
+	}
+
+	private Compiled add() {
+		var out = this.mul();
+		while (true) {
+			if (this.accept("+")) {
+				out = binary(out, this.mul(), (a, b) -> a + b);
+			} else if (this.accept("-")) {
+				out = binary(out, this.mul(), (a, b) -> a - b);
+			} else {
+				return out;
+			}
+		}
+	}
+
+	private boolean accept(String token) {
+		this.skipSpace();
+		if (this.expression.startsWith(token, this.pos)) {
+			this.pos += token.length();
+			return true;
+		}
+		return false;
+	}
+
+	private Compiled and() {
+		var out = this.comparison();
+		while (this.accept("&&") || this.accept("&")) {
+			out = binary(
+					out, this.comparison(), (a, b) -> bool(a != 0 && b != 0)
+			);
+		}
+		return out;
+	}
+
+	private List<Compiled> arguments(String name) {
+		var out = new ArrayList<Compiled>();
+		if (!this.accept("(")) { throw this.error(name + " needs arguments"); }
+		do {
+			out.add(this.or());
+		} while (this.accept(","));
+		this.expect(")");
+		return out;
+	}
+
+	private Compiled comparison() {
+		var out = this.add();
+		// Longer operators first so "<=" is not read as "<".
+		if (this.accept("<=")) {
+			return binary(out, this.add(), (a, b) -> bool(a <= b));
+		}
+		if (this.accept(">=")) {
+			return binary(out, this.add(), (a, b) -> bool(a >= b));
+		}
+		if (this.accept("<>") || this.accept("!=") || this.accept("~=")) {
+			return binary(out, this.add(), (a, b) -> bool(a != b));
+		}
+		if (this.accept("==") || this.accept("=")) {
+			return binary(out, this.add(), (a, b) -> bool(a == b));
+		}
+		if (this.accept("<")) {
+			return binary(out, this.add(), (a, b) -> bool(a < b));
+		}
+		if (this.accept(">")) {
+			return binary(out, this.add(), (a, b) -> bool(a > b));
+		}
+		return out;
+	}
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(
+				"Cannot compile \"" + this.expression + "\" at " + this.pos + ": "
+						+ message
+		);
+	}
+
+	private void expect(String token) {
+		if (!this.accept(token)) { throw this.error("expected " + token); }
+	}
+
+	private Compiled function(String name) {
+		var args = this.arguments(name);
+		switch (name) {
+		case "if":
+			this.size(name, args, 3);
+			var test = args.get(0);
+			var then = args.get(1);
+			var otherwise = args.get(2);
+			if (test instanceof Constant) {
+				return ((Constant) test).value != 0 ? then : otherwise;
+			}
+			return x -> {
+				var t = test.applyAsDouble(x);
+				if (Double.isNaN(t)) return Double.NaN;
+				return t != 0 ? then.applyAsDouble(x)
+						: otherwise.applyAsDouble(x);
+			};
+		case "min":
+			return args.stream().reduce((a, b) -> binary(a, b, Math::min)).get();
+		case "max":
+			return args.stream().reduce((a, b) -> binary(a, b, Math::max)).get();
+		case "log":
+			this.size(name, args, 2);
+			return binary(
+					args.get(0), args.get(1), (b, v) -> Math.log(v) / Math.log(b)
+			);
+		default:
+			this.size(name, args, 1);
+			return unary(args.get(0), this.math(name));
+		}
+	}
+
+	private Unary math(String name) {
+		switch (name) {
+		case "exp": return Math::exp;
+		case "ln": return Math::log;
+		case "lg":
+		case "log10": return Math::log10;
+		case "log2": return v -> Math.log(v) / Math.log(2);
+		case "sqrt": return Math::sqrt;
+		case "abs": return Math::abs;
+		case "sgn": return Math::signum;
+		case "floor": return Math::floor;
+		case "ceil": return Math::ceil;
+		case "sin": return Math::sin;
+		case "cos": return Math::cos;
+		case "tan":
+		case "tg": return Math::tan;
+		case "asin":
+		case "arcsin": return Math::asin;
+		case "acos":
+		case "arccos": return Math::acos;
+		case "atan":
+		case "arctan":
+		case "arctg": return Math::atan;
+		case "sinh": return Math::sinh;
+		case "cosh": return Math::cosh;
+		case "tanh":
+		case "tgh": return Math::tanh;
+		default: throw this.error("unsupported function " + name);
+		}
+	}
+
+	private Compiled mul() {
+		var out = this.unary();
+		while (true) {
+			if (this.accept("*")) {
+				out = binary(out, this.unary(), (a, b) -> a * b);
+			} else if (this.accept("/")) {
+				out = binary(out, this.unary(), (a, b) -> a / b);
+			} else {
+				return out;
+			}
+		}
+	}
+
+	private String name() {
+		var start = this.pos;
+		while (this.pos < this.expression.length()) {
+			var c = this.expression.charAt(this.pos);
+			if (!Character.isLetterOrDigit(c) && c != '_') break;
+			this.pos++;
+		}
+		return this.expression.substring(start, this.pos);
+	}
+
+	private Compiled number() {
+		var start = this.pos;
+		this.skip("0123456789.");
+		// An exponent only if followed by digits, so "2e" is not a number.
+		if (this.peek("eE")) {
+			var mantissa = this.pos;
+			this.pos++;
+			if (this.peek("+-")) this.pos++;
+			if (this.peek("0123456789")) {
+				this.skip("0123456789");
+			} else {
+				this.pos = mantissa;
+			}
+		}
+		try {
+			return new Constant(
+					Double.parseDouble(this.expression.substring(start, this.pos))
+			);
+		} catch (NumberFormatException e) {
+			throw this.error("malformed number");
+		}
+	}
+
+	private boolean peek(String chars) {
+		return this.pos < this.expression.length()
+				&& chars.indexOf(this.expression.charAt(this.pos)) >= 0;
+	}
+
+	private Compiled or() {
+		var out = this.and();
+		while (this.accept("||") || this.accept("|")) {
+			out = binary(out, this.and(), (a, b) -> bool(a != 0 || b != 0));
+		}
+		return out;
+	}
+
+	private Compiled power() {
+		var base = this.primary();
+		if (this.accept("^")) {
+			// right associative, and the exponent may be signed: 2^-x^2
+			return binary(base, this.unary(), Math::pow);
+		}
+		return base;
+	}
+
+	private Compiled primary() {
+		this.skipSpace();
+		if (this.pos >= this.expression.length()) {
+			throw this.error("unexpected end");
+		}
+		var c = this.expression.charAt(this.pos);
+		if (Character.isDigit(c) || c == '.') { return this.number(); }
+		if (this.accept("(")) {
+			var out = this.or();
+			this.expect(")");
+			return out;
+		}
+		if (Character.isLetter(c) || c == '_') {
+			var name = this.name();
+			if (name.equals(this.argument)) return x -> x;
+			if (name.equals("pi")) return new Constant(Math.PI);
+			if (name.equals("e")) return new Constant(Math.E);
+			return this.function(name);
+		}
+		throw this.error("unexpected " + c);
+	}
+
+	private void size(String name, List<Compiled> args, int size) {
+		if (args.size() != size) {
+			throw this.error(name + " takes " + size + " arguments");
+		}
+	}
+
+	private void skip(String chars) {
+		while (this.peek(chars)) { this.pos++; }
+	}
+
+	private void skipSpace() {
+		while (this.pos < this.expression.length()
+				&& Character.isWhitespace(this.expression.charAt(this.pos))) {
+			this.pos++;
+		}
+	}
+
+	private Compiled unary() {
+		if (this.accept("-")) return unary(this.unary(), a -> -a);
+		if (this.accept("+")) return this.unary();
+		if (this.accept("~")) return unary(this.unary(), a -> bool(a == 0));
+		return this.power();
+	}
+
+}
@@ -1,5 +1,7 @@
 package io.github.ai4ci.functions;
 
+import java.io.Serializable;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -19,7 +21,7 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 @Value.Immutable
 @JsonSerialize(as = ImmutableGaussianKernel.class)
 @JsonDeserialize(as = ImmutableGaussianKernel.class)
-public interface GaussianKernel extends KernelFunction {
+public interface GaussianKernel extends Serializable, KernelFunction {
 
 	/**
 	 * Mean of the Gaussian kernel.
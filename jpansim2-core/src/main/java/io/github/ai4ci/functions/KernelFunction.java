@@ -11,6 +11,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
 import com.fasterxml.jackson.annotation.OptBoolean;
 
+import io.github.ai4ci.util.DoubleArrayView;
 import io.github.ai4ci.util.ProbabilityScaler;
 
 /**
@@ -76,7 +77,18 @@ public interface KernelFunction {
 	 * @return the scaled kernel value at position t
 	 */
 	default double value(int t) {
-		return this.values()[t - this.getMinimum()];
+		return this.getValuesView().get(t - this.getMinimum());
+	}
+
+	/**
+	 * A read only view of {@link #values()}, built on first use, which can be
+	 * read without copying the array.
+	 *
+	 * @return the normalized kernel values
+	 */
+	@JsonIgnore @Value.Lazy
+	default DoubleArrayView getValuesView() {
+		return DoubleArrayView.wrap(this.values());
 	}
 
 	/**
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.stream.IntStream;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 import org.mariuszgromada.math.mxparser.Argument;
 import org.mariuszgromada.math.mxparser.Expression;
@@ -22,10 +24,12 @@ import io.github.ai4ci.functions.Coordinates.DuplicateResolution;
  *
  * <p>
  * The function is defined by a String expression containing `x` as the
- * parameter, which is parsed and evaluated using the mXparser library. The
- * parsed expression is derived from the original String and is not serialized,
- * ensuring that only the user-defined expression is stored in the
- * configuration.
+ * parameter. The expression is compiled by {@link ExpressionCompiler} and
+ * evaluated directly at any point in its support. If it uses syntax the
+ * compiler does not support it is instead evaluated with the mXparser library
+ * at a set of knot points and interpolated. The compiled or parsed expression
+ * is derived from the original String and is not serialized, ensuring that
+ * only the user-defined expression is stored in the configuration.
  *
  * @see io.github.ai4ci.abm.OutbreakBaseline#transmissibilityFromViralLoad(double,
  *      double)
@@ -49,6 +53,13 @@ public interface MathematicalFunction extends Serializable, SimpleFunction {
 	 */
 	@Override
 	default double differential(double x) {
+		var compiled = this.getCompiled();
+		if (compiled != null) {
+			var dy = (compiled.applyAsDouble(x + DX)
+					- compiled.applyAsDouble(x - DX)) / (2 * DX);
+			return this.getLink()
+				.derivInvFn(compiled.applyAsDouble(x)) * dy;
+		}
 		return this.getLink()
 			.derivInvFn(
 				this.getInterpolator()
@@ -68,6 +79,24 @@ public interface MathematicalFunction extends Serializable, SimpleFunction {
 	 */
 	String getFXExpression();
 
+	/**
+	 * The expression compiled for direct evaluation on the link scale.
+	 *
+	 * @return the compiled expression, or null if it uses syntax that
+	 *         {@link ExpressionCompiler} does not support, in which case the
+	 *         function is evaluated by interpolation (see
+	 *         {@link #getInterpolator()}). This is lazy, and so not part of
+	 *         equality, as the compiled operators are only equal to themselves.
+	 */
+	@JsonIgnore @Value.Lazy @Nullable
+	default ExpressionCompiler.Compiled getCompiled() {
+		try {
+			return ExpressionCompiler.compile(this.getFXExpression(), "x");
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * The interpolation method used to interpolate between the (x,y)
 	 * coordinates.
@@ -87,12 +116,13 @@ public interface MathematicalFunction extends Serializable, SimpleFunction {
 	 * the specified interpolation type. It applies the link function to the Y
 	 * coordinates before interpolation. The resulting interpolator can be used
 	 * to compute interpolated values for any X within the range of the
-	 * coordinates.
+	 * coordinates. It is only used if the expression could not be compiled, and
+	 * is built on first use.
 	 *
 	 * @return the interpolator created from the coordinates and interpolation
 	 *         type
 	 */
-	@JsonIgnore @Value.Derived
+	@JsonIgnore @Value.Lazy
 	default Interpolator getInterpolator() {
 
 		Coordinates tmp = ImmutableCoordinates.builder()
@@ -154,6 +184,13 @@ public interface MathematicalFunction extends Serializable, SimpleFunction {
 	 */
 	@JsonIgnore @Value.Derived
 	default double[] getY() {
+		var compiled = this.getCompiled();
+		if (compiled != null) {
+			return Arrays.stream(getX())
+				.map(compiled)
+				.map(y -> getLink().invFn(y))
+				.toArray();
+		}
 		var xArg = new Argument("x");
 		mXparser.disableUlpRounding();
 		mXparser.disableCanonicalRounding();
@@ -172,19 +209,28 @@ public interface MathematicalFunction extends Serializable, SimpleFunction {
 	}
 
 	/**
-	 * Evaluate the interpolated mathematical expression at a given X value.
+	 * Evaluate the mathematical expression at a given X value.
 	 * <p>
-	 * This method computes the value of the expression at a given X by
-	 * interpolating the Y values at the coordinates and then applying the
-	 * inverse link function to the interpolated value. The result is the value
-	 * of the mathematical function at the specified X.
+	 * This method computes the value of the expression at a given X, limited to
+	 * the support of the function, and then applies the inverse link function.
+	 * A compiled expression is evaluated exactly. Otherwise the Y values at the
+	 * coordinates are interpolated, and the result is an approximation.
 	 *
 	 * @param x the X value at which to evaluate the expression
-	 * @return the approximate value of the expression at the specified X
+	 * @return the value of the expression at the specified X
 	 *
 	 */
 	@Override
 	default double value(double x) {
+		var compiled = this.getCompiled();
+		if (compiled != null) {
+			return this.getLink()
+				.invFn(
+					compiled.applyAsDouble(
+						Interpolator.squish(getMinimum(), x, getMaximum())
+					)
+				);
+		}
 		return this.getLink()
 			.invFn(
 				this.getInterpolator()
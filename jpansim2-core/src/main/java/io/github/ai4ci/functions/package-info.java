@@ -10,8 +10,8 @@
  * <li><b>Function Implementations:</b>
  * <ul>
  * <li>{@code EmpiricalFunction} - Piecewise interpolation from data points</li>
- * <li>{@code MathematicalFunction} - Mathematical expressions using
- * mxparser</li>
+ * <li>{@code MathematicalFunction} - Mathematical expressions compiled by
+ * {@code ExpressionCompiler}, falling back to mxparser</li>
  * <li>{@code FixedValueFunction} - Constant value provider</li>
  * <li>{@code DelayDistribution} - Time-to-event probability distributions</li>
  * </ul>
@@ -1,6 +1,5 @@
 package io.github.ai4ci.output;
 
-import java.util.Arrays;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -23,6 +22,7 @@ import io.github.ai4ci.abm.PersonDemographic;
 import io.github.ai4ci.abm.PersonHistory;
 import io.github.ai4ci.abm.PersonState;
 import io.github.ai4ci.abm.TestResult;
+import io.github.ai4ci.flow.mechanics.StepTimings;
 import io.github.ai4ci.util.Binomial;
 
 /**
@@ -138,6 +138,42 @@ public abstract class CSVMapper {
 			OutbreakState state, Long contacts, Long count
 	);
 
+	/**
+	 * Map the sections of a simulation step timing to CSV DTOs.
+	 *
+	 * @param outbreak the outbreak that was timed
+	 * @param timings  the timings of one step
+	 * @return stream of timing CSV records, one per section
+	 */
+	public Stream<ImmutableStepTimingsCSV> toTimingsCSV(
+			Outbreak outbreak, StepTimings timings
+	) {
+		var cs = outbreak.getCurrentState();
+		return timings.getSections()
+			.stream()
+			.map(s -> this.toTimingsCSV(cs, s, timings.getStep()));
+	}
+
+	/**
+	 * Map one section of a simulation step timing to a CSV DTO.
+	 *
+	 * @param state   outbreak state providing the simulation identifiers
+	 * @param section the timed section
+	 * @param time    the simulation time at the start of the step
+	 * @return CSV DTO for the section timing
+	 */
+	@Mapping(
+			target = "section",
+			source = "section.name"
+	)
+	@Mapping(
+			target = "time",
+			source = "time"
+	)
+	public abstract ImmutableStepTimingsCSV toTimingsCSV(
+			OutbreakState state, StepTimings.Section section, int time
+	);
+
 	/**
 	 * Convert a person's contacts (from their current history snapshot) into CSV
 	 * contact records. Only contacts where this person is participant1 are
@@ -150,7 +186,8 @@ public abstract class CSVMapper {
 		return person.getCurrentHistory()
 			.stream()
 			.flatMap(
-				ph -> Arrays.stream(ph.getTodaysContacts())
+				ph -> ph.getTodaysContactList()
+					.stream()
 					.filter(c -> c.getParticipant1Id() == person.getId())
 					.map(c -> this.toCSV(ph, c))
 			);
@@ -197,6 +234,45 @@ public abstract class CSVMapper {
 	 */
 	public abstract ImmutableOutbreakCSV toCSV(OutbreakState state);
 
+	/**
+	 * Fast forward the daily summary of an extinct outbreak to the end of the
+	 * simulation. An outbreak is only extinct once no one is infected, the
+	 * symptoms, hospitalisations and deaths of past infections have played out
+	 * and no test results are outstanding. Each remaining day then has zero
+	 * incidence, infections and hospitalisations, and the same cumulative
+	 * infections and deaths as the day of extinction. Everything else may still
+	 * change, with behaviour, waning immunity, symptoms unrelated to the
+	 * infection, or screening tests, so it is left missing rather than copied.
+	 *
+	 * @param state  the outbreak state on the day of extinction
+	 * @param toStep the simulation duration
+	 * @return summary CSV records for the days after extinction up to, but not
+	 *         including, the simulation duration
+	 * @see io.github.ai4ci.abm.OutbreakState#isExtinct()
+	 */
+	public Stream<ImmutableOutbreakCSV> toFastForwardCSV(
+			OutbreakState state, int toStep
+	) {
+		var last = this.toCSV(state)
+			.withIncidence(0)
+			.withInfectedCount(0)
+			.withPrevalence(0)
+			.withHospitalisedCount(0)
+			.withAverageCompliance(null)
+			.withAverageImmuneActivity(null)
+			.withAverageMobility(null)
+			.withAverageViralLoad(null)
+			.withCumulativeMobilityDecrease(null)
+			.withLockdownTrigger(null)
+			.withPolicy(null)
+			.withRtEffective(null)
+			.withSymptomaticCount(null)
+			.withTestNegativesByResultDate(null)
+			.withTestPositivesByResultDate(null);
+		return IntStream.range(state.getTime() + 1, toStep)
+			.mapToObj(t -> last.withTime(t));
+	}
+
 	/**
 	 * Map a person and their demographic and baseline information to a CSV DTO
 	 * for demographic exports. The mapper extracts the person id and demographic
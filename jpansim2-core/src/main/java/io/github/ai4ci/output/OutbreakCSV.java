@@ -2,6 +2,8 @@ package io.github.ai4ci.output;
 
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.immutables.value.Value;
 
 import io.github.ai4ci.abm.Outbreak;
@@ -19,6 +21,14 @@ import io.github.ai4ci.flow.output.Export.Stage;
  * ({@code summary.csv}).
  *
  * <p>
+ * If a simulation is fast forwarded after the epidemic dies out (see
+ * {@link io.github.ai4ci.config.BatchConfiguration.ExtinctionMode#FAST_FORWARD})
+ * the rows after the day of extinction only hold the values that cannot
+ * change: the counts of infections, deaths and hospitalisations. Values that
+ * still depend on behaviour, immunity or testing are missing ({@code NA}) in
+ * those rows.
+ *
+ * <p>
  * Downstream uses: used for plotting time series, quick diagnostics and as an
  * input to aggregate analyses across replications.
  *
@@ -51,14 +61,16 @@ public interface OutbreakCSV extends CommonCSV.State {
 	 *
 	 * @return average compliance across agents at this time step
 	 */
-	double getAverageCompliance();
+	@Nullable
+	Double getAverageCompliance();
 
 	/**
 	 * Immune activity is a composite measure of the immune response of agents
 	 *
 	 * @return average immune activity across agents at this time step
 	 */
-	double getAverageImmuneActivity();
+	@Nullable
+	Double getAverageImmuneActivity();
 
 	/**
 	 * Mobility is a composite measure of the movement and contact behaviour of
@@ -66,14 +78,16 @@ public interface OutbreakCSV extends CommonCSV.State {
 	 *
 	 * @return average mobility across agents at this time step
 	 */
-	double getAverageMobility();
+	@Nullable
+	Double getAverageMobility();
 
 	/**
 	 * In host viral load average.
 	 *
 	 * @return average viral load across agents at this time step
 	 */
-	double getAverageViralLoad();
+	@Nullable
+	Double getAverageViralLoad();
 
 	/**
 	 * Cumulative deaths since simulation start.
@@ -94,7 +108,8 @@ public interface OutbreakCSV extends CommonCSV.State {
 	 *
 	 * @return cumulative mobility reduction summed over agents
 	 */
-	double getCumulativeMobilityDecrease();
+	@Nullable
+	Double getCumulativeMobilityDecrease();
 
 	/**
 	 * Currently hospitalised.
@@ -123,13 +138,15 @@ public interface OutbreakCSV extends CommonCSV.State {
 	 *
 	 * @return numeric lockdown trigger threshold in use
 	 */
-	double getLockdownTrigger();
+	@Nullable
+	Double getLockdownTrigger();
 
 	/**
 	 * Current active policy model state.
 	 *
 	 * @return active policy label for the current time step
 	 */
+	@Nullable
 	String getPolicy();
 
 	/**
@@ -145,28 +162,32 @@ public interface OutbreakCSV extends CommonCSV.State {
 	 *
 	 * @return effective reproduction number (Rt) estimated for this time
 	 */
-	double getRtEffective();
+	@Nullable
+	Double getRtEffective();
 
 	/**
 	 * True symptomatic (not observed)
 	 *
 	 * @return current number of symptomatic agents
 	 */
-	long getSymptomaticCount();
+	@Nullable
+	Long getSymptomaticCount();
 
 	/**
 	 * Count of negatives by result date.
 	 *
 	 * @return test negatives by result date for this time step
 	 */
-	long getTestNegativesByResultDate();
+	@Nullable
+	Long getTestNegativesByResultDate();
 
 	/**
 	 * Count of positives by result date.
 	 *
 	 * @return test positives by result date for this time step
 	 */
-	long getTestPositivesByResultDate();
+	@Nullable
+	Long getTestPositivesByResultDate();
 
 	/**
 	 * The description of the trigger value used to determine whether to enter
@@ -111,4 +111,14 @@ public interface OutbreakFinalStateCSV extends CommonCSV.State {
 	 */
 	long getTimeToMaximumIncidence();
 
+	/**
+	 * Whether the epidemic had died out by the end of the simulation. If the
+	 * simulation was stopped early on extinction (see
+	 * {@link io.github.ai4ci.config.BatchConfiguration#getExtinctionMode()})
+	 * the time of the final state is the day of extinction.
+	 *
+	 * @return true if there were no active infections at the end
+	 */
+	boolean isExtinct();
+
 }
\ No newline at end of file
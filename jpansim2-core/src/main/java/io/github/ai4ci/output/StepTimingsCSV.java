@@ -0,0 +1,76 @@
+package io.github.ai4ci.output;
+
+import java.util.stream.Stream;
+
+import org.immutables.value.Value;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.flow.output.CSVWriter;
+import io.github.ai4ci.flow.output.Export;
+import io.github.ai4ci.flow.output.Export.Stage;
+
+/**
+ * Time and process wide allocation of each section of a simulation step, in long format.
+ *
+ * <p>
+ * Main purpose: find out where the time goes in a slow simulation. There is a
+ * record for each phase of the daily update and for the export of each output
+ * file, per simulation step, written to a CSV file ({@code timings.csv}). The
+ * time is the simulation time at the start of the step.
+ *
+ * <p>
+ * Unlike the other exports these records do not come from the outbreak but
+ * from the {@link io.github.ai4ci.flow.mechanics.StepTimings} of the executor
+ * running it, so the selector is empty and the records are handed to the
+ * writer directly by {@link io.github.ai4ci.flow.SimulationExecutor}. Timings
+ * are only collected when this export is configured.
+ *
+ * @author Rob Challen
+ */
+@Value.Immutable
+@Export(
+		stage = Stage.UPDATE,
+		value = "timings.csv",
+		size = 16,
+		selector = StepTimingsCSV.Selector.class,
+		writer = CSVWriter.class
+)
+public interface StepTimingsCSV extends CommonCSV.State {
+
+	/**
+	 * Selector for step timings. The timings are not part of the outbreak so
+	 * this is always empty.
+	 */
+	public class Selector implements Export.Selector {
+
+		@Override
+		public Stream<StepTimingsCSV> apply(Outbreak t) {
+			return Stream.empty();
+		}
+
+	}
+
+	/**
+	 * Heap allocation during the section, summed over all threads of the
+	 * process. This includes anything else running concurrently, such as other
+	 * simulations, see {@link io.github.ai4ci.flow.mechanics.StepTimings}.
+	 *
+	 * @return bytes allocated by all threads during the section
+	 */
+	public long getProcessAllocatedBytes();
+
+	/**
+	 * Wall clock duration of the section.
+	 *
+	 * @return the duration in nanoseconds
+	 */
+	public long getDurationNanos();
+
+	/**
+	 * The section of the step.
+	 *
+	 * @return an update phase name, or the name of an output file
+	 */
+	public String getSection();
+
+}
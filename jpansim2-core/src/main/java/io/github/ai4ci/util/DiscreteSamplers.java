@@ -0,0 +1,219 @@
+package io.github.ai4ci.util;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.exp;
+import static java.lang.Math.floor;
+import static java.lang.Math.log;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
+import org.apache.commons.math3.special.Gamma;
+import org.apache.commons.rng.UniformRandomProvider;
+
+/**
+ * Allocation free binomial and Poisson samplers.
+ *
+ * <p>
+ * The distribution samplers from commons statistics are created for each draw,
+ * which allocates the distribution, the sampler and, for large means, its
+ * lookup tables. In the in-host models binomial and Poisson draws with a
+ * different count and probability are made many times per agent per day, so
+ * here the standard algorithms are implemented as static methods that only use
+ * the supplied source of uniform random numbers:
+ * <ul>
+ * <li>Binomial: inversion by sequential search when \( n \min(p,1-p) \le 30
+ * \), otherwise the BTPE algorithm of Kachitvichyanukul and Schmeiser
+ * (1988).</li>
+ * <li>Poisson: the multiplication method when \( \lambda \lt 10 \), otherwise
+ * the PTRS transformed rejection algorithm of Hörmann (1993).</li>
+ * </ul>
+ * Both are exact, and are the algorithms used by numpy.
+ *
+ * @author Rob Challen
+ */
+final class DiscreteSamplers {
+
+	private DiscreteSamplers() {}
+
+	/**
+	 * A binomial sample.
+	 *
+	 * @param rng the source of uniform random numbers
+	 * @param n   the number of trials, non negative
+	 * @param p   the success probability, in [0,1]
+	 * @return the number of successes
+	 */
+	static int binomial(UniformRandomProvider rng, int n, double p) {
+		if (n == 0 || p == 0) { return 0; }
+		if (p == 1) { return n; }
+		if (p <= 0.5) { return binomialSmallP(rng, n, p); }
+		return n - binomialSmallP(rng, n, 1 - p);
+	}
+
+	private static int binomialSmallP(UniformRandomProvider rng, int n, double p) {
+		if (p * n <= 30) { return binomialInversion(rng, n, p); }
+		return binomialBtpe(rng, n, p);
+	}
+
+	private static int binomialInversion(
+			UniformRandomProvider rng, int n, double p
+	) {
+		var q = 1 - p;
+		var qn = exp(n * log(q));
+		var np = n * p;
+		var bound = min(n, np + 10 * sqrt(np * q + 1));
+		var x = 0;
+		var px = qn;
+		var u = rng.nextDouble();
+		while (u > px) {
+			x++;
+			if (x > bound) {
+				x = 0;
+				px = qn;
+				u = rng.nextDouble();
+			} else {
+				u -= px;
+				px = ((n - x + 1) * p * px) / (x * q);
+			}
+		}
+		return x;
+	}
+
+	// Kachitvichyanukul V, Schmeiser BW. Binomial random variate generation.
+	// Communications of the ACM 1988;31:216–22. The step labels follow the
+	// paper. Requires p <= 0.5.
+	private static int binomialBtpe(UniformRandomProvider rng, int n, double p) {
+		var r = p;
+		var q = 1 - r;
+		var fm = n * r + r;
+		var m = (int) floor(fm);
+		var p1 = floor(2.195 * sqrt(n * r * q) - 4.6 * q) + 0.5;
+		var xm = m + 0.5;
+		var xl = xm - p1;
+		var xr = xm + p1;
+		var c = 0.134 + 20.5 / (15.3 + m);
+		var a = (fm - xl) / (fm - xl * r);
+		var laml = a * (1 + a / 2);
+		a = (xr - fm) / (xr * q);
+		var lamr = a * (1 + a / 2);
+		var p2 = p1 * (1 + 2 * c);
+		var p3 = p2 + c / laml;
+		var p4 = p3 + c / lamr;
+		var nrq = n * r * q;
+
+		while (true) {
+			// Step 1: triangular region, accepted immediately
+			var u = rng.nextDouble() * p4;
+			var v = rng.nextDouble();
+			int y;
+			if (u <= p1) { return (int) floor(xm - p1 * v + u); }
+			if (u <= p2) {
+				// Step 2: parallelograms
+				var x = xl + (u - p1) / c;
+				v = v * c + 1 - abs(m - x + 0.5) / p1;
+				if (v > 1) { continue; }
+				y = (int) floor(x);
+			} else if (u <= p3) {
+				// Step 3: left exponential tail
+				y = (int) floor(xl + log(v) / laml);
+				if (y < 0 || v == 0) { continue; }
+				v = v * (u - p2) * laml;
+			} else {
+				// Step 4: right exponential tail
+				y = (int) floor(xr - log(v) / lamr);
+				if (y > n || v == 0) { continue; }
+				v = v * (u - p3) * lamr;
+			}
+
+			var k = abs(y - m);
+			if (k <= 20 || k >= nrq / 2 - 1) {
+				// Step 5.1: evaluate f(y) recursively
+				var s = r / q;
+				var aa = s * (n + 1);
+				var f = 1D;
+				if (m < y) {
+					for (var i = m + 1; i <= y; i++) { f *= aa / i - s; }
+				} else if (m > y) {
+					for (var i = y + 1; i <= m; i++) { f /= aa / i - s; }
+				}
+				if (v <= f) { return y; }
+				continue;
+			}
+
+			// Step 5.2: squeeze using upper and lower bounds on log(f(y))
+			var rho = (k / nrq)
+					* ((k * (k / 3.0 + 0.625) + 0.16666666666666666) / nrq + 0.5);
+			var t = -(double) k * k / (2 * nrq);
+			var logV = log(v);
+			if (logV < t - rho) { return y; }
+			if (logV > t + rho) { continue; }
+
+			// Step 5.3: final comparison with Stirling's formula
+			var x1 = y + 1D;
+			var f1 = m + 1D;
+			var z = n + 1D - m;
+			var w = n - y + 1D;
+			if (logV <= xm * log(f1 / x1) + (n - m + 0.5) * log(z / w)
+					+ (y - m) * log(w * r / (x1 * q)) + stirling(f1)
+					+ stirling(z) + stirling(x1) + stirling(w)) {
+				return y;
+			}
+		}
+	}
+
+	private static double stirling(double x) {
+		var x2 = x * x;
+		return (13680. - (462. - (132. - (99. - 140. / x2) / x2) / x2) / x2) / x
+				/ 166320.;
+	}
+
+	/**
+	 * A Poisson sample.
+	 *
+	 * @param rng  the source of uniform random numbers
+	 * @param mean the mean, non negative
+	 * @return the sample
+	 */
+	static int poisson(UniformRandomProvider rng, double mean) {
+		if (mean == 0) { return 0; }
+		if (mean < 10) { return poissonMultiplication(rng, mean); }
+		return poissonPtrs(rng, mean);
+	}
+
+	private static int poissonMultiplication(
+			UniformRandomProvider rng, double mean
+	) {
+		var limit = exp(-mean);
+		var x = 0;
+		var prod = rng.nextDouble();
+		while (prod > limit) {
+			x++;
+			prod *= rng.nextDouble();
+		}
+		return x;
+	}
+
+	// Hörmann W. The transformed rejection method for generating Poisson
+	// random variables. Insurance: Mathematics and Economics 1993;12:39–45.
+	private static int poissonPtrs(UniformRandomProvider rng, double mean) {
+		var slam = sqrt(mean);
+		var loglam = log(mean);
+		var b = 0.931 + 2.53 * slam;
+		var a = -0.059 + 0.02483 * b;
+		var logInvAlpha = log(1.1239 + 1.1328 / (b - 3.4));
+		var vr = 0.9277 - 3.6224 / (b - 2);
+		while (true) {
+			var u = rng.nextDouble() - 0.5;
+			var v = rng.nextDouble();
+			var us = 0.5 - abs(u);
+			var k = (int) floor((2 * a / us + b) * u + mean + 0.43);
+			if (us >= 0.07 && v <= vr) { return k; }
+			if (k < 0 || (us < 0.013 && v > us)) { continue; }
+			if (log(v) + logInvAlpha - log(a / (us * us) + b) <= -mean
+					+ k * loglam - Gamma.logGamma(k + 1)) {
+				return k;
+			}
+		}
+	}
+
+}
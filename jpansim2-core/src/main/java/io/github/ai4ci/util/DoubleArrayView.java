@@ -0,0 +1,95 @@
+package io.github.ai4ci.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+/**
+ * A read only view of a primitive double array that never copies it.
+ *
+ * <p>
+ * Main purpose: Immutables defensively clones array attributes every time they
+ * are accessed, so reading a single element of an attribute such as
+ * {@code getDensity()[i]} inside a loop copies the whole array on every
+ * iteration. Value types that are read this way cache a view of the array as a
+ * {@code @Value.Lazy} attribute, built once from a defensive copy, and read it
+ * through {@link #get(int)}. The wrapped array is never exposed, so the view is
+ * as immutable as the value it was made from.
+ *
+ * @author Rob Challen
+ */
+public final class DoubleArrayView implements Serializable {
+
+	/**
+	 * Wrap an array without copying it. The caller must not modify the array
+	 * afterwards, so this should be given a fresh copy, such as the result of
+	 * an Immutables array accessor.
+	 *
+	 * @param values the array to wrap
+	 * @return a read only view of the array
+	 */
+	public static DoubleArrayView wrap(double[] values) {
+		return new DoubleArrayView(values);
+	}
+
+	private final double[] values;
+
+	private DoubleArrayView(double[] values) {
+		this.values = values;
+	}
+
+	/**
+	 * A value from the array.
+	 *
+	 * @param index the index, between 0 and {@link #length()} - 1
+	 * @return the value at that index
+	 * @throws ArrayIndexOutOfBoundsException if the index is out of range
+	 */
+	public double get(int index) {
+		return this.values[index];
+	}
+
+	/**
+	 * A value from the array, or a default if the index is out of range.
+	 *
+	 * @param index    any index
+	 * @param fallback the value to return if the index is out of range
+	 * @return the value at that index, or the fallback
+	 */
+	public double getOrDefault(int index, double fallback) {
+		if (index < 0 || index >= this.values.length) return fallback;
+		return this.values[index];
+	}
+
+	/**
+	 * The length of the array.
+	 *
+	 * @return the number of values
+	 */
+	public int length() {
+		return this.values.length;
+	}
+
+	/**
+	 * Stream the values without copying the array.
+	 *
+	 * @return a stream of the values in order
+	 */
+	public DoubleStream stream() {
+		return Arrays.stream(this.values);
+	}
+
+	/**
+	 * A copy of the values, which the caller is free to modify.
+	 *
+	 * @return a new array holding the values
+	 */
+	public double[] toArray() {
+		return this.values.clone();
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.values);
+	}
+}
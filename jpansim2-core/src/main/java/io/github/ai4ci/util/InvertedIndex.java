@@ -0,0 +1,178 @@
+package io.github.ai4ci.util;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable, thread safe foreign key index over a list of rows. Given the
+ * rows of type {@code X} and a mapping that extracts a key of type {@code Y},
+ * this holds, for each key, the sorted row numbers of the rows that map to it.
+ *
+ * <p>
+ * Main purpose: this does the same job as {@link Inversion} for the
+ * {@link Repository} indexes, with less memory and no locking. An
+ * {@link Inversion} holds a boxed {@code HashSet} for every key and copies it
+ * on every typed lookup. Here each key holds a primitive {@code int[]} of row
+ * numbers, wrapped once in a read only {@link Set} view that is returned
+ * directly by every lookup. The keys are extracted from the rows in parallel.
+ * Once built the index is never modified, so any number of threads can query
+ * it at the same time.
+ *
+ * @param <Y> a key-like object
+ * @param <X> a value-like object
+ * @author Rob Challen
+ */
+public class InvertedIndex<Y, X> implements Function<Y, Set<X>> {
+
+	/**
+	 * A read only set of rows identified by their sorted row numbers.
+	 */
+	private final class Postings extends AbstractSet<X> {
+
+		final int[] postings;
+
+		Postings(int[] postings) {
+			this.postings = postings;
+		}
+
+		@Override
+		public Iterator<X> iterator() {
+			return new Iterator<>() {
+				int i = 0;
+
+				@Override
+				public boolean hasNext() {
+					return this.i < Postings.this.postings.length;
+				}
+
+				@Override
+				public X next() {
+					if (!this.hasNext()) { throw new NoSuchElementException(); }
+					return InvertedIndex.this.rows
+							.get(Postings.this.postings[this.i++]);
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return this.postings.length;
+		}
+	}
+
+	/**
+	 * Index a list of rows by a key extracted from each row. Rows for which the
+	 * key is null are not indexed.
+	 *
+	 * @param <Y>  the type of the key-like objects
+	 * @param <X>  the type of the value-like objects
+	 * @param fn   the function to invert; should be a mapping from X to Y
+	 * @param rows the rows to index, which must not change afterwards
+	 * @param type the type of the rows
+	 * @return an index that can be used to retrieve sets of X for given Y
+	 *         values
+	 */
+	public static <Y, X> InvertedIndex<Y, X> build(
+			Function<X, Y> fn, List<X> rows, Class<X> type
+	) {
+		return new InvertedIndex<>(fn, rows, type);
+	}
+
+	private final List<X> rows;
+	private final Map<Y, Set<X>> index;
+	private final Class<X> output;
+	private final Class<?> input;
+
+	@SuppressWarnings("unchecked")
+	private InvertedIndex(Function<X, Y> fn, List<X> rows, Class<X> type) {
+		this.rows = rows;
+		this.output = type;
+		var keys = (Y[]) new Object[rows.size()];
+		IntStream.range(0, keys.length).parallel()
+				.forEach(i -> keys[i] = fn.apply(rows.get(i)));
+
+		// Count then fill, so the row numbers for each key are in order
+		var counts = new HashMap<Y, int[]>();
+		for (var key : keys) {
+			if (key != null) { counts.computeIfAbsent(key, k -> new int[1])[0]++; }
+		}
+		var postings = new HashMap<Y, int[]>();
+		for (var i = 0; i < keys.length; i++) {
+			if (keys[i] == null) { continue; }
+			var count = counts.get(keys[i]);
+			var tmp = postings.computeIfAbsent(keys[i], k -> new int[count[0]]);
+			tmp[tmp.length - count[0]--] = i;
+		}
+		this.index = new HashMap<>();
+		postings.forEach((k, v) -> this.index.put(k, new Postings(v)));
+		this.input = counts.isEmpty() ? Object.class
+				: counts.keySet().iterator().next().getClass();
+	}
+
+	/**
+	 * Retrieve the set of X that map to Y.
+	 *
+	 * @param t the key-like object for which to retrieve the corresponding set
+	 *          of value-like objects
+	 * @return a read only set of X objects that map to the given Y object;
+	 *         returns an empty set if no mappings exist
+	 */
+	@Override
+	public Set<X> apply(Y t) {
+		return this.index.getOrDefault(t, Collections.emptySet());
+	}
+
+	/**
+	 * Retrieve the set of X that map to Y, with type checking.
+	 *
+	 * @param <X1> the expected type of the value-like objects in the output
+	 * @param t    the key-like object for which to retrieve the corresponding
+	 *             set of value-like objects
+	 * @param as   the class object representing the expected output type; used
+	 *             for type checking
+	 * @return a read only set of X objects that map to the given Y object;
+	 *         returns an empty set if no mappings exist
+	 * @throws IllegalArgumentException if the input type of t does not match the
+	 *                                  type of the keys or if the output type
+	 *                                  does not match the type of the rows
+	 */
+	@SuppressWarnings("unchecked")
+	public <X1> Set<X1> apply(Object t, Class<X1> as) {
+		if (!this.input.isAssignableFrom(t.getClass()))
+			throw new IllegalArgumentException(
+					"Incorrect input type: " + t.getClass().getName()
+							+ " should be a " + this.input.getName()
+			);
+		if (!as.isAssignableFrom(this.output)) throw new IllegalArgumentException(
+				"Incorrect output type: " + as.getName() + " should be a "
+						+ this.output.getName()
+		);
+		return (Set<X1>) this.index.getOrDefault(t, Collections.emptySet());
+	}
+
+	/**
+	 * Get the type of the indexed rows.
+	 *
+	 * @return the Class object representing the row type X
+	 */
+	public Class<X> outputType() {
+		return this.output;
+	}
+
+	/**
+	 * The number of distinct keys in the index.
+	 *
+	 * @return the number of keys that at least one row maps to
+	 */
+	public int size() {
+		return this.index.size();
+	}
+}
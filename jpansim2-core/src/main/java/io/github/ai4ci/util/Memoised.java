@@ -1,13 +1,15 @@
 package io.github.ai4ci.util;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
  * Memoised is a utility class that implements memoization for a given function.
  * It caches the results of function calls to avoid redundant computations and
- * improve performance for expensive functions.
+ * improve performance for expensive functions. The cache is thread safe and
+ * each result is computed at most once, so the function must not itself call
+ * the same memoised function.
  *
  * @param <X> the type of the input to the function
  * @param <Y> the type of the output of the function
@@ -30,7 +32,7 @@ public class Memoised<X, Y> implements Function<X, Y> {
 
 	Function<X, Y> fn;
 
-	Map<X, Y> cache = new HashMap<>();
+	Map<X, Y> cache = new ConcurrentHashMap<>();
 
 	private Memoised(Function<X, Y> fn) {
 		this.fn = fn;
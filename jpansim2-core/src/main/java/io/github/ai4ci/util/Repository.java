@@ -1,24 +1,37 @@
 package io.github.ai4ci.util;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -52,7 +65,9 @@ import io.github.ai4ci.Import;
  * The repository uses reflection to read the CSV files and populate the data
  * store, and it builds indexes for efficient lookups based on specified mapping
  * functions. The indexes are lazily populated on first query and cached for
- * subsequent queries.
+ * subsequent queries. Once loaded the repository can be queried from several
+ * threads at once: each index is built exactly once, by whichever thread asks
+ * for it first, and is immutable afterwards.
  *
  * <p>
  * Only many:1 foreign key relations supported (no collections) in CSV.
@@ -73,10 +88,288 @@ import io.github.ai4ci.Import;
  * including resolving foreign key references to other immutable classes in the
  * repository.
  *
+ * <p>
+ * Parsing large CSV files is slow, so {@link #compileAll(Path, Class...)} can
+ * be run once to write each CSV file as a columnar binary file alongside it
+ * (e.g. {@code AgeGender.bin} for {@code AgeGender.csv}). Strings and factors
+ * are dictionary encoded and foreign keys are stored as row numbers. When every
+ * requested class has a binary file at least as new as its CSV,
+ * {@link #loadAll(Path, Class...)} memory maps the binary files instead of
+ * parsing the CSV files. Otherwise it falls back to the CSV files. Either way
+ * the loaded objects are the same.
+ *
  * @author Rob Challen
  */
 public class Repository {
 
+	/**
+	 * A reader for the columnar binary form of a CSV file written by
+	 * {@link BinaryWriter}. The file is memory mapped and each column is read
+	 * directly from the mapped buffer. Dictionary encoded columns are converted
+	 * once per distinct value and the result is shared between rows. Foreign
+	 * keys are row numbers into the already loaded referenced type, so they are
+	 * resolved without a key lookup. The reader iterates over row numbers, and
+	 * {@link #get(Integer, String)} returns the value of a column in a row.
+	 *
+	 * @param <X> the type of the objects being read (the entity type)
+	 */
+	public static class BinaryReader<X>
+			implements Iterator<Integer>, AutoCloseable {
+
+		private static ByteBuffer slice(ByteBuffer buffer, int length) {
+			var out = buffer.slice().limit(length);
+			buffer.position(buffer.position() + length);
+			return out;
+		}
+
+		private final FileChannel channel;
+		private final Map<String, IntFunction<Object>> columns = new HashMap<>();
+		private final int rows;
+		private int row = 0;
+
+		/**
+		 * Open a binary file for a given class. Any classes it references must
+		 * already be loaded into the repository, as foreign keys are resolved by
+		 * row number.
+		 *
+		 * @param file the binary file written by {@link BinaryWriter}
+		 * @param cls  the class representing the type of objects being read
+		 *             (must be annotated with @Import)
+		 * @param repo the repository holding the referenced types
+		 * @throws IOException if the file cannot be read or does not match the
+		 *                     class
+		 */
+		public BinaryReader(Path file, Class<X> cls, Repository repo)
+				throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.READ);
+			try {
+				var buffer = this.channel
+						.map(MapMode.READ_ONLY, 0, this.channel.size());
+				if (buffer.getInt() != BinaryWriter.MAGIC
+						|| buffer.getInt() != BinaryWriter.VERSION) {
+					throw new IOException("Not a repository binary file: " + file);
+				}
+				var types = columnTypes(cls);
+				this.rows = buffer.getInt();
+				var count = buffer.getInt();
+				for (var c = 0; c < count; c++) {
+					var name = BinaryWriter.readString(buffer);
+					var kind = ColumnKind.values()[buffer.get()];
+					var type = types.get(name);
+					if (type == null || ColumnKind.of(type) != kind) {
+						throw new IOException(
+								"Column " + name + " in " + file
+										+ " does not match " + cls.getSimpleName()
+						);
+					}
+					this.columns.put(name, this.column(buffer, kind, type, repo));
+				}
+			} catch (IOException | RuntimeException e) {
+				this.channel.close();
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.channel.close();
+		}
+
+		private IntFunction<Object> column(
+				ByteBuffer buffer, ColumnKind kind, Class<?> type, Repository repo
+		) {
+			var nulls = buffer.get() != 0 ? slice(buffer, this.rows) : null;
+			IntFunction<Object> values;
+			switch (kind) {
+			case INT:
+				var ints = slice(buffer, this.rows * Integer.BYTES).asIntBuffer();
+				values = ints::get;
+				break;
+			case LONG:
+				var longs = slice(buffer, this.rows * Long.BYTES).asLongBuffer();
+				values = longs::get;
+				break;
+			case DOUBLE:
+				var doubles = slice(buffer, this.rows * Double.BYTES)
+						.asDoubleBuffer();
+				values = doubles::get;
+				break;
+			case BOOLEAN:
+				var booleans = slice(buffer, this.rows);
+				values = i -> booleans.get(i) != 0;
+				break;
+			case REFERENCE:
+				var target = repo.rows.get(type);
+				var refs = slice(buffer, this.rows * Integer.BYTES).asIntBuffer();
+				values = i -> target.get(refs.get(i));
+				break;
+			default:
+				var dictionary = new Object[buffer.getInt()];
+				for (var i = 0; i < dictionary.length; i++) {
+					dictionary[i] = CSVReader
+							.convertValue(BinaryWriter.readString(buffer), type);
+				}
+				var codes = slice(buffer, this.rows * Integer.BYTES).asIntBuffer();
+				values = i -> dictionary[codes.get(i)];
+			}
+			if (nulls == null) { return values; }
+			return i -> nulls.get(i) != 0 ? null : values.apply(i);
+		}
+
+		/**
+		 * The value of a column in a row.
+		 *
+		 * @param row    the row number, as returned by {@link #next()}
+		 * @param column the name of the column
+		 * @return the value, with foreign keys already resolved
+		 */
+		public Object get(Integer row, String column) {
+			return this.columns.get(column).apply(row);
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.row < this.rows;
+		}
+
+		@Override
+		public Integer next() {
+			if (!this.hasNext()) { throw new NoSuchElementException(); }
+			return this.row++;
+		}
+	}
+
+	/**
+	 * Writes the values of one type in a repository as a columnar binary file
+	 * that can be read back by {@link BinaryReader}.
+	 *
+	 * <p>
+	 * The file holds a header (magic number, version, row and column counts)
+	 * followed by each column in turn: its name, its {@link ColumnKind}, an
+	 * optional null mask with one byte per row, and then the values. Numbers
+	 * and booleans are stored as fixed width arrays. Foreign keys are stored as
+	 * the row number of the referenced value. Anything else is dictionary
+	 * encoded as the list of distinct labels followed by an index into that
+	 * list for each row.
+	 */
+	public static class BinaryWriter {
+
+		static final int MAGIC = 0x4A505342;
+		static final int VERSION = 1;
+
+		static String readString(ByteBuffer buffer) {
+			var bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		private static String label(Object value) {
+			if (value instanceof Factor) { return ((Factor) value).getLabel(); }
+			if (value instanceof Enum) { return ((Enum<?>) value).name(); }
+			return value.toString();
+		}
+
+		/**
+		 * Write all the values of a type in a repository to a binary file.
+		 *
+		 * @param <X>  the type of the objects being written
+		 * @param repo the repository holding the values and any referenced types
+		 * @param cls  the class of the objects being written (must be annotated
+		 *             with @Import)
+		 * @param file the binary file to write
+		 * @throws IOException if there is an error writing the file
+		 */
+		public static <X> void write(Repository repo, Class<X> cls, Path file)
+				throws IOException {
+			var rows = repo.rows.getOrDefault(cls, List.of());
+			var types = columnTypes(cls);
+			try (var out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(file))
+			)) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(rows.size());
+				out.writeInt(types.size());
+				Class<?> immClz = ReflectionUtils.immutable(cls);
+				for (var entry : types.entrySet()) {
+					var getter = Stream.of(immClz.getMethods())
+							.filter(
+									m -> m.getParameterCount() == 0 && m
+											.isAnnotationPresent(JsonProperty.class)
+											&& m.getAnnotation(JsonProperty.class)
+													.value().equals(entry.getKey())
+							).findFirst().orElseThrow(
+									() -> new IOException(
+											"No get method for column: " + entry.getKey()
+									)
+							);
+					var values = new ArrayList<Object>(rows.size());
+					for (var row : rows) { values.add(getter.invoke(row)); }
+					var kind = ColumnKind.of(entry.getValue());
+					writeString(out, entry.getKey());
+					out.writeByte(kind.ordinal());
+					writeColumn(out, kind, values, repo.rows.get(entry.getValue()));
+				}
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IOException("Repository binary exception", e);
+			}
+		}
+
+		private static void writeColumn(
+				DataOutputStream out, ColumnKind kind, List<Object> values,
+				List<Object> referenced
+		) throws IOException {
+			var hasNulls = values.contains(null);
+			out.writeBoolean(hasNulls);
+			if (hasNulls) {
+				for (var v : values) { out.writeBoolean(v == null); }
+			}
+			switch (kind) {
+			case INT:
+				for (var v : values) { out.writeInt(v == null ? 0 : (Integer) v); }
+				break;
+			case LONG:
+				for (var v : values) { out.writeLong(v == null ? 0 : (Long) v); }
+				break;
+			case DOUBLE:
+				for (var v : values) {
+					out.writeDouble(v == null ? 0 : (Double) v);
+				}
+				break;
+			case BOOLEAN:
+				for (var v : values) { out.writeBoolean(Boolean.TRUE.equals(v)); }
+				break;
+			case REFERENCE:
+				var position = new IdentityHashMap<Object, Integer>();
+				for (var i = 0; i < referenced.size(); i++) {
+					position.put(referenced.get(i), i);
+				}
+				for (var v : values) { out.writeInt(v == null ? 0 : position.get(v)); }
+				break;
+			default:
+				var dictionary = new LinkedHashMap<String, Integer>();
+				var codes = new int[values.size()];
+				for (var i = 0; i < codes.length; i++) {
+					var v = values.get(i);
+					codes[i] = v == null ? 0
+							: dictionary.computeIfAbsent(
+									label(v), l -> dictionary.size()
+							);
+				}
+				out.writeInt(dictionary.size());
+				for (var label : dictionary.keySet()) { writeString(out, label); }
+				for (var code : codes) { out.writeInt(code); }
+			}
+		}
+
+		private static void writeString(DataOutputStream out, String value)
+				throws IOException {
+			var bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
 	/**
 	 * A CSV reader that reads a CSV file into a map of column name to value,
 	 * converting to the expected type based on the builder setters of the class.
@@ -179,7 +472,7 @@ public class Repository {
 
 		// Basic type conversion (extendable)
 		@SuppressWarnings({ "unchecked" })
-		private <T extends Enum<T>> Object convertValue(
+		private static <T extends Enum<T>> Object convertValue(
 				String value, Class<?> type
 		) {
 			if (value == null || value.isEmpty() || value.equals("NA")) {
@@ -276,17 +569,53 @@ public class Repository {
 	}
 
 	/**
-	 * A key generated from the serialization of a lambda function.
+	 * How a column is stored in a binary file written by {@link BinaryWriter}.
+	 */
+	public static enum ColumnKind {
+		/** 32 bit integers. */
+		INT,
+		/** 64 bit integers. */
+		LONG,
+		/** 64 bit floating point numbers. */
+		DOUBLE,
+		/** One byte per row. */
+		BOOLEAN,
+		/** Foreign keys, as row numbers into the referenced type. */
+		REFERENCE,
+		/** Strings, enums and anything else, as indexes into a dictionary. */
+		DICTIONARY;
+
+		/**
+		 * The storage for values of a builder setter parameter type.
+		 *
+		 * @param type the parameter type
+		 * @return how values of that type are stored
+		 */
+		public static ColumnKind of(Class<?> type) {
+			if (type.isAnnotationPresent(Import.class)) { return REFERENCE; }
+			if (type == int.class || type == Integer.class) { return INT; }
+			if (type == long.class || type == Long.class) { return LONG; }
+			if (type == double.class || type == Double.class) { return DOUBLE; }
+			if (type == boolean.class || type == Boolean.class) { return BOOLEAN; }
+			return DICTIONARY;
+		}
+	}
+
+	/**
+	 * A key that identifies a lambda function by the method it calls.
 	 *
 	 * <p>
-	 * This class serialises a {@link SerializableFunction} and uses the
-	 * resulting byte sequence as the basis for equality and hashCode. It is used
-	 * internally to memoise indexes built from lambda expressions.
+	 * This class reads the {@link SerializedLambda} form of a
+	 * {@link SerializableFunction}, without serialising it, and uses the method
+	 * handle it refers to (class, name, signature and kind) together with any
+	 * captured arguments as the basis for equality and hashCode. It is used
+	 * internally to memoise indexes built from lambda expressions. If the
+	 * function is not a lambda the serialised bytes are used instead.
 	 *
 	 * <p>
 	 * Note that the lambda must be expressed in the form `X::getY` for it to
 	 * work properly as a key. If it is not then additional indexes will get
-	 * created, as the serialization of the lambda will differ.
+	 * created, as each lambda expression compiles to a different method.
 	 *
 	 * @param <X> the input type of the function (usually the entity type)
 	 * @param <Y> the return type of the function (the indexed key type)
@@ -297,11 +626,11 @@ public class Repository {
 		 *
 		 * @param <X>    the input type of the function (usually the entity type)
 		 * @param <Y>    the return type of the function (the indexed key type)
-		 * @param lambda the lambda function to serialize and use as a key as an
-		 *               method reference (e.g. `X::getY`). If the lambda is not a
+		 * @param lambda the lambda function to use as a key as an method
+		 *               reference (e.g. `X::getY`). If the lambda is not a
 		 *               method reference, then additional indexes may be created
-		 *               due to differences in serialization.
-		 * @return a new FunctionKey instance representing the serialized lambda
+		 *               as each lambda expression is a different method.
+		 * @return a new FunctionKey instance identifying the lambda
 		 */
 		public static <X, Y> FunctionKey<X, Y> create(
 				SerializableFunction<X, Y> lambda
@@ -309,18 +638,40 @@ public class Repository {
 			return new FunctionKey<>(lambda);
 		}
 
-		byte[] ser;
+		private static Object identify(Serializable lambda) {
+			try {
+				var writeReplace = lambda.getClass()
+						.getDeclaredMethod("writeReplace");
+				writeReplace.setAccessible(true);
+				var handle = (SerializedLambda) writeReplace.invoke(lambda);
+				var out = new ArrayList<Object>();
+				out.add(handle.getImplClass());
+				out.add(handle.getImplMethodName());
+				out.add(handle.getImplMethodSignature());
+				out.add(handle.getImplMethodKind());
+				for (var i = 0; i < handle.getCapturedArgCount(); i++) {
+					out.add(handle.getCapturedArg(i));
+				}
+				return out;
+			} catch (ReflectiveOperationException | ClassCastException
+					| SecurityException e) {
+				// Not a lambda
+				return ByteBuffer.wrap(SerializationUtils.serialize(lambda));
+			}
+		}
+
+		final Object identity;
 
-		int hash;
+		final int hash;
 
 		/**
-		 * Create a new FunctionKey by serializing the given lambda function.
+		 * Create a new FunctionKey identifying the given lambda function.
 		 *
-		 * @param lambda the lambda function to serialize and use as a key
+		 * @param lambda the lambda function to use as a key
 		 */
 		public FunctionKey(SerializableFunction<X, Y> lambda) {
-			this.ser = SerializationUtils.serialize(lambda);
-			this.hash = Arrays.hashCode(this.ser);
+			this.identity = identify(lambda);
+			this.hash = this.identity.hashCode();
 		}
 
 		@Override
@@ -328,7 +679,7 @@ public class Repository {
 			if ((this.hashCode() != o.hashCode()) || !(o instanceof FunctionKey)) {
 				return false;
 			}
-			return Arrays.equals(this.ser, ((FunctionKey<?, ?>) o).ser);
+			return this.identity.equals(((FunctionKey<?, ?>) o).identity);
 		}
 
 		@Override
@@ -400,7 +751,7 @@ public class Repository {
 	public static class RepositoryIndex {
 
 		Repository repo;
-		Map<Class<?>, ValueIndex<?>> indices = new HashMap<>();
+		Map<Class<?>, ValueIndex<?>> indices = new ConcurrentHashMap<>();
 
 		/**
 		 * Create a new RepositoryIndex for a given repository.
@@ -505,7 +856,7 @@ public class Repository {
 	public static class ValueIndex<Y> {
 
 		Repository repo;
-		Map<FunctionKey<?, Y>, Inversion<Y, ?>> cache = new HashMap<>();
+		Map<FunctionKey<?, Y>, InvertedIndex<Y, ?>> cache = new ConcurrentHashMap<>();
 		Class<Y> indexCls;
 
 		/**
@@ -540,7 +891,7 @@ public class Repository {
 			this.cache
 					// Lazily populate index on construction
 					.computeIfAbsent(
-							fk, v -> Inversion.cache(fn, this.repo.streamValues(xCls))
+							fk, v -> InvertedIndex.build(fn, this.repo.rows(xCls), xCls)
 					);
 		}
 
@@ -578,28 +929,63 @@ public class Repository {
 			return this.cache
 					// Lazily populate index when first queried
 					.computeIfAbsent(
-							fk, v -> Inversion.cache(fn, this.repo.streamValues(type))
+							fk, v -> InvertedIndex.build(fn, this.repo.rows(type), type)
 					).apply(indexed, type);
 		}
 	}
 
-	private static Function<SerializableFunction<?, ?>, FunctionKey<?, ?>> getKey = Memoised
-			.memoise(FunctionKey::create);
+	private static Map<SerializableFunction<?, ?>, FunctionKey<?, ?>> keys = new ConcurrentHashMap<>();
+
+	private static Function<SerializableFunction<?, ?>, FunctionKey<?, ?>> getKey = fn -> keys
+			.computeIfAbsent(fn, FunctionKey::create);
+
+	private static Map<String, Class<?>> columnTypes(Class<?> cls)
+			throws IOException {
+		try {
+			Class<?> immClz = ReflectionUtils.immutable(cls);
+			Class<?> builderClz = immClz.getMethod("builder").getReturnType();
+			var out = new LinkedHashMap<String, Class<?>>();
+			for (Method m : builderClz.getMethods()) {
+				if (m.isAnnotationPresent(JsonProperty.class)
+						&& m.getParameterCount() == 1
+						&& !m.getParameterTypes()[0].equals(ValueIndex.class)) {
+					out.put(
+							m.getAnnotation(JsonProperty.class).value(),
+							m.getParameterTypes()[0]
+					);
+				}
+			}
+			return out;
+		} catch (NoSuchMethodException | SecurityException e) {
+			throw new IOException(
+					"Cannot find builder for " + cls.getSimpleName(), e
+			);
+		}
+	}
 
 	/**
-	 * Construct a repository class from a set of @Import annotated classes.
+	 * Write a columnar binary file alongside the CSV file of each of a set of
+	 * @Import annotated classes. Subsequent calls to
+	 * {@link #loadAll(Path, Class...)} with the same classes will read the
+	 * binary files rather than the CSV files, until any of the CSV files is
+	 * changed.
 	 *
 	 * @param baseDir the directory of the CSV files
-	 * @param clzs    a set of @Import annotated classes with
-	 * @return a repository containing the data from the CSV files for the given
-	 *         classes, with references resolved
-	 * @throws IOException if there is an error reading the CSV files or
-	 *                     processing the classes
+	 * @param clzs    a set of @Import annotated classes
+	 * @throws IOException if there is an error reading the CSV files or writing
+	 *                     the binary files
 	 */
-	public static Repository loadAll(Path baseDir, Class<?>... clzs)
+	public static void compileAll(Path baseDir, Class<?>... clzs)
 			throws IOException {
 		var repo = new Repository(baseDir);
+		var ordered = dependencyOrder(clzs);
+		for (Class<?> cls : ordered) { repo.readCSV(cls); }
+		for (Class<?> cls : ordered) {
+			BinaryWriter.write(repo, cls, repo.binaryFile(cls));
+		}
+	}
 
+	private static List<Class<?>> dependencyOrder(Class<?>... clzs) {
 		List<Class<?>> validClasses = Arrays.stream(clzs)
 				.filter(cls -> cls.isAnnotationPresent(Import.class))
 				.collect(Collectors.toList());
@@ -666,20 +1052,48 @@ public class Repository {
 			);
 		}
 
+		return ordered;
+	}
+
+	/**
+	 * Construct a repository class from a set of @Import annotated classes.
+	 * The data is read from binary files written by
+	 * {@link #compileAll(Path, Class...)} if they are present and up to date
+	 * for all the classes, and from the CSV files otherwise.
+	 *
+	 * @param baseDir the directory of the CSV files
+	 * @param clzs    a set of @Import annotated classes with
+	 * @return a repository containing the data from the CSV files for the given
+	 *         classes, with references resolved
+	 * @throws IOException if there is an error reading the CSV files or
+	 *                     processing the classes
+	 */
+	public static Repository loadAll(Path baseDir, Class<?>... clzs)
+			throws IOException {
+		var repo = new Repository(baseDir);
+		var ordered = dependencyOrder(clzs);
+		var compiled = ordered.stream().allMatch(repo::isCompiled);
+
 		// Now load in order
 		for (Class<?> cls : ordered) {
-			repo.readCSV(cls);
+			if (compiled) {
+				repo.readBinary(cls);
+			} else {
+				repo.readCSV(cls);
+			}
 		}
 
 		return repo;
 	}
 
-	Map<Class<?>, Map<String, Object>> dataStore = new HashMap<>();
+	Map<Class<?>, Map<String, Object>> dataStore = new ConcurrentHashMap<>();
 
 	Path baseDirectory;
 
 	RepositoryIndex index = new RepositoryIndex(this);
 
+	Map<Class<?>, List<Object>> rows = new ConcurrentHashMap<>();
+
 	/**
 	 * Create a new repository with a base directory for CSV files. The
 	 * repository is populated by calling {@link #loadAll(Path, Class...)} with a
@@ -766,7 +1180,41 @@ public class Repository {
 		return this.dataStore.containsKey(cls);
 	}
 
-	private <X> Repository readCSV(Class<X> cls) throws IOException {
+	private Path binaryFile(Class<?> cls) {
+		var filename = cls.getAnnotation(Import.class).value();
+		return this.baseDirectory
+				.resolve(filename.replaceFirst("\\.csv$", "") + ".bin");
+	}
+
+	private boolean isCompiled(Class<?> cls) {
+		var binary = this.binaryFile(cls);
+		var csv = this.baseDirectory
+				.resolve(cls.getAnnotation(Import.class).value());
+		try {
+			return Files.exists(binary) && (!Files.exists(csv) || Files
+					.getLastModifiedTime(binary)
+					.compareTo(Files.getLastModifiedTime(csv)) >= 0);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Build an immutable for each record and add it to the repository.
+	 *
+	 * @param <X>     the type of the objects
+	 * @param <R>     the type of a record
+	 * @param cls     the type of the objects
+	 * @param records the records to read
+	 * @param column  gets the value of a named column from a record. Foreign
+	 *                keys may be given either as the key or as the already
+	 *                resolved value.
+	 * @return the repository
+	 * @throws IOException if an immutable cannot be built from a record
+	 */
+	private <X, R> Repository read(
+			Class<X> cls, Iterator<R> records, BiFunction<R, String, Object> column
+	) throws IOException {
 
 		try {
 			var getId = Stream.of(cls.getMethods())
@@ -777,52 +1225,48 @@ public class Repository {
 											+ " did not have and @Import.Id annotation."
 							)
 					);
-			var filename = cls.getAnnotation(Import.class).value();
-			// Read a CSV into an immutable using a builder and resolving
-			// references
+			// Build immutables using a builder and resolving references
 			Class<?> immClz = ReflectionUtils.immutable(cls);
 			Class<?> builderClz = immClz.getMethod("builder").getReturnType();
 			var builder = immClz.getMethod("builder").invoke(null);
+			var builderBuild = builderClz.getMethod("build");
+
+			// Find the setters once rather than for every record
+			var indexSetters = new ArrayList<Method>();
+			var setters = new LinkedHashMap<Method, String>();
+			for (Method m : builderClz.getMethods()) {
+				if (m.getParameterCount() == 1 &&
+				// m.getName().equals("setIndex") &
+						m.getParameterTypes()[0].equals(ValueIndex.class)) {
+					indexSetters.add(m);
+				} else if (m.isAnnotationPresent(JsonProperty.class)) {
+					setters.put(m, m.getAnnotation(JsonProperty.class).value());
+				}
+			}
 
-			try (var r = new CSVReader<X>(
-					filename, cls, this.baseDirectory
-			)) {
-
-				while (r.hasNext()) {
-					// QWEN: I need the following to be read from a CSV file
-					var record = r.next();
-
-					for (Method m : builderClz.getMethods()) {
-						if (m.getParameterCount() == 1 &&
-						// m.getName().equals("setIndex") &
-								m.getParameterTypes()[0].equals(ValueIndex.class)) {
-							m.invoke(builder, this.setupIndex(cls));
-						} else if (m.isAnnotationPresent(JsonProperty.class)) {
-
-							var csvCol = m.getAnnotation(JsonProperty.class)
-									.value();
-							var byRef = m.getParameterTypes()[0]
-									.isAnnotationPresent(Import.class);
-							Object value;
-							if (byRef) {
-								var key = record.get(csvCol).toString();
-								value = this.getValue(m.getParameterTypes()[0], key);
-							} else {
-								value = record.get(csvCol);
-							}
-
-							// Set the builder
-							m.invoke(builder, value);
+			while (records.hasNext()) {
+				var record = records.next();
 
-						}
+				for (Method m : indexSetters) {
+					m.invoke(builder, this.setupIndex(cls));
+				}
+				for (var setter : setters.entrySet()) {
+					var m = setter.getKey();
+					var type = m.getParameterTypes()[0];
+					var value = column.apply(record, setter.getValue());
+					if (type.isAnnotationPresent(Import.class)
+							&& !type.isInstance(value)) {
+						value = this.getValue(type, value.toString());
 					}
 
-					var builderBuild = builder.getClass().getMethod("build");
-					var out = cls.cast(builderBuild.invoke(builder));
-					var key = getId.invoke(out).toString();
-
-					this.setValue(cls, key, out);
+					// Set the builder
+					m.invoke(builder, value);
 				}
+
+				var out = cls.cast(builderBuild.invoke(builder));
+				var key = getId.invoke(out).toString();
+
+				this.setValue(cls, key, out);
 			}
 
 			return this;
@@ -834,6 +1278,24 @@ public class Repository {
 
 	}
 
+	private <X> Repository readBinary(Class<X> cls) throws IOException {
+		try (var r = new BinaryReader<X>(this.binaryFile(cls), cls, this)) {
+			return this.read(cls, r, r::get);
+		}
+	}
+
+	private <X> Repository readCSV(Class<X> cls) throws IOException {
+		var filename = cls.getAnnotation(Import.class).value();
+		try (var r = new CSVReader<X>(filename, cls, this.baseDirectory)) {
+			return this.read(cls, r, Map::get);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <X> List<X> rows(Class<X> cls) {
+		return (List<X>) this.rows.getOrDefault(cls, List.of());
+	}
+
 	private <X> ValueIndex<X> setupIndex(Class<X> cls) {
 		return this.index.getOrCreate(cls);
 	}
@@ -846,6 +1308,7 @@ public class Repository {
 					"Duplicate unique key: " + key + " for class: " + cls.getName()
 			);
 		}
+		this.rows.computeIfAbsent(cls, c -> new ArrayList<>()).add(out);
 	}
 
 	/**
@@ -879,7 +1342,7 @@ public class Repository {
 				+ this.index.indices.entrySet().stream().flatMap(kv -> {
 					return kv.getValue().cache.entrySet().stream().map(kv2 -> {
 						return "- " + kv.getKey().getSimpleName() + "->"
-								+ kv2.getValue().output.getSimpleName()
+								+ kv2.getValue().outputType().getSimpleName()
 										.replace("Immutable", "");
 					});
 				}).collect(Collectors.joining("\n")));
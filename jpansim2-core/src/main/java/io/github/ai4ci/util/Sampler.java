@@ -1,18 +1,18 @@
 package io.github.ai4ci.util;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.statistics.distribution.BetaDistribution;
-import org.apache.commons.statistics.distribution.BinomialDistribution;
 import org.apache.commons.statistics.distribution.GammaDistribution;
 import org.apache.commons.statistics.distribution.LogNormalDistribution;
 import org.apache.commons.statistics.distribution.PascalDistribution;
-import org.apache.commons.statistics.distribution.PoissonDistribution;
 
 import io.github.ai4ci.functions.SimpleDistribution;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 
 /**
  * A thread local random number generator provider with convenience sampling
@@ -65,6 +65,44 @@ public class Sampler implements UniformRandomProvider {
 		return INSTANCE.get().withSeed(urn);
 	}
 
+	/**
+	 * This provides access to a thread local RNG restarted from the beginning
+	 * of the stream for a given seed. Unlike {@link #getSampler(String)} the
+	 * stream is restarted even if the thread is already using that seed, so
+	 * that a simulation started twice from the same point makes the same draws.
+	 *
+	 * @param urn an identifier string used to set the seed
+	 *
+	 * @return the thread local sampler at the start of the stream for this
+	 *         thread
+	 */
+	public static Sampler restartSampler(String urn) {
+		var tmp = INSTANCE.get();
+		tmp.seed = seedFor(urn);
+		tmp.random.setSeed(tmp.seed);
+		return tmp;
+	}
+
+	private static long seedFor(String urn) {
+		return (urn + ":thread:" + Thread.currentThread().getId()).hashCode();
+	}
+
+	/**
+	 * Create a new sampler that is not shared through the thread local. This is
+	 * intended for parallel batch work where each unit of work needs its own
+	 * random stream, which is reproducible for a given seed irrespective of
+	 * which thread executes it.
+	 *
+	 * @param seed the seed for the new stream
+	 * @return a new independent sampler instance
+	 */
+	public static Sampler independent(long seed) {
+		var tmp = new Sampler();
+		tmp.seed = seed;
+		tmp.random.setSeed(seed);
+		return tmp;
+	}
+
 	private static double invLogit(double x) {
 		return 1 / (1 + Math.exp(-x));
 	}
@@ -166,7 +204,7 @@ public class Sampler implements UniformRandomProvider {
 			);
 		}
 		var p = mean / n;
-		return BinomialDistribution.of(n, p).createSampler(this).sample();
+		return this.binom(n, p);
 	}
 
 	/**
@@ -180,8 +218,12 @@ public class Sampler implements UniformRandomProvider {
 		if (count < 0) {
 			throw new OutOfRangeException("Binomial count is <= 0");
 		}
-		return BinomialDistribution.of(count, probability).createSampler(this)
-				.sample();
+		if (!(probability >= 0 && probability <= 1)) {
+			throw new OutOfRangeException(
+					"Binomial probability is not in [0,1]: " + probability
+			);
+		}
+		return DiscreteSamplers.binomial(this, count, probability);
 	}
 
 	/**
@@ -312,8 +354,10 @@ public class Sampler implements UniformRandomProvider {
 	 * @return a Poisson sample
 	 */
 	public synchronized int poisson(double mean) {
-		if (mean == 0) { return 0; }
-		return PoissonDistribution.of(mean).createSampler(this).sample();
+		if (!(mean >= 0)) {
+			throw new OutOfRangeException("Poisson mean is negative: " + mean);
+		}
+		return DiscreteSamplers.poisson(this, mean);
 	}
 
 	/**
@@ -348,6 +392,31 @@ public class Sampler implements UniformRandomProvider {
 		return (int) Math.floor(dist.sample(this));
 	}
 
+	/**
+	 * Choose a number of distinct indices uniformly at random, using Floyd's
+	 * algorithm. This takes time proportional to the number chosen rather than
+	 * the number to choose from, so it is the cheap way of selecting a few
+	 * members of a large population. Combined with a binomial draw of the count
+	 * it is equivalent to an independent Bernoulli trial for every member.
+	 *
+	 * @param n the number of indices to choose from, {@code 0..n-1}
+	 * @param k how many to choose, between 0 and n
+	 * @return k distinct indices in ascending order
+	 */
+	public synchronized int[] sampleWithoutReplacement(int n, int k) {
+		if (k < 0 || k > n) {
+			throw new OutOfRangeException("Cannot choose " + k + " from " + n);
+		}
+		var chosen = new IntOpenHashSet(k);
+		for (var j = n - k; j < n; j++) {
+			var t = this.random.nextInt(j + 1);
+			if (!chosen.add(t)) { chosen.add(j); }
+		}
+		var out = chosen.toIntArray();
+		Arrays.sort(out);
+		return out;
+	}
+
 	/**
 	 * Draw a uniform sample on [0,1).
 	 *
@@ -376,7 +445,7 @@ public class Sampler implements UniformRandomProvider {
 	 * @return this sampler instance
 	 */
 	public Sampler withSeed(String urn) {
-		long tmp = (urn + ":thread:" + Thread.currentThread().getId()).hashCode();
+		var tmp = seedFor(urn);
 		if (this.seed != tmp) {
 			this.seed = tmp;
 			this.random.setSeed(tmp);
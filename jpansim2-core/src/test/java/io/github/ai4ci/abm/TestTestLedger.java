@@ -0,0 +1,61 @@
+package io.github.ai4ci.abm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.TestResult.Type;
+import io.github.ai4ci.abm.behaviour.ReactiveTestAndIsolate;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.flow.mechanics.Updater;
+
+public class TestTestLedger {
+
+	@Test
+	void testLedgerMatchesHistory() {
+		Outbreak o = TestUtils.defaultWithExecution(
+				// a steady stream of infections so that people seek tests
+				exec -> exec.setInHostConfiguration(MarkovStateModel.DEFAULT)
+						.setImportationProbability(0.2)).getOutbreak();
+		o.getPeople().stream().forEach(p ->
+				p.getStateMachine().forceTo(ReactiveTestAndIsolate.REACTIVE_PCR));
+		Updater u = new Updater();
+		long tests = 0;
+		for (int i = 0; i < 60; i++) {
+			u.update(o);
+			for (Person p : o.getPeople().stream().collect(Collectors.toList())) {
+				var ps = p.getCurrentState();
+				var walked = ModelNav.history(ps, ps.infPeriod())
+						.flatMap(ph -> ph.getTodaysTests().stream())
+						.collect(Collectors.toList());
+				assertEquals(walked, ps.getStillRelevantTests().collect(Collectors.toList()));
+				assertEquals(walked.stream().findFirst(), ps.getLastTest());
+				assertEquals(
+						walked.stream().filter(t -> t.isResultAvailable(ps.getTime())).findFirst(),
+						ps.getLastResult());
+				assertEquals(
+						ModelNav.history(ps, 3).flatMap(ph -> ph.getTodaysTests().stream())
+								.anyMatch(t -> t.getTestParams().getTestName()
+										.equals(Type.PCR.params().getTestName())),
+						ps.isRecentlyTested(Type.PCR, 3));
+				var ph = p.getCurrentHistory().get();
+				assertEquals(
+						ph.getHistoricalTests(ph.infPeriod())
+								.filter(t -> t.isResultToday(ph.getTime()))
+								.collect(Collectors.toList()),
+						ph.getTodaysResults());
+				assertEquals(
+						p.getHistory().stream()
+								.flatMap(h -> h.getTodaysTests().stream())
+								.anyMatch(t -> t.getResultTime() > ps.getTime()),
+						p.getTestLedger().isPendingAfter(ps.getTime()));
+				tests += walked.size();
+			}
+		}
+		assertTrue(tests > 0);
+	}
+
+}
@@ -3,10 +3,12 @@ package io.github.ai4ci.abm;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import io.github.ai4ci.config.inhost.InHostConfiguration;
 import io.github.ai4ci.util.Conversions;
 
 public class TestTestUtils {
@@ -38,10 +40,16 @@ public class TestTestUtils {
 			.mapToDouble(i ->  tu.getOutbreak().getBaseline().getTransmissibilityBaseline((double) i))
 			.forEach(d -> assertTrue(d<=1 && d>=0));
 		
+		// The infectious period ends with a fixed daily probability, from the
+		// day after exposure, so the mean of the daily infectivity profile is
+		// one over that probability. The profile is estimated from a sample of
+		// viral load profiles, so the check allows for 4 standard errors of
+		// that estimate.
 		double infDur = TestUtils.MINIMAL_IN_HOST.getInfectiousDuration().sample();
 		assertTrue(
-			Math.abs(1.0/Conversions.rateFromQuantile(infDur, 0.95) - 
-			tu.getOutbreak().getBaseline().getInfectivityProfile().mean()) < 0.2
+			Math.abs(1.0/Conversions.probabilityFromQuantile(infDur, 0.95) - 
+			tu.getOutbreak().getBaseline().getInfectivityProfile().mean()) < 
+			4 * infectivityProfileMeanStandardError(tu.getOutbreak())
 		);
 		
 		tu.stream(20)
@@ -50,4 +58,25 @@ public class TestTestUtils {
 			.forEach(System.out::println);
 	}
 	
+	/**
+	 * The standard deviation of the infectivity profile mean between
+	 * independent batches of viral load profiles, each the size of the batch
+	 * used to calibrate the outbreak.
+	 */
+	static double infectivityProfileMeanStandardError(Outbreak outbreak) {
+		var config = outbreak.getExecutionConfiguration();
+		double parameter = outbreak.getBaseline().getViralLoadTransmissibilityParameter();
+		int samples = config.getViralLoadProfile().length;
+		int duration = config.getViralLoadProfile()[0].length;
+		double[] means = IntStream.range(0, 50)
+			.mapToDouble(i -> InHostConfiguration.getInfectivityProfile(
+				InHostConfiguration.getViralLoadProfile(config, samples, duration),
+				parameter
+			).mean())
+			.toArray();
+		double mean = Arrays.stream(means).average().getAsDouble();
+		double ss = Arrays.stream(means).map(m -> (m - mean) * (m - mean)).sum();
+		return Math.sqrt(ss / (means.length - 1));
+	}
+	
 }
@@ -0,0 +1,83 @@
+package io.github.ai4ci.abm.inhost;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.inhost.InHostMarkovState.DiseaseState;
+import io.github.ai4ci.abm.inhost.InHostMarkovState.InHostMarkovStateMachine;
+import io.github.ai4ci.abm.inhost.InHostMarkovState.SymptomState;
+import io.github.ai4ci.util.Sampler;
+
+public class TestMarkovTransitionTable {
+
+	static InHostMarkovStateMachine machine() {
+		return ImmutableInHostMarkovStateMachine.builder()
+				.setPAsymptomaticSymptomatic(0.2)
+				.setPExposedInfectious(0.3)
+				.setPHospitalisedAsymptomatic(0.1)
+				.setPHospitalisedDead(0.05)
+				.setPImmuneSusceptible(0.01)
+				.setPInfectiousImmune(0.15)
+				.setPSymptomaticAsymptomatic(0.4)
+				// sums to more than one so the multinomial truncates
+				.setPSymptomaticHospitalised(0.5)
+				.setPSymptomaticDead(0.3)
+				.build();
+	}
+
+	@Test
+	void testMatchesSwitchedUpdate() {
+		var m = machine();
+		var table = m.getTransitionTable();
+		var rng = Sampler.independent(1L);
+		int reps = 20000;
+		for (DiseaseState d : DiseaseState.values()) {
+			for (SymptomState s : SymptomState.values()) {
+				var from = MarkovTransitionTable.code(d, s);
+				int[] counts = new int[MarkovTransitionTable.STATES];
+				for (int r = 0; r < reps; r++) {
+					counts[MarkovTransitionTable.code(
+							m.updateDiseaseState(d, rng),
+							m.updateSymptomState(s, d, rng))]++;
+				}
+				double total = 0;
+				for (int to = 0; to < counts.length; to++) {
+					var p = table.probability(from, to);
+					total += p;
+					assertEquals(p, (double) counts[to] / reps,
+							5 * Math.sqrt(p * (1 - p) / reps) + 1E-9,
+							d + "/" + s + " to " + MarkovTransitionTable.disease(to)
+									+ "/" + MarkovTransitionTable.symptom(to));
+				}
+				assertEquals(1, total, 1E-12);
+			}
+		}
+	}
+
+	@Test
+	void testPopulationStep() {
+		var table = machine().getTransitionTable();
+		var rng = Sampler.independent(2L);
+		int n = 10000;
+		var tables = new MarkovTransitionTable[n];
+		var codes = new byte[n];
+		var uniforms = new double[n];
+		var from = MarkovTransitionTable.code(DiseaseState.INFECTIOUS, SymptomState.SYMPTOMATIC);
+		for (int i = 0; i < n; i++) {
+			tables[i] = table;
+			codes[i] = (byte) from;
+			uniforms[i] = rng.uniform();
+		}
+		MarkovTransitionTable.step(tables, codes, uniforms);
+		for (int i = 0; i < n; i++) {
+			assertEquals(table.next(from, uniforms[i]), codes[i]);
+		}
+		var dead = MarkovTransitionTable.code(DiseaseState.INFECTIOUS, SymptomState.DEAD);
+		var count = 0;
+		for (byte c : codes) { if (c == dead) count++; }
+		var p = table.probability(from, dead);
+		assertEquals(p, (double) count / n, 5 * Math.sqrt(p * (1 - p) / n));
+	}
+
+}
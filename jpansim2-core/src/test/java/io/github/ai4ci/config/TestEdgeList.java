@@ -0,0 +1,98 @@
+package io.github.ai4ci.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.jgrapht.Graph;
+import org.jgrapht.generate.BarabasiAlbertGraphGenerator;
+import org.jgrapht.generate.GnpRandomGraphGenerator;
+import org.jgrapht.generate.GraphGenerator;
+import org.jgrapht.generate.WattsStrogatzGraphGenerator;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.util.SupplierUtil;
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.config.setup.EdgeList;
+import io.github.ai4ci.util.Sampler;
+
+public class TestEdgeList {
+
+	static final int N = 5000;
+
+	static DescriptiveStatistics jgrapht(GraphGenerator<Integer, DefaultEdge, Integer> gen) {
+		Graph<Integer, DefaultEdge> g = new SimpleGraph<>(
+				SupplierUtil.createIntegerSupplier(),
+				SupplierUtil.DEFAULT_EDGE_SUPPLIER, false);
+		gen.generateGraph(g);
+		var out = new DescriptiveStatistics();
+		g.vertexSet().forEach(v -> out.addValue(g.degreeOf(v)));
+		return out;
+	}
+
+	static DescriptiveStatistics primitive(EdgeList edges) {
+		var out = new DescriptiveStatistics();
+		Arrays.stream(edges.degrees(N)).forEach(out::addValue);
+		return out;
+	}
+
+	static void assertSimple(EdgeList edges) {
+		var seen = new HashSet<Long>();
+		for (int e = 0; e < edges.size(); e++) {
+			int s = Math.min(edges.getSource(e), edges.getTarget(e));
+			int t = Math.max(edges.getSource(e), edges.getTarget(e));
+			assertTrue(s != t, "self loop");
+			assertTrue(s >= 0 && t < N);
+			assertTrue(seen.add(((long) s << 32) | t), "duplicate edge");
+		}
+	}
+
+	static void compare(DescriptiveStatistics expected, DescriptiveStatistics actual) {
+		System.out.println("jgrapht: mean " + expected.getMean() + " sd " + expected.getStandardDeviation() + " max " + expected.getMax());
+		System.out.println("edgelist: mean " + actual.getMean() + " sd " + actual.getStandardDeviation() + " max " + actual.getMax());
+		assertEquals(expected.getMean(), actual.getMean(), 0.02 * expected.getMean());
+		assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 0.1 * expected.getStandardDeviation());
+		assertEquals(expected.getPercentile(90), actual.getPercentile(90), 0.1 * expected.getPercentile(90));
+	}
+
+	@Test
+	void testErdosReyni() {
+		double p = 21.0 / N;
+		var edges = EdgeList.erdosReyni(N, p, Sampler.independent(1L));
+		assertSimple(edges);
+		compare(jgrapht(new GnpRandomGraphGenerator<>(N, p, new Random(1L), false)), primitive(edges));
+	}
+
+	@Test
+	void testWattsStrogatz() {
+		var edges = EdgeList.wattsStrogatz(N, 20, 0.15, Sampler.independent(1L));
+		assertSimple(edges);
+		assertEquals(N * 10, edges.size());
+		compare(jgrapht(new WattsStrogatzGraphGenerator<>(N, 20, 0.15, false, new Random(1L))), primitive(edges));
+	}
+
+	@Test
+	void testBarabasiAlbert() {
+		var edges = EdgeList.barabasiAlbert(10, 10, N, Sampler.independent(1L));
+		assertSimple(edges);
+		assertEquals(45 + 10 * (N - 10), edges.size());
+		compare(jgrapht(new BarabasiAlbertGraphGenerator<>(10, 10, N, new Random(1L))), primitive(edges));
+	}
+
+	@Test
+	void testReproducible() {
+		var e1 = EdgeList.barabasiAlbert(5, 5, N, Sampler.independent(7L));
+		var e2 = EdgeList.barabasiAlbert(5, 5, N, Sampler.independent(7L));
+		assertArrayEquals(e1.degrees(N), e2.degrees(N));
+		var e3 = EdgeList.erdosReyni(N, 0.002, Sampler.independent(7L));
+		var e4 = EdgeList.erdosReyni(N, 0.002, Sampler.independent(7L));
+		assertArrayEquals(e3.degrees(N), e4.degrees(N));
+	}
+
+}
@@ -0,0 +1,161 @@
+package io.github.ai4ci.config;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.inhost.InHostModelState;
+import io.github.ai4ci.config.execution.ExecutionConfiguration;
+import io.github.ai4ci.config.inhost.InHostConfiguration;
+import io.github.ai4ci.config.inhost.InHostProfiles;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.config.inhost.PhenomenologicalModel;
+import io.github.ai4ci.config.inhost.StochasticModel;
+import io.github.ai4ci.util.Sampler;
+
+public class TestInHostProfiles {
+
+	static double[][] serialViralLoad(
+			ExecutionConfiguration execConfig, int samples, int duration
+	) {
+		InHostConfiguration config = execConfig.getInHostConfiguration();
+		Sampler rng = Sampler.getSampler();
+		double[][] load = new double[samples][duration];
+		for (int n = 0; n < samples; n++) {
+			InHostModelState<?> state = InHostModelState
+					.test(config, execConfig, rng);
+			state = state.update(rng, 1D, 0);
+			for (int i = 0; i < duration; i++) {
+				load[n][i] = state.getNormalisedViralLoad();
+				state = state.update(rng, 0, 0);
+			}
+		}
+		return load;
+	}
+
+	static double[] variance(double[][] profiles) {
+		double[] mean = mean(profiles);
+		double[] var = new double[mean.length];
+		for (double[] p : profiles) {
+			for (int i = 0; i < mean.length; i++) {
+				var[i] += Math.pow(p[i] - mean[i], 2) / (profiles.length - 1);
+			}
+		}
+		return var;
+	}
+
+	static double[] mean(double[][] profiles) {
+		double[] mean = new double[profiles[0].length];
+		for (double[] p : profiles) {
+			for (int i = 0; i < mean.length; i++) {
+				mean[i] += p[i] / profiles.length;
+			}
+		}
+		return mean;
+	}
+
+	@Test
+	void testReproducible() {
+		ExecutionConfiguration config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(StochasticModel.DEFAULT);
+		InHostProfiles p1 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L);
+		InHostProfiles p2 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L);
+		for (int n = 0; n < 50; n++) {
+			assertArrayEquals(p1.getViralLoad()[n], p2.getViralLoad()[n]);
+			assertArrayEquals(p1.getSeverity()[n], p2.getSeverity()[n]);
+		}
+	}
+
+	@Test
+	void testSameDistribution() {
+		for (InHostConfiguration inHost : Arrays.asList(
+				PhenomenologicalModel.DEFAULT, StochasticModel.DEFAULT,
+				MarkovStateModel.DEFAULT)) {
+			ExecutionConfiguration config = ExecutionConfiguration.DEFAULT
+					.withInHostConfiguration(inHost);
+			double[][] serial = serialViralLoad(config, 1000, 40);
+			double[][] batched = InHostProfiles.simulate(config, 1000, 40)
+					.getViralLoad();
+			double[] serialMean = mean(serial);
+			double[] batchedMean = mean(batched);
+			double[] serialVar = variance(serial);
+			double[] batchedVar = variance(batched);
+			// the profiles are skewed, so compare the means within 5 standard
+			// errors of their difference rather than a fixed proportion
+			for (int i = 0; i < serialMean.length; i++) {
+				double se = Math.sqrt((serialVar[i] + batchedVar[i]) / 1000);
+				assertEquals(serialMean[i], batchedMean[i], 5 * se + 1E-12);
+			}
+		}
+	}
+
+	@Test
+	void testStochasticKernelMatchesObjectKernel() {
+		ExecutionConfiguration config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(StochasticModel.DEFAULT);
+		// the same random draws in the same order so identical results
+		InHostProfiles p1 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L,
+				InHostProfiles.OBJECT_KERNEL);
+		InHostProfiles p2 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L,
+				InHostProfiles.STOCHASTIC_KERNEL);
+		for (int n = 0; n < 50; n++) {
+			assertArrayEquals(p1.getViralLoad()[n], p2.getViralLoad()[n]);
+			assertArrayEquals(p1.getSeverity()[n], p2.getSeverity()[n]);
+		}
+	}
+
+	@Test
+	void testPhenomenologicalKernelMatchesObjectKernel() {
+		ExecutionConfiguration config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(PhenomenologicalModel.DEFAULT);
+		// the model is deterministic after exposure so identical results
+		InHostProfiles p1 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 100, 123L,
+				InHostProfiles.OBJECT_KERNEL);
+		InHostProfiles p2 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 100, 123L,
+				InHostProfiles.PHENOMENOLOGICAL_KERNEL);
+		for (int n = 0; n < 50; n++) {
+			assertArrayEquals(p1.getViralLoad()[n], p2.getViralLoad()[n]);
+			assertArrayEquals(p1.getSeverity()[n], p2.getSeverity()[n]);
+		}
+	}
+
+	@Test
+	void testMarkovKernel() {
+		ExecutionConfiguration config = ExecutionConfiguration.DEFAULT
+				.withInHostConfiguration(MarkovStateModel.DEFAULT);
+		// severity is drawn from the block streams so this is reproducible
+		InHostProfiles p1 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L);
+		InHostProfiles p2 = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 50, 30, 123L);
+		for (int n = 0; n < 50; n++) {
+			assertArrayEquals(p1.getViralLoad()[n], p2.getViralLoad()[n]);
+			assertArrayEquals(p1.getSeverity()[n], p2.getSeverity()[n]);
+		}
+		// and the severity has the same distribution as the object kernel
+		double[][] object = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 1000, 40, 456L,
+				InHostProfiles.OBJECT_KERNEL).getSeverity();
+		double[][] markov = InHostProfiles.simulate(
+				config.getInHostConfiguration(), config, 1000, 40, 789L,
+				InHostProfiles.MARKOV_KERNEL).getSeverity();
+		double[] objectMean = mean(object);
+		double[] markovMean = mean(markov);
+		double[] objectVar = variance(object);
+		double[] markovVar = variance(markov);
+		for (int i = 0; i < objectMean.length; i++) {
+			double se = Math.sqrt((objectVar[i] + markovVar[i]) / 1000);
+			assertEquals(objectMean[i], markovMean[i], 5 * se + 1E-12);
+		}
+	}
+
+}
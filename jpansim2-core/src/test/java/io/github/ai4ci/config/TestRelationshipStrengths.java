@@ -0,0 +1,48 @@
+package io.github.ai4ci.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.config.setup.AgeStratifiedDemography;
+import io.github.ai4ci.config.setup.DemographicConfiguration;
+import io.github.ai4ci.config.setup.ErdosReyniConfiguration;
+import io.github.ai4ci.config.setup.LocationAwareDemography;
+import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.flow.builders.DefaultModelBuilder;
+import io.github.ai4ci.util.Sampler;
+
+public class TestRelationshipStrengths {
+
+	static void compare(DemographicConfiguration demog) {
+		var setup = SetupConfiguration.DEFAULT.withDemographics(demog)
+				.withNetwork(ErdosReyniConfiguration.DEFAULT.withNetworkSize(2000));
+		var outbreak = new DefaultModelBuilder().doSetupOutbreak(
+				Outbreak.createOutbreakStub(), setup, Sampler.getSampler());
+		var edges = setup.getNetwork().generateEdges(Sampler.independent(1L));
+		var sampler = Sampler.getSampler();
+		double[] tabulated = demog.getRelationshipStrengths(outbreak, edges, sampler);
+		double maxErr = 0;
+		for (int e = 0; e < edges.size(); e++) {
+			double exact = demog.getRelationshipStrength(
+					outbreak.getPeople().get(edges.getSource(e)),
+					outbreak.getPeople().get(edges.getTarget(e)),
+					sampler);
+			maxErr = Math.max(maxErr, Math.abs(exact - tabulated[e]));
+			assertEquals(exact, tabulated[e], 2E-6);
+		}
+		System.out.println(demog.getClass().getSimpleName() + " max error: " + maxErr);
+	}
+
+	@Test
+	void testLocationAware() {
+		compare(LocationAwareDemography.DEFAULT);
+	}
+
+	@Test
+	void testAgeStratified() {
+		compare(AgeStratifiedDemography.DEFAULT);
+	}
+
+}
@@ -2,11 +2,24 @@
 package io.github.ai4ci.config.refdata;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.immutables.value.Value;
 import org.junit.jupiter.api.BeforeEach;
@@ -151,6 +164,106 @@ public class RepositoryTest {
         System.out.println(repo.toString());
     }
     
+    static Set<String> describe(Repository repo, Class<?> cls) {
+    	return repo.streamValues(cls).map(Object::toString)
+    			.collect(Collectors.toSet());
+    }
+
+    @Test
+    void testBinaryMatchesCSV() throws Exception {
+    	Class<?>[] types = { Person.class, City.class, Country.class };
+    	Repository csv = Repository.loadAll(dataDir, types);
+    	Repository.compileAll(dataDir, types);
+    	assertTrue(Files.exists(dataDir.resolve("person.bin")));
+
+    	// Binary files are used in preference to the CSV files
+    	for (var name : List.of("person.csv", "city.csv", "country.csv")) {
+    		Files.delete(dataDir.resolve(name));
+    	}
+    	Repository bin = Repository.loadAll(dataDir, types);
+    	for (var cls : types) {
+    		assertEquals(describe(csv, cls), describe(bin, cls));
+    	}
+    	Person diana = bin.findOne("Diana", Person.class, Person::getName);
+    	assertEquals("France", diana.getCity().getCountry().getName());
+    	assertEquals(GivenGender.NON_BINARY, diana.getGivenGender());
+    	assertEquals(2, bin.findValues(
+    			diana.getCity().getCountry(), City.class, City::getCountry).count());
+
+    	// A changed CSV file takes precedence over a stale binary file
+    	setup();
+    	write(dataDir.resolve("city.csv"),
+    			"id,name,country,capital",
+    			"101,Paris,1,TRUE",
+    			"102,Marseille,1,FALSE",
+    			"103,Berlin,2,TRUE",
+    			"104,Hamburg,2,FALSE",
+    			"105,Roma,3,TRUE");
+    	Files.setLastModifiedTime(
+    			dataDir.resolve("city.csv"),
+    			FileTime.fromMillis(System.currentTimeMillis() + 60000));
+    	Repository stale = Repository.loadAll(dataDir, types);
+    	assertEquals("Roma", stale.getValue(City.class, "105").getName());
+    }
+
+    @Test
+    void testConcurrentLookup() throws Exception {
+    	var dir = tempDir.resolve("large");
+    	dir.toFile().mkdir();
+    	var countries = 20;
+    	var cities = 1000;
+    	var people = 50000;
+    	write(dir.resolve("country.csv"), Stream.concat(Stream.of("id,name"),
+    			IntStream.range(0, countries).mapToObj(i -> i + ",Country " + i))
+    			.toArray(String[]::new));
+    	write(dir.resolve("city.csv"), Stream.concat(Stream.of("id,name,country,capital"),
+    			IntStream.range(0, cities).mapToObj(
+    					i -> i + ",City " + i + "," + (i % countries) + "," + (i < countries)))
+    			.toArray(String[]::new));
+    	write(dir.resolve("person.csv"), Stream.concat(Stream.of("id,name,city,givenGender"),
+    			IntStream.range(0, people).mapToObj(
+    					i -> i + ",Person " + i + "," + (i * 7 % cities) + "," + (i % 2 == 0 ? "female" : "male")))
+    			.toArray(String[]::new));
+    	Repository repo = Repository.loadAll(dir, Person.class, City.class, Country.class);
+    	var allCities = repo.streamValues(City.class).collect(Collectors.toList());
+    	Map<City, Set<Person>> expected = repo.streamValues(Person.class)
+    			.collect(Collectors.groupingBy(Person::getCity, Collectors.toSet()));
+
+    	// Many threads racing to build and query the same indexes
+    	var threads = 8;
+    	var pool = Executors.newFixedThreadPool(threads);
+    	var start = new CountDownLatch(1);
+    	var results = new ArrayList<Future<List<Set<Person>>>>();
+    	for (var t = 0; t < threads; t++) {
+    		results.add(pool.submit(() -> {
+    			start.await();
+    			var out = new ArrayList<Set<Person>>();
+    			for (var city : allCities) {
+    				out.add(city.find(Person.class, Person::getCity));
+    				assertEquals(
+    						city.getCountry(),
+    						repo.findOne(city.getName(), City.class, City::getName).getCountry());
+    			}
+    			return out;
+    		}));
+    	}
+    	start.countDown();
+    	var first = results.get(0).get(60, TimeUnit.SECONDS);
+    	for (var result : results) {
+    		var sets = result.get(60, TimeUnit.SECONDS);
+    		for (var i = 0; i < allCities.size(); i++) {
+    			// one index was built and shared by all threads
+    			assertSame(first.get(i), sets.get(i));
+    			assertEquals(
+    					expected.getOrDefault(allCities.get(i), Set.of()),
+    					new HashSet<>(sets.get(i)));
+    		}
+    	}
+    	pool.shutdown();
+    	assertEquals(people, repo.findValues(GivenGender.MALE, Person.class, Person::getGivenGender).count()
+    			+ repo.findValues(GivenGender.FEMALE, Person.class, Person::getGivenGender).count());
+    }
+
     @Test
 	void testCache() {
 		var cache = Inversion.<Integer,Integer>cache(x -> x % 10, IntStream.range(0, 100).boxed());
@@ -0,0 +1,116 @@
+package io.github.ai4ci.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.abm.behaviour.ReactiveTestAndIsolate;
+import io.github.ai4ci.abm.policy.ReactiveLockdown;
+import io.github.ai4ci.config.ExperimentConfiguration;
+import io.github.ai4ci.flow.mechanics.Updater;
+import io.github.ai4ci.output.CSVMapper;
+import io.github.ai4ci.output.ImmutableOutbreakCSV;
+import io.github.ai4ci.util.Cloner;
+
+class TestBranching {
+
+	@Test
+	void testBranchFromTrunk() {
+		var trunk = TestUtils.defaultTest().getOutbreak();
+		var updater = new Updater();
+		for (var i = 0; i < 5; i++) { updater.update(trunk); }
+		var trunkUrn = trunk.getUrn();
+		var trunkPolicy = trunk.getStateMachine().getState();
+		var history = trunk.getHistory().size();
+
+		var exec = TestUtils.MINIMAL_EXECUTION.withName("lockdown")
+				.withDefaultPolicyModelName(ReactiveLockdown.class.getSimpleName())
+				.withDefaultBehaviourModelName(
+						ReactiveTestAndIsolate.class.getSimpleName()
+				);
+		var branch = ExecutionBuilder.branch(Cloner.copy(trunk), exec, "test");
+
+		assertEquals(5, branch.getCurrentState().getTime());
+		assertEquals(history, branch.getHistory().size());
+		assertEquals(
+				ExecutionBuilder.urn("test", trunk.getSetupConfiguration(), exec),
+				branch.getUrn()
+		);
+		assertSame(exec, branch.getExecutionConfiguration());
+		assertEquals(
+				exec.getDefaultPolicyModel(), branch.getStateMachine().getState()
+		);
+		assertEquals(
+				exec.getDefaultPolicyModel(),
+				branch.getBaseline().getDefaultPolicyState()
+		);
+		branch.getPeople().stream().forEach(p -> {
+			assertEquals(
+					exec.getDefaultBehaviourModel(),
+					p.getBaseline().getDefaultBehaviourState()
+			);
+		});
+
+		// The trunk is untouched
+		assertEquals(trunkUrn, trunk.getUrn());
+		assertEquals(trunkPolicy, trunk.getStateMachine().getState());
+		assertNotEquals(trunkUrn, branch.getUrn());
+
+		for (var i = 0; i < 3; i++) { updater.update(branch); }
+		assertEquals(8, branch.getCurrentState().getTime());
+	}
+
+	@Test
+	void testBranchIsReproducible() throws Exception {
+		var trunk = TestUtils.defaultWithAdjustments(
+				s -> s.setInitialImports(5), e -> e
+		).getOutbreak();
+		var updater = new Updater();
+		for (var i = 0; i < 5; i++) { updater.update(trunk); }
+		var exec = TestUtils.MINIMAL_EXECUTION.withName("branch");
+
+		// one worker, so every draw comes from the sampler restarted by the
+		// branch
+		var pool = new ForkJoinPool(1);
+		Callable<List<ImmutableOutbreakCSV>> run = () -> {
+			var branch = ExecutionBuilder.branch(Cloner.copy(trunk), exec, "test");
+			var rows = new ArrayList<ImmutableOutbreakCSV>();
+			for (var i = 0; i < 10; i++) {
+				updater.update(branch);
+				rows.add(CSVMapper.INSTANCE.toCSV(branch.getCurrentState()));
+			}
+			return rows;
+		};
+		var first = pool.submit(run).get();
+		var second = pool.submit(run).get();
+		pool.shutdown();
+		assertTrue(first.get(first.size() - 1).getCumulativeInfections() > 0);
+		assertEquals(first, second);
+	}
+
+	@Test
+	void testTrunks() {
+		assertTrue(ExperimentConfiguration.DEFAULT.getTrunks().isEmpty());
+		var config = ExperimentConfiguration.DEFAULT.withBranchDay(20)
+				.withExecutionReplications(2);
+		var trunks = config.getTrunks();
+		assertEquals(2, trunks.size());
+		for (var i = 0; i < 2; i++) {
+			assertEquals(i, trunks.get(i).getReplicate());
+			assertEquals(
+					config.getExecutionConfig().getName() + ":trunk",
+					trunks.get(i).getName()
+			);
+		}
+	}
+
+}
@@ -0,0 +1,179 @@
+package io.github.ai4ci.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.ai4ci.abm.ImmutableExposure;
+import io.github.ai4ci.abm.ImmutablePersonHistory;
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.config.BatchConfiguration;
+import io.github.ai4ci.config.ExperimentConfiguration;
+import io.github.ai4ci.config.Exporters;
+import io.github.ai4ci.config.ImmutableExperimentConfiguration;
+import io.github.ai4ci.flow.mechanics.Updater;
+import io.github.ai4ci.flow.output.SimulationExporter;
+
+class TestCheckpoint {
+
+	@TempDir
+	Path dir;
+
+	ImmutableExperimentConfiguration config = ExperimentConfiguration.DEFAULT
+			.withBatchConfig(
+					BatchConfiguration.DEFAULT.withCheckpointInterval(2)
+							.withExporters(Exporters.SUMMARY, Exporters.LINELIST)
+			);
+
+	static void run(
+			Outbreak outbreak, SimulationExporter exporter, Checkpoint checkpoint,
+			int toStep
+	) throws Exception {
+		var updater = new Updater();
+		while (outbreak.getCurrentState().getTime() < toStep) {
+			exporter.export(outbreak);
+			updater.update(outbreak);
+			var time = outbreak.getCurrentState().getTime();
+			if (checkpoint.isDue(time) && time < toStep) {
+				checkpoint.save(outbreak, exporter);
+			}
+		}
+	}
+
+	List<Integer> summaryTimes() throws Exception {
+		var lines = Files.readAllLines(this.dir.resolve("summary.csv"));
+		var header = Arrays.asList(lines.get(0).replace("\"", "").split(","));
+		var col = header.indexOf("time");
+		var out = new ArrayList<Integer>();
+		for (var line : lines.subList(1, lines.size())) {
+			out.add(Integer.parseInt(line.replace("\"", "").split(",")[col]));
+		}
+		return out;
+	}
+
+	long lineListRows() throws Exception {
+		try (var conn = DriverManager.getConnection(
+				"jdbc:duckdb:" + this.dir.resolve("linelist.duckdb")
+		); var rs = conn.createStatement()
+				.executeQuery("SELECT count(*) FROM linelist")) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
+
+	@Test
+	void testResumeWithoutDuplicates() throws Exception {
+		var outbreak = TestUtils.defaultTest().getOutbreak();
+		var size = outbreak.getPopulationSize();
+
+		// First run: checkpoint at steps 2 and 4, then write steps 4 and 5
+		// before being interrupted.
+		var checkpoint = Checkpoint.open(this.config, this.dir);
+		assertFalse(checkpoint.isResuming());
+		var exporter = this.config.exporter(this.dir, checkpoint);
+		run(outbreak, exporter, checkpoint, 6);
+		// closing only halts the writers, so wait for them to finish
+		exporter.close();
+		exporter.joinAll();
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), this.summaryTimes());
+
+		// Restart: the rows after step 4 are discarded and the restored
+		// outbreak continues from there.
+		checkpoint = Checkpoint.open(this.config, this.dir);
+		assertTrue(checkpoint.isResuming());
+		assertTrue(checkpoint.isInterrupted(outbreak.getUrn()));
+		assertFalse(checkpoint.isCompleted(outbreak.getUrn()));
+		var restored = checkpoint.restore();
+		assertEquals(4, restored.getCurrentState().getTime());
+		assertEquals(size, restored.getPopulationSize());
+		exporter = this.config.exporter(this.dir, checkpoint);
+		run(restored, exporter, checkpoint, 8);
+		exporter.finalise(restored);
+		checkpoint.complete(restored, exporter);
+		exporter.close();
+		exporter.joinAll();
+
+		assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), this.summaryTimes());
+		assertEquals(8L * size, this.lineListRows());
+
+		// A second restart skips the completed simulation.
+		checkpoint = Checkpoint.open(this.config, this.dir);
+		assertTrue(checkpoint.isCompleted(outbreak.getUrn()));
+		assertFalse(checkpoint.isInterrupted(outbreak.getUrn()));
+		assertEquals(1, checkpoint.getResults().size());
+		checkpoint.finish();
+		assertFalse(Files.exists(this.dir.resolve(Checkpoint.DIRECTORY)));
+	}
+
+	@Test
+	void testDifferentConfigurationStartsAfresh() throws Exception {
+		var outbreak = TestUtils.defaultTest().getOutbreak();
+		var checkpoint = Checkpoint.open(this.config, this.dir);
+		var exporter = this.config.exporter(this.dir, checkpoint);
+		run(outbreak, exporter, checkpoint, 3);
+		exporter.close();
+		exporter.joinAll();
+
+		var changed = this.config.withBatchConfig(
+				this.config.getBatchConfig().withSimulationDuration(
+						this.config.getBatchConfig().getSimulationDuration() + 1
+				)
+		);
+		checkpoint = Checkpoint.open(changed, this.dir);
+		assertFalse(checkpoint.isResuming());
+		assertFalse(checkpoint.isInterrupted(outbreak.getUrn()));
+		try (var files = Files.list(this.dir.resolve(Checkpoint.DIRECTORY))) {
+			assertEquals(0, files.count());
+		}
+
+		// Changing only the checkpoint interval does not invalidate it.
+		assertEquals(
+				Checkpoint.hash(this.config),
+				Checkpoint.hash(
+						this.config.withBatchConfig(
+								this.config.getBatchConfig().withCheckpointInterval(5)
+						)
+				)
+		);
+	}
+
+	@Test
+	void testSnapshotWithExposures() throws Exception {
+		var outbreak = TestUtils.defaultTest().getOutbreak();
+		new Updater().update(outbreak);
+		// give one person a contact exposure today, as the updater would
+		var person = outbreak.getPeople().get(0);
+		person.getHistory().set(
+				0,
+				ImmutablePersonHistory.copyOf(person.getHistory().get(0))
+						.withTodaysExposures(
+								ImmutableExposure.builder().setExposerId(1)
+										.setExposure(0.5).build()
+						)
+		);
+		var checkpoint = Checkpoint.open(this.config, this.dir);
+		checkpoint.saveTrunk(outbreak);
+		var restored = checkpoint.restoreTrunk(outbreak.getUrn());
+		var exposures = restored.getPeople().get(0).getCurrentHistory().get()
+				.getTodaysExposures();
+		assertEquals(1, exposures.length);
+		assertEquals(1, exposures[0].getExposerId());
+		assertEquals(0.5, exposures[0].getExposure());
+		assertEquals(
+				outbreak.getCurrentState().getCumulativeInfections(),
+				restored.getCurrentState().getCumulativeInfections()
+		);
+	}
+
+}
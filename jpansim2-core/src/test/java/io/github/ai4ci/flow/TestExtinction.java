@@ -0,0 +1,143 @@
+package io.github.ai4ci.flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.abm.inhost.InHostMarkovState;
+import io.github.ai4ci.abm.inhost.InHostMarkovState.SymptomState;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+import io.github.ai4ci.flow.mechanics.Updater;
+import io.github.ai4ci.output.CSVMapper;
+
+class TestExtinction {
+
+	static long countActive(Outbreak outbreak) {
+		return outbreak.getPeople().stream()
+				.filter(
+						p -> p.getCurrentState().getInHostModel()
+								.isInfectionActive()
+				).count();
+	}
+
+	static long countExposed(Outbreak outbreak) {
+		return outbreak.getPeople().stream()
+				.filter(p -> p.getCurrentState().getContactExposure() > 0)
+				.count();
+	}
+
+	static Outbreak runToExtinction(Updater updater) {
+		return runToExtinction(
+				updater,
+				TestUtils.defaultWithAdjustments(s -> s.setInitialImports(2), e -> e)
+						.getOutbreak()
+		);
+	}
+
+	static Outbreak runToExtinction(Updater updater, Outbreak outbreak) {
+		assertFalse(outbreak.getCurrentState().isExtinct());
+		while (!outbreak.getCurrentState().isExtinct()) {
+			updater.update(outbreak);
+			assertEquals(
+					countActive(outbreak),
+					outbreak.getCurrentState().getActiveInfectionTally()
+			);
+			assertEquals(
+					countExposed(outbreak),
+					outbreak.getCurrentState().getPendingExposureTally()
+			);
+			assertTrue(outbreak.getCurrentState().getTime() < 200);
+		}
+		return outbreak;
+	}
+
+	@Test
+	void testExtinctionIsFinal() {
+		var updater = new Updater();
+		var outbreak = runToExtinction(updater);
+		var infections = outbreak.getCurrentState().getCumulativeInfections();
+		var deaths = outbreak.getCurrentState().getCumulativeDeaths();
+		assertTrue(infections > 0);
+		for (var i = 0; i < 5; i++) {
+			updater.update(outbreak);
+			assertTrue(outbreak.getCurrentState().isExtinct());
+			assertEquals(0, outbreak.getCurrentState().getIncidence());
+			assertEquals(0, outbreak.getCurrentState().getHospitalisedCount());
+		}
+		assertEquals(
+				infections, outbreak.getCurrentState().getCumulativeInfections()
+		);
+		assertEquals(deaths, outbreak.getCurrentState().getCumulativeDeaths());
+	}
+
+	@Test
+	void testMarkovSymptomsOutlastInfection() {
+		var updater = new Updater();
+		var outbreak = runToExtinction(
+				updater,
+				TestUtils.defaultWithAdjustments(
+						s -> s.setInitialImports(2),
+						e -> e.setInHostConfiguration(MarkovStateModel.DEFAULT)
+				).getOutbreak()
+		);
+		assertTrue(outbreak.getCurrentState().getCumulativeInfections() > 0);
+		// nobody is left part way through the symptom progression
+		outbreak.getPeople().stream().forEach(p -> {
+			var inHost = (InHostMarkovState) p.getCurrentState().getInHostModel();
+			assertTrue(
+					inHost.getSymptomState() == SymptomState.ASYMPTOMATIC
+							|| inHost.getSymptomState() == SymptomState.DEAD
+			);
+			assertFalse(
+					p.getTestLedger()
+							.isPendingAfter(p.getCurrentState().getTime() - 1)
+			);
+		});
+		var deaths = outbreak.getCurrentState().getCumulativeDeaths();
+		for (var i = 0; i < 20; i++) {
+			updater.update(outbreak);
+		}
+		assertEquals(deaths, outbreak.getCurrentState().getCumulativeDeaths());
+		assertEquals(0, outbreak.getCurrentState().getHospitalisedCount());
+	}
+
+	@Test
+	void testFastForwardSummary() {
+		var outbreak = runToExtinction(new Updater());
+		var state = outbreak.getCurrentState();
+		var time = state.getTime();
+		var rows = CSVMapper.INSTANCE.toFastForwardCSV(state, time + 5)
+				.collect(Collectors.toList());
+		assertEquals(4, rows.size());
+		for (var i = 0; i < rows.size(); i++) {
+			var row = rows.get(i);
+			assertEquals(time + 1 + i, row.getTime());
+			assertEquals(0, row.getIncidence());
+			assertEquals(0, row.getInfectedCount());
+			assertEquals(0, row.getHospitalisedCount());
+			assertEquals(
+					state.getCumulativeInfections(), row.getCumulativeInfections()
+			);
+			assertEquals(state.getCumulativeDeaths(), row.getCumulativeDeaths());
+			// behaviour, immunity and testing can still change
+			assertNull(row.getAverageMobility());
+			assertNull(row.getAverageImmuneActivity());
+			assertNull(row.getSymptomaticCount());
+			assertNull(row.getTestNegativesByResultDate());
+			assertEquals(
+					CSVMapper.INSTANCE.toCSV(state).getModelName(), row.getModelName()
+			);
+		}
+		assertEquals(
+				0, CSVMapper.INSTANCE.toFastForwardCSV(state, time + 1).count()
+		);
+	}
+
+}
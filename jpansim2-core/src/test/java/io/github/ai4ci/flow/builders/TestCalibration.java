@@ -1,5 +1,6 @@
 package io.github.ai4ci.flow.builders;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.Arrays;
@@ -79,6 +80,18 @@ class TestCalibration {
 		System.out.println("R0="+(Calibration.maxR0(out2)-0.01)+", param="+param30+", trans="+Arrays.toString(pTrans_3.getProfile()));
 	}
 
+	@Test
+	void testHistogramEstimator() {
+		double[][] prof = out.getExecutionConfiguration().getViralLoadProfile();
+		Calibration.HistogramEstimator est = new Calibration.HistogramEstimator(out, prof);
+		for (double c : new double[] {0.001, 0.01, 0.1, 1.0, Double.POSITIVE_INFINITY}) {
+			double exact = Calibration.expectedExposuresPerInfection(out, prof, c);
+			double approx = est.expectedExposuresPerInfection(c);
+			System.out.println(c+": "+exact+"="+approx);
+			assertEquals(exact, approx, 0.01 * Math.max(exact, 1.0));
+		}
+	}
+
 	@Test
 	void testIFREtcetera() {
 		System.out.println(Calibration.inferSeverityCutoff(out,0.1));
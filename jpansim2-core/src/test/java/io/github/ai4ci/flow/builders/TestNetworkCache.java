@@ -0,0 +1,92 @@
+package io.github.ai4ci.flow.builders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.ai4ci.abm.ModifiableOutbreak;
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.SocialRelationship;
+import io.github.ai4ci.config.setup.AgeStratifiedDemography;
+import io.github.ai4ci.config.setup.ErdosReyniConfiguration;
+import io.github.ai4ci.config.setup.ImmutableSetupConfiguration;
+import io.github.ai4ci.config.setup.SetupConfiguration;
+import io.github.ai4ci.util.Sampler;
+import it.unimi.dsi.fastutil.ints.IntIntPair;
+
+class TestNetworkCache {
+
+	@TempDir
+	Path dir;
+
+	ImmutableSetupConfiguration setup = SetupConfiguration.DEFAULT
+			.withDemographics(AgeStratifiedDemography.DEFAULT)
+			.withNetwork(ErdosReyniConfiguration.DEFAULT.withNetworkSize(2000));
+
+	static Map<IntIntPair, Double> edges(Outbreak outbreak) {
+		Map<IntIntPair, Double> out = new HashMap<>();
+		outbreak.getSocialNetwork().parallelStream().forEach(r -> {
+			synchronized (out) {
+				out.put(r.getPeopleIds(), r.getRelationshipStrength());
+			}
+		});
+		return out;
+	}
+
+	@Test
+	void testRoundTrip() {
+		var cache = new NetworkCache(this.dir);
+		ModifiableOutbreak generated = cache.setupOutbreak(
+				new DefaultModelBuilder(), Outbreak.createOutbreakStub(),
+				this.setup, Sampler.getSampler()
+		);
+		assertTrue(Files.exists(cache.fileFor(this.setup)));
+
+		ModifiableOutbreak loaded = cache.setupOutbreak(
+				new DefaultModelBuilder(), Outbreak.createOutbreakStub(),
+				this.setup, Sampler.getSampler()
+		);
+
+		assertEquals(generated.getPopulationSize(), loaded.getPopulationSize());
+		for (var i = 0; i < generated.getPopulationSize(); i++) {
+			var d1 = generated.getPersonById(i).get().getDemographic();
+			var d2 = loaded.getPersonById(i).get().getDemographic();
+			assertEquals(d1.getAge(), d2.getAge());
+			assertEquals(d1.getLocationX(), d2.getLocationX());
+			assertEquals(d1.getLocationY(), d2.getLocationY());
+		}
+		assertEquals(edges(generated), edges(loaded));
+		SocialRelationship r = loaded.getSocialNetwork().get(0);
+		assertSame(loaded, r.getSource(loaded).getOutbreak());
+	}
+
+	@Test
+	void testKey() {
+		var cache = new NetworkCache(this.dir);
+		assertEquals(
+				cache.fileFor(this.setup),
+				cache.fileFor(this.setup.withName("renamed"))
+		);
+		assertNotEquals(
+				cache.fileFor(this.setup),
+				cache.fileFor(this.setup.withReplicate(1))
+		);
+		assertNotEquals(
+				cache.fileFor(this.setup), cache.fileFor(
+						this.setup.withNetwork(
+								ErdosReyniConfiguration.DEFAULT.withNetworkSize(2001)
+						)
+				)
+		);
+	}
+
+}
@@ -0,0 +1,52 @@
+package io.github.ai4ci.flow.mechanics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.ImmutableExposure;
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.Person;
+import io.github.ai4ci.abm.PersonState;
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.config.inhost.MarkovStateModel;
+
+public class TestPersonStateContacts {
+
+	@Test
+	void testDoseReplacesDuplicates() {
+		var contacts = new PersonStateContacts(3, 2);
+		contacts.addExposure(0, ImmutableExposure.builder().setExposerId(1).setExposure(0.5).build());
+		contacts.addExposure(0, ImmutableExposure.builder().setExposerId(2).setExposure(0.25).build());
+		contacts.addExposure(0, ImmutableExposure.builder().setExposerId(1).setExposure(0.125).build());
+		assertEquals(0.375, contacts.getDoseForId(0));
+		assertEquals(0, contacts.getDoseForId(1));
+		assertEquals(2, contacts.getExposuresForId(0).length);
+	}
+
+	@Test
+	void testDoseMatchesHistory() {
+		Outbreak o = TestUtils.defaultWithExecution(
+				exec -> exec.setInHostConfiguration(MarkovStateModel.DEFAULT)
+						.setImportationProbability(0.2)).getOutbreak();
+		Updater u = new Updater();
+		double total = 0;
+		for (int i = 0; i < 30; i++) {
+			u.update(o);
+			for (Person p : o.getPeople().stream().collect(Collectors.toList())) {
+				// the current state holds the dose from the latest history entry
+				var summed = Arrays.stream(p.getCurrentHistory().get().getTodaysExposures())
+						.mapToDouble(e -> e.getExposure()).sum();
+				var dose = p.getCurrentState().getContactExposure();
+				assertEquals(Math.min(PersonState.MAX_EXPOSURE, summed), dose, 1E-8);
+				total += dose;
+			}
+		}
+		assertTrue(total > 0);
+	}
+
+}
@@ -0,0 +1,80 @@
+package io.github.ai4ci.flow.mechanics;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.abm.behaviour.LockdownIsolation;
+import io.github.ai4ci.abm.behaviour.NonCompliant;
+
+public class TestPhaseOwnership {
+
+	static Throwable[] writeFromTwoThreads(Outbreak o, boolean barrier) throws InterruptedException {
+		var start = new CyclicBarrier(2);
+		var errors = new Throwable[2];
+		var states = new State.BehaviourState[] {LockdownIsolation.ISOLATE, NonCompliant.ALIVE};
+		var threads = new Thread[2];
+		for (int i = 0; i < 2; i++) {
+			final int t = i;
+			threads[i] = new Thread(() -> {
+				try {
+					if (!barrier) start.await();
+					for (int r = 0; r < 20; r++) {
+						o.getPeople().stream().forEach(p -> p.getStateMachine().forceTo(states[t]));
+					}
+				} catch (Throwable e) {
+					errors[t] = e;
+				}
+			});
+		}
+		if (barrier) {
+			// one thread after the other, in separate phases
+			for (Thread thread : threads) {
+				thread.start();
+				thread.join();
+				PhaseOwnership.barrier();
+			}
+		} else {
+			for (Thread thread : threads) thread.start();
+			for (Thread thread : threads) thread.join();
+		}
+		return errors;
+	}
+
+	@Test
+	void testDetectsConcurrentWriters() throws InterruptedException {
+		assertTrue(PhaseOwnership.ENABLED, "tests should run with assertions enabled");
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		PhaseOwnership.barrier();
+		var errors = writeFromTwoThreads(o, false);
+		assertTrue(
+				errors[0] instanceof ConcurrentModificationException
+				|| errors[1] instanceof ConcurrentModificationException);
+	}
+
+	@Test
+	void testSeparatePhasesAllowed() throws InterruptedException {
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		PhaseOwnership.barrier();
+		var errors = writeFromTwoThreads(o, true);
+		assertNull(errors[0]);
+		assertNull(errors[1]);
+	}
+
+	@Test
+	void testUpdateHasSingleWriters() {
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		Updater u = new Updater();
+		assertDoesNotThrow(() -> {
+			for (int i = 0; i < 20; i++) u.update(o);
+		});
+	}
+
+}
@@ -1,8 +1,14 @@
 package io.github.ai4ci.flow.mechanics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
 
+import io.github.ai4ci.abm.Contact;
+
 import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.Person;
 import io.github.ai4ci.abm.TestUtils;
 import io.github.ai4ci.abm.behaviour.ReactiveTestAndIsolate;
 import io.github.ai4ci.config.inhost.MarkovStateModel;
@@ -52,5 +58,42 @@ void testRiskModel() {
 		);
 	}
 }
-	
+
+	// The indirect log odds recalculated by looking up every detected contact
+	static double pulledIndirectLogOdds(Person p) {
+		var risk = p.getCurrentState().getRiskModel();
+		var kernel = risk.getContactsKernel();
+		var logOdds = 0D;
+		for (int i = 0; i < kernel.retrospectiveSize(); i++) {
+			var ph = p.getHistory(i);
+			if (ph.isEmpty()) break;
+			for (Contact c : ph.get().getTodaysContacts()) {
+				if (c.isDetected()) {
+					logOdds += c.getParticipantState(ph.get()).getRiskModel()
+							.getDirectLogOddsInPast(i) * kernel.getDensity(i);
+				}
+			}
+		}
+		return logOdds;
+	}
+
+	@Test
+	void testPushedIndirectLogOdds() {
+		Outbreak o = config.getOutbreak();
+		o.getPeople().stream().forEach(p ->
+			p.getStateMachine().forceTo(ReactiveTestAndIsolate.REACTIVE_PCR)
+		);
+		Updater u = new Updater();
+		long informative = 0;
+		for (int i = 0; i < 40; i++) {
+			u.update(o);
+			informative += o.getPeople().stream().filter(p -> {
+				double pushed = p.getCurrentState().getRiskModel().getIndirectLogOdds();
+				assertEquals(pulledIndirectLogOdds(p), pushed, 1E-6);
+				return pushed != 0;
+			}).count();
+		}
+		assertTrue(informative > 0);
+	}
+
 }
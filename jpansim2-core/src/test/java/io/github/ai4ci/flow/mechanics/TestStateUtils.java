@@ -0,0 +1,66 @@
+package io.github.ai4ci.flow.mechanics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.Outbreak;
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.abm.behaviour.LockdownIsolation;
+import io.github.ai4ci.util.Sampler;
+
+public class TestStateUtils {
+
+	@Test
+	void testBranchAndReturn() {
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		var before = o.getPeople().stream()
+				.map(p -> p.getStateMachine().getState()).collect(Collectors.toList());
+
+		StateUtils.branchPeopleTo(o.getCurrentState(), LockdownIsolation.ISOLATE);
+		o.getPeople().stream().forEach(p -> assertEquals(
+				LockdownIsolation.ISOLATE, p.getStateMachine().getState()));
+
+		StateUtils.returnPeopleFromBranch(o.getCurrentState());
+		for (int i = 0; i < before.size(); i++) {
+			assertEquals(before.get(i), o.getPeople().get(i).getStateMachine().getState());
+		}
+	}
+
+	@Test
+	void testRandomBranch() {
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		StateUtils.branchPeopleTo(o.getCurrentState(), LockdownIsolation.ISOLATE,
+				p -> p.getId() % 2 == 0, 0.5, Sampler.independent(1L));
+		long odd = o.getPeople().stream()
+				.filter(p -> p.getId() % 2 == 1)
+				.filter(p -> p.getStateMachine().getState() == LockdownIsolation.ISOLATE)
+				.count();
+		long even = o.getPeople().stream()
+				.filter(p -> p.getId() % 2 == 0)
+				.filter(p -> p.getStateMachine().getState() == LockdownIsolation.ISOLATE)
+				.count();
+		assertEquals(0, odd);
+		assertTrue(even > 0 && even < o.getPopulationSize() / 2);
+	}
+
+	@Test
+	void testBehaviourTally() {
+		Outbreak o = TestUtils.defaultTest().getOutbreak();
+		Updater u = new Updater();
+		for (int i = 0; i < 20; i++) {
+			u.update(o);
+			var tally = o.getCurrentState().getBehaviourTally();
+			var scanned = o.getPeople().stream().collect(Collectors.groupingBy(
+					p -> p.getCurrentState().getBehaviour(), Collectors.counting()));
+			assertEquals(scanned, o.getCurrentState().getBehaviourCounts());
+			o.getPeople().stream().map(p -> p.getStateMachine().getState())
+					.distinct().forEach(s -> assertEquals(
+							(long) scanned.get(s.getName()), tally.get(s)));
+		}
+	}
+
+}
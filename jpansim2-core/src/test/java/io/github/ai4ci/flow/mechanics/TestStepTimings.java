@@ -0,0 +1,66 @@
+package io.github.ai4ci.flow.mechanics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.TestUtils;
+import io.github.ai4ci.flow.mechanics.StepTimings.Section;
+import io.github.ai4ci.output.CSVMapper;
+
+public class TestStepTimings {
+
+	@Test
+	void testSectionsAccumulate() {
+		var timings = new StepTimings("test");
+		var t = timings.start();
+		var junk = new long[1024 * 1024];
+		t = timings.lap("one", t);
+		t = timings.lap("two", t);
+		timings.lap("one", t);
+		assertEquals(1024 * 1024, junk.length);
+		assertEquals(
+				Arrays.asList("one", "two"),
+				timings.getSections().stream().map(Section::getName)
+						.collect(Collectors.toList())
+		);
+		var one = timings.getSections().get(0);
+		assertTrue(one.getDurationNanos() > 0);
+		// at least the 8Mb array, where the JVM supports allocation accounting
+		assertTrue(
+				one.getProcessAllocatedBytes() >= 8 * 1024 * 1024
+						|| one.getProcessAllocatedBytes() == 0
+		);
+		timings.reset(3);
+		assertEquals(3, timings.getStep());
+		assertTrue(timings.getSections().isEmpty());
+	}
+
+	@Test
+	void testUpdaterPhases() {
+		var outbreak = TestUtils.defaultTest().getOutbreak();
+		var timings = new StepTimings(outbreak.getUrn());
+		var updater = new Updater().withTimings(timings);
+		timings.reset(outbreak.getCurrentState().getTime());
+		updater.update(outbreak);
+		assertEquals(
+				Arrays.stream(Updater.Phase.values()).map(Enum::name)
+						.collect(Collectors.toList()),
+				timings.getSections().stream().map(Section::getName)
+						.collect(Collectors.toList())
+		);
+		var rows = CSVMapper.INSTANCE.toTimingsCSV(outbreak, timings)
+				.collect(Collectors.toList());
+		assertEquals(Updater.Phase.values().length, rows.size());
+		assertEquals(0, rows.get(0).getTime());
+		assertEquals(
+				timings.getTotalNanos(),
+				rows.stream().mapToLong(r -> r.getDurationNanos()).sum()
+		);
+	}
+
+}
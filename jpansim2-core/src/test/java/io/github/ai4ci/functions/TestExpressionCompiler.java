@@ -0,0 +1,168 @@
+package io.github.ai4ci.functions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.mariuszgromada.math.mxparser.Argument;
+import org.mariuszgromada.math.mxparser.Expression;
+import org.mariuszgromada.math.mxparser.License;
+import org.mariuszgromada.math.mxparser.mXparser;
+
+import io.github.ai4ci.util.Cloner;
+
+/**
+ * Tests for {@link ExpressionCompiler}: compiled expressions agree with
+ * mXparser, unsupported syntax is rejected, and functions fall back to
+ * mXparser when an expression cannot be compiled.
+ *
+ * Author: Rob Challen
+ */
+public class TestExpressionCompiler {
+
+	static {
+		License.iConfirmNonCommercialUse("rob.challen@bristol.ac.uk");
+		mXparser.disableUlpRounding();
+		mXparser.disableCanonicalRounding();
+		mXparser.disableAlmostIntRounding();
+	}
+
+	static final String[] EXPRESSIONS = { "2*x+1", "-x^2", "2^-x", "2^3^x",
+			"(x-45)/10*lg(2)", "exp((x-45)/10*ln(2))", "1.5e-3*x + 2E2",
+			"log(2, x+1)", "log2(x+1) - log10(x+1)", "sqrt(abs(x-3))",
+			"sin(x)*cos(x)/tan(x+0.1)", "atan(x) + arcsin(x/100) + tanh(x)",
+			"if(x < 3, x, 3)", "if(x >= 2 & x <= 5, 1, 0)",
+			"(x < 1) | (x > 7)", "~(x = 4)", "x <> 4", "min(x, 5, 2*x)",
+			"max(x, pi, e)", "floor(x/3) + ceil(x/3) + sgn(x-5)", "+x - -x" };
+
+	static double mx(String expression, double x) {
+		var arg = new Argument("x");
+		var exp = new Expression(expression, arg);
+		arg.setArgumentValue(x);
+		return exp.calculate();
+	}
+
+	@Test
+	public void testAgreesWithMXParser() {
+		for (var expression : EXPRESSIONS) {
+			var compiled = ExpressionCompiler.compile(expression, "x");
+			for (var x = 0.5; x < 10; x += 0.5) {
+				assertEquals(
+					mx(expression, x),
+					compiled.applyAsDouble(x),
+					1e-12,
+					expression + " at x = " + x
+				);
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledIsSerializable() {
+		var compiled = ExpressionCompiler.compile("if(x < 3, exp(x), x^2)", "x");
+		var copy = Cloner.copy(compiled);
+		assertEquals(compiled.applyAsDouble(2), copy.applyAsDouble(2));
+		assertEquals(compiled.applyAsDouble(4), copy.applyAsDouble(4));
+	}
+
+	@Test
+	public void testFallbackToMXParser() {
+		// implied multiplication is not supported by the compiler
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> ExpressionCompiler.compile("2x", "x")
+		);
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> ExpressionCompiler.compile("gamma(x)", "x")
+		);
+		assertThrows(
+			IllegalArgumentException.class,
+			() -> ExpressionCompiler.compile("y+1", "x")
+		);
+
+		MathematicalFunction mf = ImmutableMathematicalFunction.builder()
+			.setFXExpression("2x+1")
+			.setMinimum(0.0)
+			.setMaximum(10.0)
+			.build();
+		assertNull(mf.getCompiled());
+		assertEquals(5.0, mf.value(2.0), 1e-6);
+
+		DiscreteFunction df = ImmutableDiscreteFunction.builder()
+			.setFTExpression("0.1t")
+			.setMinimum(0)
+			.setMaximum(5)
+			.setSum(1)
+			.build();
+		assertNull(df.getCompiled());
+		assertEquals(0.2, df.rawValue(2), 1e-9);
+	}
+
+	@Test
+	public void testFunctionsEvaluateDirectly() {
+		MathematicalFunction mf = ImmutableMathematicalFunction.builder()
+			.setFXExpression("(x-45)/10*lg(2)")
+			.setMinimum(0.0)
+			.setMaximum(100.0)
+			.setLink(LinkFunction.LOG)
+			.build();
+		assertNotNull(mf.getCompiled());
+		for (var x = 0.25; x < 100; x += 7.3) {
+			var expected = Math.exp((x - 45) / 10 * Math.log10(2));
+			assertEquals(expected, mf.value(x), 1e-12);
+			assertEquals(
+				expected * Math.log10(2) / 10,
+				mf.differential(x),
+				1e-6
+			);
+		}
+
+		DiscreteFunction df = ImmutableDiscreteFunction.builder()
+			.setFTExpression("exp(-t/2)/2")
+			.setMinimum(0)
+			.setMaximum(5)
+			.setSum(1)
+			.build();
+		assertNotNull(df.getCompiled());
+		assertEquals(Math.exp(-1.5) / 2, df.rawValue(3), 1e-15);
+	}
+
+	@Test
+	public void testFunctionsEqualByExpression() {
+		var mf1 = ImmutableMathematicalFunction.builder()
+			.setFXExpression("2*x+1")
+			.setMinimum(0.0)
+			.setMaximum(10.0)
+			.build();
+		var mf2 = ImmutableMathematicalFunction.builder()
+			.setFXExpression("2*x+1")
+			.setMinimum(0.0)
+			.setMaximum(10.0)
+			.build();
+		assertNotNull(mf1.getCompiled());
+		assertEquals(mf1, mf2);
+		assertEquals(mf1.hashCode(), mf2.hashCode());
+		assertNotEquals(mf1, mf2.withFXExpression("2*x+2"));
+
+		var df1 = ImmutableDiscreteFunction.builder()
+			.setFTExpression("exp(-t/2)/2")
+			.setMinimum(0)
+			.setMaximum(5)
+			.setSum(1)
+			.build();
+		var df2 = ImmutableDiscreteFunction.builder()
+			.setFTExpression("exp(-t/2)/2")
+			.setMinimum(0)
+			.setMaximum(5)
+			.setSum(1)
+			.build();
+		assertNotNull(df1.getCompiled());
+		assertEquals(df1, df2);
+		assertEquals(df1.hashCode(), df2.hashCode());
+		assertEquals(df1, Cloner.copy(df1));
+	}
+}
@@ -0,0 +1,75 @@
+package io.github.ai4ci.functions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.statistics.distribution.BetaDistribution;
+import org.apache.commons.statistics.distribution.ContinuousDistribution;
+import org.apache.commons.statistics.distribution.LogNormalDistribution;
+import org.apache.commons.statistics.distribution.NormalDistribution;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Tests for {@link QuantileTable}: the tabulated quantile function of an
+ * empirical distribution stays close to the spline it replaces.
+ *
+ * Author: Rob Challen
+ */
+public class TestSamplingTables {
+
+	static Stream<Arguments> distributions() {
+		return Stream.of(
+			Arguments.of(
+				LinkFunction.NONE,
+				DoubleStream.iterate(20, d -> d < 80, d -> d + 5)
+					.toArray(),
+				NormalDistribution.of(50, 5)
+			),
+			Arguments.of(
+				LinkFunction.LOG,
+				DoubleStream.iterate(10, d -> d < 160, d -> d + 1)
+					.toArray(),
+				LogNormalDistribution.of(3, 0.25)
+			),
+			Arguments.of(
+				LinkFunction.LOGIT,
+				DoubleStream.iterate(0.01, d -> d < 1, d -> d + 0.01)
+					.toArray(),
+				BetaDistribution.of(2.0, 5.0)
+			)
+		);
+	}
+
+	@ParameterizedTest @MethodSource("distributions")
+	void testEmpiricalQuantileAccuracy(
+			LinkFunction link, double[] x, ContinuousDistribution ref
+	) {
+		var dist = ImmutableEmpiricalDistribution.builder()
+			.setLink(link)
+			.setX(x)
+			.setCumulativeProbability(
+				Arrays.stream(x).map(ref::cumulativeProbability).toArray()
+			)
+			.setMinimum(ref.inverseCumulativeProbability(0.0001))
+			.setMaximum(ref.inverseCumulativeProbability(0.9999))
+			.build();
+		var table = dist.getSamplingTable();
+		var range = dist.getQuantile(0.999) - dist.getQuantile(0.001);
+		var maxErr = 0D;
+		for (var p = 0.0; p <= 1; p += 1.0 / 99991) {
+			maxErr = Math.max(
+				maxErr,
+				Math.abs(table.quantile(p) - dist.getQuantile(p))
+			);
+		}
+		assertTrue(maxErr < 0.01 * range, link + " error " + maxErr);
+		assertEquals(dist.getQuantile(0), table.quantile(0));
+		assertEquals(dist.getQuantile(1), table.quantile(1));
+	}
+}
@@ -0,0 +1,110 @@
+package io.github.ai4ci.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.ai4ci.abm.riskmodel.ConvolutionFilter;
+import io.github.ai4ci.functions.DelayDistribution;
+import io.github.ai4ci.functions.ImmutableGaussianKernel;
+
+/**
+ * Tests for {@link DoubleArrayView}: indexed reads of array attributes through
+ * the views allocate nothing, while the array accessors still return copies.
+ *
+ * Author: Rob Challen
+ */
+public class TestDoubleArrayView {
+
+	static final int N = 100000;
+
+	static double sink = 0;
+
+	/**
+	 * Bytes allocated by this thread while running a task, after running it
+	 * once to warm up.
+	 */
+	static long allocated(Runnable task) {
+		var threads = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+		var id = Thread.currentThread().getId();
+		task.run();
+		var before = threads.getThreadAllocatedBytes(id);
+		task.run();
+		return threads.getThreadAllocatedBytes(id) - before;
+	}
+
+	@Test
+	public void testNoCopiesPerAccess() {
+		var filter = ConvolutionFilter.from(2, 0.1, 0.2, 0.4, 0.2, 0.1);
+		var delay = DelayDistribution.discretisedGamma(5, 2).conditionedOn(0.8);
+		var kernel = ImmutableGaussianKernel.builder()
+			.setMinimum(-3)
+			.setMaximum(7)
+			.setMu(2)
+			.setSigma(3)
+			.setSum(5)
+			.build();
+
+		var copying = allocated(() -> {
+			for (var i = 0; i < N; i++) {
+				sink += filter.getDensity()[i % filter.size()];
+			}
+		});
+		// Each access copies the 5 element array
+		assertTrue(copying > N * 5 * Double.BYTES, "copying " + copying);
+
+		// Allow a little for the allocation measurement itself
+		var filterBytes = allocated(() -> {
+			for (var i = 0; i < N; i++) {
+				sink += filter.getDensity(i % 7 - 3);
+			}
+		});
+		assertTrue(filterBytes < 1024, "filter " + filterBytes);
+
+		var delayBytes = allocated(() -> {
+			for (var i = 0; i < N; i++) {
+				var x = i % 20;
+				sink += delay.density(x) + delay.hazard(x) + delay.profile(x)
+						+ delay.condDensity(x) + delay.cumulative(x);
+			}
+		});
+		assertTrue(delayBytes < 1024, "delay " + delayBytes);
+
+		var kernelBytes = allocated(() -> {
+			for (var i = 0; i < N; i++) { sink += kernel.value(i % 11 - 3); }
+		});
+		assertTrue(kernelBytes < 1024, "kernel " + kernelBytes);
+	}
+
+	@Test
+	public void testViewsMatchArrays() {
+		var filter = ConvolutionFilter.from(1, 0.25, 0.5, 0.25);
+		for (var i = -2; i < 4; i++) {
+			var index = i + filter.getOffset();
+			var expected = index < 0 || index >= 3 ? 0 : filter.getDensity()[index];
+			assertEquals(expected, filter.getDensity(i));
+		}
+		var delay = DelayDistribution.discretisedGamma(5, 2).conditionedOn(0.8);
+		for (var i = 0; i < delay.size(); i++) {
+			assertEquals(delay.density()[i], delay.density(i));
+			assertEquals(delay.hazard()[i], delay.hazard(i));
+			assertEquals(delay.survival()[i], 1 - delay.cumulative(i), 1e-12);
+		}
+		assertEquals(0, delay.density(-1));
+		assertEquals(0, delay.density((int) delay.size()));
+
+		// The array accessors still hand out copies
+		assertNotSame(filter.getDensity(), filter.getDensity());
+		var copy = filter.getDensityView().toArray();
+		copy[0] = 99;
+		assertArrayEquals(new double[] { 0.25, 0.5, 0.25 }, filter.getDensity());
+		assertEquals(0.25, filter.getDensity(-1));
+	}
+
+}
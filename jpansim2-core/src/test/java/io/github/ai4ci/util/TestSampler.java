@@ -0,0 +1,91 @@
+package io.github.ai4ci.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.statistics.distribution.BinomialDistribution;
+import org.apache.commons.statistics.distribution.DiscreteDistribution;
+import org.apache.commons.statistics.distribution.PoissonDistribution;
+import org.junit.jupiter.api.Test;
+
+public class TestSampler {
+
+	@Test
+	void testSampleWithoutReplacement() {
+		var rng = Sampler.independent(1L);
+		int n = 50;
+		int k = 10;
+		int reps = 20000;
+		int[] counts = new int[n];
+		for (int r = 0; r < reps; r++) {
+			int[] out = rng.sampleWithoutReplacement(n, k);
+			assertEquals(k, out.length);
+			for (int i = 0; i < out.length; i++) {
+				assertTrue(out[i] >= 0 && out[i] < n);
+				if (i > 0) assertTrue(out[i] > out[i - 1], "not distinct");
+				counts[out[i]]++;
+			}
+		}
+		// every index is equally likely to be chosen
+		double expected = (double) reps * k / n;
+		for (int c : counts) {
+			assertEquals(expected, c, 5 * Math.sqrt(expected));
+		}
+		assertEquals(0, rng.sampleWithoutReplacement(n, 0).length);
+		assertEquals(n, rng.sampleWithoutReplacement(n, n).length);
+	}
+
+	// Compare sample frequencies with the exact probability mass function
+	static void assertMatches(DiscreteDistribution dist, int[] samples) {
+		var counts = new java.util.HashMap<Integer, Integer>();
+		double mean = 0;
+		for (int s : samples) {
+			counts.merge(s, 1, Integer::sum);
+			mean += (double) s / samples.length;
+		}
+		assertEquals(dist.getMean(), mean,
+				5 * Math.sqrt(dist.getVariance() / samples.length) + 1E-9);
+		for (var e : counts.entrySet()) {
+			assertTrue(dist.probability(e.getKey()) > 0, "impossible " + e.getKey());
+		}
+		int lo = dist.inverseCumulativeProbability(0.001);
+		int hi = dist.inverseCumulativeProbability(0.999);
+		for (int k = lo; k <= hi; k++) {
+			double p = dist.probability(k);
+			double observed = (double) counts.getOrDefault(k, 0) / samples.length;
+			assertEquals(p, observed, 5 * Math.sqrt(p * (1 - p) / samples.length) + 1E-9,
+					dist + " at " + k);
+		}
+	}
+
+	@Test
+	void testBinomial() {
+		var rng = Sampler.independent(3L);
+		int reps = 100000;
+		// inversion and BTPE, each side of p = 0.5
+		int[][] params = { { 10, 30 }, { 100, 500 }, { 1000, 100 }, { 5000, 970 } };
+		for (int[] np : params) {
+			int n = np[0];
+			double p = np[1] / 1000.0;
+			int[] samples = new int[reps];
+			for (int i = 0; i < reps; i++) samples[i] = rng.binom(n, p);
+			assertMatches(BinomialDistribution.of(n, p), samples);
+		}
+		assertEquals(0, rng.binom(0, 0.5));
+		assertEquals(7, rng.binom(7, 1));
+	}
+
+	@Test
+	void testPoisson() {
+		var rng = Sampler.independent(4L);
+		int reps = 100000;
+		// multiplication and PTRS
+		for (double mean : new double[] { 0.5, 4, 12, 250, 40000 }) {
+			int[] samples = new int[reps];
+			for (int i = 0; i < reps; i++) samples[i] = rng.poisson(mean);
+			assertMatches(PoissonDistribution.of(mean), samples);
+		}
+		assertEquals(0, rng.poisson(0));
+	}
+
+}